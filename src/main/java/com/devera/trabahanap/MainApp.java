@@ -1,6 +1,11 @@
 package com.devera.trabahanap;
 
+import com.devera.trabahanap.service.JobRefresher;
+import com.devera.trabahanap.service.JobSweeper;
+import com.devera.trabahanap.service.outbox.WriteOutbox;
+import com.devera.trabahanap.system.Config;
 import javafx.application.Application;
+import javafx.beans.InvalidationListener;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
@@ -16,9 +21,27 @@ public class MainApp extends Application {
         if (MainApp.class.getResource("/css/app.css") != null) {
             scene.getStylesheets().add(getClass().getResource("/css/app.css").toExternalForm());
         }
+        // Resume uploading writes left in the outbox by a previous run
+        try {
+            WriteOutbox.get();
+        } catch (RuntimeException e) {
+            System.err.println("[MainApp] Outbox unavailable: " + e.getMessage());
+        }
+        // Archive expired jobs in the background if this install is configured to
+        long sweepMinutes = Config.getLong("jobs.sweepMinutes", 0);
+        if (sweepMinutes > 0) JobSweeper.get().start(sweepMinutes * 60_000);
+
         stage.setTitle("TrabaHanap");
         stage.setScene(scene);
         stage.show();
+
+        // Refresh job lists in the background, only while the window is in front
+        JobRefresher refresher = JobRefresher.get();
+        InvalidationListener inFront = obs -> refresher.setActive(stage.isFocused() && !stage.isIconified());
+        stage.focusedProperty().addListener(inFront);
+        stage.iconifiedProperty().addListener(inFront);
+        inFront.invalidated(null);
+        refresher.start();
     }
 
     public static void main(String[] args) {
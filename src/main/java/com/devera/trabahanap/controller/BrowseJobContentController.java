@@ -1,23 +1,63 @@
 package com.devera.trabahanap.controller;
 
 import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.geo.Gazetteer;
+import com.devera.trabahanap.geo.GeoPoint;
+import com.devera.trabahanap.geo.Place;
+import com.devera.trabahanap.search.JobSearchIndex;
+import com.devera.trabahanap.search.JobSuggester;
+import com.devera.trabahanap.search.SavedSearch;
+import com.devera.trabahanap.search.SearchHit;
+import com.devera.trabahanap.search.Suggestion;
+import com.devera.trabahanap.service.JobRefresher;
 import com.devera.trabahanap.service.JobService;
+import com.devera.trabahanap.service.SavedSearchService;
+import com.devera.trabahanap.store.Facet;
+import com.devera.trabahanap.store.FacetCounts;
+import com.devera.trabahanap.store.JobOrder;
+import com.devera.trabahanap.store.JobStore;
+import com.devera.trabahanap.store.NearbyJob;
+import com.devera.trabahanap.system.SessionManager;
+import com.devera.trabahanap.util.CategoryImageMapper;
+import com.devera.trabahanap.util.SuggestionPopup;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.TextField;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 /**
  * Controller for BrowseJob_Content.fxml
  * Dynamically loads JobCard.fxml for each job and appends to jobsVBox.
+ * Typing in the search field filters the list through the local JobSearchIndex.
+ * The category and location combos narrow it further through the JobStore facet index and
+ * show how many jobs each choice would leave. The sort combo pages through the JobStore
+ * sort indexes instead of sorting the whole list. With a location and a distance picked,
+ * the list is every job within that radius of the place (JobStore geohash index), nearest
+ * first unless a sort was chosen. "Save Search" stores the current category, location and
+ * search text as a saved search, so the user is alerted about matching jobs posted later.
+ * Until the jobs arrive from Firestore, the newest jobs of the last run's snapshot are shown.
  */
 public class BrowseJobContentController extends Controller {
 
@@ -27,30 +67,288 @@ public class BrowseJobContentController extends Controller {
     @FXML
     private ScrollPane scrollPane;
 
+    @FXML
+    private TextField searchFieldBrowse;
+
+    @FXML
+    private ComboBox<String> categoryCombo;
+
+    @FXML
+    private ComboBox<String> locationCombo;
+
+    @FXML
+    private ComboBox<String> recentCombo;
+
+    @FXML
+    private ComboBox<String> distanceCombo;
+
+    @FXML
+    private Button saveSearchButton;
+
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_BROWSE_RESULTS = 200;
+    // Radius behind each distance combo item; 0 keeps the exact location filter
+    private static final int[] DISTANCES_KM = { 0, 5, 10, 25, 50 };
+
     private final JobService jobService = new JobService();
+    private final SavedSearchService savedSearchService = new SavedSearchService();
+    private final PauseTransition searchDelay = new PauseTransition(Duration.millis(150));
+    private Map<String, Job> jobsById = Map.of();
+
+    // Facet value behind each combo item; index 0 is the "All ..." item (null)
+    private final List<String> categoryValues = new ArrayList<>();
+    private final List<String> locationValues = new ArrayList<>();
+    private boolean updatingFacets;
+    // Added to JobRefresher in initialize, removed in dispose
+    private final Consumer<List<Job>> onRefresh = jobs -> Platform.runLater(() -> showJobs(jobs));
 
     @FXML
     public void initialize() {
         if (jobsVBox != null) {
             jobsVBox.getChildren().clear();
         }
+        if (searchFieldBrowse != null) {
+            searchDelay.setOnFinished(e -> applySearch());
+            searchFieldBrowse.textProperty().addListener((obs, oldText, newText) -> searchDelay.playFromStart());
+            SuggestionPopup.attach(searchFieldBrowse, text -> JobSuggester.get().suggest(text, 8).stream()
+                    .map(Suggestion::text)
+                    .toList());
+        }
+        if (categoryCombo != null) categoryCombo.setOnAction(e -> onFacetChanged());
+        if (locationCombo != null) locationCombo.setOnAction(e -> onFacetChanged());
+        if (distanceCombo != null) {
+            for (int km : DISTANCES_KM) distanceCombo.getItems().add(km == 0 ? "Exact Location" : "Within " + km + " km");
+            distanceCombo.setOnAction(e -> onFacetChanged());
+        }
+        if (recentCombo != null) {
+            for (JobOrder order : JobOrder.values()) recentCombo.getItems().add(order.label());
+            recentCombo.setOnAction(e -> onFacetChanged());
+        }
         loadJobs();
+        JobRefresher.get().addListener(onRefresh);
+    }
+
+    @Override
+    protected void dispose() {
+        JobRefresher.get().removeListener(onRefresh);
     }
 
     private void loadJobs() {
+        // Cards from the last run's snapshot until Firestore answers
+        if (jobsById.isEmpty()) {
+            List<Job> cached = JobService.getSnapshotJobs(MAX_BROWSE_RESULTS);
+            if (!cached.isEmpty()) renderJobs(cached);
+        }
         jobService.getAllJobs().whenComplete((jobs, err) -> {
             Platform.runLater(() -> {
                 if (err != null) {
                     err.printStackTrace();
                     return;
                 }
-                renderJobs(jobs);
+                showJobs(jobs);
             });
         });
     }
 
+    private void showJobs(List<Job> jobs) {
+        Map<String, Job> byId = new HashMap<>();
+        if (jobs != null) {
+            for (Job j : jobs) byId.put(j.getJobId(), j);
+        }
+        jobsById = byId;
+        applySearch();
+    }
+
+    private void onFacetChanged() {
+        if (!updatingFacets) applySearch();
+    }
+
+    /**
+     * Show the first jobs in the chosen order (newest by default), or the ranked matches for
+     * the current search text, limited to the selected category and location; then refresh
+     * the combo counts, over the search matches when there is search text.
+     */
+    private void applySearch() {
+        String query = searchFieldBrowse != null ? searchFieldBrowse.getText() : null;
+        boolean searching = query != null && !query.isBlank();
+        Map<Facet, String> selection = facetSelection();
+        JobOrder order = selectedOrder();
+        List<Job> matches = new ArrayList<>();
+        GeoPoint centre = radiusCentre(selection);
+        if (centre != null) {
+            // The radius replaces the exact location match
+            Map<Facet, String> others = new EnumMap<>(selection);
+            others.remove(Facet.LOCATION);
+            applyNear(query, centre, selectedRadiusKm(), others, order, matches);
+        } else if (!searching) {
+            JobOrder browseOrder = order != null ? order : JobOrder.MOST_RECENT;
+            for (String id : JobStore.get().pageJobIds(browseOrder, selection, 0, MAX_BROWSE_RESULTS)) {
+                Job job = jobsById.get(id);
+                if (job != null) matches.add(job);
+            }
+        } else {
+            // Filter while ranking, so facet matches below the top hits are not cut off
+            Set<String> allowed = selection.isEmpty() ? null : JobStore.get().selectJobIds(selection);
+            for (SearchHit hit : JobSearchIndex.get().search(query, MAX_SEARCH_RESULTS,
+                    allowed != null ? allowed::contains : null)) {
+                matches.add(hit.job());
+            }
+            // Search results stay in relevance order unless a sort was picked
+            if (order != null) matches.sort(order.comparator());
+        }
+        renderJobs(matches);
+        refreshFacets(selection, searching ? JobSearchIndex.get().matchingIds(query) : null);
+    }
+
+    private void applyNear(String query, GeoPoint centre, double radiusKm, Map<Facet, String> selection,
+                           JobOrder order, List<Job> matches) {
+        boolean browsing = query == null || query.isBlank();
+        // Browsing nearest first needs one page; search and the other orders need every job in range
+        int limit = browsing && order == null ? MAX_BROWSE_RESULTS : Integer.MAX_VALUE;
+        List<NearbyJob> near = JobStore.get().near(centre, radiusKm, selection, limit);
+        if (browsing) {
+            for (NearbyJob n : near) {
+                Job job = jobsById.get(n.jobId());
+                if (job != null) matches.add(job);
+                if (order == null && matches.size() >= MAX_BROWSE_RESULTS) break;
+            }
+        } else {
+            // Rank only the jobs in range, so nearby matches below the top hits are not cut off
+            Set<String> allowed = new HashSet<>();
+            for (NearbyJob n : near) allowed.add(n.jobId());
+            for (SearchHit hit : JobSearchIndex.get().search(query, MAX_SEARCH_RESULTS, allowed::contains)) {
+                matches.add(hit.job());
+            }
+        }
+        if (order != null) {
+            matches.sort(order.comparator());
+            if (matches.size() > MAX_BROWSE_RESULTS) matches.subList(MAX_BROWSE_RESULTS, matches.size()).clear();
+        }
+    }
+
+    /**
+     * Centre of the radius search: the selected location's place, if a distance is picked and
+     * the place has coordinates.
+     */
+    private GeoPoint radiusCentre(Map<Facet, String> selection) {
+        String location = selection.get(Facet.LOCATION);
+        if (location == null || selectedRadiusKm() <= 0) return null;
+        Gazetteer gazetteer = Gazetteer.get();
+        return gazetteer.byName(location).or(() -> gazetteer.resolve(location))
+                .filter(Place::hasPoint)
+                .map(Place::point)
+                .orElse(null);
+    }
+
+    private int selectedRadiusKm() {
+        if (distanceCombo == null) return 0;
+        int i = distanceCombo.getSelectionModel().getSelectedIndex();
+        return i >= 0 && i < DISTANCES_KM.length ? DISTANCES_KM[i] : 0;
+    }
+
+    @FXML
+    private void onSaveSearchClicked() {
+        String userId = SessionManager.get().getLocalId().orElse(null);
+        if (userId == null) {
+            showMessage(Alert.AlertType.ERROR, "Save Search", "You must be logged in to save a search.");
+            return;
+        }
+        Map<Facet, String> selection = facetSelection();
+        String query = searchFieldBrowse != null && searchFieldBrowse.getText() != null ? searchFieldBrowse.getText().trim() : "";
+        String category = selection.get(Facet.CATEGORY);
+        String location = selection.get(Facet.LOCATION);
+        if (category == null && location == null && query.isEmpty()) {
+            showMessage(Alert.AlertType.INFORMATION, "Save Search", "Pick a category or location, or type keywords first.");
+            return;
+        }
+
+        List<String> parts = new ArrayList<>();
+        if (!query.isEmpty()) parts.add("\"" + query + "\"");
+        if (category != null) parts.add(CategoryImageMapper.toDisplay(category));
+        if (location != null) parts.add(location);
+        SavedSearch search = new SavedSearch(null, userId, String.join(", ", parts), category, location,
+                null, null, query.isEmpty() ? null : query, List.of(), System.currentTimeMillis());
+
+        if (saveSearchButton != null) saveSearchButton.setDisable(true);
+        savedSearchService.save(search).whenComplete((id, err) -> Platform.runLater(() -> {
+            if (saveSearchButton != null) saveSearchButton.setDisable(false);
+            if (err != null) {
+                showMessage(Alert.AlertType.ERROR, "Save Search", "Could not save the search: " + err.getMessage());
+                return;
+            }
+            showMessage(Alert.AlertType.INFORMATION, "Search Saved",
+                    "New jobs matching " + String.join(", ", parts) + " will be listed under Job Alerts on Home.");
+        }));
+    }
+
+    private static void showMessage(Alert.AlertType type, String title, String message) {
+        Alert alert = new Alert(type);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.showAndWait();
+    }
+
+    private JobOrder selectedOrder() {
+        if (recentCombo == null) return null;
+        int i = recentCombo.getSelectionModel().getSelectedIndex();
+        return i >= 0 && i < JobOrder.values().length ? JobOrder.values()[i] : null;
+    }
+
+    private Map<Facet, String> facetSelection() {
+        Map<Facet, String> selection = new EnumMap<>(Facet.class);
+        putSelected(selection, Facet.CATEGORY, categoryCombo, categoryValues);
+        putSelected(selection, Facet.LOCATION, locationCombo, locationValues);
+        return selection;
+    }
+
+    private static void putSelected(Map<Facet, String> selection, Facet facet, ComboBox<String> combo, List<String> values) {
+        if (combo == null) return;
+        int i = combo.getSelectionModel().getSelectedIndex();
+        if (i > 0 && i < values.size()) selection.put(facet, values.get(i));
+    }
+
+    /**
+     * Rebuild the combo items as "Value (count)" for the current selection (counting only
+     * searchMatches unless it is null), keeping what is selected. Setting items fires the combos' actions, hence the guard.
+     */
+    private void refreshFacets(Map<Facet, String> selection, List<String> searchMatches) {
+        FacetCounts counts = JobStore.get().facetCounts(selection, searchMatches);
+        updatingFacets = true;
+        try {
+            fillFacetCombo(categoryCombo, categoryValues, "All Categories", counts.of(Facet.CATEGORY),
+                    selection.get(Facet.CATEGORY), CategoryImageMapper::toDisplay);
+            fillFacetCombo(locationCombo, locationValues, "All Locations", counts.of(Facet.LOCATION),
+                    selection.get(Facet.LOCATION), value -> value);
+        } finally {
+            updatingFacets = false;
+        }
+    }
+
+    private static void fillFacetCombo(ComboBox<String> combo, List<String> values, String allLabel,
+                                       Map<String, Integer> counts, String selected, UnaryOperator<String> label) {
+        if (combo == null) return;
+        List<String> items = new ArrayList<>();
+        values.clear();
+        values.add(null);
+        items.add(allLabel);
+        counts.forEach((value, n) -> {
+            values.add(value);
+            items.add(label.apply(value) + " (" + n + ")");
+        });
+        combo.getItems().setAll(items);
+        int index = selected != null ? values.indexOf(selected) : -1;
+        if (index > 0) {
+            combo.getSelectionModel().select(index);
+        } else {
+            combo.getSelectionModel().clearSelection();
+        }
+    }
+
     private void renderJobs(List<Job> jobs) {
-        if (jobs == null || jobs.isEmpty() || jobsVBox == null) return;
+        if (jobsVBox == null) return;
+        jobsVBox.getChildren().clear();
+        if (jobs == null || jobs.isEmpty()) return;
 
         for (Job job : jobs) {
             try {
@@ -1,6 +1,7 @@
 package com.devera.trabahanap.controller;
 
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
@@ -14,6 +15,9 @@ import java.util.Objects;
  */
 public class Controller {
 
+    // Scene root / content node property holding the controller that loaded it
+    static final String CONTROLLER_KEY = Controller.class.getName();
+
     /**
      * Replace the current scene's root with an FXML file.
      * @param stage the Stage to change; if null, tries to get from any owned node (override if needed)
@@ -39,6 +43,7 @@ public class Controller {
 
         FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
         javafx.scene.Parent root = loader.load();
+        root.getProperties().put(CONTROLLER_KEY, loader.getController());
 
         Scene currentScene = stage.getScene();
         double newWidth = width > 0 ? width : (currentScene != null ? currentScene.getWidth() : -1);
@@ -53,7 +58,9 @@ public class Controller {
             stage.setScene(scene);
         } else {
             // preserve scene and only replace the root so controllers and styles keep working
+            Parent previous = currentScene.getRoot();
             currentScene.setRoot(root);
+            if (previous != null) disposeController(previous);
             if (newWidth > 0 && newHeight > 0) {
                 stage.setWidth(newWidth);
                 stage.setHeight(newHeight);
@@ -69,5 +76,20 @@ public class Controller {
         navigate(null, fxmlPath, -1, -1);
     }
 
+    /**
+     * Called once this controller's view has been replaced by another page. Controllers that
+     * registered listeners with long-lived services remove them here.
+     */
+    protected void dispose() {
+    }
+
+    /**
+     * Dispose the controller that loaded node, if it was loaded through navigate or
+     * HomeController.loadPage.
+     */
+    static void disposeController(Node node) {
+        if (node.getProperties().remove(CONTROLLER_KEY) instanceof Controller c) c.dispose();
+    }
+
     // Add shared helper methods for controllers here (e.g., showDialog, showError, common validation)
 }
\ No newline at end of file
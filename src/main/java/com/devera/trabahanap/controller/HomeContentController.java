@@ -1,30 +1,60 @@
 package com.devera.trabahanap.controller;
 
 import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.search.JobAlert;
+import com.devera.trabahanap.search.JobRecommender;
+import com.devera.trabahanap.search.SearchHit;
+import com.devera.trabahanap.search.SkillProfile;
+import com.devera.trabahanap.service.JobRefresher;
 import com.devera.trabahanap.service.JobService;
+import com.devera.trabahanap.service.SavedSearchService;
+import com.devera.trabahanap.system.SessionManager;
+import com.devera.trabahanap.trending.TrendingEngine;
+import com.devera.trabahanap.trending.TrendingJob;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Controller for Home_Content.fxml.
- * Responsible for loading jobs into the homepage trending list (jobsHBox).
+ * Responsible for loading jobs into the homepage trending list (jobsHBox, ranked by the
+ * TrendingEngine and topped up with the newest jobs), the
+ * skill-based recommendations (recommendedHBox, hidden until there is a skill profile) and
+ * the jobs that matched the user's saved searches (alertsHBox, hidden until there are any).
  */
-public class HomeContentController {
+public class HomeContentController extends Controller {
 
     public static HomeContentController lastLoadedInstance;
 
     @FXML private HBox jobsHBox; // trending jobs on homepage
+    @FXML private VBox recommendedSection;
+    @FXML private HBox recommendedHBox; // recommendations from the user's skill profile
+    @FXML private VBox alertsSection;
+    @FXML private HBox alertsHBox; // listed jobs that alerted one of the user's saved searches
+
+    private static final int MAX_TRENDING = 6;
+    private static final int MAX_RECOMMENDED = 6;
+    private static final int MAX_ALERTS = 6;
 
     private final JobService jobService = new JobService();
+    private final SavedSearchService savedSearchService = new SavedSearchService();
     private HomeController homeController; // injected externally
     private List<Job> allJobs = new ArrayList<>();
+    // Added to JobRefresher in initialize, removed in dispose
+    private final Consumer<List<Job>> onRefresh = jobs -> Platform.runLater(() -> showJobs(jobs));
 
     //--------------------------------------------------------------------------
     // Inject HomeController
@@ -41,54 +71,150 @@ public class HomeContentController {
     public void initialize() {
         lastLoadedInstance = this;
         loadJobs();
+        JobRefresher.get().addListener(onRefresh);
+    }
+
+    @Override
+    protected void dispose() {
+        JobRefresher.get().removeListener(onRefresh);
+        if (lastLoadedInstance == this) lastLoadedInstance = null;
     }
 
     //--------------------------------------------------------------------------
     // Load jobs from Firestore and render into jobsHBox
     //--------------------------------------------------------------------------
     private void loadJobs() {
+        // Cards from the last run's snapshot until Firestore answers
+        if (allJobs.isEmpty() && jobsHBox != null) {
+            List<Job> cached = JobService.getSnapshotJobs(MAX_TRENDING);
+            if (!cached.isEmpty()) {
+                jobsHBox.getChildren().clear();
+                for (Job job : cached) addCard(jobsHBox, job);
+            }
+        }
         jobService.getAllJobs().whenComplete((jobs, err) -> {
             Platform.runLater(() -> {
                 if (err != null) {
                     err.printStackTrace();
                     return;
                 }
-
-                allJobs = jobs != null ? jobs : new ArrayList<>();
-                renderTrendingJobs();
+                showJobs(jobs);
             });
         });
     }
 
+    private void showJobs(List<Job> jobs) {
+        allJobs = jobs != null ? jobs : new ArrayList<>();
+        renderTrendingJobs();
+        renderRecommendedJobs();
+        checkAlerts();
+    }
+
     //--------------------------------------------------------------------------
-    // Render trending jobs (up to 6) into jobsHBox
+    // Render trending jobs (up to 6) into jobsHBox: highest decayed click/view/
+    // apply score first, then the newest jobs if fewer than 6 have any activity
     //--------------------------------------------------------------------------
     private void renderTrendingJobs() {
         if (jobsHBox == null) return;
 
         jobsHBox.getChildren().clear();
 
-        int max = Math.min(6, allJobs.size());
+        Map<String, Job> byId = new HashMap<>();
+        for (Job j : allJobs) byId.put(j.getJobId(), j);
+
+        // The engine may list jobs that no longer exist, so ask for more than needed
+        Set<Job> shown = new LinkedHashSet<>();
+        for (TrendingJob t : TrendingEngine.get().top(MAX_TRENDING * 4)) {
+            Job job = byId.get(t.jobId());
+            if (job != null) shown.add(job);
+            if (shown.size() == MAX_TRENDING) break;
+        }
+        for (int i = 0; i < allJobs.size() && shown.size() < MAX_TRENDING; i++) {
+            shown.add(allJobs.get(i));
+        }
 
-        for (int i = 0; i < max; i++) {
-            Job job = allJobs.get(i);
-            try {
-                FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/JobCard.fxml"));
-                Node card = loader.load();
+        for (Job job : shown) {
+            addCard(jobsHBox, job);
+        }
+    }
 
-                Object controller = loader.getController();
-                if (controller instanceof JobCardController jcc) {
-                    jcc.setJob(job);
-                    jcc.setOnCardClick(() -> {
-                        if (homeController != null) homeController.openJobDetails(job);
-                    });
-                }
+    //--------------------------------------------------------------------------
+    // Render recommendations: jobs matching the skills of jobs this user viewed
+    // or posted (their own posts are not recommended back)
+    //--------------------------------------------------------------------------
+    private void renderRecommendedJobs() {
+        if (recommendedHBox == null) return;
+
+        recommendedHBox.getChildren().clear();
+
+        String userId = SessionManager.get().getLocalId().orElse(null);
+        SkillProfile profile = SkillProfile.session().withPostsBy(userId, allJobs);
+        List<SearchHit> hits = JobRecommender.get().recommend(profile, userId, MAX_RECOMMENDED);
 
-                jobsHBox.getChildren().add(card);
+        for (SearchHit hit : hits) {
+            addCard(recommendedHBox, hit.job());
+        }
+        if (recommendedSection != null) {
+            recommendedSection.setVisible(!hits.isEmpty());
+            recommendedSection.setManaged(!hits.isEmpty());
+        }
+    }
+
+    //--------------------------------------------------------------------------
+    // Match the listed jobs against the user's saved searches (queues alerts for
+    // new matches), then render the listed jobs of the newest alerts
+    //--------------------------------------------------------------------------
+    public void checkAlerts() {
+        List<Job> jobs = allJobs;
+        CompletableFuture.runAsync(() -> savedSearchService.alertNewMatches(jobs))
+                .whenComplete((x, err) -> Platform.runLater(() -> {
+                    if (err != null) System.err.println("[HomeContentController] Could not check job alerts: " + err.getMessage());
+                    renderAlerts();
+                }));
+    }
+
+    private void renderAlerts() {
+        if (alertsHBox == null) return;
+
+        alertsHBox.getChildren().clear();
 
-            } catch (IOException e) {
-                e.printStackTrace();
+        Map<String, Job> byId = new HashMap<>();
+        for (Job j : allJobs) byId.put(j.getJobId(), j);
+
+        // A job can alert several searches; show it once, for its newest alert
+        Set<Job> shown = new LinkedHashSet<>();
+        for (JobAlert alert : SavedSearchService.recentAlerts(Integer.MAX_VALUE)) {
+            Job job = byId.get(alert.jobId());
+            if (job != null) shown.add(job);
+            if (shown.size() == MAX_ALERTS) break;
+        }
+
+        for (Job job : shown) {
+            addCard(alertsHBox, job);
+        }
+        if (alertsSection != null) {
+            alertsSection.setVisible(!shown.isEmpty());
+            alertsSection.setManaged(!shown.isEmpty());
+        }
+    }
+
+    private void addCard(HBox box, Job job) {
+        try {
+            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/JobCard.fxml"));
+            Node card = loader.load();
+
+            Object controller = loader.getController();
+            if (controller instanceof JobCardController jcc) {
+                jcc.setJob(job);
+                jcc.setOnCardClick(() -> {
+                    if (homeController != null) homeController.openJobDetails(job);
+                });
             }
+
+            box.getChildren().add(card);
+
+        } catch (IOException e) {
+            e.printStackTrace();
         }
     }
 
@@ -1,9 +1,13 @@
 package com.devera.trabahanap.controller;
 
 import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.search.SkillProfile;
 import com.devera.trabahanap.service.FirebaseUserService;
 import com.devera.trabahanap.service.JobService;
+import com.devera.trabahanap.service.ApplicationService;
+import com.devera.trabahanap.service.SavedSearchService;
 import com.devera.trabahanap.service.FirestoreService;
+import com.devera.trabahanap.service.http.RequestScheduler;
 import com.devera.trabahanap.system.Config;
 import com.devera.trabahanap.system.SessionManager;
 import com.google.gson.JsonObject;
@@ -106,6 +110,28 @@ public class HomeController extends Controller {
 
         // render homepage small list if jobsHBox present (optional)
         fetchAndRenderJobs();
+
+        // Nothing on screen waits for these two, so they queue behind the job list
+        RequestScheduler.runAs(RequestScheduler.Priority.PREFETCH, () -> {
+            // The user's saved searches and alerts; then the listed jobs are checked for new matches
+            SavedSearchService savedSearches = new SavedSearchService();
+            savedSearches.loadMine().thenCompose(s -> savedSearches.loadAlerts()).whenComplete((alerts, err) -> {
+                if (err != null) {
+                    System.err.println("[HomeController] Could not load saved searches: " + err.getMessage());
+                    return;
+                }
+                Platform.runLater(() -> {
+                    if (HomeContentController.lastLoadedInstance != null) {
+                        HomeContentController.lastLoadedInstance.checkAlerts();
+                    }
+                });
+            });
+            // Marks jobs the user already applied to on the details page
+            new ApplicationService().myApplications().exceptionally(err -> {
+                System.err.println("[HomeController] Could not load applications: " + err.getMessage());
+                return null;
+            });
+        });
     }
 
     public BorderPane getBorderPane() {
@@ -160,7 +186,7 @@ public class HomeController extends Controller {
             controller.setHomeController(this);
             controller.setJob(job); // populate data
 
-            borderPane.setCenter(detailsRoot); // show in main layout
+            showCenter(detailsRoot, controller); // show in main layout
         } catch (IOException ex) {
             ex.printStackTrace();
         }
@@ -169,6 +195,7 @@ public class HomeController extends Controller {
     @FXML
     private void onLogoutClicked() {
         SessionManager.get().clear();
+        SkillProfile.session().clear();
         try {
             navigate("/fxml/Login.fxml");
         } catch (IOException e) {
@@ -176,6 +203,21 @@ public class HomeController extends Controller {
         }
     }
 
+    /**
+     * Replace the center page, disposing the controller of the page it replaces.
+     */
+    private void showCenter(Node content, Object controller) {
+        Node previous = borderPane.getCenter();
+        content.getProperties().put(CONTROLLER_KEY, controller);
+        borderPane.setCenter(content);
+        if (previous != null) disposeController(previous);
+    }
+
+    @Override
+    protected void dispose() {
+        if (borderPane != null && borderPane.getCenter() != null) disposeController(borderPane.getCenter());
+    }
+
     private void showAlert(String title, String message, Alert.AlertType type) {
         Alert a = new Alert(type);
         a.setTitle(title);
@@ -206,7 +248,7 @@ public class HomeController extends Controller {
                     System.err.println("[HomeController] Failed to inject HomeController: " + roe.getMessage());
                 }
             }
-            borderPane.setCenter(content);
+            showCenter(content, controller);
         } catch (Exception e) {
             e.printStackTrace();
             showAlert("Load error", "Could not load page: " + fxmlName + " — " + e.getMessage(), Alert.AlertType.ERROR);
@@ -1,6 +1,10 @@
 package com.devera.trabahanap.controller;
 
 import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.telemetry.Telemetry;
+import com.devera.trabahanap.telemetry.TelemetryEvent;
+import com.devera.trabahanap.trending.TrendEvent;
+import com.devera.trabahanap.trending.TrendingEngine;
 import com.devera.trabahanap.util.CategoryImageMapper;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -33,6 +37,7 @@ public class JobCardController extends Controller {
 
     @FXML
     private void onCardHover() {
+        if (job != null) Telemetry.get().record(TelemetryEvent.CARD_HOVER, job.getJobId());
         if (cardButton != null && !cardButton.getStyleClass().contains("card-hover")) {
             cardButton.getStyleClass().add("card-hover");
         }
@@ -45,6 +50,10 @@ public class JobCardController extends Controller {
 
     @FXML
     private void onCardClicked() {
+        if (job != null) {
+            TrendingEngine.get().record(job.getJobId(), TrendEvent.CLICK);
+            Telemetry.get().record(TelemetryEvent.CARD_CLICK, job.getJobId());
+        }
         if (onClick != null) onClick.run();
     }
 
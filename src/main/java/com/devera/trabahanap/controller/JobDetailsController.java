@@ -1,8 +1,20 @@
 package com.devera.trabahanap.controller;
 
 import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.search.SkillProfile;
+import com.devera.trabahanap.service.ApplicationService;
+import com.devera.trabahanap.service.ApplyResult;
+import com.devera.trabahanap.service.RatingService;
+import com.devera.trabahanap.service.RatingSummary;
+import com.devera.trabahanap.telemetry.Telemetry;
+import com.devera.trabahanap.telemetry.TelemetryEvent;
+import com.devera.trabahanap.trending.TrendEvent;
+import com.devera.trabahanap.trending.TrendingEngine;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -25,8 +37,11 @@ public class JobDetailsController {
 
     @FXML private Button backButton;
     @FXML private Button applyButton;
+    @FXML private Label ratingLabel;
+    @FXML private ComboBox<String> rateCombo;
 
     private HomeController homeController;
+    private final ApplicationService applicationService = new ApplicationService();
 
     public void setHomeController(HomeController hc) {
         this.homeController = hc;
@@ -37,6 +52,9 @@ public class JobDetailsController {
      */
     public void setJob(Job job) {
         if (job == null) return;
+        SkillProfile.session().addJob(job, SkillProfile.VIEW_WEIGHT);
+        TrendingEngine.get().record(job.getJobId(), TrendEvent.VIEW);
+        Telemetry.get().record(TelemetryEvent.DETAILS_VIEW, job.getJobId());
 
         // Left column
         jobTitleLabel.setText(job.getTitle() != null ? job.getTitle() : "(No Title)");
@@ -65,9 +83,86 @@ public class JobDetailsController {
             }
         });
 
-        // Apply button action (optional)
-        applyButton.setOnAction(e -> {
-            System.out.println("Applying for job: " + job.getTitle());
-        });
+        showRating(job.getRatingCount() != null && job.getRatingAverage() != null
+                ? new RatingSummary(job.getRatingCount(), job.getRatingAverage()) : RatingSummary.NONE);
+        if (rateCombo != null) {
+            rateCombo.getItems().setAll("★★★★★", "★★★★", "★★★", "★★", "★");
+            rateCombo.setOnAction(e -> onRateSelected(job));
+        }
+
+        if (ApplicationService.hasApplied(job.getJobId())) {
+            showApplied();
+        } else {
+            applyButton.setOnAction(e -> onApplyClicked(job));
+        }
+    }
+
+    private void onApplyClicked(Job job) {
+        TrendingEngine.get().record(job.getJobId(), TrendEvent.APPLY);
+        Telemetry.get().record(TelemetryEvent.APPLY_CLICK, job.getJobId());
+        applyButton.setDisable(true);
+        applicationService.apply(job).whenComplete((result, throwable) -> Platform.runLater(() -> {
+            if (throwable != null) {
+                Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+                applyButton.setDisable(false);
+                showMessage(Alert.AlertType.ERROR, "Could not apply", cause.getMessage());
+                return;
+            }
+            switch (result.status()) {
+                case APPLIED -> {
+                    showApplied();
+                    showMessage(Alert.AlertType.INFORMATION, "Application sent",
+                            "You applied for \"" + job.getTitle() + "\".");
+                }
+                case ALREADY_APPLIED -> showApplied();
+                case FULL -> {
+                    applyButton.setText("No Longer Accepting");
+                    showMessage(Alert.AlertType.INFORMATION, "Applications closed",
+                            "This job has reached its limit of applicants.");
+                }
+                case CONTENDED -> {
+                    applyButton.setDisable(false);
+                    showMessage(Alert.AlertType.WARNING, "Please try again",
+                            "Many people are applying to this job right now. Please try again in a moment.");
+                }
+            }
+        }));
+    }
+
+    private void onRateSelected(Job job) {
+        int index = rateCombo.getSelectionModel().getSelectedIndex();
+        if (index < 0) return;
+        int stars = 5 - index;
+        rateCombo.setDisable(true);
+        RatingService.get().rate(job, stars).whenComplete((summary, throwable) -> Platform.runLater(() -> {
+            rateCombo.setDisable(false);
+            if (throwable != null) {
+                Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+                rateCombo.getSelectionModel().clearSelection();
+                showMessage(Alert.AlertType.ERROR, "Could not rate", cause.getMessage());
+                return;
+            }
+            showRating(summary);
+        }));
+    }
+
+    private void showRating(RatingSummary summary) {
+        if (ratingLabel == null) return;
+        ratingLabel.setText(summary.count() > 0
+                ? String.format("★ %.1f (%d rating%s)", summary.average(), summary.count(), summary.count() == 1 ? "" : "s")
+                : "No ratings yet");
+    }
+
+    private void showApplied() {
+        applyButton.setText("Applied");
+        applyButton.setDisable(true);
+    }
+
+    private void showMessage(Alert.AlertType type, String title, String msg) {
+        Alert alert = new Alert(type);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(msg);
+        alert.showAndWait();
     }
 }
@@ -1,8 +1,15 @@
 package com.devera.trabahanap.controller;
 
 import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.geo.Gazetteer;
+import com.devera.trabahanap.search.DuplicateMatch;
+import com.devera.trabahanap.search.JobSuggester;
+import com.devera.trabahanap.search.NearDuplicateIndex;
+import com.devera.trabahanap.search.Suggestion;
+import com.devera.trabahanap.service.DuplicateJobException;
 import com.devera.trabahanap.service.JobService;
 import com.devera.trabahanap.system.SessionManager;
+import com.devera.trabahanap.util.SuggestionPopup;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
@@ -10,6 +17,7 @@ import javafx.scene.control.ComboBox;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -49,8 +57,16 @@ public class PostJobController extends Controller {
     @FXML
     private Button cancelButton;
 
+    private static final String REPOST_HINT = ". Edit that job instead of posting it again.";
+    // Fields JobService.addJob fills in (lifecycle and the Gazetteer match), not the form
+    private static final List<String> FILLED_ON_SUBMIT =
+            List.of("timestamp", "status", "expiresAt", "placeName", "latitude", "longitude", "geohash");
+
     private final JobService jobService = new JobService();
 
+    // Job from a submit that failed; re-submitting the same form reuses its document id
+    private Job pendingJob;
+
     @FXML
     public void initialize() {
         // Categories and experience levels
@@ -71,6 +87,10 @@ public class PostJobController extends Controller {
 
         experienceLevelComboBox.getItems().setAll("Entry", "Intermediate", "Expert");
         experienceLevelComboBox.getSelectionModel().selectFirst();
+
+        // Offer titles and locations already used by other posts
+        SuggestionPopup.attach(titleField, text -> suggestionTexts(text, Suggestion.Kind.TITLE));
+        SuggestionPopup.attach(locationField, text -> suggestionTexts(text, Suggestion.Kind.LOCATION));
     }
 
     @FXML
@@ -137,6 +157,11 @@ public class PostJobController extends Controller {
                 skillsList,
                 experienceLevel
         );
+        if (pendingJob != null && sameContent(pendingJob, job)) {
+            job = pendingJob;
+        }
+        pendingJob = job;
+        if (!confirmNotDuplicate(job)) return;
 
         postButton.setDisable(true);
         jobService.addJob(job).whenComplete((docId, throwable) -> {
@@ -144,10 +169,16 @@ public class PostJobController extends Controller {
                 postButton.setDisable(false);
 
                 if (throwable != null) {
+                    Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+                    if (cause instanceof DuplicateJobException) {
+                        showError(cause.getMessage() + REPOST_HINT);
+                        return;
+                    }
                     throwable.printStackTrace();
                     showError("Failed to post job: " + throwable.getMessage());
                     return;
                 }
+                pendingJob = null;
 
                 Alert success = new Alert(Alert.AlertType.INFORMATION);
                 success.setTitle("Job Posted");
@@ -173,6 +204,42 @@ public class PostJobController extends Controller {
         }
     }
 
+    /**
+     * Refuse a repost of the user's own job and ask before posting one that closely matches
+     * someone else's; false if the job should not be posted.
+     */
+    private boolean confirmNotDuplicate(Job job) {
+        Optional<DuplicateMatch> repost = NearDuplicateIndex.get().findRepost(job);
+        if (repost.isPresent()) {
+            showError(new DuplicateJobException(repost.get()).getMessage() + REPOST_HINT);
+            return false;
+        }
+        List<DuplicateMatch> similar = NearDuplicateIndex.get().findSimilar(job, NearDuplicateIndex.warnSimilarity(), 1);
+        if (similar.isEmpty()) return true;
+
+        DuplicateMatch match = similar.get(0);
+        Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
+        confirm.setTitle("Similar Job Found");
+        confirm.setHeaderText("A very similar job is already posted");
+        confirm.setContentText("\"" + match.job().getTitle() + "\" by " + match.job().getCompanyName()
+                + " (" + Math.round(match.similarity() * 100) + "% alike). Post yours anyway?");
+        return confirm.showAndWait().filter(b -> b == ButtonType.OK).isPresent();
+    }
+
+    private List<String> suggestionTexts(String text, Suggestion.Kind kind) {
+        List<String> out = JobSuggester.get().suggest(text, kind, 6).stream()
+                .map(Suggestion::text)
+                .collect(Collectors.toList());
+        if (kind == Suggestion.Kind.LOCATION && out.size() < 6) {
+            // Known places fill up the list, so new posters pick a name the gazetteer resolves
+            for (String place : Gazetteer.get().suggest(text, 6)) {
+                if (out.size() >= 6) break;
+                if (out.stream().noneMatch(place::equalsIgnoreCase)) out.add(place);
+            }
+        }
+        return out;
+    }
+
     private String safeText(javafx.scene.control.TextInputControl c) {
         return c != null && c.getText() != null ? c.getText().trim() : "";
     }
@@ -185,6 +252,14 @@ public class PostJobController extends Controller {
         alert.showAndWait();
     }
 
+    private boolean sameContent(Job a, Job b) {
+        Map<String, Object> ma = a.toMap();
+        Map<String, Object> mb = b.toMap();
+        ma.keySet().removeAll(FILLED_ON_SUBMIT);
+        mb.keySet().removeAll(FILLED_ON_SUBMIT);
+        return ma.equals(mb);
+    }
+
     private String formatBudgetRange(Double min, Double max) {
         if (min != null && max != null) {
             return "₱" + String.format(java.util.Locale.US, "%.2f", min) + " - ₱" + String.format(java.util.Locale.US, "%.2f", max);
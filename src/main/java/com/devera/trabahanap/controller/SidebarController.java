@@ -1,5 +1,6 @@
 package com.devera.trabahanap.controller;
 
+import com.devera.trabahanap.search.SkillProfile;
 import com.devera.trabahanap.system.SessionManager;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
@@ -67,6 +68,7 @@ public class SidebarController extends Controller {
     private void onLogoutClick() {
         // Terminate session
         SessionManager.get().clear();
+        SkillProfile.session().clear();
 
         // Confirm session cleared before redirecting
         if (!SessionManager.get().isAuthenticated()) {
@@ -0,0 +1,42 @@
+package com.devera.trabahanap.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One user's application to a job, stored at jobs/{jobId}/applications/{applicantId}
+ * (the applicant's user id is the document id, so a user can apply to a job only once).
+ *
+ * job is not stored; it is filled in when applications are listed together with their jobs.
+ */
+public record Application(String jobId, String applicantId, String applicantName, String jobTitle,
+                          String status, long createdAt, Job job) {
+
+    public static final String SUBMITTED = "submitted";
+
+    public Application withJob(Job job) {
+        return new Application(jobId, applicantId, applicantName, jobTitle, status, createdAt, job);
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> m = new HashMap<>();
+        m.put("jobId", jobId);
+        m.put("applicantId", applicantId);
+        if (applicantName != null) m.put("applicantName", applicantName);
+        if (jobTitle != null) m.put("jobTitle", jobTitle);
+        m.put("status", status);
+        m.put("createdAt", createdAt);
+        return m;
+    }
+
+    public static Application fromMap(Map<String, Object> map) {
+        if (map == null || map.get("jobId") == null || map.get("applicantId") == null) return null;
+        Object name = map.get("applicantName");
+        Object title = map.get("jobTitle");
+        Object status = map.get("status");
+        return new Application(map.get("jobId").toString(), map.get("applicantId").toString(),
+                name != null ? name.toString() : null, title != null ? title.toString() : null,
+                status != null ? status.toString() : SUBMITTED,
+                map.get("createdAt") instanceof Number n ? n.longValue() : 0L, null);
+    }
+}
@@ -19,6 +19,23 @@ import java.util.*;
  *  - imageKey (used for local image mapping)
  *  - skills (List<String>)
  *  - experienceLevel (Entry, Intermediate, Expert)
+ *
+ * Lifecycle fields (see JobSweeper):
+ *  - status: open, filled or closed (null = open, for jobs saved before statuses existed)
+ *  - expiresAt: epoch millis after which the job is no longer listed (null = timestamp plus
+ *    the default TTL)
+ *
+ * Location fields (set from the location text by Gazetteer.locate when the job is saved):
+ *  - placeName: the recognised place, e.g. "Quezon City" (null if not recognised)
+ *  - latitude, longitude (Double) and geohash (precision 9) of that place
+ *
+ * Application fields (see ApplicationService):
+ *  - maxApplicants: how many applications the job accepts (null = no limit)
+ *  - applicationCount: applications so far, only ever changed by ApplicationService
+ *
+ * Rating fields (rolled up from the rating shards by RatingService):
+ *  - ratingCount: number of ratings (null = none yet)
+ *  - ratingAverage: mean stars, 1-5
  */
 public class Job implements Serializable {
 
@@ -40,6 +57,33 @@ public class Job implements Serializable {
     private List<String> skills;
     private String experienceLevel;
 
+    // Lifecycle fields
+    private String status;
+    private Long expiresAt;
+
+    // Firestore updateTime of the document this job was read from; not a stored field
+    private String updateTime;
+
+    // Location fields
+    private String placeName;
+    private Double latitude;
+    private Double longitude;
+    private String geohash;
+
+    // Application fields
+    private Integer maxApplicants;
+    private Integer applicationCount;
+
+    // Rating fields
+    private Integer ratingCount;
+    private Double ratingAverage;
+
+    public static final String STATUS_OPEN = "open";
+    public static final String STATUS_FILLED = "filled";
+    public static final String STATUS_CLOSED = "closed";
+    /** Set on archived copies of jobs that were still open when they expired. */
+    public static final String STATUS_EXPIRED = "expired";
+
     public Job() {}
 
     public Job(String jobId,
@@ -144,6 +188,56 @@ public class Job implements Serializable {
     public String getExperienceLevel() { return experienceLevel; }
     public void setExperienceLevel(String experienceLevel) { this.experienceLevel = experienceLevel; }
 
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Long getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Long expiresAt) { this.expiresAt = expiresAt; }
+
+    /**
+     * Firestore's updateTime of the document when this job was read (null for jobs not read
+     * from Firestore). Edits are only applied if the document still has this updateTime.
+     */
+    public String getUpdateTime() { return updateTime; }
+    public void setUpdateTime(String updateTime) { this.updateTime = updateTime; }
+
+    /**
+     * Independent copy to edit, keeping jobId and updateTime.
+     */
+    public Job copy() {
+        Job j = fromMap(jobId, toMap());
+        j.setUpdateTime(updateTime);
+        return j;
+    }
+
+    /**
+     * Whether the job should still be listed at now: its status is open and it has not
+     * expired. Jobs without expiresAt expire defaultTtlMillis after they were posted.
+     */
+    public boolean isOpenAt(long now, long defaultTtlMillis) {
+        if (status != null && !STATUS_OPEN.equals(status)) return false;
+        long expiry = expiresAt != null ? expiresAt : timestamp + defaultTtlMillis;
+        return expiry > now;
+    }
+
+    public String getPlaceName() { return placeName; }
+    public void setPlaceName(String placeName) { this.placeName = placeName; }
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+    public String getGeohash() { return geohash; }
+    public void setGeohash(String geohash) { this.geohash = geohash; }
+
+    public Integer getMaxApplicants() { return maxApplicants; }
+    public void setMaxApplicants(Integer maxApplicants) { this.maxApplicants = maxApplicants; }
+    public Integer getApplicationCount() { return applicationCount; }
+    public void setApplicationCount(Integer applicationCount) { this.applicationCount = applicationCount; }
+
+    public Integer getRatingCount() { return ratingCount; }
+    public void setRatingCount(Integer ratingCount) { this.ratingCount = ratingCount; }
+    public Double getRatingAverage() { return ratingAverage; }
+    public void setRatingAverage(Double ratingAverage) { this.ratingAverage = ratingAverage; }
+
     /**
      * Convert to a Map suitable for Firestore (REST/JSON).
      */
@@ -163,6 +257,16 @@ public class Job implements Serializable {
         if (imageKey != null) m.put("imageKey", imageKey);
         if (skills != null) m.put("skills", new ArrayList<>(skills));
         if (experienceLevel != null) m.put("experienceLevel", experienceLevel);
+        if (status != null) m.put("status", status);
+        if (expiresAt != null) m.put("expiresAt", expiresAt);
+        if (placeName != null) m.put("placeName", placeName);
+        if (latitude != null) m.put("latitude", latitude);
+        if (longitude != null) m.put("longitude", longitude);
+        if (geohash != null) m.put("geohash", geohash);
+        if (maxApplicants != null) m.put("maxApplicants", maxApplicants);
+        if (applicationCount != null) m.put("applicationCount", applicationCount);
+        if (ratingCount != null) m.put("ratingCount", ratingCount);
+        if (ratingAverage != null) m.put("ratingAverage", ratingAverage);
         return m;
     }
 
@@ -212,6 +316,10 @@ public class Job implements Serializable {
         if (o != null) j.setImageKey(o.toString());
         o = map.get("experienceLevel");
         if (o != null) j.setExperienceLevel(o.toString());
+        o = map.get("status");
+        if (o != null) j.setStatus(o.toString());
+        o = map.get("expiresAt");
+        if (o instanceof Number) j.setExpiresAt(((Number) o).longValue());
         o = map.get("skills");
         if (o instanceof List) {
             @SuppressWarnings("unchecked")
@@ -222,6 +330,22 @@ public class Job implements Serializable {
             }
             j.setSkills(out);
         }
+        o = map.get("placeName");
+        if (o != null) j.setPlaceName(o.toString());
+        o = map.get("latitude");
+        if (o instanceof Number) j.setLatitude(((Number) o).doubleValue());
+        o = map.get("longitude");
+        if (o instanceof Number) j.setLongitude(((Number) o).doubleValue());
+        o = map.get("geohash");
+        if (o != null) j.setGeohash(o.toString());
+        o = map.get("maxApplicants");
+        if (o instanceof Number) j.setMaxApplicants(((Number) o).intValue());
+        o = map.get("applicationCount");
+        if (o instanceof Number) j.setApplicationCount(((Number) o).intValue());
+        o = map.get("ratingCount");
+        if (o instanceof Number) j.setRatingCount(((Number) o).intValue());
+        o = map.get("ratingAverage");
+        if (o instanceof Number) j.setRatingAverage(((Number) o).doubleValue());
 
         return j;
     }
@@ -244,6 +368,14 @@ public class Job implements Serializable {
                 ", imageKey='" + imageKey + '\'' +
                 ", skills=" + skills +
                 ", experienceLevel='" + experienceLevel + '\'' +
+                ", status='" + status + '\'' +
+                ", expiresAt=" + expiresAt +
+                ", placeName='" + placeName + '\'' +
+                ", geohash='" + geohash + '\'' +
+                ", maxApplicants=" + maxApplicants +
+                ", applicationCount=" + applicationCount +
+                ", ratingCount=" + ratingCount +
+                ", ratingAverage=" + ratingAverage +
                 '}';
     }
 
@@ -0,0 +1,485 @@
+package com.devera.trabahanap.core;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compact binary encoding of {@link Job}s where they are kept locally: jobs waiting in the
+ * write outbox and the job list snapshot.
+ *
+ * A stream is a header (magic "TJOB", varint schema version) followed by records until the
+ * end of the data. A record is:
+ *  - varint length of the rest of the record
+ *  - varint n, then n new dictionary strings (varint byte length + UTF-8)
+ *  - jobId (raw string), timestamp (varint)
+ *  - varint bitmap of the optional fields present, bit i = field i below
+ *  - the present fields in field order
+ * Strings of low-cardinality fields (company, location, poster, category, skills, ...) are
+ * written once per stream into a dictionary and afterwards as varint codes; the dictionary
+ * strings a record needs are defined at its start. Free text (title, description) is written
+ * raw. Numbers are varints (zigzag where they can be negative), expiresAt is stored as an
+ * offset from timestamp, and doubles holding a whole number (most budgets) as varints.
+ *
+ * Schema evolution: field numbers are never reused or reordered, new fields get the next
+ * number. A reader that finds bits for fields newer than itself skips the rest of the record
+ * (its length is known); dictionary strings are always read, so later records still decode.
+ * Fields missing from an older record are left null.
+ *
+ * Encoding and decoding call the Job getters and setters directly; there is no reflection.
+ * Encoders and decoders are not thread-safe.
+ */
+public final class JobCodec {
+
+    /** Schema version written by this class; raised whenever a field is added. */
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {'T', 'J', 'O', 'B'};
+
+    // Optional field numbers. Append only: never renumber or reuse.
+    private static final int F_TITLE = 0;
+    private static final int F_COMPANY = 1;
+    private static final int F_LOCATION = 2;
+    private static final int F_DESCRIPTION = 3;
+    private static final int F_SALARY_RANGE = 4;
+    private static final int F_POSTED_BY = 5;
+    private static final int F_BUDGET_MIN = 6;
+    private static final int F_BUDGET_MAX = 7;
+    private static final int F_CATEGORY_DISPLAY = 8;
+    private static final int F_CATEGORY = 9;
+    private static final int F_IMAGE_KEY = 10;
+    private static final int F_SKILLS = 11;
+    private static final int F_EXPERIENCE_LEVEL = 12;
+    private static final int F_STATUS = 13;
+    private static final int F_EXPIRES_AT = 14;
+    private static final int F_PLACE_NAME = 15;
+    private static final int F_LATITUDE = 16;
+    private static final int F_LONGITUDE = 17;
+    private static final int F_GEOHASH = 18;
+    private static final int F_MAX_APPLICANTS = 19;
+    private static final int F_APPLICATION_COUNT = 20;
+    private static final int F_RATING_COUNT = 21;
+    private static final int F_RATING_AVERAGE = 22;
+    private static final int F_UPDATE_TIME = 23;
+    private static final int FIELD_COUNT = 24; // at most 64: the presence bitmap is one long
+
+    private JobCodec() {}
+
+    /**
+     * One job as a self-contained stream (header, one record, its own dictionary).
+     */
+    public static byte[] encode(Job job) {
+        Encoder e = new Encoder();
+        e.write(job);
+        return e.toByteArray();
+    }
+
+    public static Job decode(byte[] bytes) {
+        Decoder d = new Decoder(ByteBuffer.wrap(bytes));
+        if (!d.hasNext()) throw new IllegalArgumentException("No job record");
+        return d.next();
+    }
+
+    public static byte[] encodeAll(Collection<Job> jobs) {
+        Encoder e = new Encoder();
+        for (Job job : jobs) e.write(job);
+        return e.toByteArray();
+    }
+
+    public static List<Job> decodeAll(ByteBuffer data) {
+        Decoder d = new Decoder(data);
+        List<Job> out = new ArrayList<>();
+        while (d.hasNext()) out.add(d.next());
+        return out;
+    }
+
+    //--------------------------------------------------------------------------
+    // Encoding
+    //--------------------------------------------------------------------------
+
+    /**
+     * Writes a stream of jobs into memory, sharing one dictionary across all of them.
+     */
+    public static final class Encoder {
+
+        private final Bytes out = new Bytes(4096);
+        private final Bytes fields = new Bytes(1024);
+        private final Bytes defs = new Bytes(256);
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private int newStrings;
+        private int count;
+
+        public Encoder() {
+            out.write(MAGIC, 0, MAGIC.length);
+            out.varint(VERSION);
+        }
+
+        public void write(Job job) {
+            fields.reset();
+            defs.reset();
+            newStrings = 0;
+
+            raw(job.getJobId());
+            fields.varint(zigzag(job.getTimestamp()));
+
+            long present = 0;
+            if (job.getTitle() != null) present |= 1L << F_TITLE;
+            if (job.getCompanyName() != null) present |= 1L << F_COMPANY;
+            if (job.getLocation() != null) present |= 1L << F_LOCATION;
+            if (job.getDescription() != null) present |= 1L << F_DESCRIPTION;
+            if (job.getSalaryRange() != null) present |= 1L << F_SALARY_RANGE;
+            if (job.getPostedByUserId() != null) present |= 1L << F_POSTED_BY;
+            if (job.getBudgetMin() != null) present |= 1L << F_BUDGET_MIN;
+            if (job.getBudgetMax() != null) present |= 1L << F_BUDGET_MAX;
+            if (job.getCategoryDisplay() != null) present |= 1L << F_CATEGORY_DISPLAY;
+            if (job.getCategory() != null) present |= 1L << F_CATEGORY;
+            if (job.getImageKey() != null) present |= 1L << F_IMAGE_KEY;
+            if (job.getSkills() != null) present |= 1L << F_SKILLS;
+            if (job.getExperienceLevel() != null) present |= 1L << F_EXPERIENCE_LEVEL;
+            if (job.getStatus() != null) present |= 1L << F_STATUS;
+            if (job.getExpiresAt() != null) present |= 1L << F_EXPIRES_AT;
+            if (job.getPlaceName() != null) present |= 1L << F_PLACE_NAME;
+            if (job.getLatitude() != null) present |= 1L << F_LATITUDE;
+            if (job.getLongitude() != null) present |= 1L << F_LONGITUDE;
+            if (job.getGeohash() != null) present |= 1L << F_GEOHASH;
+            if (job.getMaxApplicants() != null) present |= 1L << F_MAX_APPLICANTS;
+            if (job.getApplicationCount() != null) present |= 1L << F_APPLICATION_COUNT;
+            if (job.getRatingCount() != null) present |= 1L << F_RATING_COUNT;
+            if (job.getRatingAverage() != null) present |= 1L << F_RATING_AVERAGE;
+            if (job.getUpdateTime() != null) present |= 1L << F_UPDATE_TIME;
+            fields.varint(present);
+
+            if (job.getTitle() != null) raw(job.getTitle());
+            if (job.getCompanyName() != null) dict(job.getCompanyName());
+            if (job.getLocation() != null) dict(job.getLocation());
+            if (job.getDescription() != null) raw(job.getDescription());
+            if (job.getSalaryRange() != null) dict(job.getSalaryRange());
+            if (job.getPostedByUserId() != null) dict(job.getPostedByUserId());
+            if (job.getBudgetMin() != null) number(job.getBudgetMin());
+            if (job.getBudgetMax() != null) number(job.getBudgetMax());
+            if (job.getCategoryDisplay() != null) dict(job.getCategoryDisplay());
+            if (job.getCategory() != null) dict(job.getCategory());
+            if (job.getImageKey() != null) dict(job.getImageKey());
+            if (job.getSkills() != null) {
+                List<String> skills = job.getSkills();
+                int n = 0;
+                for (String s : skills) if (s != null) n++;
+                fields.varint(n);
+                for (String s : skills) if (s != null) dict(s);
+            }
+            if (job.getExperienceLevel() != null) dict(job.getExperienceLevel());
+            if (job.getStatus() != null) dict(job.getStatus());
+            if (job.getExpiresAt() != null) fields.varint(zigzag(job.getExpiresAt() - job.getTimestamp()));
+            if (job.getPlaceName() != null) dict(job.getPlaceName());
+            if (job.getLatitude() != null) fields.fixed64(Double.doubleToRawLongBits(job.getLatitude()));
+            if (job.getLongitude() != null) fields.fixed64(Double.doubleToRawLongBits(job.getLongitude()));
+            if (job.getGeohash() != null) raw(job.getGeohash());
+            if (job.getMaxApplicants() != null) fields.varint(zigzag(job.getMaxApplicants()));
+            if (job.getApplicationCount() != null) fields.varint(zigzag(job.getApplicationCount()));
+            if (job.getRatingCount() != null) fields.varint(zigzag(job.getRatingCount()));
+            if (job.getRatingAverage() != null) fields.fixed64(Double.doubleToRawLongBits(job.getRatingAverage()));
+            if (job.getUpdateTime() != null) raw(job.getUpdateTime());
+
+            int header = Bytes.varintSize(newStrings);
+            out.varint(header + defs.size + fields.size);
+            out.varint(newStrings);
+            out.write(defs.buf, 0, defs.size);
+            out.write(fields.buf, 0, fields.size);
+            count++;
+        }
+
+        /** Jobs written so far. */
+        public int count() {
+            return count;
+        }
+
+        /** Encoded bytes so far. */
+        public int size() {
+            return out.size;
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(out.buf, out.size);
+        }
+
+        public void writeTo(OutputStream stream) throws IOException {
+            stream.write(out.buf, 0, out.size);
+        }
+
+        /** Raw string: varint (byte length + 1), 0 for null, then UTF-8. */
+        private void raw(String s) {
+            if (s == null) {
+                fields.varint(0);
+                return;
+            }
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            fields.varint(b.length + 1L);
+            fields.write(b, 0, b.length);
+        }
+
+        /** Dictionary string: its code, defining it at the start of the record if new. */
+        private void dict(String s) {
+            Integer code = dictionary.get(s);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.put(s, code);
+                byte[] b = s.getBytes(StandardCharsets.UTF_8);
+                defs.varint(b.length);
+                defs.write(b, 0, b.length);
+                newStrings++;
+            }
+            fields.varint(code);
+        }
+
+        /** Whole numbers as varint (zigzag << 1), anything else as a 1 and eight raw bytes. */
+        private void number(double d) {
+            long l = (long) d;
+            if (l == d && Math.abs(l) < (1L << 52) && Double.doubleToRawLongBits(d) != Long.MIN_VALUE) {
+                fields.varint(zigzag(l) << 1);
+            } else {
+                fields.varint(1);
+                fields.fixed64(Double.doubleToRawLongBits(d));
+            }
+        }
+    }
+
+    //--------------------------------------------------------------------------
+    // Decoding
+    //--------------------------------------------------------------------------
+
+    /**
+     * Reads jobs back from a stream written by any version of {@link Encoder}. The buffer
+     * may be a heap buffer or a mapped file; its position advances as records are read.
+     */
+    public static final class Decoder {
+
+        private final ByteBuffer in;
+        private final int version;
+        private String[] dictionary = new String[64];
+        private int dictionarySize;
+        private byte[] scratch = new byte[256];
+
+        public Decoder(ByteBuffer in) {
+            this.in = in;
+            for (byte m : MAGIC) {
+                if (!in.hasRemaining() || in.get() != m) throw new IllegalArgumentException("Not a job stream");
+            }
+            this.version = (int) varint();
+        }
+
+        /** Schema version of the writer. */
+        public int version() {
+            return version;
+        }
+
+        public boolean hasNext() {
+            return in.hasRemaining();
+        }
+
+        public Job next() {
+            int end = recordEnd();
+            readDefinitions();
+            return fields(end);
+        }
+
+        /**
+         * Move past the next record without decoding its fields, only adding its dictionary
+         * strings. Returns the position the record started at, for {@link #readAt}.
+         */
+        public int skip() {
+            int start = in.position();
+            int end = recordEnd();
+            readDefinitions();
+            in.position(end);
+            return start;
+        }
+
+        /**
+         * Decode the record starting at position (as returned by {@link #skip}). Every record
+         * up to and including it must have been read or skipped already, so its dictionary
+         * strings are known. The read position is left where it was.
+         */
+        public Job readAt(int position) {
+            int resume = in.position();
+            try {
+                in.position(position);
+                int end = recordEnd();
+                long defs = varint();
+                for (long i = 0; i < defs; i++) {
+                    int length = (int) varint();
+                    if (length < 0 || length > in.remaining()) throw new IllegalArgumentException("Truncated string");
+                    in.position(in.position() + length);
+                }
+                return fields(end);
+            } finally {
+                in.position(resume);
+            }
+        }
+
+        private int recordEnd() {
+            long length = varint();
+            if (length < 0 || length > in.remaining()) throw new IllegalArgumentException("Truncated job record");
+            return in.position() + (int) length;
+        }
+
+        private void readDefinitions() {
+            long defs = varint();
+            for (long i = 0; i < defs; i++) {
+                if (dictionarySize == dictionary.length) dictionary = Arrays.copyOf(dictionary, dictionarySize * 2);
+                dictionary[dictionarySize++] = utf8((int) varint());
+            }
+        }
+
+        private Job fields(int end) {
+            Job job = new Job();
+            job.setJobId(raw());
+            job.setTimestamp(unzigzag(varint()));
+            long present = varint();
+
+            if (has(present, F_TITLE)) job.setTitle(raw());
+            if (has(present, F_COMPANY)) job.setCompanyName(dict());
+            if (has(present, F_LOCATION)) job.setLocation(dict());
+            if (has(present, F_DESCRIPTION)) job.setDescription(raw());
+            if (has(present, F_SALARY_RANGE)) job.setSalaryRange(dict());
+            if (has(present, F_POSTED_BY)) job.setPostedByUserId(dict());
+            if (has(present, F_BUDGET_MIN)) job.setBudgetMin(number());
+            if (has(present, F_BUDGET_MAX)) job.setBudgetMax(number());
+            if (has(present, F_CATEGORY_DISPLAY)) job.setCategoryDisplay(dict());
+            if (has(present, F_CATEGORY)) job.setCategory(dict());
+            if (has(present, F_IMAGE_KEY)) job.setImageKey(dict());
+            if (has(present, F_SKILLS)) {
+                int n = (int) varint();
+                List<String> skills = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) skills.add(dict());
+                job.setSkills(skills);
+            }
+            if (has(present, F_EXPERIENCE_LEVEL)) job.setExperienceLevel(dict());
+            if (has(present, F_STATUS)) job.setStatus(dict());
+            if (has(present, F_EXPIRES_AT)) job.setExpiresAt(job.getTimestamp() + unzigzag(varint()));
+            if (has(present, F_PLACE_NAME)) job.setPlaceName(dict());
+            if (has(present, F_LATITUDE)) job.setLatitude(Double.longBitsToDouble(fixed64()));
+            if (has(present, F_LONGITUDE)) job.setLongitude(Double.longBitsToDouble(fixed64()));
+            if (has(present, F_GEOHASH)) job.setGeohash(raw());
+            if (has(present, F_MAX_APPLICANTS)) job.setMaxApplicants((int) unzigzag(varint()));
+            if (has(present, F_APPLICATION_COUNT)) job.setApplicationCount((int) unzigzag(varint()));
+            if (has(present, F_RATING_COUNT)) job.setRatingCount((int) unzigzag(varint()));
+            if (has(present, F_RATING_AVERAGE)) job.setRatingAverage(Double.longBitsToDouble(fixed64()));
+            if (has(present, F_UPDATE_TIME)) job.setUpdateTime(raw());
+
+            if (in.position() > end) throw new IllegalArgumentException("Corrupt job record " + job.getJobId());
+            // Fields of a newer schema (bits >= FIELD_COUNT) are skipped
+            in.position(end);
+            return job;
+        }
+
+        private static boolean has(long present, int field) {
+            return (present & (1L << field)) != 0;
+        }
+
+        private String raw() {
+            long n = varint();
+            return n == 0 ? null : utf8((int) (n - 1));
+        }
+
+        private String dict() {
+            long code = varint();
+            if (code >= dictionarySize) throw new IllegalArgumentException("Unknown dictionary code " + code);
+            return dictionary[(int) code];
+        }
+
+        private double number() {
+            long v = varint();
+            return (v & 1) == 0 ? unzigzag(v >>> 1) : Double.longBitsToDouble(fixed64());
+        }
+
+        private String utf8(int length) {
+            if (length < 0 || length > in.remaining()) throw new IllegalArgumentException("Truncated string");
+            if (in.hasArray()) {
+                String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+                in.position(in.position() + length);
+                return s;
+            }
+            if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+            in.get(scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private long varint() {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (!in.hasRemaining()) throw new IllegalArgumentException("Truncated varint");
+                byte b = in.get();
+                v |= (long) (b & 0x7f) << shift;
+                if (b >= 0) return v;
+            }
+            throw new IllegalArgumentException("Varint too long");
+        }
+
+        private long fixed64() {
+            if (in.remaining() < 8) throw new IllegalArgumentException("Truncated number");
+            long v = 0;
+            for (int i = 0; i < 8; i++) v |= (long) (in.get() & 0xff) << (8 * i);
+            return v;
+        }
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Growable byte array with varint and little-endian writers.
+     */
+    private static final class Bytes {
+
+        byte[] buf;
+        int size;
+
+        Bytes(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        void ensure(int extra) {
+            if (size + extra > buf.length) buf = Arrays.copyOf(buf, Math.max(size + extra, buf.length * 2));
+        }
+
+        void write(byte[] b, int off, int len) {
+            ensure(len);
+            System.arraycopy(b, off, buf, size, len);
+            size += len;
+        }
+
+        void varint(long v) {
+            ensure(10);
+            while ((v & ~0x7fL) != 0) {
+                buf[size++] = (byte) ((v & 0x7f) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+        }
+
+        void fixed64(long v) {
+            ensure(8);
+            for (int i = 0; i < 8; i++) buf[size++] = (byte) (v >>> (8 * i));
+        }
+
+        static int varintSize(long v) {
+            int n = 1;
+            while ((v & ~0x7fL) != 0) {
+                n++;
+                v >>>= 7;
+            }
+            return n;
+        }
+    }
+}
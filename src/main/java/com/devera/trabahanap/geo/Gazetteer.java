@@ -0,0 +1,260 @@
+package com.devera.trabahanap.geo;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.search.Tokenizer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Philippine place names (embedded in /geo/ph_places.tsv) and matching of free-text
+ * locations against them, so "QC", "Quezon City, Metro Manila" and "quezn city" all become
+ * the place "Quezon City" with its coordinates.
+ *
+ * Text is folded like search text (case, accents, punctuation). Matching tries, in order:
+ *  1. each comma-separated part, then the whole text, as an exact name or alias (also with
+ *     "city" / "city of" / "philippines" dropped)
+ *  2. the longest name or alias contained in the text as whole words
+ *  3. each part against every name and alias by edit distance (insertions, deletions,
+ *     substitutions and swaps; up to 1 for short words, 2 or 3 for longer ones)
+ * The first part is the most specific in the usual "Place, City, Province" order, so it is
+ * tried first. Ties go to the place listed first in the file.
+ *
+ * Thread-safe; results are cached.
+ */
+public final class Gazetteer {
+
+    private static final String RESOURCE = "/geo/ph_places.tsv";
+    private static final int CACHE_LIMIT = 4096;
+
+    private static Gazetteer instance;
+
+    private final List<Place> places = new ArrayList<>();
+    // Folded name or alias -> index into places (first listed wins)
+    private final Map<String, Integer> byKey = new HashMap<>();
+    private final String[] keys;
+    private final int[] keyPlaces;
+    private final Map<String, Optional<Place>> cache = new ConcurrentHashMap<>();
+
+    Gazetteer(List<String[]> rows) {
+        List<List<String>> aliases = new ArrayList<>();
+        for (String[] row : rows) {
+            GeoPoint point = row[2].isBlank() ? null
+                    : new GeoPoint(Double.parseDouble(row[2]), Double.parseDouble(row[3]));
+            places.add(new Place(row[0], row[1], point));
+            List<String> names = new ArrayList<>();
+            names.add(row[0]);
+            if (row.length > 4 && !row[4].isBlank()) names.addAll(Arrays.asList(row[4].split("\\|")));
+            aliases.add(names);
+        }
+        for (int i = 0; i < places.size(); i++) {
+            for (String name : aliases.get(i)) byKey.putIfAbsent(fold(name), i);
+        }
+        // "Ortigas Center, Pasig" also answers to "ortigas center", unless a place owns that name
+        for (int i = 0; i < places.size(); i++) {
+            String name = places.get(i).name();
+            int comma = name.indexOf(',');
+            if (comma > 0) byKey.putIfAbsent(fold(name.substring(0, comma)), i);
+        }
+        byKey.remove("");
+
+        // Keys in place order, for deterministic tie-breaking in the scans
+        List<Map.Entry<String, Integer>> ordered = new ArrayList<>(byKey.entrySet());
+        ordered.sort(Comparator.comparingInt((Map.Entry<String, Integer> e) -> e.getValue())
+                .thenComparing(Map.Entry::getKey));
+        keys = new String[ordered.size()];
+        keyPlaces = new int[ordered.size()];
+        for (int i = 0; i < ordered.size(); i++) {
+            keys[i] = ordered.get(i).getKey();
+            keyPlaces[i] = ordered.get(i).getValue();
+        }
+    }
+
+    /**
+     * Shared gazetteer loaded from the bundled place list.
+     */
+    public static synchronized Gazetteer get() {
+        if (instance == null) {
+            try {
+                instance = new Gazetteer(readRows());
+            } catch (IOException e) {
+                System.err.println("[Gazetteer] Could not load " + RESOURCE + ": " + e.getMessage());
+                instance = new Gazetteer(List.of());
+            }
+        }
+        return instance;
+    }
+
+    private static List<String[]> readRows() throws IOException {
+        InputStream in = Gazetteer.class.getResourceAsStream(RESOURCE);
+        if (in == null) throw new IOException("resource missing");
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                String[] cols = line.split("\t", -1);
+                if (cols.length >= 4) rows.add(cols);
+            }
+        }
+        return rows;
+    }
+
+    public List<Place> places() {
+        return Collections.unmodifiableList(places);
+    }
+
+    /**
+     * Place a free-text location refers to, if any.
+     */
+    public Optional<Place> resolve(String text) {
+        if (text == null || text.isBlank()) return Optional.empty();
+        Optional<Place> cached = cache.get(text);
+        if (cached != null) return cached;
+        Optional<Place> found = Optional.ofNullable(match(text));
+        if (cache.size() >= CACHE_LIMIT) cache.clear();
+        cache.put(text, found);
+        return found;
+    }
+
+    /**
+     * Place with exactly this display name (e.g. a facet value), if any.
+     */
+    public Optional<Place> byName(String name) {
+        if (name == null) return Optional.empty();
+        for (Place p : places) {
+            if (p.name().equals(name)) return Optional.of(p);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Set placeName, latitude, longitude and geohash of a job from its location text.
+     * Returns false (and leaves the job alone) if the location is not recognised.
+     */
+    public boolean locate(Job job) {
+        if (job == null) return false;
+        Optional<Place> place = resolve(job.getLocation());
+        if (place.isEmpty()) return false;
+        Place p = place.get();
+        job.setPlaceName(p.name());
+        job.setLatitude(p.hasPoint() ? p.point().lat() : null);
+        job.setLongitude(p.hasPoint() ? p.point().lon() : null);
+        job.setGeohash(p.geohash());
+        return true;
+    }
+
+    /**
+     * Display names of places whose name or an alias starts with the typed text, in list order.
+     */
+    public List<String> suggest(String typed, int limit) {
+        String prefix = fold(typed);
+        if (prefix.isEmpty() || limit <= 0) return List.of();
+        LinkedHashSet<String> out = new LinkedHashSet<>();
+        for (int i = 0; i < keys.length && out.size() < limit; i++) {
+            if (keys[i].startsWith(prefix)) out.add(places.get(keyPlaces[i]).name());
+        }
+        return new ArrayList<>(out);
+    }
+
+    //--------------------------------------------------------------------------
+    // Matching
+    //--------------------------------------------------------------------------
+
+    private Place match(String text) {
+        List<String> parts = new ArrayList<>();
+        for (String raw : text.split("[,;/()\\n]+")) {
+            String part = fold(raw);
+            if (!part.isEmpty()) parts.add(part);
+        }
+        String whole = fold(text);
+        List<String> candidates = new ArrayList<>(parts);
+        if (!candidates.contains(whole)) candidates.add(whole);
+
+        for (String c : candidates) {
+            Integer i = exact(c);
+            if (i != null) return places.get(i);
+        }
+
+        Integer contained = longestContained(" " + whole + " ");
+        if (contained != null) return places.get(contained);
+
+        int best = -1, bestDistance = Integer.MAX_VALUE;
+        for (String c : parts) {
+            if (c.length() < 4) continue;
+            int max = c.length() <= 5 ? 1 : c.length() <= 10 ? 2 : 3;
+            for (int k = 0; k < keys.length; k++) {
+                int limit = Math.min(max, bestDistance - 1);
+                int d = distance(c, keys[k], limit);
+                if (d <= limit) {
+                    bestDistance = d;
+                    best = keyPlaces[k];
+                }
+            }
+            if (best >= 0) return places.get(best);
+        }
+        return null;
+    }
+
+    private Integer exact(String folded) {
+        Integer i = byKey.get(folded);
+        if (i != null) return i;
+        String s = folded;
+        if (s.endsWith(" philippines")) s = s.substring(0, s.length() - " philippines".length());
+        if (s.startsWith("city of ")) s = s.substring("city of ".length());
+        if (s.endsWith(" city")) s = s.substring(0, s.length() - " city".length());
+        return s.equals(folded) ? null : byKey.get(s);
+    }
+
+    private Integer longestContained(String padded) {
+        Integer best = null;
+        int bestLength = 0;
+        for (int k = 0; k < keys.length; k++) {
+            String key = keys[k];
+            if (key.length() > bestLength && key.length() >= 3 && padded.contains(" " + key + " ")) {
+                best = keyPlaces[k];
+                bestLength = key.length();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Optimal string alignment distance, or max + 1 once it is certain to exceed max.
+     */
+    static int distance(String a, String b, int max) {
+        if (max < 0) return Integer.MAX_VALUE;
+        if (Math.abs(a.length() - b.length()) > max) return max + 1;
+        int n = a.length(), m = b.length();
+        int[] prev2 = new int[m + 1], prev = new int[m + 1], cur = new int[m + 1];
+        for (int j = 0; j <= m; j++) prev[j] = j;
+        for (int i = 1; i <= n; i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int v = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    v = Math.min(v, prev2[j - 2] + 1);
+                }
+                cur[j] = v;
+                rowMin = Math.min(rowMin, v);
+            }
+            if (rowMin > max) return max + 1;
+            int[] t = prev2;
+            prev2 = prev;
+            prev = cur;
+            cur = t;
+        }
+        return Math.min(prev[m], max + 1);
+    }
+
+    private static String fold(String text) {
+        return Tokenizer.foldPhrase(text).strip();
+    }
+}
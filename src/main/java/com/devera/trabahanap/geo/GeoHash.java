@@ -0,0 +1,199 @@
+package com.devera.trabahanap.geo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Geohash encoding: latitude and longitude bits interleaved (longitude first) and written
+ * five bits per base-32 character, so nearby points share a prefix and every prefix is one
+ * rectangular cell.
+ *
+ * Besides the usual string form, a geohash maps to a long with the bits left-aligned to
+ * {@link #MAX_PRECISION} characters ({@link #toLong}); ordering the longs orders the strings,
+ * and every cell is one contiguous range of them ({@link #rangeStart} .. {@link #rangeEnd}),
+ * so a sorted index of those longs answers "all points in cell" with a range scan.
+ */
+public final class GeoHash {
+
+    /** Characters kept on stored jobs (~5 m cells). */
+    public static final int STORED_PRECISION = 9;
+    /** Longest geohash that fits {@link #toLong} (60 bits). */
+    public static final int MAX_PRECISION = 12;
+
+    private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private GeoHash() {}
+
+    public static String encode(double lat, double lon, int precision) {
+        double latLo = -90, latHi = 90, lonLo = -180, lonHi = 180;
+        StringBuilder sb = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bits = 0, ch = 0;
+        while (sb.length() < precision) {
+            if (evenBit) {
+                double mid = (lonLo + lonHi) / 2;
+                if (lon >= mid) {
+                    ch = (ch << 1) | 1;
+                    lonLo = mid;
+                } else {
+                    ch <<= 1;
+                    lonHi = mid;
+                }
+            } else {
+                double mid = (latLo + latHi) / 2;
+                if (lat >= mid) {
+                    ch = (ch << 1) | 1;
+                    latLo = mid;
+                } else {
+                    ch <<= 1;
+                    latHi = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bits == 5) {
+                sb.append(BASE32.charAt(ch));
+                bits = 0;
+                ch = 0;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Centre of the cell a geohash names.
+     */
+    public static GeoPoint decode(String hash) {
+        double[] box = bounds(hash);
+        return new GeoPoint((box[0] + box[1]) / 2, (box[2] + box[3]) / 2);
+    }
+
+    /**
+     * {latMin, latMax, lonMin, lonMax} of the cell.
+     */
+    static double[] bounds(String hash) {
+        double latLo = -90, latHi = 90, lonLo = -180, lonHi = 180;
+        boolean evenBit = true;
+        for (int i = 0; i < hash.length(); i++) {
+            int ch = charValue(hash.charAt(i));
+            for (int b = 4; b >= 0; b--) {
+                boolean set = ((ch >> b) & 1) == 1;
+                if (evenBit) {
+                    double mid = (lonLo + lonHi) / 2;
+                    if (set) lonLo = mid; else lonHi = mid;
+                } else {
+                    double mid = (latLo + latHi) / 2;
+                    if (set) latLo = mid; else latHi = mid;
+                }
+                evenBit = !evenBit;
+            }
+        }
+        return new double[] { latLo, latHi, lonLo, lonHi };
+    }
+
+    /**
+     * The geohash as a non-negative long, its bits left-aligned to 60.
+     */
+    public static long toLong(String hash) {
+        int n = Math.min(hash.length(), MAX_PRECISION);
+        long bits = 0;
+        for (int i = 0; i < n; i++) bits = (bits << 5) | charValue(hash.charAt(i));
+        return bits << (5 * (MAX_PRECISION - n));
+    }
+
+    /** Smallest {@link #toLong} value inside the cell. */
+    public static long rangeStart(String prefix) {
+        return toLong(prefix);
+    }
+
+    /** Largest {@link #toLong} value inside the cell. */
+    public static long rangeEnd(String prefix) {
+        int n = Math.min(prefix.length(), MAX_PRECISION);
+        return toLong(prefix) + (1L << (5 * (MAX_PRECISION - n))) - 1;
+    }
+
+    /**
+     * Geohash cells that together cover every point within radiusKm of centre: the cell of
+     * the centre plus its eight neighbours, at the finest precision whose cells are still at
+     * least radiusKm across. Returns [""] (everything) for radii beyond the coarsest cells.
+     * The cells cover a square around the circle, so callers still check the distance.
+     */
+    public static List<String> cover(GeoPoint centre, double radiusKm) {
+        int precision = 0;
+        for (int p = 1; p <= MAX_PRECISION; p++) {
+            double[] size = cellSizeKm(p, centre.lat());
+            if (size[0] < radiusKm || size[1] < radiusKm) break;
+            precision = p;
+        }
+        if (precision == 0) return List.of("");
+
+        String hash = encode(centre.lat(), centre.lon(), precision);
+        double[] box = bounds(hash);
+        double height = box[1] - box[0], width = box[3] - box[2];
+        double lat = (box[0] + box[1]) / 2, lon = (box[2] + box[3]) / 2;
+        List<String> cells = new ArrayList<>(9);
+        for (int dy = -1; dy <= 1; dy++) {
+            double nLat = lat + dy * height;
+            if (nLat > 90 || nLat < -90) continue;
+            for (int dx = -1; dx <= 1; dx++) {
+                double nLon = lon + dx * width;
+                if (nLon > 180) nLon -= 360;
+                if (nLon < -180) nLon += 360;
+                String cell = encode(nLat, nLon, precision);
+                if (!cells.contains(cell)) cells.add(cell);
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Like {@link #cover} but one precision finer: every cell touching the circle's bounding
+     * box. That is more cells (up to a few dozen) over several times less area, which pays
+     * off for in-memory range scans where an extra range costs nothing, unlike a query.
+     * Falls back to {@link #cover} near the poles and for radii beyond the coarsest cells.
+     */
+    public static List<String> coverBox(GeoPoint centre, double radiusKm) {
+        List<String> coarse = cover(centre, radiusKm);
+        int precision = coarse.get(0).length() + 1;
+        if (precision == 1 || precision > MAX_PRECISION) return coarse;
+        // 1% spare so rounding never leaves a point in the circle outside the box
+        double latSpan = radiusKm * 1.01 / KM_PER_DEGREE;
+        double south = centre.lat() - latSpan, north = centre.lat() + latSpan;
+        double edge = Math.max(Math.abs(south), Math.abs(north));
+        if (edge >= 85) return coarse;
+        double lonSpan = latSpan / Math.cos(Math.toRadians(edge));
+        double west = centre.lon() - lonSpan, east = centre.lon() + lonSpan;
+
+        int bits = 5 * precision;
+        double height = 180.0 / (1L << (bits / 2)), width = 360.0 / (1L << ((bits + 1) / 2));
+        Set<String> cells = new LinkedHashSet<>();
+        for (double lat = south; lat < north + height; lat += height) {
+            for (double lon = west; lon < east + width; lon += width) {
+                double x = Math.min(lon, east);
+                if (x > 180) x -= 360;
+                if (x < -180) x += 360;
+                cells.add(encode(Math.min(lat, north), x, precision));
+            }
+        }
+        return new ArrayList<>(cells);
+    }
+
+    /**
+     * {height, width} in km of a cell at this precision and latitude.
+     */
+    static double[] cellSizeKm(int precision, double lat) {
+        int bits = 5 * precision;
+        int lonBits = (bits + 1) / 2, latBits = bits / 2;
+        double height = 180.0 / (1L << latBits) * KM_PER_DEGREE;
+        double width = 360.0 / (1L << lonBits) * KM_PER_DEGREE * Math.cos(Math.toRadians(lat));
+        return new double[] { height, width };
+    }
+
+    private static int charValue(char c) {
+        int v = BASE32.indexOf(c);
+        if (v < 0) throw new IllegalArgumentException("Not a geohash character: " + c);
+        return v;
+    }
+}
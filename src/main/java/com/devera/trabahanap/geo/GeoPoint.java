@@ -0,0 +1,41 @@
+package com.devera.trabahanap.geo;
+
+/**
+ * A WGS84 coordinate in degrees.
+ */
+public record GeoPoint(double lat, double lon) {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    /**
+     * Great-circle (haversine) distance in kilometres.
+     */
+    public double distanceKm(GeoPoint other) {
+        return distanceKm(lat, lon, other.lat, other.lon);
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        return kmOfHaversine(haversine(lat1, Math.cos(Math.toRadians(lat1)), lon1, lat2, lon2));
+    }
+
+    /**
+     * The haversine term behind {@link #distanceKm}, with the first point's cos(latitude)
+     * passed in so a scan around one centre computes it once. It grows with the distance,
+     * so distances can be compared and sorted on it and converted only when needed.
+     */
+    public static double haversine(double lat1, double cosLat1, double lon1, double lat2, double lon2) {
+        double sinLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+        double sinLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        return sinLat * sinLat + cosLat1 * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+    }
+
+    public static double kmOfHaversine(double a) {
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /** Inverse of {@link #kmOfHaversine}: the haversine term of a distance. */
+    public static double haversineOfKm(double km) {
+        double s = Math.sin(Math.min(Math.PI / 2, km / (2 * EARTH_RADIUS_KM)));
+        return s * s;
+    }
+}
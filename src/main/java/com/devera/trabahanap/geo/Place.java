@@ -0,0 +1,19 @@
+package com.devera.trabahanap.geo;
+
+/**
+ * A gazetteer entry. point is null for places without a position ("Remote").
+ *
+ * @param name   display name, e.g. "Quezon City" or "BGC, Taguig"
+ * @param area   province or region it belongs to, e.g. "Metro Manila"
+ * @param point  centre of the place
+ */
+public record Place(String name, String area, GeoPoint point) {
+
+    public boolean hasPoint() {
+        return point != null;
+    }
+
+    public String geohash() {
+        return point != null ? GeoHash.encode(point.lat(), point.lon(), GeoHash.STORED_PRECISION) : null;
+    }
+}
@@ -0,0 +1,8 @@
+package com.devera.trabahanap.search;
+
+import com.devera.trabahanap.core.Job;
+
+/**
+ * An existing job that looks like a repost, with the estimated similarity of the texts (0..1).
+ */
+public record DuplicateMatch(Job job, double similarity) {}
@@ -0,0 +1,42 @@
+package com.devera.trabahanap.search;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A job that matched one of the user's {@link SavedSearch}es ("jobAlerts" collection). The
+ * document id is "{searchId}-{jobId}", so a job alerts a search at most once.
+ */
+public record JobAlert(String userId, String searchId, String searchName, String jobId, String jobTitle,
+                       long createdAt) {
+
+    public static JobAlert of(SavedSearch search, String jobId, String jobTitle, long createdAt) {
+        return new JobAlert(search.userId(), search.id(), search.name(), jobId, jobTitle, createdAt);
+    }
+
+    public String id() {
+        return searchId + "-" + jobId;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> m = new HashMap<>();
+        m.put("userId", userId);
+        m.put("searchId", searchId);
+        if (searchName != null) m.put("searchName", searchName);
+        m.put("jobId", jobId);
+        if (jobTitle != null) m.put("jobTitle", jobTitle);
+        m.put("createdAt", createdAt);
+        return m;
+    }
+
+    public static JobAlert fromMap(Map<String, Object> map) {
+        if (map == null || map.get("searchId") == null || map.get("jobId") == null) return null;
+        return new JobAlert(text(map.get("userId")), map.get("searchId").toString(), text(map.get("searchName")),
+                map.get("jobId").toString(), text(map.get("jobTitle")),
+                map.get("createdAt") instanceof Number n ? n.longValue() : 0L);
+    }
+
+    private static String text(Object o) {
+        return o != null ? o.toString() : null;
+    }
+}
@@ -0,0 +1,324 @@
+package com.devera.trabahanap.search;
+
+import com.devera.trabahanap.core.Job;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Skill-based job recommendations.
+ *
+ * Skills are canonicalised ({@link Skills}) and numbered; every job is a sparse vector over
+ * its distinct skills with weight 1/sqrt(skill count), stored as an inverted index of
+ * primitive postings (skill id -> jobs). A {@link SkillProfile} is weighted by idf
+ * (ln(1 + N/df), so rare skills count more than "communication") and scored against the
+ * jobs as a cosine: only postings of the profile's skills are visited, and the best k are
+ * kept in a bounded min-heap instead of sorting every candidate. Ties go to the newer job.
+ *
+ * add/remove/sync keep it current like {@link JobSearchIndex}. Reads and writes may come
+ * from any thread.
+ */
+public final class JobRecommender {
+
+    private static final JobRecommender instance = new JobRecommender();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> skillIds = new HashMap<>();
+    private final List<Postings> bySkill = new ArrayList<>();
+
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private Job[] jobs = new Job[16];
+    private int[][] docSkills = new int[16][];
+    private int[] signatures = new int[16];
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int nextId;
+    private int liveDocs;
+
+    public JobRecommender() {}
+
+    /**
+     * Shared recommender kept in sync by JobService.
+     */
+    public static JobRecommender get() {
+        return instance;
+    }
+
+    //--------------------------------------------------------------------------
+    // Updates
+    //--------------------------------------------------------------------------
+
+    public void add(Job job) {
+        if (job == null || job.getJobId() == null) return;
+        lock.writeLock().lock();
+        try {
+            addLocked(job);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String jobId) {
+        if (jobId == null) return;
+        lock.writeLock().lock();
+        try {
+            Integer id = docIds.remove(jobId);
+            if (id != null) removeDoc(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Make the index contain exactly these jobs.
+     */
+    public void sync(Collection<Job> current) {
+        lock.writeLock().lock();
+        try {
+            Set<String> keep = new HashSet<>();
+            for (Job j : current) {
+                if (j == null || j.getJobId() == null) continue;
+                keep.add(j.getJobId());
+                addLocked(j);
+            }
+            for (Iterator<Map.Entry<String, Integer>> it = docIds.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Integer> e = it.next();
+                if (!keep.contains(e.getKey())) {
+                    it.remove();
+                    removeDoc(e.getValue());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocked(Job job) {
+        int signature = Objects.hashCode(job.getSkills());
+        Integer existing = docIds.get(job.getJobId());
+        if (existing != null) {
+            if (signatures[existing] == signature) {
+                jobs[existing] = job;
+                return;
+            }
+            docIds.remove(job.getJobId());
+            removeDoc(existing);
+        }
+
+        int[] skills = skillIdsOf(job, true);
+        int id = allocateId();
+        float weight = skills.length > 0 ? (float) (1.0 / Math.sqrt(skills.length)) : 0f;
+        for (int s : skills) bySkill.get(s).put(id, weight);
+
+        jobs[id] = job;
+        docSkills[id] = skills;
+        signatures[id] = signature;
+        docIds.put(job.getJobId(), id);
+        liveDocs++;
+    }
+
+    private void removeDoc(int id) {
+        for (int s : docSkills[id]) bySkill.get(s).remove(id);
+        liveDocs--;
+        jobs[id] = null;
+        docSkills[id] = null;
+        if (freeCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        freeIds[freeCount++] = id;
+    }
+
+    private int allocateId() {
+        if (freeCount > 0) return freeIds[--freeCount];
+        if (nextId == jobs.length) {
+            int cap = jobs.length * 2;
+            jobs = Arrays.copyOf(jobs, cap);
+            docSkills = Arrays.copyOf(docSkills, cap);
+            signatures = Arrays.copyOf(signatures, cap);
+        }
+        return nextId++;
+    }
+
+    /**
+     * Distinct skill ids of a job, ascending; unknown skills are numbered when create is set
+     * and skipped otherwise.
+     */
+    private int[] skillIdsOf(Job job, boolean create) {
+        if (job.getSkills() == null || job.getSkills().isEmpty()) return new int[0];
+        int[] out = new int[job.getSkills().size()];
+        int n = 0;
+        for (String raw : job.getSkills()) {
+            String canonical = Skills.canonical(raw);
+            if (canonical.isEmpty()) continue;
+            Integer s = skillIds.get(canonical);
+            if (s == null) {
+                if (!create) continue;
+                s = bySkill.size();
+                skillIds.put(canonical, s);
+                bySkill.add(new Postings());
+            }
+            out[n++] = s;
+        }
+        return Arrays.stream(out, 0, n).sorted().distinct().toArray();
+    }
+
+    //--------------------------------------------------------------------------
+    // Queries
+    //--------------------------------------------------------------------------
+
+    /**
+     * Best k jobs for the profile, best first, skipping jobs posted by excludeUserId (may be
+     * null). Only jobs sharing at least one skill with the profile are returned.
+     */
+    public List<SearchHit> recommend(SkillProfile profile, String excludeUserId, int k) {
+        if (profile == null || k <= 0) return List.of();
+        lock.readLock().lock();
+        try {
+            float[] query = new float[bySkill.size()];
+            int[] querySkills = queryVector(profile, query);
+            if (querySkills.length == 0) return List.of();
+
+            float[] acc = new float[nextId];
+            int[] touched = new int[64];
+            int touchedCount = 0;
+            for (int s : querySkills) {
+                Postings p = bySkill.get(s);
+                float w = query[s];
+                for (int i = 0; i < p.size; i++) {
+                    int d = p.docs[i];
+                    if (acc[d] == 0f) {
+                        if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+                        touched[touchedCount++] = d;
+                    }
+                    acc[d] += w * p.freqs[i];
+                }
+            }
+
+            // Bounded min-heap: heap[0] is the weakest of the current best k
+            int[] heap = new int[Math.min(k, touchedCount)];
+            int size = 0;
+            for (int t = 0; t < touchedCount; t++) {
+                int d = touched[t];
+                if (excludeUserId != null && excludeUserId.equals(jobs[d].getPostedByUserId())) continue;
+                if (size < heap.length) {
+                    heap[size] = d;
+                    siftUp(heap, size++, acc);
+                } else if (heap.length > 0 && better(d, heap[0], acc)) {
+                    heap[0] = d;
+                    siftDown(heap, size, acc);
+                }
+            }
+
+            SearchHit[] out = new SearchHit[size];
+            while (size > 0) {
+                int d = heap[0];
+                out[size - 1] = new SearchHit(jobs[d], acc[d]);
+                heap[0] = heap[--size];
+                siftDown(heap, size, acc);
+            }
+            return Arrays.asList(out);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The score {@link #recommend} gives job for profile, computed directly from the job's
+     * skills (0 if none match).
+     */
+    public double score(SkillProfile profile, Job job) {
+        if (profile == null || job == null) return 0;
+        lock.readLock().lock();
+        try {
+            float[] query = new float[bySkill.size()];
+            if (queryVector(profile, query).length == 0) return 0;
+            int[] skills = skillIdsOf(job, false);
+            int total = distinctSkills(job);
+            if (total == 0) return 0;
+            float weight = (float) (1.0 / Math.sqrt(total));
+            float score = 0;
+            for (int s : skills) score += query[s] * weight;
+            return score;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int distinctSkills(Job job) {
+        if (job.getSkills() == null) return 0;
+        Set<String> distinct = new HashSet<>();
+        for (String raw : job.getSkills()) {
+            String canonical = Skills.canonical(raw);
+            if (!canonical.isEmpty()) distinct.add(canonical);
+        }
+        return distinct.size();
+    }
+
+    /**
+     * Fill query[skill] with the normalised idf-weighted profile; returns the skill ids set.
+     */
+    private int[] queryVector(SkillProfile profile, float[] query) {
+        Map<String, Double> weights = profile.weights();
+        int[] ids = new int[weights.size()];
+        int n = 0;
+        double norm = 0;
+        for (Map.Entry<String, Double> e : weights.entrySet()) {
+            Integer s = skillIds.get(e.getKey());
+            if (s == null) continue;
+            int df = bySkill.get(s).size;
+            if (df == 0) continue;
+            double w = e.getValue() * Math.log(1.0 + (double) liveDocs / df);
+            query[s] = (float) w;
+            norm += w * w;
+            ids[n++] = s;
+        }
+        if (norm == 0) return new int[0];
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < n; i++) query[ids[i]] *= inv;
+        return Arrays.copyOf(ids, n);
+    }
+
+    //--------------------------------------------------------------------------
+    // Heap of doc ids ordered by score (then timestamp), weakest at the root
+    //--------------------------------------------------------------------------
+
+    private boolean better(int a, int b, float[] acc) {
+        if (acc[a] != acc[b]) return acc[a] > acc[b];
+        long ta = jobs[a].getTimestamp(), tb = jobs[b].getTimestamp();
+        return ta != tb ? ta > tb : a < b;
+    }
+
+    private void siftUp(int[] heap, int i, float[] acc) {
+        int d = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(heap[parent], d, acc)) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = d;
+    }
+
+    private void siftDown(int[] heap, int size, float[] acc) {
+        if (size == 0) return;
+        int d = heap[0];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && better(heap[child], heap[child + 1], acc)) child++;
+            if (!better(d, heap[child], acc)) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = d;
+    }
+}
@@ -0,0 +1,501 @@
+package com.devera.trabahanap.search;
+
+import com.devera.trabahanap.core.Job;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory full-text index over jobs.
+ *
+ * Indexes title, skills, categoryDisplay, companyName and description (see {@link Tokenizer})
+ * into an inverted index of primitive postings lists and ranks matches with BM25 over
+ * field-weighted term frequencies (a title hit counts three times a description hit).
+ *
+ * Query behaviour:
+ *  - every query term is optional; documents matching more terms naturally score higher
+ *  - the last word is also matched as a prefix while it is still being typed ("progr")
+ *  - a term that is not in the index is matched against indexed terms within one edit
+ *    (two for words of 8+ letters), found through a deletion-variant map, at reduced weight
+ *
+ * add/remove keep the index current as jobs change; {@link #sync} reconciles it with a full
+ * job list. Reads and writes may come from any thread.
+ */
+public final class JobSearchIndex {
+
+    private static final float W_TITLE = 3.0f;
+    private static final float W_SKILLS = 2.0f;
+    private static final float W_CATEGORY = 1.5f;
+    private static final float W_COMPANY = 1.5f;
+    private static final float W_DESCRIPTION = 1.0f;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final float PREFIX_WEIGHT = 0.8f;
+    private static final float TYPO_WEIGHT = 0.6f;
+    private static final int MIN_PREFIX = 2;
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final int MAX_PREFIX_SCAN = 4096;
+    private static final int MIN_TYPO_LENGTH = 4;
+    private static final int MAX_TYPO_TERMS = 8;
+
+    private static final JobSearchIndex instance = new JobSearchIndex();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    // deletion variant (and the term itself) -> indexed terms, for typo lookups
+    private final Map<String, List<String>> variants = new HashMap<>();
+
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private Job[] jobs = new Job[16];
+    private String[][] docTerms = new String[16][];
+    private float[] docLengths = new float[16];
+    private int[] signatures = new int[16];
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int nextId;
+    private int liveDocs;
+    private double totalLength;
+
+    public JobSearchIndex() {}
+
+    /**
+     * Shared index kept in sync by JobService.
+     */
+    public static JobSearchIndex get() {
+        return instance;
+    }
+
+    //--------------------------------------------------------------------------
+    // Updates
+    //--------------------------------------------------------------------------
+
+    /**
+     * Add a job or re-index it if its text changed.
+     */
+    public void add(Job job) {
+        if (job == null || job.getJobId() == null) return;
+        lock.writeLock().lock();
+        try {
+            addLocked(job);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String jobId) {
+        if (jobId == null) return;
+        lock.writeLock().lock();
+        try {
+            Integer id = docIds.remove(jobId);
+            if (id != null) removeDoc(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Make the index contain exactly these jobs: add new ones, re-index changed ones and drop
+     * jobs that are no longer present. Unchanged jobs cost a hash comparison.
+     */
+    public void sync(Collection<Job> current) {
+        lock.writeLock().lock();
+        try {
+            Set<String> keep = new HashSet<>();
+            for (Job j : current) {
+                if (j == null || j.getJobId() == null) continue;
+                keep.add(j.getJobId());
+                addLocked(j);
+            }
+            for (Iterator<Map.Entry<String, Integer>> it = docIds.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Integer> e = it.next();
+                if (!keep.contains(e.getKey())) {
+                    it.remove();
+                    removeDoc(e.getValue());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocked(Job job) {
+        int signature = textSignature(job);
+        Integer existing = docIds.get(job.getJobId());
+        if (existing != null) {
+            if (signatures[existing] == signature) {
+                jobs[existing] = job;
+                return;
+            }
+            docIds.remove(job.getJobId());
+            removeDoc(existing);
+        }
+
+        Map<String, float[]> tf = new HashMap<>();
+        float length = 0;
+        length += analyze(job.getTitle(), W_TITLE, tf);
+        length += analyze(job.getSkills() != null ? String.join(" ", job.getSkills()) : null, W_SKILLS, tf);
+        length += analyze(job.getCategoryDisplay(), W_CATEGORY, tf);
+        length += analyze(job.getCompanyName(), W_COMPANY, tf);
+        length += analyze(job.getDescription(), W_DESCRIPTION, tf);
+
+        int id = allocateId();
+        String[] termList = new String[tf.size()];
+        int i = 0;
+        for (Map.Entry<String, float[]> e : tf.entrySet()) {
+            String term = e.getKey();
+            Postings p = terms.get(term);
+            if (p == null) {
+                p = new Postings();
+                terms.put(term, p);
+                addVariants(term);
+            }
+            p.put(id, e.getValue()[0]);
+            termList[i++] = term;
+        }
+
+        jobs[id] = job;
+        docTerms[id] = termList;
+        docLengths[id] = length;
+        signatures[id] = signature;
+        docIds.put(job.getJobId(), id);
+        liveDocs++;
+        totalLength += length;
+    }
+
+    private void removeDoc(int id) {
+        for (String term : docTerms[id]) {
+            Postings p = terms.get(term);
+            if (p == null) continue;
+            p.remove(id);
+            if (p.size == 0) {
+                terms.remove(term);
+                removeVariants(term);
+            }
+        }
+        totalLength -= docLengths[id];
+        liveDocs--;
+        jobs[id] = null;
+        docTerms[id] = null;
+        docLengths[id] = 0;
+        if (freeCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        freeIds[freeCount++] = id;
+    }
+
+    private int allocateId() {
+        if (freeCount > 0) return freeIds[--freeCount];
+        if (nextId == jobs.length) {
+            int cap = jobs.length * 2;
+            jobs = Arrays.copyOf(jobs, cap);
+            docTerms = Arrays.copyOf(docTerms, cap);
+            docLengths = Arrays.copyOf(docLengths, cap);
+            signatures = Arrays.copyOf(signatures, cap);
+        }
+        return nextId++;
+    }
+
+    private static float analyze(String text, float weight, Map<String, float[]> tf) {
+        List<String> tokens = Tokenizer.tokenize(text);
+        for (String t : tokens) tf.computeIfAbsent(t, k -> new float[1])[0] += weight;
+        return tokens.size() * weight;
+    }
+
+    private static int textSignature(Job job) {
+        return Objects.hash(job.getTitle(), job.getSkills(), job.getCategoryDisplay(),
+                job.getCompanyName(), job.getDescription());
+    }
+
+    //--------------------------------------------------------------------------
+    // Typo variants
+    //--------------------------------------------------------------------------
+
+    private void addVariants(String term) {
+        if (term.length() < MIN_TYPO_LENGTH) return;
+        variants.computeIfAbsent(term, k -> new ArrayList<>(1)).add(term);
+        for (String d : singleDeletes(term)) {
+            List<String> list = variants.computeIfAbsent(d, k -> new ArrayList<>(1));
+            if (!list.contains(term)) list.add(term);
+        }
+    }
+
+    private void removeVariants(String term) {
+        if (term.length() < MIN_TYPO_LENGTH) return;
+        removeVariant(term, term);
+        for (String d : singleDeletes(term)) removeVariant(d, term);
+    }
+
+    private void removeVariant(String key, String term) {
+        List<String> list = variants.get(key);
+        if (list == null) return;
+        list.remove(term);
+        if (list.isEmpty()) variants.remove(key);
+    }
+
+    private static Set<String> singleDeletes(String s) {
+        Set<String> out = new HashSet<>();
+        for (int i = 0; i < s.length(); i++) {
+            out.add(s.substring(0, i) + s.substring(i + 1));
+        }
+        return out;
+    }
+
+    /**
+     * Indexed terms within the allowed edit distance of a term that is not itself indexed,
+     * closest and most frequent first.
+     */
+    private List<String> typoCandidates(String term) {
+        if (term.length() < MIN_TYPO_LENGTH) return List.of();
+        int maxDistance = term.length() >= 8 ? 2 : 1;
+
+        Set<String> keys = new HashSet<>();
+        keys.add(term);
+        for (String d : singleDeletes(term)) {
+            keys.add(d);
+            if (maxDistance > 1) keys.addAll(singleDeletes(d));
+        }
+
+        Map<String, Integer> found = new HashMap<>();
+        for (String k : keys) {
+            List<String> list = variants.get(k);
+            if (list == null) continue;
+            for (String cand : list) {
+                if (found.containsKey(cand)) continue;
+                int d = editDistance(term, cand, maxDistance);
+                if (d <= maxDistance) found.put(cand, d);
+            }
+        }
+        List<String> out = new ArrayList<>(found.keySet());
+        out.sort(Comparator.<String>comparingInt(found::get).thenComparing(t -> -terms.get(t).size));
+        return out.size() > MAX_TYPO_TERMS ? out.subList(0, MAX_TYPO_TERMS) : out;
+    }
+
+    /**
+     * Optimal string alignment distance (insert, delete, substitute, swap adjacent), giving up
+     * early once it exceeds max.
+     */
+    static int editDistance(String a, String b, int max) {
+        int n = a.length(), m = b.length();
+        if (Math.abs(n - m) > max) return max + 1;
+        int[] prev2 = new int[m + 1];
+        int[] prev = new int[m + 1];
+        int[] cur = new int[m + 1];
+        for (int j = 0; j <= m; j++) prev[j] = j;
+        for (int i = 1; i <= n; i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int v = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    v = Math.min(v, prev2[j - 2] + 1);
+                }
+                cur[j] = v;
+                rowMin = Math.min(rowMin, v);
+            }
+            if (rowMin > max) return max + 1;
+            int[] t = prev2;
+            prev2 = prev;
+            prev = cur;
+            cur = t;
+        }
+        return prev[m];
+    }
+
+    //--------------------------------------------------------------------------
+    // Query
+    //--------------------------------------------------------------------------
+
+    /**
+     * Ranked search. Returns at most limit hits, best first (ties: newest first).
+     */
+    public List<SearchHit> search(String query, int limit) {
+        return search(query, limit, null);
+    }
+
+    /**
+     * Ranked search over the jobs whose ids allowed accepts (every job when allowed is null).
+     * The filter is applied before the best limit hits are picked, so a filter that keeps
+     * only low-ranked matches still gets them.
+     */
+    public List<SearchHit> search(String query, int limit, Predicate<String> allowed) {
+        if (limit <= 0) return List.of();
+        lock.readLock().lock();
+        try {
+            List<Map<String, Float>> groups = queryGroups(query);
+            if (groups.isEmpty()) return List.of();
+            return topHits(groups, limit, allowed);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of every job the query matches at all, however low it ranks, each once: the result
+     * set that {@link #search} takes its top hits from.
+     */
+    public List<String> matchingIds(String query) {
+        lock.readLock().lock();
+        try {
+            List<String> out = new ArrayList<>();
+            boolean[] seen = new boolean[nextId];
+            for (Map<String, Float> group : queryGroups(query)) {
+                for (String term : group.keySet()) {
+                    Postings p = terms.get(term);
+                    if (p == null) continue;
+                    for (int k = 0; k < p.size; k++) {
+                        int doc = p.docs[k];
+                        if (seen[doc]) continue;
+                        seen[doc] = true;
+                        out.add(jobs[doc].getJobId());
+                    }
+                }
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Per query word the indexed terms it matches (itself, typo neighbours, and prefix
+     * completions for the word being typed) with their weights. Call under the read lock.
+     */
+    private List<Map<String, Float>> queryGroups(String query) {
+        if (query == null || query.isBlank() || liveDocs == 0) return List.of();
+
+        // Distinct query terms; a repeated word moves to the end so the typed word stays last
+        LinkedHashSet<String> distinct = new LinkedHashSet<>();
+        for (String t : Tokenizer.tokenize(query)) {
+            distinct.remove(t);
+            distinct.add(t);
+        }
+        List<String> tokens = new ArrayList<>(distinct);
+        String typing = trailingWord(query);
+        boolean typingIsTerm = typing != null && !Tokenizer.tokenize(typing).isEmpty();
+
+        List<Map<String, Float>> groups = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String t = tokens.get(i);
+            Map<String, Float> group = new HashMap<>();
+            if (terms.containsKey(t)) {
+                group.put(t, 1f);
+            } else {
+                for (String c : typoCandidates(t)) group.put(c, TYPO_WEIGHT);
+            }
+            if (typingIsTerm && i == tokens.size() - 1) addPrefixTerms(typing, group);
+            if (!group.isEmpty()) groups.add(group);
+        }
+        // The word being typed may be a stopword on its own ("par" of "para") and still
+        // be the start of a real term
+        if (typing != null && !typingIsTerm) {
+            Map<String, Float> group = new HashMap<>();
+            addPrefixTerms(typing, group);
+            if (!group.isEmpty()) groups.add(group);
+        }
+        return groups;
+    }
+
+    private void addPrefixTerms(String prefix, Map<String, Float> group) {
+        if (prefix.length() < MIN_PREFIX) return;
+        String end = prefix + Character.MAX_VALUE;
+        List<Map.Entry<String, Postings>> matches = new ArrayList<>();
+        int scanned = 0;
+        for (Map.Entry<String, Postings> e : terms.subMap(prefix, true, end, false).entrySet()) {
+            matches.add(e);
+            if (++scanned >= MAX_PREFIX_SCAN) break;
+        }
+        if (matches.size() > MAX_PREFIX_TERMS) {
+            matches.sort((x, y) -> Integer.compare(y.getValue().size, x.getValue().size));
+            matches = matches.subList(0, MAX_PREFIX_TERMS);
+        }
+        for (Map.Entry<String, Postings> e : matches) {
+            float w = e.getKey().equals(prefix) ? 1f : PREFIX_WEIGHT;
+            group.merge(e.getKey(), w, Math::max);
+        }
+    }
+
+    /**
+     * Score documents: per query word the best-scoring of its expansions, summed over words;
+     * keep the best limit of those allowed.
+     */
+    private List<SearchHit> topHits(List<Map<String, Float>> groups, int limit, Predicate<String> allowed) {
+        int capacity = nextId;
+        float[] total = new float[capacity];
+        float[] best = new float[capacity];
+        int[] touched = new int[capacity];
+        int touchedCount = 0;
+        int[] groupTouched = new int[capacity];
+
+        double avgLength = liveDocs > 0 ? Math.max(1e-6, totalLength / liveDocs) : 1;
+        for (Map<String, Float> group : groups) {
+            int groupCount = 0;
+            for (Map.Entry<String, Float> e : group.entrySet()) {
+                Postings p = terms.get(e.getKey());
+                if (p == null) continue;
+                double idf = Math.log(1 + (liveDocs - p.size + 0.5) / (p.size + 0.5));
+                double weight = idf * e.getValue();
+                for (int k = 0; k < p.size; k++) {
+                    int doc = p.docs[k];
+                    double f = p.freqs[k];
+                    double norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                    float s = (float) (weight * f * (K1 + 1) / (f + norm));
+                    if (best[doc] == 0) groupTouched[groupCount++] = doc;
+                    if (s > best[doc]) best[doc] = s;
+                }
+            }
+            for (int k = 0; k < groupCount; k++) {
+                int doc = groupTouched[k];
+                if (total[doc] == 0) touched[touchedCount++] = doc;
+                total[doc] += best[doc];
+                best[doc] = 0;
+            }
+        }
+
+        Comparator<Integer> order = (x, y) -> {
+            int c = Float.compare(total[x], total[y]);
+            return c != 0 ? c : Long.compare(jobs[x].getTimestamp(), jobs[y].getTimestamp());
+        };
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(limit, touchedCount) + 1, order);
+        for (int k = 0; k < touchedCount; k++) {
+            int doc = touched[k];
+            if (allowed != null && !allowed.test(jobs[doc].getJobId())) continue;
+            if (heap.size() < limit) {
+                heap.add(doc);
+            } else if (order.compare(doc, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(doc);
+            }
+        }
+
+        SearchHit[] out = new SearchHit[heap.size()];
+        for (int i = out.length - 1; i >= 0; i--) {
+            int doc = heap.poll();
+            out[i] = new SearchHit(jobs[doc], total[doc]);
+        }
+        return Arrays.asList(out);
+    }
+
+    /**
+     * The word the user is still typing (query does not end with a separator), folded.
+     */
+    private static String trailingWord(String query) {
+        int end = query.length();
+        if (end == 0 || !Character.isLetterOrDigit(query.charAt(end - 1))) return null;
+        int start = end;
+        while (start > 0 && Character.isLetterOrDigit(query.charAt(start - 1))) start--;
+        String word = Tokenizer.foldPrefix(query.substring(start, end));
+        return word.isEmpty() ? null : word;
+    }
+}
@@ -0,0 +1,238 @@
+package com.devera.trabahanap.search;
+
+import com.devera.trabahanap.core.Job;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Search-as-you-type suggestions for job titles, skills and locations.
+ *
+ * Every distinct title, skill and location (case/accent-insensitive) becomes a phrase whose
+ * weight is the number of jobs using it. Phrases are stored in one {@link PrefixTrie} per
+ * kind under each of their word starts, so "dev" suggests "Java Developer" as well as
+ * "Developer". Each trie node caches its top suggestions, which makes a keystroke lookup a
+ * short walk plus a copy of at most {@link #MAX_SUGGESTIONS} entries.
+ *
+ * add/remove/sync mirror {@link JobSearchIndex} and are called from JobService as jobs arrive.
+ */
+public final class JobSuggester {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final int MAX_PHRASE_LENGTH = 80;
+    private static final int MAX_WORD_STARTS = 8;
+
+    private static final JobSuggester instance = new JobSuggester();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Phrase table, indexed by phrase id
+    private final Map<String, Integer> phraseIds = new HashMap<>();
+    private String[] keys = new String[64];
+    private String[] texts = new String[64];
+    private Suggestion.Kind[] kinds = new Suggestion.Kind[64];
+    private int[] weights = new int[64];
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int nextId;
+
+    private final EnumMap<Suggestion.Kind, PrefixTrie> tries = new EnumMap<>(Suggestion.Kind.class);
+    // jobId -> phrase ids it contributed (for updates and removal)
+    private final Map<String, int[]> jobPhrases = new HashMap<>();
+    private final Map<String, Integer> jobSignatures = new HashMap<>();
+
+    public JobSuggester() {
+        for (Suggestion.Kind kind : Suggestion.Kind.values()) {
+            tries.put(kind, new PrefixTrie(MAX_SUGGESTIONS, id -> weights[id]));
+        }
+    }
+
+    /**
+     * Shared suggester kept in sync by JobService.
+     */
+    public static JobSuggester get() {
+        return instance;
+    }
+
+    //--------------------------------------------------------------------------
+    // Queries
+    //--------------------------------------------------------------------------
+
+    /**
+     * Suggestions of every kind for the text typed so far, best first.
+     */
+    public List<Suggestion> suggest(String typed, int limit) {
+        return suggest(typed, null, limit);
+    }
+
+    /**
+     * Suggestions of one kind (or all kinds when kind is null), best first.
+     */
+    public List<Suggestion> suggest(String typed, Suggestion.Kind kind, int limit) {
+        String prefix = Tokenizer.foldPhrase(typed);
+        if (prefix.isEmpty() || limit <= 0) return List.of();
+
+        lock.readLock().lock();
+        try {
+            List<Suggestion> out = new ArrayList<>();
+            for (Map.Entry<Suggestion.Kind, PrefixTrie> e : tries.entrySet()) {
+                if (kind != null && e.getKey() != kind) continue;
+                for (int id : e.getValue().top(prefix)) {
+                    out.add(new Suggestion(texts[id], kinds[id], weights[id]));
+                }
+            }
+            if (kind == null) {
+                // Same text under several kinds (e.g. "SEO" as title and skill): keep the heaviest
+                out.sort(Comparator.comparingInt(Suggestion::weight).reversed());
+                Set<String> seen = new HashSet<>();
+                out.removeIf(sg -> !seen.add(Tokenizer.foldPhrase(sg.text())));
+            }
+            return out.size() > limit ? new ArrayList<>(out.subList(0, limit)) : out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //--------------------------------------------------------------------------
+    // Updates
+    //--------------------------------------------------------------------------
+
+    public void add(Job job) {
+        if (job == null || job.getJobId() == null) return;
+        lock.writeLock().lock();
+        try {
+            addLocked(job);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String jobId) {
+        if (jobId == null) return;
+        lock.writeLock().lock();
+        try {
+            int[] old = jobPhrases.remove(jobId);
+            jobSignatures.remove(jobId);
+            if (old != null) for (int id : old) release(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Make the suggestions reflect exactly these jobs.
+     */
+    public void sync(Collection<Job> current) {
+        lock.writeLock().lock();
+        try {
+            Set<String> keep = new HashSet<>();
+            for (Job j : current) {
+                if (j == null || j.getJobId() == null) continue;
+                keep.add(j.getJobId());
+                addLocked(j);
+            }
+            for (Iterator<Map.Entry<String, int[]>> it = jobPhrases.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, int[]> e = it.next();
+                if (!keep.contains(e.getKey())) {
+                    it.remove();
+                    jobSignatures.remove(e.getKey());
+                    for (int id : e.getValue()) release(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addLocked(Job job) {
+        int signature = Objects.hash(job.getTitle(), job.getSkills(), job.getLocation());
+        Integer previous = jobSignatures.put(job.getJobId(), signature);
+        if (previous != null && previous == signature) return;
+
+        // Acquire the new phrases before releasing the old ones so unchanged phrases never
+        // drop to zero and get re-inserted
+        Set<Integer> ids = new LinkedHashSet<>();
+        collect(job.getTitle(), Suggestion.Kind.TITLE, ids);
+        if (job.getSkills() != null) {
+            for (String s : job.getSkills()) collect(s, Suggestion.Kind.SKILL, ids);
+        }
+        collect(job.getLocation(), Suggestion.Kind.LOCATION, ids);
+
+        int[] now = new int[ids.size()];
+        int i = 0;
+        for (int id : ids) now[i++] = id;
+
+        int[] old = jobPhrases.put(job.getJobId(), now);
+        if (old != null) for (int id : old) release(id);
+    }
+
+    private void collect(String text, Suggestion.Kind kind, Set<Integer> ids) {
+        if (text == null) return;
+        String display = text.strip();
+        if (display.isEmpty() || display.length() > MAX_PHRASE_LENGTH) return;
+        String key = Tokenizer.foldPhrase(display).strip();
+        if (key.isEmpty()) return;
+
+        String tableKey = kind.ordinal() + ":" + key;
+        Integer existing = phraseIds.get(tableKey);
+        int id;
+        if (existing == null) {
+            id = allocateId();
+            keys[id] = key;
+            texts[id] = display;
+            kinds[id] = kind;
+            weights[id] = 0;
+            phraseIds.put(tableKey, id);
+            for (String start : wordStarts(key)) tries.get(kind).insert(start, id);
+        } else {
+            id = existing;
+        }
+        if (ids.add(id)) {
+            weights[id]++;
+            for (String start : wordStarts(key)) tries.get(kind).refresh(start, id, true);
+        }
+    }
+
+    private void release(int id) {
+        weights[id]--;
+        PrefixTrie trie = tries.get(kinds[id]);
+        List<String> starts = wordStarts(keys[id]);
+        if (weights[id] > 0) {
+            for (String start : starts) trie.refresh(start, id, false);
+            return;
+        }
+        for (String start : starts) trie.delete(start, id);
+        phraseIds.remove(kinds[id].ordinal() + ":" + keys[id]);
+        keys[id] = null;
+        texts[id] = null;
+        kinds[id] = null;
+        if (freeCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        freeIds[freeCount++] = id;
+    }
+
+    private int allocateId() {
+        if (freeCount > 0) return freeIds[--freeCount];
+        if (nextId == keys.length) {
+            int cap = keys.length * 2;
+            keys = Arrays.copyOf(keys, cap);
+            texts = Arrays.copyOf(texts, cap);
+            kinds = Arrays.copyOf(kinds, cap);
+            weights = Arrays.copyOf(weights, cap);
+        }
+        return nextId++;
+    }
+
+    /**
+     * The key itself and its suffixes starting at each later word ("java developer",
+     * "developer").
+     */
+    private static List<String> wordStarts(String key) {
+        List<String> out = new ArrayList<>(2);
+        out.add(key);
+        for (int i = key.indexOf(' '); i >= 0 && out.size() < MAX_WORD_STARTS; i = key.indexOf(' ', i + 1)) {
+            out.add(key.substring(i + 1));
+        }
+        return out;
+    }
+}
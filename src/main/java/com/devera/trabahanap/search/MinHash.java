@@ -0,0 +1,141 @@
+package com.devera.trabahanap.search;
+
+import com.devera.trabahanap.core.Job;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures of job text, for near-duplicate detection.
+ *
+ * A job's title and description are analysed with the {@link Tokenizer} (folded, stopwords
+ * dropped, stemmed) and turned into word pairs ("logo design", "design urgent", ...), or
+ * single words for text shorter than two words. The fraction of equal positions in two
+ * signatures estimates the Jaccard similarity of their word-pair sets.
+ *
+ * Each of the {@link #HASHES} positions keeps only the low 16 bits of its minimum (b-bit
+ * MinHash), so a signature is a char[64] of 128 bytes; a chance match of two different
+ * minima costs 1/65536 of similarity, which is far below the noise of 64 positions.
+ *
+ * For LSH the signature is cut into {@link #BANDS} bands of {@link #ROWS} positions. Two
+ * jobs share at least one band with probability 1 - (1 - J^4)^16: about 0.99 at J = 0.7,
+ * 0.50 at J = 0.46 and 0.06 at J = 0.25, so banding finds the near-duplicates while
+ * touching few unrelated jobs.
+ */
+public final class MinHash {
+
+    public static final int HASHES = 64;
+    public static final int ROWS = 4;
+    public static final int BANDS = HASHES / ROWS;
+
+    // Multiply-shift hash functions: h_i(x) = (A[i] * x + B[i]) >>> 32, A[i] odd
+    private static final long[] A = new long[HASHES];
+    private static final long[] B = new long[HASHES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x6a09e667f3bcc909L);
+        for (int i = 0; i < HASHES; i++) {
+            A[i] = random.nextLong() | 1;
+            B[i] = random.nextLong();
+        }
+    }
+
+    private MinHash() {}
+
+    /**
+     * Signature of a job's title and description, or null if the text has no terms.
+     */
+    public static char[] signature(Job job) {
+        return signature(job.getTitle(), job.getDescription());
+    }
+
+    public static char[] signature(String title, String description) {
+        List<String> terms = Tokenizer.tokenize(title);
+        terms.addAll(Tokenizer.tokenize(description));
+        if (terms.isEmpty()) return null;
+
+        long[] min = new long[HASHES];
+        Arrays.fill(min, Long.MAX_VALUE);
+        if (terms.size() == 1) {
+            update(min, hash(terms.get(0)));
+        } else {
+            long previous = hash(terms.get(0));
+            for (int i = 1; i < terms.size(); i++) {
+                long current = hash(terms.get(i));
+                update(min, mix(previous * 31 + current));
+                previous = current;
+            }
+        }
+        char[] sig = new char[HASHES];
+        for (int i = 0; i < HASHES; i++) sig[i] = (char) min[i];
+        return sig;
+    }
+
+    private static void update(long[] min, long shingle) {
+        for (int i = 0; i < HASHES; i++) {
+            long h = (A[i] * shingle + B[i]) >>> 32;
+            if (h < min[i]) min[i] = h;
+        }
+    }
+
+    /**
+     * Estimated Jaccard similarity of the two texts, 0..1.
+     */
+    public static double similarity(char[] a, char[] b) {
+        if (a == null || b == null) return 0;
+        int equal = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (a[i] == b[i]) equal++;
+        }
+        return (double) equal / HASHES;
+    }
+
+    /**
+     * Same as {@link #similarity(char[], char[])} for signatures stored back to back in one
+     * array (signature i at offset i * HASHES).
+     */
+    public static double similarity(char[] pool, int a, int b) {
+        int oa = a * HASHES, ob = b * HASHES;
+        int equal = 0;
+        for (int i = 0; i < HASHES; i++) {
+            if (pool[oa + i] == pool[ob + i]) equal++;
+        }
+        return (double) equal / HASHES;
+    }
+
+    /**
+     * Hash of one band of a signature; equal bands give equal keys. The band number is mixed
+     * in, so keys of different bands can share one table.
+     */
+    public static long bandKey(char[] sig, int band) {
+        return bandKey(sig, 0, band);
+    }
+
+    public static long bandKey(char[] pool, int offset, int band) {
+        // ROWS 16-bit values fill the 64 bits exactly
+        long h = 0;
+        int start = offset + band * ROWS;
+        for (int i = 0; i < ROWS; i++) h = (h << 16) | pool[start + i];
+        return mix(h ^ (band + 1) * 0x9e3779b97f4a7c15L);
+    }
+
+    static long hash(String term) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : term.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93e2ec1fe53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,239 @@
+package com.devera.trabahanap.search;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.system.Config;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Near-duplicate lookup for new posts: which existing jobs have (almost) the same title and
+ * description.
+ *
+ * Every job's {@link MinHash} signature is kept in one char pool, and each of its bands is
+ * posted under the band's key (LSH). A lookup only compares the signature with the jobs that
+ * share at least one band, so it stays in the sub-millisecond range however many jobs are
+ * loaded; candidates are then kept if their estimated similarity reaches the threshold.
+ *
+ * Two thresholds (config, in percent): {@link #warnSimilarity()} (dedup.warnPercent,
+ * default 70) is where Post Job asks before posting, {@link #blockSimilarity()}
+ * (dedup.blockPercent, default 85) is where a poster's repost of their own job is refused.
+ * A couple of words changed in a short description already brings two texts down to about
+ * 75%, while unrelated jobs rarely pass 30%.
+ *
+ * add/remove/sync keep it current like {@link JobSearchIndex}. Reads and writes may come
+ * from any thread.
+ */
+public final class NearDuplicateIndex {
+
+    private static final NearDuplicateIndex instance = new NearDuplicateIndex();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Postings> buckets = new HashMap<>();
+    private final Map<String, Integer> docIds = new HashMap<>();
+    private Job[] jobs = new Job[16];
+    private char[] signatures = new char[16 * MinHash.HASHES];
+    private int[] textHashes = new int[16];
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int nextId;
+    private int liveDocs;
+
+    public NearDuplicateIndex() {}
+
+    /**
+     * Shared index kept in sync by JobService.
+     */
+    public static NearDuplicateIndex get() {
+        return instance;
+    }
+
+    public static double warnSimilarity() {
+        return Config.getInt("dedup.warnPercent", 70) / 100.0;
+    }
+
+    public static double blockSimilarity() {
+        return Config.getInt("dedup.blockPercent", 85) / 100.0;
+    }
+
+    //--------------------------------------------------------------------------
+    // Updates
+    //--------------------------------------------------------------------------
+
+    public void add(Job job) {
+        if (job == null || job.getJobId() == null) return;
+        char[] sig = MinHash.signature(job);
+        lock.writeLock().lock();
+        try {
+            addLocked(job, sig);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String jobId) {
+        if (jobId == null) return;
+        lock.writeLock().lock();
+        try {
+            Integer id = docIds.remove(jobId);
+            if (id != null) removeDoc(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Make the index contain exactly these jobs.
+     */
+    public void sync(Collection<Job> current) {
+        // Signatures of new or edited jobs are computed before taking the write lock
+        Map<String, char[]> changed = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Job j : current) {
+                if (j == null || j.getJobId() == null) continue;
+                Integer existing = docIds.get(j.getJobId());
+                if (existing == null || textHashes[existing] != textHash(j)) changed.put(j.getJobId(), null);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (Job j : current) {
+            if (j != null && changed.containsKey(j.getJobId())) changed.put(j.getJobId(), MinHash.signature(j));
+        }
+
+        lock.writeLock().lock();
+        try {
+            Set<String> keep = new HashSet<>();
+            for (Job j : current) {
+                if (j == null || j.getJobId() == null) continue;
+                keep.add(j.getJobId());
+                Integer existing = docIds.get(j.getJobId());
+                if (!changed.containsKey(j.getJobId()) && existing != null && textHashes[existing] == textHash(j)) {
+                    jobs[existing] = j;
+                } else {
+                    addLocked(j, changed.containsKey(j.getJobId()) ? changed.get(j.getJobId()) : MinHash.signature(j));
+                }
+            }
+            for (Iterator<Map.Entry<String, Integer>> it = docIds.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Integer> e = it.next();
+                if (!keep.contains(e.getKey())) {
+                    it.remove();
+                    removeDoc(e.getValue());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocked(Job job, char[] sig) {
+        Integer existing = docIds.remove(job.getJobId());
+        if (existing != null) removeDoc(existing);
+        if (sig == null) return;
+
+        int id = allocateId();
+        System.arraycopy(sig, 0, signatures, id * MinHash.HASHES, MinHash.HASHES);
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            buckets.computeIfAbsent(MinHash.bandKey(sig, band), k -> new Postings()).put(id, 1f);
+        }
+        jobs[id] = job;
+        textHashes[id] = textHash(job);
+        docIds.put(job.getJobId(), id);
+        liveDocs++;
+    }
+
+    private void removeDoc(int id) {
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            long key = MinHash.bandKey(signatures, id * MinHash.HASHES, band);
+            Postings p = buckets.get(key);
+            if (p == null) continue;
+            p.remove(id);
+            if (p.size == 0) buckets.remove(key);
+        }
+        liveDocs--;
+        jobs[id] = null;
+        if (freeCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        freeIds[freeCount++] = id;
+    }
+
+    private int allocateId() {
+        if (freeCount > 0) return freeIds[--freeCount];
+        if (nextId == jobs.length) {
+            int cap = jobs.length * 2;
+            jobs = Arrays.copyOf(jobs, cap);
+            signatures = Arrays.copyOf(signatures, cap * MinHash.HASHES);
+            textHashes = Arrays.copyOf(textHashes, cap);
+        }
+        return nextId++;
+    }
+
+    private static int textHash(Job job) {
+        return Objects.hash(job.getTitle(), job.getDescription());
+    }
+
+    //--------------------------------------------------------------------------
+    // Queries
+    //--------------------------------------------------------------------------
+
+    /**
+     * Jobs other than job itself whose text is at least minSimilarity alike, most similar
+     * first (newer first at equal similarity), at most limit of them.
+     */
+    public List<DuplicateMatch> findSimilar(Job job, double minSimilarity, int limit) {
+        if (job == null || limit <= 0) return List.of();
+        char[] sig = MinHash.signature(job);
+        if (sig == null) return List.of();
+        lock.readLock().lock();
+        try {
+            Set<Integer> seen = new HashSet<>();
+            List<DuplicateMatch> out = new ArrayList<>();
+            for (int band = 0; band < MinHash.BANDS; band++) {
+                Postings p = buckets.get(MinHash.bandKey(sig, band));
+                if (p == null) continue;
+                for (int i = 0; i < p.size; i++) {
+                    int d = p.docs[i];
+                    if (!seen.add(d) || jobs[d].getJobId().equals(job.getJobId())) continue;
+                    double s = similarity(sig, d);
+                    if (s >= minSimilarity) out.add(new DuplicateMatch(jobs[d], s));
+                }
+            }
+            out.sort(Comparator.comparingDouble(DuplicateMatch::similarity).reversed()
+                    .thenComparing(Comparator.comparingLong((DuplicateMatch m) -> m.job().getTimestamp()).reversed()));
+            return out.size() > limit ? new ArrayList<>(out.subList(0, limit)) : out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The closest job by the same poster at or above {@link #blockSimilarity()}, if any;
+     * such a post is treated as a repost and refused.
+     */
+    public Optional<DuplicateMatch> findRepost(Job job) {
+        if (job == null || job.getPostedByUserId() == null) return Optional.empty();
+        for (DuplicateMatch m : findSimilar(job, blockSimilarity(), 20)) {
+            if (job.getPostedByUserId().equals(m.job().getPostedByUserId())) return Optional.of(m);
+        }
+        return Optional.empty();
+    }
+
+    private double similarity(char[] sig, int doc) {
+        int offset = doc * MinHash.HASHES;
+        int equal = 0;
+        for (int i = 0; i < MinHash.HASHES; i++) {
+            if (sig[i] == signatures[offset + i]) equal++;
+        }
+        return (double) equal / MinHash.HASHES;
+    }
+}
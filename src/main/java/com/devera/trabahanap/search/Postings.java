@@ -0,0 +1,44 @@
+package com.devera.trabahanap.search;
+
+import java.util.Arrays;
+
+/**
+ * Postings list for one term: internal doc ids in ascending order with their weighted term
+ * frequency, stored in parallel primitive arrays.
+ */
+final class Postings {
+
+    int[] docs = new int[2];
+    float[] freqs = new float[2];
+    int size;
+
+    /**
+     * Insert or replace the entry for doc.
+     */
+    void put(int doc, float freq) {
+        int i = Arrays.binarySearch(docs, 0, size, doc);
+        if (i >= 0) {
+            freqs[i] = freq;
+            return;
+        }
+        i = -i - 1;
+        if (size == docs.length) {
+            int cap = size + (size >> 1) + 1;
+            docs = Arrays.copyOf(docs, cap);
+            freqs = Arrays.copyOf(freqs, cap);
+        }
+        System.arraycopy(docs, i, docs, i + 1, size - i);
+        System.arraycopy(freqs, i, freqs, i + 1, size - i);
+        docs[i] = doc;
+        freqs[i] = freq;
+        size++;
+    }
+
+    void remove(int doc) {
+        int i = Arrays.binarySearch(docs, 0, size, doc);
+        if (i < 0) return;
+        System.arraycopy(docs, i + 1, docs, i, size - i - 1);
+        System.arraycopy(freqs, i + 1, freqs, i, size - i - 1);
+        size--;
+    }
+}
@@ -0,0 +1,289 @@
+package com.devera.trabahanap.search;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Radix (path-compressed) trie mapping string keys to int ids, where every node caches the
+ * best ids of its subtree. A prefix lookup is a walk of at most prefix.length() characters
+ * followed by a copy of the cached list, so its cost does not depend on how many keys share
+ * the prefix.
+ *
+ * Ranking is by the owner's weight for an id (higher first, then lower id). When a weight
+ * changes the owner calls {@link #refresh} for each key of that id, which fixes the caches
+ * along that single path bottom-up and stops at the first node the id does not reach: an
+ * ancestor's list can only contain ids that are in its child's list. Cached arrays are
+ * replaced, never modified, because split nodes start out sharing their child's array.
+ * Not thread-safe; the owner locks.
+ */
+final class PrefixTrie {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final int k;
+    private final IntUnaryOperator weightOf;
+    private final Node root = new Node("");
+
+    PrefixTrie(int k, IntUnaryOperator weightOf) {
+        this.k = k;
+        this.weightOf = weightOf;
+    }
+
+    private static final class Node {
+        String label;
+        char[] firsts = new char[0];
+        Node[] children = new Node[0];
+        int[] terminal = EMPTY;
+        int[] top = EMPTY;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(firsts, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        void putChild(Node n) {
+            char c = n.label.charAt(0);
+            int i = Arrays.binarySearch(firsts, c);
+            if (i >= 0) {
+                children[i] = n;
+                return;
+            }
+            i = -i - 1;
+            char[] f = new char[firsts.length + 1];
+            Node[] ch = new Node[children.length + 1];
+            System.arraycopy(firsts, 0, f, 0, i);
+            System.arraycopy(children, 0, ch, 0, i);
+            f[i] = c;
+            ch[i] = n;
+            System.arraycopy(firsts, i, f, i + 1, firsts.length - i);
+            System.arraycopy(children, i, ch, i + 1, children.length - i);
+            firsts = f;
+            children = ch;
+        }
+
+        void removeChild(char c) {
+            int i = Arrays.binarySearch(firsts, c);
+            if (i < 0) return;
+            char[] f = new char[firsts.length - 1];
+            Node[] ch = new Node[children.length - 1];
+            System.arraycopy(firsts, 0, f, 0, i);
+            System.arraycopy(children, 0, ch, 0, i);
+            System.arraycopy(firsts, i + 1, f, i, firsts.length - i - 1);
+            System.arraycopy(children, i + 1, ch, i, children.length - i - 1);
+            firsts = f;
+            children = ch;
+        }
+    }
+
+    /**
+     * Associate id with key (no-op if already present) and update caches on its path.
+     */
+    void insert(String key, int id) {
+        Node[] path = new Node[key.length() + 2];
+        int depth = 0;
+        Node node = root;
+        path[depth++] = node;
+        String rest = key;
+        while (!rest.isEmpty()) {
+            Node child = node.child(rest.charAt(0));
+            if (child == null) {
+                child = new Node(rest);
+                node.putChild(child);
+                node = child;
+                path[depth++] = node;
+                rest = "";
+                break;
+            }
+            int common = commonPrefix(child.label, rest);
+            if (common < child.label.length()) {
+                // Split the edge: node -> mid(common part) -> child(remainder)
+                Node mid = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                mid.putChild(child);
+                mid.top = child.top;
+                node.putChild(mid);
+                child = mid;
+            }
+            node = child;
+            path[depth++] = node;
+            rest = rest.substring(common);
+        }
+        if (indexOf(node.terminal, id) < 0) {
+            node.terminal = Arrays.copyOf(node.terminal, node.terminal.length + 1);
+            node.terminal[node.terminal.length - 1] = id;
+        }
+        promote(path, depth, id);
+    }
+
+    /**
+     * Remove the association of id with key, pruning empty nodes.
+     */
+    void delete(String key, int id) {
+        Node[] path = new Node[key.length() + 2];
+        int depth = walkExact(key, path);
+        if (depth < 0) return;
+        Node node = path[depth - 1];
+        int i = indexOf(node.terminal, id);
+        if (i < 0) return;
+        int[] t = new int[node.terminal.length - 1];
+        System.arraycopy(node.terminal, 0, t, 0, i);
+        System.arraycopy(node.terminal, i + 1, t, i, t.length - i);
+        node.terminal = t;
+
+        // Prune childless, id-less nodes, then fold single-child chains back into one edge
+        while (depth > 1) {
+            Node n = path[depth - 1];
+            if (n.terminal.length > 0 || n.children.length > 0) break;
+            path[depth - 2].removeChild(n.label.charAt(0));
+            depth--;
+        }
+        Node last = path[depth - 1];
+        if (depth > 1 && last.terminal.length == 0 && last.children.length == 1) {
+            Node only = last.children[0];
+            last.label = last.label + only.label;
+            last.terminal = only.terminal;
+            last.firsts = only.firsts;
+            last.children = only.children;
+            last.top = only.top;
+        }
+        // The surviving node may have lost the id by merging, its ancestors still list it
+        demote(path, depth, id, true);
+    }
+
+    /**
+     * Re-rank the caches on key's path after the weight of id (stored under key) changed.
+     */
+    void refresh(String key, int id, boolean increased) {
+        Node[] path = new Node[key.length() + 2];
+        int depth = walkExact(key, path);
+        if (depth <= 0) return;
+        if (increased) {
+            promote(path, depth, id);
+        } else {
+            demote(path, depth, id, false);
+        }
+    }
+
+    /**
+     * Best ids (at most k) among keys starting with prefix, best first. The array is shared
+     * with the trie and must not be modified.
+     */
+    int[] top(String prefix) {
+        Node node = root;
+        String rest = prefix;
+        while (!rest.isEmpty()) {
+            Node child = node.child(rest.charAt(0));
+            if (child == null) return EMPTY;
+            if (rest.startsWith(child.label)) {
+                rest = rest.substring(child.label.length());
+            } else if (child.label.startsWith(rest)) {
+                rest = "";
+            } else {
+                return EMPTY;
+            }
+            node = child;
+        }
+        return node.top;
+    }
+
+    /**
+     * Fill path with the nodes from root to the node for key; returns depth or -1.
+     */
+    private int walkExact(String key, Node[] path) {
+        int depth = 0;
+        Node node = root;
+        path[depth++] = node;
+        String rest = key;
+        while (!rest.isEmpty()) {
+            Node child = node.child(rest.charAt(0));
+            if (child == null || !rest.startsWith(child.label)) return -1;
+            rest = rest.substring(child.label.length());
+            node = child;
+            path[depth++] = node;
+        }
+        return depth;
+    }
+
+    /**
+     * id got better (or is new): move it up or into each list on the path.
+     */
+    private void promote(Node[] path, int depth, int id) {
+        int w = weightOf.applyAsInt(id);
+        for (int d = depth - 1; d >= 0; d--) {
+            Node n = path[d];
+            int i = indexOf(n.top, id);
+            int[] top;
+            if (i >= 0) {
+                top = n.top.clone();
+            } else {
+                if (n.top.length == k && !better(w, id, n.top[k - 1])) return;
+                top = Arrays.copyOf(n.top, Math.min(k, n.top.length + 1));
+                i = top.length - 1;
+                top[i] = id;
+            }
+            while (i > 0 && better(w, id, top[i - 1])) {
+                top[i] = top[i - 1];
+                top[--i] = id;
+            }
+            n.top = top;
+        }
+    }
+
+    /**
+     * id got worse (or was removed): recompute each list on the path that contains it.
+     */
+    private void demote(Node[] path, int depth, int id, boolean rebuildFirst) {
+        for (int d = depth - 1; d >= 0; d--) {
+            Node n = path[d];
+            if (indexOf(n.top, id) < 0 && !(rebuildFirst && d == depth - 1)) return;
+            int[] best = new int[k];
+            int size = 0;
+            for (int t : n.terminal) size = offer(best, size, t);
+            for (Node c : n.children) {
+                for (int t : c.top) size = offer(best, size, t);
+            }
+            n.top = size == k ? best : Arrays.copyOf(best, size);
+        }
+    }
+
+    /**
+     * Insert id into the descending-by-weight list best[0..size), keeping at most k entries
+     * and no duplicates.
+     */
+    private int offer(int[] best, int size, int id) {
+        if (indexOf(best, size, id) >= 0) return size;
+        int w = weightOf.applyAsInt(id);
+        int pos = size;
+        while (pos > 0 && better(w, id, best[pos - 1])) pos--;
+        if (pos >= k) return size;
+        int newSize = Math.min(size + 1, k);
+        System.arraycopy(best, pos, best, pos + 1, newSize - pos - 1);
+        best[pos] = id;
+        return newSize;
+    }
+
+    private boolean better(int w, int id, int other) {
+        int ow = weightOf.applyAsInt(other);
+        return w != ow ? w > ow : id < other;
+    }
+
+    private static int commonPrefix(String a, String b) {
+        int n = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < n && a.charAt(i) == b.charAt(i)) i++;
+        return i;
+    }
+
+    private static int indexOf(int[] arr, int id) {
+        return indexOf(arr, arr.length, id);
+    }
+
+    private static int indexOf(int[] arr, int size, int id) {
+        for (int i = 0; i < size; i++) if (arr[i] == id) return i;
+        return -1;
+    }
+}
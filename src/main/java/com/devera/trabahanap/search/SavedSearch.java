@@ -0,0 +1,70 @@
+package com.devera.trabahanap.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A user's saved job search, checked against every new job by {@link SavedSearchIndex}.
+ *
+ * Every criterion that is set must hold (null / empty means "any"):
+ *  - category: the job's category key, ignoring case
+ *  - location: the same gazetteer place as the job (or the same text if either is unknown)
+ *  - budgetMin / budgetMax: the job's budget range overlaps this one; jobs without a budget
+ *    only match searches without one
+ *  - keywords: every keyword term appears in the job's title, description or skills
+ *  - skills: the job asks for at least one of them
+ */
+public record SavedSearch(String id, String userId, String name, String category, String location,
+                          Double budgetMin, Double budgetMax, String keywords, List<String> skills,
+                          long createdAt) {
+
+    public SavedSearch {
+        skills = skills != null ? List.copyOf(skills) : List.of();
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> m = new HashMap<>();
+        m.put("userId", userId);
+        m.put("createdAt", createdAt);
+        if (name != null) m.put("name", name);
+        if (category != null) m.put("category", category);
+        if (location != null) m.put("location", location);
+        if (budgetMin != null) m.put("budgetMin", budgetMin);
+        if (budgetMax != null) m.put("budgetMax", budgetMax);
+        if (keywords != null) m.put("keywords", keywords);
+        if (!skills.isEmpty()) m.put("skills", new ArrayList<>(skills));
+        return m;
+    }
+
+    public static SavedSearch fromMap(String id, Map<String, Object> map) {
+        if (map == null) return null;
+        List<String> skills = new ArrayList<>();
+        if (map.get("skills") instanceof List<?> list) {
+            for (Object o : list) {
+                if (o != null) skills.add(o.toString());
+            }
+        }
+        return new SavedSearch(id, text(map.get("userId")), text(map.get("name")), text(map.get("category")),
+                text(map.get("location")), number(map.get("budgetMin")), number(map.get("budgetMax")),
+                text(map.get("keywords")), skills,
+                map.get("createdAt") instanceof Number n ? n.longValue() : 0L);
+    }
+
+    private static String text(Object o) {
+        return o != null && !o.toString().isBlank() ? o.toString() : null;
+    }
+
+    private static Double number(Object o) {
+        if (o instanceof Number n) return n.doubleValue();
+        if (o instanceof String s) {
+            try {
+                return Double.parseDouble(s);
+            } catch (NumberFormatException ignored) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
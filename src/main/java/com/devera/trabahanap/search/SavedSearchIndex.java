@@ -0,0 +1,382 @@
+package com.devera.trabahanap.search;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.geo.Gazetteer;
+import com.devera.trabahanap.geo.Place;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Reverse search (percolator): given one new job, which {@link SavedSearch}es match it.
+ *
+ * Instead of running every saved search against the job, each search is filed once under
+ * an anchor that any matching job must hit:
+ *  category key ("" = any) -> location key ("" = any) -> one of
+ *   - a keyword term of the search (the one with the fewest searches filed under it), or
+ *   - each of its skills, when it has skills but no keywords, or
+ *   - "any", when it has neither
+ * A job looks up its own category and location and "any" at the first two levels (at most
+ * four nodes), then its terms and skills in those nodes, and only the searches found that
+ * way are checked in full. Searches that constrain nothing but the budget land in the
+ * "any" lists and are checked for every job.
+ *
+ * Searches are compiled once (keywords tokenized, skills canonicalised, location resolved
+ * with the {@link Gazetteer}), so a check is a few comparisons. Reads and writes may come
+ * from any thread.
+ */
+public final class SavedSearchIndex {
+
+    private static final String ANY = "";
+
+    private static final SavedSearchIndex instance = new SavedSearchIndex();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // category key -> location key -> anchor node
+    private final Map<String, Map<String, Node>> anchors = new HashMap<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private Compiled[] searches = new Compiled[16];
+    private int[] freeIds = new int[16];
+    private int freeCount;
+    private int nextId;
+    private int live;
+
+    public SavedSearchIndex() {}
+
+    /**
+     * Shared index of the logged-in user's saved searches, loaded by SavedSearchService.
+     */
+    public static SavedSearchIndex get() {
+        return instance;
+    }
+
+    //--------------------------------------------------------------------------
+    // Updates
+    //--------------------------------------------------------------------------
+
+    public void add(SavedSearch search) {
+        if (search == null || search.id() == null) return;
+        Compiled c = compile(search);
+        lock.writeLock().lock();
+        try {
+            addLocked(c);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String searchId) {
+        if (searchId == null) return;
+        lock.writeLock().lock();
+        try {
+            Integer id = ids.remove(searchId);
+            if (id != null) removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Make the index contain exactly these searches.
+     */
+    public void sync(Collection<SavedSearch> current) {
+        List<Compiled> compiled = new ArrayList<>(current.size());
+        for (SavedSearch s : current) {
+            if (s != null && s.id() != null) compiled.add(compile(s));
+        }
+        lock.writeLock().lock();
+        try {
+            Set<String> keep = new HashSet<>();
+            for (Compiled c : compiled) {
+                keep.add(c.search.id());
+                Integer existing = ids.get(c.search.id());
+                if (existing != null && searches[existing].search.equals(c.search)) continue;
+                addLocked(c);
+            }
+            for (Iterator<Map.Entry<String, Integer>> it = ids.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, Integer> e = it.next();
+                if (!keep.contains(e.getKey())) {
+                    it.remove();
+                    removeLocked(e.getValue());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocked(Compiled c) {
+        Integer existing = ids.remove(c.search.id());
+        if (existing != null) removeLocked(existing);
+
+        int id = allocateId();
+        searches[id] = c;
+        ids.put(c.search.id(), id);
+        live++;
+
+        Node node = anchors.computeIfAbsent(c.category, k -> new HashMap<>()).computeIfAbsent(c.location, k -> new Node());
+        if (c.terms.length > 0) {
+            c.anchorTerm = rarest(node, c.terms);
+            node.byTerm.computeIfAbsent(c.anchorTerm, k -> new Postings()).put(id, 1f);
+        } else if (c.skills.length > 0) {
+            for (String s : c.skills) node.bySkill.computeIfAbsent(s, k -> new Postings()).put(id, 1f);
+        } else {
+            node.any.put(id, 1f);
+        }
+    }
+
+    private void removeLocked(int id) {
+        Compiled c = searches[id];
+        Map<String, Node> byLocation = anchors.get(c.category);
+        Node node = byLocation != null ? byLocation.get(c.location) : null;
+        if (node != null) {
+            if (c.anchorTerm != null) {
+                removePosting(node.byTerm, c.anchorTerm, id);
+            } else if (c.skills.length > 0) {
+                for (String s : c.skills) removePosting(node.bySkill, s, id);
+            } else {
+                node.any.remove(id);
+            }
+            if (node.isEmpty()) {
+                byLocation.remove(c.location);
+                if (byLocation.isEmpty()) anchors.remove(c.category);
+            }
+        }
+        searches[id] = null;
+        live--;
+        if (freeCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        freeIds[freeCount++] = id;
+    }
+
+    private static void removePosting(Map<String, Postings> map, String key, int id) {
+        Postings p = map.get(key);
+        if (p == null) return;
+        p.remove(id);
+        if (p.size == 0) map.remove(key);
+    }
+
+    private static String rarest(Node node, String[] terms) {
+        String best = null;
+        int bestSize = Integer.MAX_VALUE;
+        for (String t : terms) {
+            Postings p = node.byTerm.get(t);
+            int size = p != null ? p.size : 0;
+            if (size < bestSize || (size == bestSize && t.length() > best.length())) {
+                best = t;
+                bestSize = size;
+            }
+        }
+        return best;
+    }
+
+    private int allocateId() {
+        if (freeCount > 0) return freeIds[--freeCount];
+        if (nextId == searches.length) searches = Arrays.copyOf(searches, nextId * 2);
+        return nextId++;
+    }
+
+    //--------------------------------------------------------------------------
+    // Matching
+    //--------------------------------------------------------------------------
+
+    /**
+     * Saved searches the job matches, in no particular order.
+     */
+    public List<SavedSearch> match(Job job) {
+        if (job == null) return List.of();
+        JobFacts f = new JobFacts(job);
+        lock.readLock().lock();
+        try {
+            long[] seen = new long[(nextId + 63) >>> 6];
+            List<SavedSearch> out = new ArrayList<>();
+            for (String category : f.category != null ? new String[] { f.category, ANY } : new String[] { ANY }) {
+                Map<String, Node> byLocation = anchors.get(category);
+                if (byLocation == null) continue;
+                for (String location : f.location != null ? new String[] { f.location, ANY } : new String[] { ANY }) {
+                    Node node = byLocation.get(location);
+                    if (node == null) continue;
+                    check(node.any, f, seen, out);
+                    probe(node.byTerm, f.terms, f, seen, out);
+                    probe(node.bySkill, f.skills, f, seen, out);
+                }
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Same result as {@link #match} by checking every saved search; for tests that verify
+     * the index.
+     */
+    public List<SavedSearch> matchByScan(Job job) {
+        if (job == null) return List.of();
+        JobFacts f = new JobFacts(job);
+        lock.readLock().lock();
+        try {
+            List<SavedSearch> out = new ArrayList<>();
+            for (int id = 0; id < nextId; id++) {
+                if (searches[id] != null && searches[id].matches(f)) out.add(searches[id].search);
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Check the searches filed under the job's keys, walking whichever side is smaller.
+     */
+    private void probe(Map<String, Postings> map, Set<String> keys, JobFacts f, long[] seen, List<SavedSearch> out) {
+        if (map.isEmpty() || keys.isEmpty()) return;
+        if (map.size() < keys.size()) {
+            for (Map.Entry<String, Postings> e : map.entrySet()) {
+                if (keys.contains(e.getKey())) check(e.getValue(), f, seen, out);
+            }
+        } else {
+            for (String k : keys) {
+                Postings p = map.get(k);
+                if (p != null) check(p, f, seen, out);
+            }
+        }
+    }
+
+    private void check(Postings p, JobFacts f, long[] seen, List<SavedSearch> out) {
+        for (int i = 0; i < p.size; i++) {
+            int id = p.docs[i];
+            long bit = 1L << id;
+            if ((seen[id >>> 6] & bit) != 0) continue;
+            seen[id >>> 6] |= bit;
+            if (searches[id].matches(f)) out.add(searches[id].search);
+        }
+    }
+
+    //--------------------------------------------------------------------------
+    // Compiled forms
+    //--------------------------------------------------------------------------
+
+    private static Compiled compile(SavedSearch s) {
+        Set<String> terms = new LinkedHashSet<>(Tokenizer.tokenize(s.keywords()));
+        Set<String> skills = new LinkedHashSet<>();
+        for (String raw : s.skills()) {
+            String canonical = Skills.canonical(raw);
+            if (!canonical.isEmpty()) skills.add(canonical);
+        }
+        return new Compiled(s, categoryKey(s.category()), locationKey(s.location(), null),
+                s.budgetMin() != null ? s.budgetMin() : Double.NaN,
+                s.budgetMax() != null ? s.budgetMax() : Double.NaN,
+                terms.toArray(new String[0]), skills.toArray(new String[0]));
+    }
+
+    private static String categoryKey(String category) {
+        return category != null && !category.isBlank() ? category.trim().toLowerCase(Locale.ROOT) : ANY;
+    }
+
+    /**
+     * "place:" + gazetteer name when the text (or a known placeName) resolves, else the
+     * folded text; "" when there is none.
+     */
+    private static String locationKey(String text, String placeName) {
+        if (placeName != null) return "place:" + placeName;
+        if (text == null || text.isBlank()) return ANY;
+        Optional<Place> place = Gazetteer.get().resolve(text);
+        return place.map(p -> "place:" + p.name()).orElseGet(() -> Tokenizer.foldPhrase(text).strip());
+    }
+
+    private static final class Node {
+        final Map<String, Postings> byTerm = new HashMap<>();
+        final Map<String, Postings> bySkill = new HashMap<>();
+        final Postings any = new Postings();
+
+        boolean isEmpty() {
+            return byTerm.isEmpty() && bySkill.isEmpty() && any.size == 0;
+        }
+    }
+
+    private static final class Compiled {
+        final SavedSearch search;
+        final String category;
+        final String location;
+        final double budgetMin;
+        final double budgetMax;
+        final String[] terms;
+        final String[] skills;
+        String anchorTerm;
+
+        Compiled(SavedSearch search, String category, String location, double budgetMin, double budgetMax,
+                 String[] terms, String[] skills) {
+            this.search = search;
+            this.category = category;
+            this.location = location;
+            this.budgetMin = budgetMin;
+            this.budgetMax = budgetMax;
+            this.terms = terms;
+            this.skills = skills;
+        }
+
+        boolean matches(JobFacts f) {
+            if (!category.isEmpty() && !category.equals(f.category)) return false;
+            if (!location.isEmpty() && !location.equals(f.location)) return false;
+            if (!Double.isNaN(budgetMin) || !Double.isNaN(budgetMax)) {
+                if (Double.isNaN(f.budgetLow)) return false;
+                if (!Double.isNaN(budgetMin) && f.budgetHigh < budgetMin) return false;
+                if (!Double.isNaN(budgetMax) && f.budgetLow > budgetMax) return false;
+            }
+            for (String t : terms) {
+                if (!f.terms.contains(t)) return false;
+            }
+            if (skills.length > 0) {
+                boolean any = false;
+                for (String s : skills) {
+                    if (f.skills.contains(s)) {
+                        any = true;
+                        break;
+                    }
+                }
+                if (!any) return false;
+            }
+            return true;
+        }
+    }
+
+    /** What a job offers to match against, computed once per job. */
+    private static final class JobFacts {
+        final String category;
+        final String location;
+        final double budgetLow;
+        final double budgetHigh;
+        final Set<String> terms = new HashSet<>();
+        final Set<String> skills = new HashSet<>();
+
+        JobFacts(Job job) {
+            String c = categoryKey(job.getCategory());
+            this.category = c.isEmpty() ? null : c;
+            String l = locationKey(job.getLocation(), job.getPlaceName());
+            this.location = l.isEmpty() ? null : l;
+            Double min = job.getBudgetMin() != null ? job.getBudgetMin() : job.getBudgetMax();
+            Double max = job.getBudgetMax() != null ? job.getBudgetMax() : job.getBudgetMin();
+            this.budgetLow = min != null ? min : Double.NaN;
+            this.budgetHigh = max != null ? max : Double.NaN;
+            terms.addAll(Tokenizer.tokenize(job.getTitle()));
+            terms.addAll(Tokenizer.tokenize(job.getDescription()));
+            if (job.getSkills() != null) {
+                for (String raw : job.getSkills()) {
+                    terms.addAll(Tokenizer.tokenize(raw));
+                    String canonical = Skills.canonical(raw);
+                    if (!canonical.isEmpty()) skills.add(canonical);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.devera.trabahanap.search;
+
+import com.devera.trabahanap.core.Job;
+
+/**
+ * One search result: the matched job and its relevance score (higher is better).
+ */
+public record SearchHit(Job job, double score) {}
@@ -0,0 +1,83 @@
+package com.devera.trabahanap.search;
+
+import com.devera.trabahanap.core.Job;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A user's interests as a sparse skill vector (canonical skill -> weight), built from the
+ * jobs they post and the jobs they open. Input for {@link JobRecommender}.
+ *
+ * {@link #session()} is the profile of whoever is using the app right now; screens feed it
+ * as jobs are viewed. Thread-safe.
+ */
+public final class SkillProfile {
+
+    /** Weight of a skill on a job the user opened. */
+    public static final double VIEW_WEIGHT = 1.0;
+    /** Weight of a skill on a job the user posted. */
+    public static final double POST_WEIGHT = 2.0;
+
+    private static final SkillProfile session = new SkillProfile();
+
+    private final Map<String, Double> weights = new HashMap<>();
+
+    public static SkillProfile session() {
+        return session;
+    }
+
+    /**
+     * Add weight to one skill.
+     */
+    public synchronized SkillProfile add(String skill, double weight) {
+        String canonical = Skills.canonical(skill);
+        if (!canonical.isEmpty() && weight > 0) weights.merge(canonical, weight, Double::sum);
+        return this;
+    }
+
+    /**
+     * Add weight to every skill of a job.
+     */
+    public SkillProfile addJob(Job job, double weight) {
+        if (job == null || job.getSkills() == null) return this;
+        for (String s : job.getSkills()) add(s, weight);
+        return this;
+    }
+
+    /**
+     * Copy of this profile plus the skills of the jobs in jobs posted by userId.
+     */
+    public SkillProfile withPostsBy(String userId, Collection<Job> jobs) {
+        SkillProfile out = copy();
+        if (userId == null || jobs == null) return out;
+        for (Job j : jobs) {
+            if (j != null && Objects.equals(userId, j.getPostedByUserId())) out.addJob(j, POST_WEIGHT);
+        }
+        return out;
+    }
+
+    public synchronized SkillProfile copy() {
+        SkillProfile out = new SkillProfile();
+        out.weights.putAll(weights);
+        return out;
+    }
+
+    public synchronized boolean isEmpty() {
+        return weights.isEmpty();
+    }
+
+    public synchronized void clear() {
+        weights.clear();
+    }
+
+    /**
+     * Snapshot of canonical skill -> weight.
+     */
+    public synchronized Map<String, Double> weights() {
+        return Collections.unmodifiableMap(new HashMap<>(weights));
+    }
+}
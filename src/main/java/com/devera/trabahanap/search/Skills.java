@@ -0,0 +1,57 @@
+package com.devera.trabahanap.search;
+
+import java.util.Map;
+
+/**
+ * Canonical form of a free-text skill, so "ReactJS", "react.js" and "React" end up as the
+ * same skill id. Case and accents are folded, punctuation collapses to single spaces, the
+ * few symbols that carry meaning in skill names (C++, C#, .NET) are spelled out first, and
+ * common aliases are mapped to one name.
+ */
+final class Skills {
+
+    private static final Map<String, String> ALIASES = Map.ofEntries(
+            Map.entry("js", "javascript"),
+            Map.entry("java script", "javascript"),
+            Map.entry("ts", "typescript"),
+            Map.entry("reactjs", "react"),
+            Map.entry("react js", "react"),
+            Map.entry("nodejs", "node"),
+            Map.entry("node js", "node"),
+            Map.entry("vuejs", "vue"),
+            Map.entry("vue js", "vue"),
+            Map.entry("py", "python"),
+            Map.entry("golang", "go"),
+            Map.entry("postgres", "postgresql"),
+            Map.entry("ms excel", "excel"),
+            Map.entry("microsoft excel", "excel"),
+            Map.entry("ms word", "word"),
+            Map.entry("microsoft word", "word"),
+            Map.entry("adobe photoshop", "photoshop"),
+            Map.entry("adobe illustrator", "illustrator"),
+            Map.entry("adobe premiere", "premiere"),
+            Map.entry("premiere pro", "premiere"),
+            Map.entry("ui ux", "ui/ux"),
+            Map.entry("ux ui", "ui/ux"),
+            Map.entry("search engine optimization", "seo"),
+            Map.entry("social media marketing", "social media"),
+            Map.entry("copy writing", "copywriting")
+    );
+
+    private Skills() {}
+
+    /**
+     * Canonical skill name, or "" if nothing is left.
+     */
+    static String canonical(String skill) {
+        if (skill == null) return "";
+        String s = skill.strip().toLowerCase(java.util.Locale.ROOT)
+                .replace("c++", "cpp")
+                .replace("c#", "csharp")
+                .replace("f#", "fsharp");
+        if (s.startsWith(".net")) s = "dotnet" + s.substring(4);
+        s = s.replace(".net", " dotnet");
+        s = Tokenizer.foldPhrase(s).strip();
+        return ALIASES.getOrDefault(s, s);
+    }
+}
@@ -0,0 +1,9 @@
+package com.devera.trabahanap.search;
+
+/**
+ * One autocomplete suggestion. weight is the number of current jobs that use the text.
+ */
+public record Suggestion(String text, Kind kind, int weight) {
+
+    public enum Kind { TITLE, SKILL, LOCATION }
+}
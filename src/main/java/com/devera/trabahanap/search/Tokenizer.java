@@ -0,0 +1,137 @@
+package com.devera.trabahanap.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Text analysis shared by indexing and querying.
+ *
+ * Text is case- and accent-folded (so "Parañaque" matches "paranaque"), split on anything
+ * that is not a letter or digit, stripped of common English and Filipino stopwords and
+ * lightly stemmed. Filipino affixes written with a hyphen ("mag-edit", "pag-aaral") split
+ * into separate tokens and the affix is dropped as a stopword; unhyphenated Filipino words
+ * are left as they are, since stripping affixes blindly mangles English loanwords.
+ */
+public final class Tokenizer {
+
+    static final int MAX_TOKEN_LENGTH = 40;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            // English
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "have", "i", "in",
+            "is", "it", "its", "of", "on", "or", "our", "that", "the", "this", "to", "was", "we",
+            "will", "with", "you", "your",
+            // Filipino function words
+            "ang", "ng", "nang", "mga", "sa", "na", "ay", "ko", "mo", "ka", "kami", "kayo",
+            "sila", "siya", "ako", "ito", "iyan", "iyon", "si", "ni", "kay", "para", "po", "din",
+            "rin", "lang", "lamang", "ba", "pa", "naman", "kung", "may", "mayroon", "nila",
+            "namin", "natin", "ating", "aming", "inyong", "kanila",
+            // Filipino affixes that appear as separate tokens after splitting on '-'
+            "mag", "nag", "pag", "taga", "ma", "pinaka", "ika"
+    );
+
+    private Tokenizer() {}
+
+    /**
+     * Analyze text into index terms, in order, duplicates kept.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null || text.isEmpty()) return out;
+
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean word = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                addTerm(out, folded.substring(start, Math.min(i, start + MAX_TOKEN_LENGTH)));
+                start = -1;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Fold a single query fragment the same way as indexed text, without stopword removal or
+     * stemming; used for prefix matching of the word being typed.
+     */
+    public static String foldPrefix(String text) {
+        if (text == null) return "";
+        StringBuilder sb = new StringBuilder();
+        for (char c : fold(text).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) sb.append(c);
+        }
+        return sb.length() > MAX_TOKEN_LENGTH ? sb.substring(0, MAX_TOKEN_LENGTH) : sb.toString();
+    }
+
+    /**
+     * Fold a phrase for suggestion keys: case and accents folded, runs of non-alphanumeric
+     * characters collapsed to one space, leading spaces dropped. A trailing space is kept so
+     * "java " only continues with a new word.
+     */
+    public static String foldPhrase(String text) {
+        if (text == null) return "";
+        String folded = fold(text);
+        StringBuilder sb = new StringBuilder(folded.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && sb.length() > 0) sb.append(' ');
+                pendingSpace = false;
+                sb.append(c);
+            } else {
+                pendingSpace = true;
+            }
+        }
+        if (pendingSpace && sb.length() > 0) sb.append(' ');
+        return sb.toString();
+    }
+
+    private static void addTerm(List<String> out, String token) {
+        if (STOPWORDS.contains(token)) return;
+        out.add(stem(token));
+    }
+
+    private static String fold(String text) {
+        String lower = text.toLowerCase(java.util.Locale.ROOT);
+        // Fast path: plain ASCII needs no decomposition
+        boolean ascii = true;
+        for (int i = 0; i < lower.length() && ascii; i++) ascii = lower.charAt(i) < 0x80;
+        if (ascii) return lower;
+
+        String decomposed = Normalizer.normalize(lower, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Conservative English suffix stripping (plurals, -ing, -ed); short words are left alone.
+     */
+    static String stem(String t) {
+        int n = t.length();
+        if (n <= 3 || !Character.isLetter(t.charAt(n - 1))) return t;
+        if (t.endsWith("ies") && n > 4) return t.substring(0, n - 3) + "y";
+        if (t.endsWith("sses")) return t.substring(0, n - 2);
+        if (t.endsWith("ing") && n > 5) return undouble(t.substring(0, n - 3));
+        if (t.endsWith("ed") && n > 4) return undouble(t.substring(0, n - 2));
+        if (t.endsWith("s") && !t.endsWith("ss") && !t.endsWith("us") && !t.endsWith("is")) return t.substring(0, n - 1);
+        return t;
+    }
+
+    private static String undouble(String t) {
+        int n = t.length();
+        if (n >= 3 && t.charAt(n - 1) == t.charAt(n - 2) && "lsz".indexOf(t.charAt(n - 1)) < 0) {
+            return t.substring(0, n - 1);
+        }
+        return t;
+    }
+}
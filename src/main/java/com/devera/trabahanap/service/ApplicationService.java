@@ -0,0 +1,246 @@
+package com.devera.trabahanap.service;
+
+import com.devera.trabahanap.core.Application;
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.service.http.RetryPolicy;
+import com.devera.trabahanap.system.Config;
+import com.devera.trabahanap.system.SessionManager;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Job applications, stored at jobs/{jobId}/applications/{applicantId}.
+ *
+ * Applying is one atomic commit of two writes, so the application and the job's
+ * applicationCount never disagree:
+ *  - create the application with an exists=false precondition (one per user and job)
+ *  - for a job with maxApplicants: set applicationCount to the count just read, plus one,
+ *    with an updateTime precondition. If another applicant got in first the commit is
+ *    rejected, the job is read again and the attempt repeated (after a jittered backoff),
+ *    so the limit holds however many people apply at once.
+ *  - for a job without a limit: increment applicationCount on the server, which needs
+ *    no read and never conflicts with other applicants.
+ * A commit whose response was lost is safe to repeat: the next read finds the application
+ * and reports ALREADY_APPLIED.
+ *
+ * Config keys: applications.maxAttempts (default 12), applications.baseDelayMs (default 25).
+ */
+public class ApplicationService {
+
+    private static final String JOBS_COLLECTION = "jobs";
+    private static final String APPLICATIONS = "applications";
+    private static final int BATCH_GET_SIZE = 100;
+
+    // userId -> ids of jobs that user has applied to, as far as this process knows
+    private static final Map<String, Set<String>> applied = new ConcurrentHashMap<>();
+
+    private final FirestoreDocuments documents;
+    private final RetryPolicy conflictRetry;
+
+    public ApplicationService() {
+        this(Config.get("firebase.projectId"));
+    }
+
+    public ApplicationService(String projectId) {
+        this.documents = new FirestoreDocuments(projectId);
+        this.conflictRetry = new RetryPolicy(
+                Math.max(1, Config.getInt("applications.maxAttempts", 12)),
+                Math.max(1, Config.getLong("applications.baseDelayMs", 25)),
+                1000);
+    }
+
+    /**
+     * Apply to the job as the logged-in user.
+     */
+    public CompletableFuture<ApplyResult> apply(Job job) {
+        Optional<String> userId = SessionManager.get().getLocalId();
+        if (userId.isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("You must be logged in to apply"));
+        }
+        if (userId.get().equals(job.getPostedByUserId())) {
+            return CompletableFuture.failedFuture(new IllegalStateException("You cannot apply to your own job"));
+        }
+        return apply(job.getJobId(), job.getTitle(), userId.get(), SessionManager.get().getDisplayName().orElse(null));
+    }
+
+    public CompletableFuture<ApplyResult> apply(String jobId, String jobTitle, String applicantId, String applicantName) {
+        String token;
+        try {
+            token = FirestoreDocuments.obtainAccessToken();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        Application application = new Application(jobId, applicantId, applicantName, jobTitle,
+                Application.SUBMITTED, System.currentTimeMillis(), null);
+        return attempt(application, token, 1).thenApply(result -> {
+            if (result.status() == ApplyResult.Status.APPLIED || result.status() == ApplyResult.Status.ALREADY_APPLIED) {
+                applied.computeIfAbsent(applicantId, k -> ConcurrentHashMap.newKeySet()).add(jobId);
+            }
+            return result;
+        });
+    }
+
+    private CompletableFuture<ApplyResult> attempt(Application application, String token, int attemptNo) {
+        String jobId = application.jobId();
+        String jobName = documents.documentName(JOBS_COLLECTION, jobId);
+        String applicationsPath = JOBS_COLLECTION + "/" + jobId + "/" + APPLICATIONS;
+        String applicationName = documents.documentName(applicationsPath, application.applicantId());
+
+        return documents.batchGet(List.of(jobName, applicationName), token).thenCompose(found -> {
+            JsonObject jobDoc = found.get(jobName);
+            if (jobDoc == null) throw new IllegalStateException("This job no longer exists");
+            Map<String, Object> fields = FirestoreCodec.decodeFields(jobDoc.getAsJsonObject("fields"));
+            int count = fields.get("applicationCount") instanceof Number n ? n.intValue() : 0;
+            if (found.containsKey(applicationName)) {
+                return done(ApplyResult.Status.ALREADY_APPLIED, count, attemptNo);
+            }
+            if (!Job.fromMap(jobId, fields).isOpenAt(System.currentTimeMillis(), JobService.jobTtlMillis())) {
+                throw new IllegalStateException("This job is no longer accepting applications");
+            }
+            int max = fields.get("maxApplicants") instanceof Number n ? n.intValue() : 0;
+            if (max > 0 && count >= max) {
+                return done(ApplyResult.Status.FULL, count, attemptNo);
+            }
+
+            JsonArray writes = new JsonArray();
+            writes.add(documents.createWrite(applicationsPath, application.applicantId(),
+                    FirestoreCodec.encodeFields(application.toMap())));
+            if (max > 0) {
+                JsonObject counter = FirestoreCodec.encodeFields(Map.of("applicationCount", count + 1));
+                writes.add(documents.updateWrite(JOBS_COLLECTION, jobId, counter, jobDoc.get("updateTime").getAsString()));
+            } else {
+                writes.add(documents.incrementWrite(JOBS_COLLECTION, jobId, Map.of("applicationCount", 1L), true));
+            }
+
+            return documents.commit(writes, token)
+                    .thenApply(r -> new ApplyResult(ApplyResult.Status.APPLIED, count + 1, attemptNo))
+                    .exceptionallyCompose(err -> {
+                        if (!FirestoreDocuments.isConflict(err)) return CompletableFuture.failedFuture(err);
+                        if (attemptNo >= conflictRetry.maxAttempts()) {
+                            return done(ApplyResult.Status.CONTENDED, count, attemptNo);
+                        }
+                        long delay = conflictRetry.backoffMillis(attemptNo, 0);
+                        return CompletableFuture.supplyAsync(() -> null,
+                                        CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                                .thenCompose(x -> attempt(application, token, attemptNo + 1));
+                    });
+        });
+    }
+
+    private static CompletableFuture<ApplyResult> done(ApplyResult.Status status, int count, int attempts) {
+        return CompletableFuture.completedFuture(new ApplyResult(status, count, attempts));
+    }
+
+    /**
+     * The logged-in user's applications, newest first, each with its job.
+     */
+    public CompletableFuture<List<Application>> myApplications() {
+        Optional<String> userId = SessionManager.get().getLocalId();
+        if (userId.isEmpty()) return CompletableFuture.completedFuture(List.of());
+        return applicationsOf(userId.get());
+    }
+
+    /**
+     * All applications of one user, newest first, with their jobs.
+     *
+     * One collection-group query finds the applications; their jobs are then read with
+     * batchGet, up to 100 per request, all requests in parallel. Jobs not found in jobs are
+     * looked up in jobs_archive (moved there by the {@link JobSweeper}) the same way.
+     * Applications whose job was deleted are returned with job == null.
+     */
+    public CompletableFuture<List<Application>> applicationsOf(String applicantId) {
+        String token;
+        try {
+            token = FirestoreDocuments.obtainAccessToken();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        JsonObject from = new JsonObject();
+        from.addProperty("collectionId", APPLICATIONS);
+        from.addProperty("allDescendants", true);
+        JsonArray fromArr = new JsonArray();
+        fromArr.add(from);
+
+        JsonObject field = new JsonObject();
+        field.addProperty("fieldPath", "applicantId");
+        JsonObject filter = new JsonObject();
+        filter.add("field", field);
+        filter.addProperty("op", "EQUAL");
+        filter.add("value", FirestoreCodec.encodeValue(applicantId));
+        JsonObject where = new JsonObject();
+        where.add("fieldFilter", filter);
+
+        JsonObject query = new JsonObject();
+        query.add("from", fromArr);
+        query.add("where", where);
+
+        return documents.runQuery(query, token).thenCompose(docs -> {
+            List<Application> apps = new ArrayList<>(docs.size());
+            for (JsonObject doc : docs) {
+                Application a = Application.fromMap(FirestoreCodec.decodeFields(doc.getAsJsonObject("fields")));
+                if (a != null) apps.add(a);
+            }
+
+            List<String> jobIds = new ArrayList<>(apps.size());
+            for (Application a : apps) jobIds.add(a.jobId());
+
+            return readJobs(JOBS_COLLECTION, jobIds, token).thenCompose(hot -> {
+                List<String> missing = new ArrayList<>();
+                for (String id : jobIds) {
+                    if (!hot.containsKey(id)) missing.add(id);
+                }
+                return readJobs(JobSweeper.ARCHIVE_COLLECTION, missing, token).thenApply(archived -> {
+                    List<Application> out = new ArrayList<>(apps.size());
+                    Set<String> ids = ConcurrentHashMap.newKeySet();
+                    for (Application a : apps) {
+                        JsonObject jobDoc = hot.containsKey(a.jobId()) ? hot.get(a.jobId()) : archived.get(a.jobId());
+                        out.add(jobDoc == null ? a : a.withJob(Job.fromMap(a.jobId(),
+                                FirestoreCodec.decodeFields(jobDoc.getAsJsonObject("fields")))));
+                        ids.add(a.jobId());
+                    }
+                    out.sort(Comparator.comparingLong(Application::createdAt).reversed());
+                    applied.put(applicantId, ids);
+                    return out;
+                });
+            });
+        });
+    }
+
+    /**
+     * The documents of the given jobs in one collection, by job id (missing ones left out).
+     */
+    private CompletableFuture<Map<String, JsonObject>> readJobs(String collection, List<String> jobIds, String token) {
+        List<String> names = new ArrayList<>(jobIds.size());
+        for (String id : jobIds) names.add(documents.documentName(collection, id));
+        List<CompletableFuture<Map<String, JsonObject>>> reads = new ArrayList<>();
+        for (int i = 0; i < names.size(); i += BATCH_GET_SIZE) {
+            reads.add(documents.batchGet(names.subList(i, Math.min(names.size(), i + BATCH_GET_SIZE)), token));
+        }
+        return CompletableFuture.allOf(reads.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            Map<String, JsonObject> byId = new HashMap<>();
+            for (CompletableFuture<Map<String, JsonObject>> r : reads) {
+                for (JsonObject doc : r.join().values()) {
+                    byId.put(FirestoreCodec.documentId(doc.get("name").getAsString()), doc);
+                }
+            }
+            return byId;
+        });
+    }
+
+    /**
+     * Whether the logged-in user applied to the job, as known from this session's
+     * applies and the last {@link #myApplications} load.
+     */
+    public static boolean hasApplied(String jobId) {
+        Optional<String> userId = SessionManager.get().getLocalId();
+        if (userId.isEmpty() || jobId == null) return false;
+        Set<String> ids = applied.get(userId.get());
+        return ids != null && ids.contains(jobId);
+    }
+}
@@ -0,0 +1,21 @@
+package com.devera.trabahanap.service;
+
+/**
+ * Outcome of {@link ApplicationService#apply}.
+ *
+ * applicationCount is the job's count as last seen (after this application when APPLIED),
+ * attempts the number of commits tried.
+ */
+public record ApplyResult(Status status, int applicationCount, int attempts) {
+
+    public enum Status {
+        /** The application was written and counted. */
+        APPLIED,
+        /** This user had already applied; nothing was written. */
+        ALREADY_APPLIED,
+        /** The job reached its maxApplicants; nothing was written. */
+        FULL,
+        /** Too many people applied at the same moment and every attempt lost; try again. */
+        CONTENDED
+    }
+}
@@ -0,0 +1,27 @@
+package com.devera.trabahanap.service;
+
+import java.security.SecureRandom;
+
+/**
+ * Client-side document id generator, same shape as Firestore auto-ids
+ * (20 characters from [A-Za-z0-9], ~119 bits of randomness).
+ *
+ * Assigning the id before the first write is what makes creates repeatable:
+ * a retried or re-submitted write targets the same document instead of a new one.
+ */
+public final class DocumentIds {
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
+    private static final int LENGTH = 20;
+    private static final SecureRandom random = new SecureRandom();
+
+    private DocumentIds() {}
+
+    public static String newId() {
+        char[] out = new char[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            out[i] = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+        }
+        return new String(out);
+    }
+}
@@ -0,0 +1,23 @@
+package com.devera.trabahanap.service;
+
+import com.devera.trabahanap.search.DuplicateMatch;
+
+/**
+ * Thrown when a poster submits what is essentially one of their existing jobs again.
+ */
+public class DuplicateJobException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient DuplicateMatch match;
+
+    public DuplicateJobException(DuplicateMatch match) {
+        super("This looks like a repost of your job \"" + match.job().getTitle() + "\" ("
+                + Math.round(match.similarity() * 100) + "% alike)");
+        this.match = match;
+    }
+
+    public DuplicateMatch getMatch() {
+        return match;
+    }
+}
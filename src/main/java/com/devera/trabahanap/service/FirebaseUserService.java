@@ -1,5 +1,7 @@
 package com.devera.trabahanap.service;
 
+import com.devera.trabahanap.service.http.Endpoints;
+import com.devera.trabahanap.service.http.ResilientHttpClient;
 import com.devera.trabahanap.system.SessionManager;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
@@ -7,9 +9,7 @@ import com.google.gson.JsonParseException;
 
 import java.io.IOException;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
 
@@ -20,7 +20,7 @@ import java.util.concurrent.CompletableFuture;
 public class FirebaseUserService {
 
     private static final Gson gson = new Gson();
-    private static final HttpClient client = HttpClient.newHttpClient();
+    private static final ResilientHttpClient client = ResilientHttpClient.get();
 
     /**
      * Calls https://identitytoolkit.googleapis.com/v1/accounts:lookup?key={API_KEY}
@@ -29,32 +29,31 @@ public class FirebaseUserService {
      * Returns CompletableFuture of JsonObject with user info or completes exceptionally on error.
      */
     public CompletableFuture<JsonObject> getUserProfile(String apiKey, String idToken) {
-        return CompletableFuture.supplyAsync(() -> {
+        String url = Endpoints.identityToolkit() + "/accounts:lookup?key=" + apiKey;
+        JsonObject payload = new JsonObject();
+        payload.addProperty("idToken", idToken);
+
+        HttpRequest req = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(payload), StandardCharsets.UTF_8))
+                .build();
+
+        // accounts:lookup is a read even though it is a POST
+        return client.send("identity.lookup", req, true).thenApply(resp -> {
             try {
-                String url = "https://identitytoolkit.googleapis.com/v1/accounts:lookup?key=" + apiKey;
-                JsonObject payload = new JsonObject();
-                payload.addProperty("idToken", idToken);
-
-                HttpRequest req = HttpRequest.newBuilder()
-                        .uri(URI.create(url))
-                        .header("Content-Type", "application/json; charset=UTF-8")
-                        .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(payload), StandardCharsets.UTF_8))
-                        .build();
-
-                HttpResponse<String> resp = client.send(req, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
                 int status = resp.statusCode();
-                String body = resp.body();
                 if (status != 200) {
-                    throw new IOException("Failed to lookup user profile: HTTP " + status + " - " + body);
+                    throw new IOException("Failed to lookup user profile: HTTP " + status + " - " + resp.body());
                 }
-                JsonObject json = gson.fromJson(body, JsonObject.class);
+                JsonObject json = resp.json().getAsJsonObject();
                 // The response contains "users": [ { ... } ]
                 if (json.has("users") && json.getAsJsonArray("users").size() > 0) {
                     return json.getAsJsonArray("users").get(0).getAsJsonObject();
                 } else {
                     throw new IOException("No user returned from accounts:lookup");
                 }
-            } catch (IOException | InterruptedException | JsonParseException e) {
+            } catch (IOException | JsonParseException e) {
                 throw new RuntimeException(e);
             }
         });
@@ -68,7 +67,7 @@ public class FirebaseUserService {
         CompletableFuture<Boolean> future = new CompletableFuture<>();
 
         try {
-            String url = "https://identitytoolkit.googleapis.com/v1/accounts:sendOobCode?key=" + apiKey;
+            String url = Endpoints.identityToolkit() + "/accounts:sendOobCode?key=" + apiKey;
 
             JsonObject body = new JsonObject();
             body.addProperty("requestType", "PASSWORD_RESET");
@@ -80,7 +79,8 @@ public class FirebaseUserService {
                     .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
                     .build();
 
-            client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            // Sends an email, so only retried when the request never reached the server
+            client.send("identity.oob", request, false)
                     .whenComplete((response, err) -> {
                         if (err != null) {
                             future.completeExceptionally(err);
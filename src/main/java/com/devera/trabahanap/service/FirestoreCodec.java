@@ -0,0 +1,139 @@
+package com.devera.trabahanap.service;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Conversion between plain Java values and Firestore REST "Value" JSON.
+ *
+ * Encoding by Java type:
+ *  String -> stringValue, Boolean -> booleanValue, Integer/Long -> integerValue,
+ *  other Number -> doubleValue, Instant -> timestampValue, List -> arrayValue,
+ *  Map -> mapValue, null -> nullValue.
+ *
+ * Decoding reverses this; timestampValue is decoded to epoch millis (Long) so it can
+ * be fed straight into Job.fromMap.
+ */
+public final class FirestoreCodec {
+
+    private FirestoreCodec() {}
+
+    /**
+     * Firestore "fields" object for a Job. The timestamp and expiresAt are stored as real
+     * timestampValues.
+     */
+    public static JsonObject encodeJob(com.devera.trabahanap.core.Job job) {
+        Map<String, Object> data = job.toMap();
+        Object ts = data.get("timestamp");
+        if (ts instanceof Number n) data.put("timestamp", Instant.ofEpochMilli(n.longValue()));
+        Object expires = data.get("expiresAt");
+        if (expires instanceof Number n) data.put("expiresAt", Instant.ofEpochMilli(n.longValue()));
+        return encodeFields(data);
+    }
+
+    /**
+     * Encode a map into a Firestore "fields" object. Null map values are skipped.
+     */
+    public static JsonObject encodeFields(Map<String, ?> data) {
+        JsonObject fields = new JsonObject();
+        if (data == null) return fields;
+        for (Map.Entry<String, ?> e : data.entrySet()) {
+            if (e.getValue() == null) continue;
+            fields.add(e.getKey(), encodeValue(e.getValue()));
+        }
+        return fields;
+    }
+
+    public static JsonObject encodeValue(Object value) {
+        JsonObject v = new JsonObject();
+        if (value == null) {
+            v.add("nullValue", JsonNull.INSTANCE);
+        } else if (value instanceof String s) {
+            v.addProperty("stringValue", s);
+        } else if (value instanceof Boolean b) {
+            v.addProperty("booleanValue", b);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            // integerValue is a string in the REST encoding (int64)
+            v.addProperty("integerValue", value.toString());
+        } else if (value instanceof Number n) {
+            v.addProperty("doubleValue", n.doubleValue());
+        } else if (value instanceof Instant i) {
+            v.addProperty("timestampValue", i.toString());
+        } else if (value instanceof Collection<?> list) {
+            JsonArray arr = new JsonArray();
+            for (Object o : list) {
+                if (o != null) arr.add(encodeValue(o));
+            }
+            JsonObject wrapper = new JsonObject();
+            wrapper.add("values", arr);
+            v.add("arrayValue", wrapper);
+        } else if (value instanceof Map<?, ?> map) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            map.forEach((k, val) -> m.put(String.valueOf(k), val));
+            JsonObject wrapper = new JsonObject();
+            wrapper.add("fields", encodeFields(m));
+            v.add("mapValue", wrapper);
+        } else {
+            v.addProperty("stringValue", value.toString());
+        }
+        return v;
+    }
+
+    /**
+     * Convert Firestore document fields JSON into a simple Map<String,Object>.
+     */
+    public static Map<String, Object> decodeFields(JsonObject fields) {
+        Map<String, Object> m = new HashMap<>();
+        if (fields == null) return m;
+        for (String key : fields.keySet()) {
+            JsonElement el = fields.get(key);
+            if (el != null && el.isJsonObject()) m.put(key, decodeValue(el.getAsJsonObject()));
+        }
+        return m;
+    }
+
+    public static Object decodeValue(JsonObject v) {
+        if (v.has("stringValue")) return v.get("stringValue").getAsString();
+        if (v.has("integerValue")) return Long.parseLong(v.get("integerValue").getAsString());
+        if (v.has("doubleValue")) return v.get("doubleValue").getAsDouble();
+        if (v.has("booleanValue")) return v.get("booleanValue").getAsBoolean();
+        if (v.has("timestampValue")) return parseTimestamp(v.get("timestampValue").getAsString());
+        if (v.has("nullValue")) return null;
+        if (v.has("arrayValue")) {
+            List<Object> list = new ArrayList<>();
+            JsonArray arr = v.getAsJsonObject("arrayValue").getAsJsonArray("values");
+            if (arr != null) {
+                for (JsonElement el : arr) {
+                    Object o = decodeValue(el.getAsJsonObject());
+                    if (o != null) list.add(o);
+                }
+            }
+            return list;
+        }
+        if (v.has("mapValue")) {
+            JsonObject inner = v.getAsJsonObject("mapValue");
+            return decodeFields(inner.has("fields") ? inner.getAsJsonObject("fields") : null);
+        }
+        return v.toString();
+    }
+
+    /**
+     * Last path segment of a document name, i.e. the document id.
+     */
+    public static String documentId(String name) {
+        return name != null ? name.substring(name.lastIndexOf('/') + 1) : null;
+    }
+
+    private static Object parseTimestamp(String s) {
+        try {
+            return Instant.parse(s).toEpochMilli();
+        } catch (Exception e) {
+            return s;
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package com.devera.trabahanap.service;
+
+import com.devera.trabahanap.service.http.Endpoints;
+import com.devera.trabahanap.service.http.HttpResult;
+import com.devera.trabahanap.service.http.ResilientHttpClient;
+import com.devera.trabahanap.system.Config;
+import com.devera.trabahanap.system.FirebaseInitializer;
+import com.devera.trabahanap.system.SessionManager;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Low-level Firestore document operations shared by the services.
+ *
+ * Creates always use a client-generated id and an exists=false precondition:
+ *   PATCH .../documents/{collection}/{id}?currentDocument.exists=false
+ * The first write creates the document; any repeat of the same write (retry, double
+ * submit, background flush) is rejected by the precondition and reported as success,
+ * so creates can be retried freely.
+ */
+public final class FirestoreDocuments {
+
+    private static final Gson gson = new Gson();
+
+    private final ResilientHttpClient http = ResilientHttpClient.get();
+    private final String projectId;
+
+    public FirestoreDocuments() {
+        this(Config.get("firebase.projectId"));
+    }
+
+    public FirestoreDocuments(String projectId) {
+        if (projectId == null || projectId.isBlank()) {
+            throw new IllegalStateException("Missing firebase.projectId in config.properties");
+        }
+        this.projectId = projectId;
+    }
+
+    public String getProjectId() {
+        return projectId;
+    }
+
+    /**
+     * Base REST URL, e.g. https://firestore.googleapis.com/v1/projects/p/databases/(default)/documents
+     */
+    public String documentsUrl() {
+        return Endpoints.firestoreDocuments(projectId);
+    }
+
+    /**
+     * Full resource name used inside request bodies, e.g. projects/p/databases/(default)/documents/jobs/abc
+     */
+    public String documentName(String collection, String docId) {
+        return "projects/" + projectId + "/databases/(default)/documents/" + collection + "/" + docId;
+    }
+
+    public String documentUrl(String collection, String docId) {
+        return documentsUrl() + "/" + collection + "/" + URLEncoder.encode(docId, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Create {collection}/{docId} if it does not exist yet. Completes with docId both when
+     * the document was created now and when an earlier attempt already created it.
+     */
+    public CompletableFuture<String> create(String collection, String docId, JsonObject fields, String token) {
+        JsonObject doc = new JsonObject();
+        doc.add("fields", fields);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(documentUrl(collection, docId) + "?currentDocument.exists=false"))
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .header("Authorization", "Bearer " + token)
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(gson.toJson(doc), StandardCharsets.UTF_8))
+                .build();
+
+        return http.send("firestore.write", request, true).thenApply(resp -> {
+            if (resp.isSuccess() || isAlreadyExists(resp)) return docId;
+            throw new FirestoreHttpException("Failed to create " + collection + "/" + docId
+                    + ": HTTP " + resp.statusCode() + " - " + resp.body(), resp.statusCode());
+        });
+    }
+
+    /**
+     * Set the given fields on an existing document, leaving other fields untouched
+     * (PATCH with updateMask.fieldPaths). Repeating the same update is harmless.
+     */
+    public CompletableFuture<Void> update(String collection, String docId, JsonObject fields, String token) {
+        StringBuilder url = new StringBuilder(documentUrl(collection, docId)).append("?currentDocument.exists=true");
+        for (String field : fields.keySet()) {
+            url.append("&updateMask.fieldPaths=").append(URLEncoder.encode(field, StandardCharsets.UTF_8));
+        }
+
+        JsonObject doc = new JsonObject();
+        doc.add("fields", fields);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url.toString()))
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .header("Authorization", "Bearer " + token)
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(gson.toJson(doc), StandardCharsets.UTF_8))
+                .build();
+
+        return http.send("firestore.write", request, true).thenAccept(resp -> {
+            if (!resp.isSuccess()) {
+                throw new FirestoreHttpException("Failed to update " + collection + "/" + docId
+                        + ": HTTP " + resp.statusCode() + " - " + resp.body(), resp.statusCode());
+            }
+        });
+    }
+
+    /**
+     * Set exactly fieldPaths of an existing document (PATCH with updateMask.fieldPaths):
+     * paths with a value in fields are set, paths without one are removed from the document.
+     * Only applied if the document's updateTime is still updateTime (a null updateTime only
+     * requires the document to exist); otherwise fails with a conflicting
+     * {@link FirestoreHttpException}. Completes with the updated document.
+     */
+    public CompletableFuture<JsonObject> patch(String collection, String docId, JsonObject fields,
+                                               Collection<String> fieldPaths, String updateTime, String token) {
+        StringBuilder url = new StringBuilder(documentUrl(collection, docId));
+        if (updateTime != null) {
+            url.append("?currentDocument.updateTime=").append(URLEncoder.encode(updateTime, StandardCharsets.UTF_8));
+        } else {
+            url.append("?currentDocument.exists=true");
+        }
+        for (String field : fieldPaths) {
+            url.append("&updateMask.fieldPaths=").append(URLEncoder.encode(field, StandardCharsets.UTF_8));
+        }
+
+        JsonObject doc = new JsonObject();
+        doc.add("fields", fields);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url.toString()))
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .header("Authorization", "Bearer " + token)
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(gson.toJson(doc), StandardCharsets.UTF_8))
+                .build();
+
+        return http.send("firestore.write", request, true).thenApply(resp -> {
+            if (!resp.isSuccess()) {
+                throw new FirestoreHttpException("Failed to patch " + collection + "/" + docId
+                        + ": HTTP " + resp.statusCode() + " - " + resp.body(), resp.statusCode());
+            }
+            return asObject(resp);
+        });
+    }
+
+    /**
+     * A batchWrite entry that creates collection/docId with an exists=false precondition.
+     */
+    public JsonObject createWrite(String collection, String docId, JsonObject fields) {
+        JsonObject update = new JsonObject();
+        update.addProperty("name", documentName(collection, docId));
+        update.add("fields", fields);
+
+        JsonObject precondition = new JsonObject();
+        precondition.addProperty("exists", false);
+
+        JsonObject write = new JsonObject();
+        write.add("update", update);
+        write.add("currentDocument", precondition);
+        return write;
+    }
+
+    /**
+     * A write entry that sets only the given fields of an existing document, and only if it
+     * has not changed since updateTime (the document's "updateTime" as last read). With a
+     * null updateTime it only has to exist.
+     */
+    public JsonObject updateWrite(String collection, String docId, JsonObject fields, String updateTime) {
+        JsonObject update = new JsonObject();
+        update.addProperty("name", documentName(collection, docId));
+        update.add("fields", fields);
+
+        JsonArray paths = new JsonArray();
+        for (String field : fields.keySet()) paths.add(field);
+        JsonObject mask = new JsonObject();
+        mask.add("fieldPaths", paths);
+
+        JsonObject precondition = new JsonObject();
+        if (updateTime != null) {
+            precondition.addProperty("updateTime", updateTime);
+        } else {
+            precondition.addProperty("exists", true);
+        }
+
+        JsonObject write = new JsonObject();
+        write.add("update", update);
+        write.add("updateMask", mask);
+        write.add("currentDocument", precondition);
+        return write;
+    }
+
+    /**
+     * A write entry that deletes collection/docId, only if it has not changed since
+     * updateTime. With a null updateTime it only has to exist.
+     */
+    public JsonObject deleteWrite(String collection, String docId, String updateTime) {
+        JsonObject precondition = new JsonObject();
+        if (updateTime != null) {
+            precondition.addProperty("updateTime", updateTime);
+        } else {
+            precondition.addProperty("exists", true);
+        }
+
+        JsonObject write = new JsonObject();
+        write.addProperty("delete", documentName(collection, docId));
+        write.add("currentDocument", precondition);
+        return write;
+    }
+
+    /**
+     * A write entry that adds each delta to its numeric field on the server (field transform
+     * "increment"), without reading the document first. Missing fields count as 0. With
+     * mustExist false a missing document is created.
+     */
+    public JsonObject incrementWrite(String collection, String docId, Map<String, Long> deltas, boolean mustExist) {
+        JsonArray transforms = new JsonArray();
+        for (Map.Entry<String, Long> d : deltas.entrySet()) {
+            JsonObject increment = new JsonObject();
+            increment.addProperty("fieldPath", d.getKey());
+            increment.add("increment", FirestoreCodec.encodeValue(d.getValue()));
+            transforms.add(increment);
+        }
+
+        JsonObject transform = new JsonObject();
+        transform.addProperty("document", documentName(collection, docId));
+        transform.add("fieldTransforms", transforms);
+
+        JsonObject write = new JsonObject();
+        write.add("transform", transform);
+        if (mustExist) {
+            JsonObject precondition = new JsonObject();
+            precondition.addProperty("exists", true);
+            write.add("currentDocument", precondition);
+        }
+        return write;
+    }
+
+    /**
+     * Apply writes atomically (documents:commit): either all of them take effect or none.
+     *
+     * A failed precondition on any write rejects the whole commit with HTTP 400 or 409,
+     * reported as a {@link FirestoreHttpException}. Callers must give at least one write a
+     * precondition that a replay would fail, since a replayed commit is only harmless when
+     * it is rejected.
+     */
+    public CompletableFuture<JsonObject> commit(JsonArray writes, String token) {
+        JsonObject body = new JsonObject();
+        body.add("writes", writes);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(documentsUrl() + ":commit"))
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(body), StandardCharsets.UTF_8))
+                .build();
+
+        return http.send("firestore.write", request, true).thenApply(resp -> {
+            if (!resp.isSuccess()) {
+                throw new FirestoreHttpException("commit failed: HTTP " + resp.statusCode()
+                        + " - " + resp.body(), resp.statusCode());
+            }
+            return asObject(resp);
+        });
+    }
+
+    /**
+     * Read several documents in one request (documents:batchGet). names are full resource
+     * names as built by {@link #documentName}; the result maps each name that exists to its
+     * document, so a missing document is simply absent.
+     */
+    public CompletableFuture<Map<String, JsonObject>> batchGet(List<String> names, String token) {
+        if (names.isEmpty()) return CompletableFuture.completedFuture(new HashMap<>());
+        JsonArray docs = new JsonArray();
+        for (String name : names) docs.add(name);
+        JsonObject body = new JsonObject();
+        body.add("documents", docs);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(documentsUrl() + ":batchGet"))
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(body), StandardCharsets.UTF_8))
+                .build();
+
+        return http.send("firestore.read", request, true).thenApply(resp -> {
+            if (!resp.isSuccess()) {
+                throw new FirestoreHttpException("batchGet failed: HTTP " + resp.statusCode()
+                        + " - " + resp.body(), resp.statusCode());
+            }
+            Map<String, JsonObject> found = new HashMap<>();
+            JsonArray arr = asArray(resp);
+            if (arr != null) {
+                for (var el : arr) {
+                    JsonObject o = el.getAsJsonObject();
+                    if (o.has("found")) {
+                        JsonObject doc = o.getAsJsonObject("found");
+                        found.put(doc.get("name").getAsString(), doc);
+                    }
+                }
+            }
+            return found;
+        });
+    }
+
+    /**
+     * Apply up to 500 independent writes in one request (documents:batchWrite).
+     *
+     * Writes are not atomic: the response has one "status" entry per write, in order,
+     * where code 0 is success. Completes with the parsed response; only a failure of the
+     * request as a whole completes exceptionally.
+     */
+    public CompletableFuture<JsonObject> batchWrite(JsonArray writes, String token) {
+        JsonObject body = new JsonObject();
+        body.add("writes", writes);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(documentsUrl() + ":batchWrite"))
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(body), StandardCharsets.UTF_8))
+                .build();
+
+        // Every write we batch carries a precondition, so replaying the request is safe
+        return http.send("firestore.batch", request, true).thenApply(resp -> {
+            if (!resp.isSuccess()) {
+                throw new FirestoreHttpException("batchWrite failed: HTTP " + resp.statusCode()
+                        + " - " + resp.body(), resp.statusCode());
+            }
+            return asObject(resp);
+        });
+    }
+
+    /**
+     * Run a structured query (documents:runQuery) and return the matched documents
+     * (the "document" objects of the response; read-time-only entries are dropped).
+     */
+    public CompletableFuture<List<JsonObject>> runQuery(JsonObject structuredQuery, String token) {
+        return runQuery(null, structuredQuery, token);
+    }
+
+    /**
+     * Same as {@link #runQuery(JsonObject, String)}, scoped to the subcollections of one
+     * document, e.g. parent "jobs/abc" with collectionId "applications".
+     */
+    public CompletableFuture<List<JsonObject>> runQuery(String parent, JsonObject structuredQuery, String token) {
+        JsonObject body = new JsonObject();
+        body.add("structuredQuery", structuredQuery);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(documentsUrl() + (parent != null ? "/" + parent : "") + ":runQuery"))
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(body), StandardCharsets.UTF_8))
+                .build();
+
+        return http.send("firestore.query", request, true).thenApply(resp -> {
+            if (!resp.isSuccess()) {
+                throw new FirestoreHttpException("runQuery failed: HTTP " + resp.statusCode()
+                        + " - " + resp.body(), resp.statusCode());
+            }
+            List<JsonObject> docs = new ArrayList<>();
+            JsonArray arr = asArray(resp);
+            if (arr != null) {
+                for (var el : arr) {
+                    JsonObject o = el.getAsJsonObject();
+                    if (o.has("document")) docs.add(o.getAsJsonObject("document"));
+                }
+            }
+            return docs;
+        });
+    }
+
+    /**
+     * Split a query into ranges (documents:partitionQuery). Returns the partition cursors in
+     * order; n cursors describe n+1 ranges. The query must order by __name__ only.
+     */
+    public CompletableFuture<List<JsonObject>> partitionQuery(JsonObject structuredQuery, int partitionCount, String token) {
+        return partitionPage(structuredQuery, partitionCount, token, null, new ArrayList<>());
+    }
+
+    private CompletableFuture<List<JsonObject>> partitionPage(JsonObject structuredQuery, int partitionCount,
+                                                                        String token, String pageToken,
+                                                                        List<JsonObject> acc) {
+        JsonObject body = new JsonObject();
+        body.add("structuredQuery", structuredQuery);
+        body.addProperty("partitionCount", partitionCount);
+        if (pageToken != null) body.addProperty("pageToken", pageToken);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(documentsUrl() + ":partitionQuery"))
+                .header("Content-Type", "application/json; charset=UTF-8")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(body), StandardCharsets.UTF_8))
+                .build();
+
+        return http.send("firestore.query", request, true).thenCompose(resp -> {
+            if (!resp.isSuccess()) {
+                throw new FirestoreHttpException("partitionQuery failed: HTTP " + resp.statusCode()
+                        + " - " + resp.body(), resp.statusCode());
+            }
+            JsonObject json = asObject(resp);
+            if (json != null && json.has("partitions")) {
+                for (var el : json.getAsJsonArray("partitions")) acc.add(el.getAsJsonObject());
+            }
+            String next = json != null && json.has("nextPageToken") ? json.get("nextPageToken").getAsString() : null;
+            if (next == null || next.isBlank()) return CompletableFuture.completedFuture(acc);
+            return partitionPage(structuredQuery, partitionCount, token, next, acc);
+        });
+    }
+
+    /**
+     * A failed commit (possibly wrapped by a future) that should be read again and retried;
+     * see {@link FirestoreHttpException#isConflict}.
+     */
+    public static boolean isConflict(Throwable err) {
+        Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+        return cause instanceof FirestoreHttpException e && e.isConflict();
+    }
+
+    /**
+     * A failed request (possibly wrapped by a future) for a document that does not exist;
+     * see {@link FirestoreHttpException#isNotFound}.
+     */
+    public static boolean isNotFound(Throwable err) {
+        Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+        return cause instanceof FirestoreHttpException e && e.isNotFound();
+    }
+
+    /**
+     * The (already parsed) JSON object of a successful response, or null when there is none.
+     */
+    static JsonObject asObject(HttpResult resp) {
+        JsonElement json = resp.json();
+        return json != null && json.isJsonObject() ? json.getAsJsonObject() : null;
+    }
+
+    static JsonArray asArray(HttpResult resp) {
+        JsonElement json = resp.json();
+        return json != null && json.isJsonArray() ? json.getAsJsonArray() : null;
+    }
+
+    /**
+     * The exists=false precondition failed, i.e. the document is already there.
+     */
+    static boolean isAlreadyExists(HttpResult resp) {
+        if (resp.statusCode() == 409) return true;
+        String body = resp.body();
+        return resp.statusCode() == 400 && body != null
+                && (body.contains("ALREADY_EXISTS") || body.contains("FAILED_PRECONDITION"));
+    }
+
+    /**
+     * Obtain access token for Firestore (emulator owner, service account or user idToken).
+     */
+    public static String obtainAccessToken() throws IOException {
+        // Emulators (and local fake servers) accept the "owner" token with full access
+        if (Endpoints.isFirestoreEmulated()) return "owner";
+
+        try {
+            String adminToken = FirebaseInitializer.getAccessToken();
+            if (adminToken != null && !adminToken.isBlank()) return adminToken;
+        } catch (Throwable ignored) {}
+
+        Optional<String> maybeIdToken = SessionManager.get().getIdToken();
+        if (maybeIdToken.isPresent()) return maybeIdToken.get();
+
+        throw new IOException("Could not obtain Firestore access token");
+    }
+}
@@ -0,0 +1,46 @@
+package com.devera.trabahanap.service;
+
+/**
+ * Non-2xx answer from the Firestore REST API, carrying the HTTP status so callers can
+ * tell permanent rejections (bad request, permission denied) from transient ones.
+ */
+public class FirestoreHttpException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+    public FirestoreHttpException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * 4xx other than timeout/too-many-requests: repeating the same request will not help.
+     */
+    public boolean isPermanent() {
+        return statusCode >= 400 && statusCode < 500 && statusCode != 408 && statusCode != 429;
+    }
+
+    /**
+     * A commit rejected because a precondition failed (the document changed, or already
+     * exists) or aborted by contention: read again and retry.
+     */
+    public boolean isConflict() {
+        String message = String.valueOf(getMessage());
+        return statusCode == 409
+                || (statusCode == 400 && (message.contains("FAILED_PRECONDITION") || message.contains("ALREADY_EXISTS")));
+    }
+
+    /**
+     * The document does not exist (an update with currentDocument.exists=true of a deleted
+     * or archived document).
+     */
+    public boolean isNotFound() {
+        return statusCode == 404;
+    }
+}
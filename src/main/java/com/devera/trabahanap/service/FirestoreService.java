@@ -1,33 +1,33 @@
 package com.devera.trabahanap.service;
 
+import com.devera.trabahanap.service.http.Endpoints;
+import com.devera.trabahanap.service.http.ResilientHttpClient;
 import com.devera.trabahanap.system.Config;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
 
 public class FirestoreService {
 
     private static final Gson gson = new Gson();
+    private final ResilientHttpClient http = ResilientHttpClient.get();
     private final String projectId;
+    private final FirestoreDocuments documents;
 
     public FirestoreService() {
         this.projectId = Config.get("firebase.projectId");
         if (projectId == null || projectId.isBlank()) {
             throw new IllegalStateException("Missing firebase.projectId in config.properties");
         }
+        this.documents = new FirestoreDocuments(projectId);
     }
 
     private String getFirestoreUrl(String uid) {
-        return String.format(
-                "https://firestore.googleapis.com/v1/projects/%s/databases/(default)/documents/users/%s",
-                projectId, uid
-        );
+        return Endpoints.firestoreDocuments(projectId) + "/users/" + uid;
     }
 
     /**
@@ -53,10 +53,10 @@ public class FirestoreService {
                     .method("PATCH", HttpRequest.BodyPublishers.ofString(gson.toJson(root), StandardCharsets.UTF_8))
                     .build();
 
-            return HttpClient.newHttpClient()
-                    .sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            // PATCH of the full profile is a set, so repeating it is safe
+            return http.send("firestore.write", request, true)
                     .thenAccept(response -> {
-                        if (response.statusCode() >= 200 && response.statusCode() < 300) {
+                        if (response.isSuccess()) {
                             System.out.println("[Firestore] ✅ User saved " + uid);
                         } else {
                             System.err.println("[Firestore] ❌ Failed to save user: "
@@ -86,8 +86,8 @@ public class FirestoreService {
     public CompletableFuture<java.util.Optional<JsonObject>> getUserProfileDocument(String idToken, String uid) {
         CompletableFuture<java.util.Optional<JsonObject>> future = new CompletableFuture<>();
         try {
-            String url = String.format("https://firestore.googleapis.com/v1/projects/%s/databases/(default)/documents/users/%s",
-                    projectId, java.net.URLEncoder.encode(uid, java.nio.charset.StandardCharsets.UTF_8));
+            String url = Endpoints.firestoreDocuments(projectId) + "/users/"
+                    + java.net.URLEncoder.encode(uid, java.nio.charset.StandardCharsets.UTF_8);
 
             HttpRequest request = HttpRequest.newBuilder()
                     .uri(URI.create(url))
@@ -95,10 +95,10 @@ public class FirestoreService {
                     .GET()
                     .build();
 
-            HttpClient.newHttpClient().sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                    .thenApply(HttpResponse::body)
-                    .thenAccept(body -> {
-                        JsonObject responseJson = com.google.gson.JsonParser.parseString(body).getAsJsonObject();
+            http.send("firestore.read", request, true)
+                    .thenApply(com.devera.trabahanap.service.http.HttpResult::json)
+                    .thenAccept(json -> {
+                        JsonObject responseJson = json.getAsJsonObject();
                         if (responseJson.has("fields")) {
                             future.complete(java.util.Optional.of(responseJson.getAsJsonObject("fields")));
                         } else {
@@ -117,16 +117,14 @@ public class FirestoreService {
     }
 
     /**
-     * Add a Job document to collection 'jobs' (auto-id). Returns created document id.
+     * Add a Job document to collection 'jobs' under jobId. Returns created document id.
      *
-     * Signature matches callers in PostJobController: addJob(idToken, employerId, title, description, location)
+     * Uses the same write path as JobService.addJob: the create is guarded by an exists=false
+     * precondition, so a retry with the same jobId never duplicates the job. Generate jobId
+     * once with {@link DocumentIds#newId()} and pass it again when retrying.
      */
-    public CompletableFuture<String> addJob(String idToken, String employerId, String title, String description, String location) {
-        CompletableFuture<String> future = new CompletableFuture<>();
+    public CompletableFuture<String> addJob(String idToken, String jobId, String employerId, String title, String description, String location) {
         try {
-            String url = String.format("https://firestore.googleapis.com/v1/projects/%s/databases/(default)/documents/jobs", projectId);
-
-            JsonObject doc = new JsonObject();
             JsonObject fields = new JsonObject();
             if (employerId != null) fields.add("employerId", wrapString(employerId));
             if (title != null) fields.add("title", wrapString(title));
@@ -135,43 +133,12 @@ public class FirestoreService {
             JsonObject ts = new JsonObject();
             ts.addProperty("timestampValue", java.time.Instant.now().toString());
             fields.add("postedAt", ts);
-            doc.add("fields", fields);
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("Content-Type", "application/json; charset=UTF-8")
-                    .header("Authorization", "Bearer " + idToken)
-                    .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(doc), StandardCharsets.UTF_8))
-                    .build();
-
-            HttpClient.newHttpClient().sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                    .thenApply(response -> {
-                        int status = response.statusCode();
-                        if (status >= 200 && status < 300) {
-                            return response.body();
-                        } else {
-                            throw new RuntimeException("Failed to add job: HTTP " + status + " - " + response.body());
-                        }
-                    })
-                    .thenAccept(body -> {
-                        JsonObject json = gson.fromJson(body, JsonObject.class);
-                        if (json != null && json.has("name")) {
-                            String name = json.get("name").getAsString();
-                            String[] parts = name.split("/");
-                            String docId = parts[parts.length - 1];
-                            future.complete(docId);
-                        } else {
-                            future.completeExceptionally(new RuntimeException("Unexpected Firestore response: missing name"));
-                        }
-                    })
-                    .exceptionally(ex -> {
-                        future.completeExceptionally(ex);
-                        return null;
-                    });
 
+            return documents.create("jobs", jobId, fields, idToken);
         } catch (Exception e) {
-            future.completeExceptionally(e);
+            CompletableFuture<String> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
         }
-        return future;
     }
 }
@@ -0,0 +1,253 @@
+package com.devera.trabahanap.service;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.service.http.RequestScheduler;
+import com.devera.trabahanap.system.Config;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Re-reads the job list in the background so open screens show new posts without being
+ * rebuilt.
+ *
+ * The interval adapts to how busy the board is: it halves after a sync that found new posts
+ * and grows by half after one that found none, between jobs.refresh.minSeconds and
+ * jobs.refresh.maxSeconds. Every wait is jittered by +/- jobs.refresh.jitterPercent so many
+ * desktops started together (a lab, an office after a power cut) drift apart instead of
+ * syncing in step.
+ *
+ * While the window is minimised or unfocused the refresher is paused ({@link #setActive}):
+ * nothing is scheduled and nothing is read. On resume, if a sync fell due during the pause,
+ * one catch-up sync runs straight away (however long the pause was); otherwise the
+ * remaining wait continues.
+ *
+ * Most syncs only read what was posted since the newest job already listed
+ * ({@link JobService#getJobsPostedSince}, from OVERLAP_MILLIS earlier in case a poster's
+ * clock lags) and merge it into the list, dropping jobs that have expired meanwhile; the
+ * interval adapts to the posts in that delta. The first sync, and one every
+ * jobs.refresh.fullSyncMinutes, re-reads the whole list through {@link JobService#getAllJobs}
+ * to pick up edits, closures and deletions, and to update the start-up snapshot.
+ *
+ * Syncs run on a daemon thread ("job-refresh") at PREFETCH priority. Listeners get the
+ * merged list on that thread, after a full sync or when the list changed. A screen adds its
+ * listener when it is built and removes it ({@link #removeListener}) when it is replaced.
+ *
+ * Config keys: jobs.refresh.minSeconds (default 30, 0 = off), jobs.refresh.maxSeconds
+ * (default 600), jobs.refresh.jitterPercent (default 20), jobs.refresh.fullSyncMinutes
+ * (default 30).
+ */
+public final class JobRefresher {
+
+    private static final long SYNC_TIMEOUT_S = 60;
+    private static final long OVERLAP_MILLIS = 5 * 60_000;
+
+    private static JobRefresher instance;
+
+    private final JobService jobService;
+    private final long minMillis;
+    private final long maxMillis;
+    private final double jitter;
+    private final long fullSyncMillis;
+    private final Random random = new Random();
+    private final List<Consumer<List<Job>>> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(() -> RequestScheduler.runAs(RequestScheduler.Priority.PREFETCH, r), "job-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private long intervalMillis;
+    private long nextDueAt;
+    private boolean started;
+    private boolean active = true;
+    private boolean running;
+    private ScheduledFuture<?> pending;
+    // The list as of the last sync (newest first), and when it was last read in full
+    private List<Job> listed;
+    private long fullSyncAt;
+
+    public JobRefresher(JobService jobService, long minMillis, long maxMillis, double jitter, long fullSyncMillis) {
+        this.jobService = jobService;
+        this.minMillis = minMillis;
+        this.maxMillis = Math.max(minMillis, maxMillis);
+        this.jitter = Math.max(0, Math.min(0.9, jitter));
+        this.fullSyncMillis = fullSyncMillis;
+        this.intervalMillis = minMillis;
+    }
+
+    public static synchronized JobRefresher get() {
+        if (instance == null) {
+            instance = new JobRefresher(new JobService(),
+                    Config.getLong("jobs.refresh.minSeconds", 30) * 1000,
+                    Config.getLong("jobs.refresh.maxSeconds", 600) * 1000,
+                    Config.getInt("jobs.refresh.jitterPercent", 20) / 100.0,
+                    Config.getLong("jobs.refresh.fullSyncMinutes", 30) * 60_000);
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return minMillis > 0;
+    }
+
+    /**
+     * Call listener with the list after every sync that changed it, until it is removed.
+     */
+    public void addListener(Consumer<List<Job>> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<List<Job>> listener) {
+        listeners.remove(listener);
+    }
+
+    /** Listeners added and not yet removed, for diagnostics. */
+    public int listenerCount() {
+        return listeners.size();
+    }
+
+    /**
+     * Start refreshing; the first sync is one (jittered) minimum interval away, the screens
+     * having just loaded the list themselves.
+     */
+    public synchronized void start() {
+        if (started || !isEnabled()) return;
+        started = true;
+        if (active) schedule(jittered(intervalMillis, jitter, random));
+        else nextDueAt = System.currentTimeMillis() + intervalMillis;
+    }
+
+    /**
+     * Pause (false) or resume (true), e.g. as the window loses or regains focus.
+     */
+    public synchronized void setActive(boolean active) {
+        if (this.active == active) return;
+        this.active = active;
+        if (!started) return;
+        if (!active) {
+            if (pending != null) pending.cancel(false);
+            pending = null;
+            return;
+        }
+        if (running || pending != null) return;
+        schedule(Math.max(0, nextDueAt - System.currentTimeMillis()));
+    }
+
+    /** Current wait between syncs before jitter, for diagnostics. */
+    public synchronized long intervalMillis() {
+        return intervalMillis;
+    }
+
+    private void schedule(long delayMillis) {
+        nextDueAt = System.currentTimeMillis() + delayMillis;
+        pending = executor.schedule(this::tick, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void tick() {
+        synchronized (this) {
+            pending = null;
+            if (!active) return;
+            running = true;
+        }
+        int newPosts = sync(System.currentTimeMillis());
+        synchronized (this) {
+            running = false;
+            intervalMillis = nextInterval(intervalMillis, newPosts, minMillis, maxMillis);
+            long delay = jittered(intervalMillis, jitter, random);
+            if (active) schedule(delay);
+            else nextDueAt = System.currentTimeMillis() + delay;
+        }
+    }
+
+    /**
+     * One sync at now: the whole list if none was read yet or a full sync is due, otherwise
+     * only the posts since the newest listed job. Listeners are called if the list changed.
+     * Returns the number of new posts (0 for the first list), or -1 if the sync failed.
+     */
+    int sync(long now) {
+        List<Job> before;
+        boolean full;
+        synchronized (this) {
+            before = listed;
+            full = before == null || now - fullSyncAt >= fullSyncMillis;
+        }
+        List<Job> after;
+        try {
+            if (full) {
+                after = jobService.getAllJobs().get(SYNC_TIMEOUT_S, TimeUnit.SECONDS);
+            } else {
+                List<Job> posted = jobService.getJobsPostedSince(newestTimestamp(before) - OVERLAP_MILLIS)
+                        .get(SYNC_TIMEOUT_S, TimeUnit.SECONDS);
+                after = merged(before, posted, now, JobService.jobTtlMillis());
+            }
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            System.err.println("[JobRefresher] Sync failed, backing off: " + cause.getMessage());
+            return -1;
+        }
+        int newPosts = before == null ? 0 : countNew(before, after);
+        synchronized (this) {
+            listed = after;
+            if (full) fullSyncAt = now;
+        }
+        if (full || newPosts > 0 || after.size() != before.size()) {
+            for (Consumer<List<Job>> listener : listeners) {
+                try {
+                    listener.accept(after);
+                } catch (RuntimeException e) {
+                    System.err.println("[JobRefresher] Listener failed: " + e.getMessage());
+                }
+            }
+        }
+        return newPosts;
+    }
+
+    /**
+     * listed with posted merged in (a posted job replaces a listed one with its id) and
+     * jobs no longer open at now left out, newest first.
+     */
+    static List<Job> merged(List<Job> listed, List<Job> posted, long now, long ttlMillis) {
+        Map<String, Job> byId = new LinkedHashMap<>();
+        for (Job j : listed) byId.put(j.getJobId(), j);
+        for (Job j : posted) byId.put(j.getJobId(), j);
+        List<Job> out = new ArrayList<>(byId.size());
+        for (Job j : byId.values()) if (j.isOpenAt(now, ttlMillis)) out.add(j);
+        out.sort(Comparator.comparingLong(Job::getTimestamp).reversed());
+        return out;
+    }
+
+    /**
+     * Jobs in after that were not in before.
+     */
+    private static int countNew(List<Job> before, List<Job> after) {
+        Set<String> known = new HashSet<>();
+        for (Job j : before) known.add(j.getJobId());
+        int fresh = 0;
+        for (Job j : after) if (!known.contains(j.getJobId())) fresh++;
+        return fresh;
+    }
+
+    private static long newestTimestamp(List<Job> jobs) {
+        long newest = 0;
+        for (Job j : jobs) newest = Math.max(newest, j.getTimestamp());
+        return newest;
+    }
+
+    /**
+     * The next interval: halved after new posts, half as long again after none or a failed
+     * sync (newPosts < 0), kept within [min, max].
+     */
+    public static long nextInterval(long current, int newPosts, long min, long max) {
+        long next = newPosts > 0 ? current / 2 : current + current / 2;
+        return Math.max(min, Math.min(max, next));
+    }
+
+    /**
+     * delay spread uniformly over +/- jitter of itself.
+     */
+    public static long jittered(long delay, double jitter, Random random) {
+        return Math.round(delay * (1 - jitter + 2 * jitter * random.nextDouble()));
+    }
+}
@@ -1,224 +1,610 @@
 package com.devera.trabahanap.service;
 
 import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.geo.Gazetteer;
+import com.devera.trabahanap.geo.GeoHash;
+import com.devera.trabahanap.geo.GeoPoint;
+import com.devera.trabahanap.search.JobRecommender;
+import com.devera.trabahanap.search.JobSearchIndex;
+import com.devera.trabahanap.search.JobSuggester;
+import com.devera.trabahanap.search.NearDuplicateIndex;
+import com.devera.trabahanap.service.outbox.OutboxEntry;
+import com.devera.trabahanap.service.outbox.WriteOutbox;
+import com.devera.trabahanap.store.JobSnapshot;
+import com.devera.trabahanap.store.JobStore;
 import com.devera.trabahanap.system.Config;
-import com.devera.trabahanap.system.FirebaseInitializer;
-import com.devera.trabahanap.system.SessionManager;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonPrimitive;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class JobService {
 
     private static final Gson gson = new Gson();
-    private final HttpClient http = HttpClient.newHttpClient();
+    private final FirestoreDocuments documents;
     private final String projectId;
     private static final String JOBS_COLLECTION = "jobs";
+    private static final int LIST_PAGE_SIZE = 500;
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    // Kept by the server or fixed at posting; never written by an edit
+    private static final Set<String> NOT_EDITABLE = Set.of(
+            "postedByUserId", "timestamp", "applicationCount", "ratingCount", "ratingAverage");
+
+    // Snapshot of the previous run, mapped for the first screen until jobs arrive from Firestore
+    private static JobSnapshot startupSnapshot;
+    private static boolean startupSnapshotUsed;
 
     public JobService() {
-        this.projectId = Config.get("firebase.projectId");
+        this(Config.get("firebase.projectId"));
+    }
+
+    public JobService(String projectId) {
         if (projectId == null || projectId.isBlank()) {
             throw new IllegalStateException("Missing firebase.projectId in config.properties");
         }
+        this.projectId = projectId;
+        this.documents = new FirestoreDocuments(projectId);
+    }
+
+    /**
+     * How long a job stays listed when it has no expiresAt: jobs.ttlDays (default 30).
+     */
+    public static long jobTtlMillis() {
+        return Math.max(1, Config.getLong("jobs.ttlDays", 30)) * DAY_MILLIS;
+    }
+
+    /**
+     * Open status and an expiry jobs.ttlDays from its timestamp, unless already set.
+     */
+    public static void stampLifecycle(Job job) {
+        if (job.getStatus() == null) job.setStatus(Job.STATUS_OPEN);
+        if (job.getExpiresAt() == null) job.setExpiresAt(job.getTimestamp() + jobTtlMillis());
     }
 
     /**
      * Add a Job to Firestore asynchronously. Returns the document ID.
+     *
+     * The ID is generated client-side and stored on the job before any network call.
+     * The write goes through the {@link WriteOutbox}: the future completes as soon as the
+     * job is durably in the local log, and the upload happens in the background (surviving
+     * network drops and restarts). Until then getAllJobs includes the job as a local copy.
+     * The location text is matched against the {@link Gazetteer} first, so the stored job
+     * carries placeName, coordinates and geohash.
+     *
+     * A near-copy of one of the poster's own jobs (see {@link NearDuplicateIndex#findRepost})
+     * fails with {@link DuplicateJobException} and is not saved. The job is saved open and
+     * expiring jobs.ttlDays after its timestamp unless it says otherwise. Users whose saved
+     * searches match it are alerted by their own client ({@link SavedSearchService#alertNewMatches}).
      */
     public CompletableFuture<String> addJob(Job job) {
-        CompletableFuture<String> future = new CompletableFuture<>();
+        if (job.getJobId() == null || job.getJobId().isBlank()) {
+            job.setJobId(DocumentIds.newId());
+        }
+        stampLifecycle(job);
+        Gazetteer.get().locate(job);
+        return CompletableFuture.supplyAsync(() -> {
+            NearDuplicateIndex.get().findRepost(job).ifPresent(match -> {
+                throw new DuplicateJobException(match);
+            });
+            try {
+                WriteOutbox.get().enqueueCreate(JOBS_COLLECTION, job);
+                JobSearchIndex.get().add(job);
+                JobSuggester.get().add(job);
+                JobRecommender.get().add(job);
+                NearDuplicateIndex.get().add(job);
+                JobStore.get().put(job);
+                return job.getJobId();
+            } catch (IOException e) {
+                throw new RuntimeException("Could not save job locally: " + e.getMessage(), e);
+            }
+        });
+    }
 
+    /**
+     * Create the job document directly, bypassing the outbox. Completes when Firestore has it.
+     */
+    public CompletableFuture<String> addJobNow(Job job) {
         try {
-            Map<String, Object> data = job.toMap();
-
-            // Build Firestore "fields" JSON
-            JsonObject fields = new JsonObject();
-            for (Map.Entry<String, Object> entry : data.entrySet()) {
-                String key = entry.getKey();
-                Object value = entry.getValue();
-                if (value == null) continue;
-
-                switch (key) {
-                    case "skills":
-                        if (value instanceof List<?> list) {
-                            JsonArray arr = new JsonArray();
-                            for (Object o : list) {
-                                if (o != null) {
-                                    JsonObject skillObj = new JsonObject();
-                                    skillObj.addProperty("stringValue", o.toString());
-                                    arr.add(skillObj);
-                                }
-                            }
-                            JsonObject arrWrapper = new JsonObject();
-                            arrWrapper.add("values", arr);
-
-                            JsonObject arrayValue = new JsonObject();
-                            arrayValue.add("arrayValue", arrWrapper);
-
-                            fields.add(key, arrayValue);
+            if (job.getJobId() == null || job.getJobId().isBlank()) {
+                job.setJobId(DocumentIds.newId());
+            }
+            stampLifecycle(job);
+            Gazetteer.get().locate(job);
+            String accessToken = obtainAccessTokenForFirestore();
+            return documents.create(JOBS_COLLECTION, job.getJobId(), FirestoreCodec.encodeJob(job), accessToken);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Save an edit of a job: only the fields that differ between loaded (the job as read
+     * from Firestore) and edited are sent, as one PATCH with updateMask.fieldPaths, so
+     * fields the edit did not touch (counters, ratings, other people's changes) are never
+     * overwritten. A field removed in the edit is removed from the document.
+     *
+     * The PATCH carries loaded's updateTime as a precondition. If the job changed since it
+     * was loaded, nothing is written and the result is CONFLICT with the stored version and
+     * the fields both edits changed; see {@link #rebase} to merge. A retried PATCH whose
+     * first attempt did land is reported as UPDATED, since the stored job already carries
+     * every change. If the location text changes, place and coordinates are looked up again
+     * (on a copy: edited itself is left as the caller made it, whatever the outcome).
+     * postedByUserId, timestamp and the server-kept counters are never written.
+     */
+    public CompletableFuture<JobUpdateResult> updateJob(Job loaded, Job edited) {
+        String jobId = loaded.getJobId();
+        if (jobId == null || !jobId.equals(edited.getJobId())) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Edited job must have the loaded job's id"));
+        }
+        Job edit = edited.copy();
+        if (!Objects.equals(loaded.getLocation(), edit.getLocation())) {
+            edit.setPlaceName(null);
+            edit.setLatitude(null);
+            edit.setLongitude(null);
+            edit.setGeohash(null);
+            Gazetteer.get().locate(edit);
+        }
+        JsonObject before = FirestoreCodec.encodeJob(loaded);
+        JsonObject after = FirestoreCodec.encodeJob(edit);
+        Set<String> changed = changedFields(before, after);
+        if (changed.isEmpty()) {
+            return CompletableFuture.completedFuture(
+                    new JobUpdateResult(JobUpdateResult.Status.UNCHANGED, loaded, changed, Set.of()));
+        }
+
+        JsonObject fields = new JsonObject();
+        for (String f : changed) {
+            if (after.has(f)) fields.add(f, after.get(f));
+        }
+        String token;
+        try {
+            token = obtainAccessTokenForFirestore();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return documents.patch(JOBS_COLLECTION, jobId, fields, changed, loaded.getUpdateTime(), token)
+                .thenApply(doc -> {
+                    Job saved = toJob(doc);
+                    index(saved);
+                    return new JobUpdateResult(JobUpdateResult.Status.UPDATED, saved, changed, Set.of());
+                })
+                .exceptionallyCompose(err -> {
+                    Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+                    boolean missing = cause instanceof FirestoreHttpException e && e.getStatusCode() == 404;
+                    if (!missing && !FirestoreDocuments.isConflict(err)) return CompletableFuture.failedFuture(err);
+                    String name = documents.documentName(JOBS_COLLECTION, jobId);
+                    return documents.batchGet(List.of(name), token).thenApply(found -> {
+                        JsonObject doc = found.get(name);
+                        if (doc == null) {
+                            return new JobUpdateResult(JobUpdateResult.Status.NOT_FOUND, null, changed, Set.of());
                         }
-                        break;
-                    case "budgetMin", "budgetMax":
-                        if (value instanceof Number n) {
-                            JsonObject numObj = new JsonObject();
-                            numObj.addProperty("doubleValue", n.doubleValue());
-                            fields.add(key, numObj);
+                        Job stored = toJob(doc);
+                        // Re-encoded so both sides compare in the same encoding
+                        JsonObject current = FirestoreCodec.encodeJob(stored);
+                        Set<String> conflicting = new TreeSet<>();
+                        for (String f : changed) {
+                            if (!Objects.equals(current.get(f), after.get(f))) conflicting.add(f);
                         }
-                        break;
-                    case "timestamp":
-                        if (value instanceof Number n) {
-                            JsonObject ts = new JsonObject();
-                            ts.addProperty("timestampValue", new java.util.Date(n.longValue()).toInstant().toString());
-                            fields.add(key, ts);
+                        if (conflicting.isEmpty()) {
+                            // Every change is already stored: our own earlier attempt landed
+                            index(stored);
+                            return new JobUpdateResult(JobUpdateResult.Status.UPDATED, stored, changed, Set.of());
                         }
-                        break;
-                    default:
-                        JsonObject strObj = new JsonObject();
-                        strObj.addProperty("stringValue", value.toString());
-                        fields.add(key, strObj);
-                        break;
-                }
-            }
+                        conflicting.retainAll(changedFields(before, current));
+                        return new JobUpdateResult(JobUpdateResult.Status.CONFLICT, stored, changed, conflicting);
+                    });
+                });
+    }
 
-            JsonObject doc = new JsonObject();
-            doc.add("fields", fields);
+    /**
+     * The edit re-applied on top of the stored version returned with a CONFLICT: a copy of
+     * current with every field changed between loaded and edited set to the edited value
+     * (so the edit wins the conflicting fields). Pass it to {@link #updateJob} with current
+     * as the loaded job.
+     */
+    public static Job rebase(Job loaded, Job edited, Job current) {
+        JsonObject after = FirestoreCodec.encodeJob(edited);
+        Map<String, Object> merged = current.toMap();
+        Map<String, Object> mine = edited.toMap();
+        for (String f : changedFields(FirestoreCodec.encodeJob(loaded), after)) {
+            if (mine.containsKey(f)) merged.put(f, mine.get(f));
+            else merged.remove(f);
+        }
+        Job out = Job.fromMap(current.getJobId(), merged);
+        out.setUpdateTime(current.getUpdateTime());
+        return out;
+    }
 
-            String url = String.format(
-                    "https://firestore.googleapis.com/v1/projects/%s/databases/(default)/documents/jobs",
-                    projectId
-            );
+    /**
+     * Editable fields whose encoded value differs (or that exist on one side only).
+     */
+    static Set<String> changedFields(JsonObject before, JsonObject after) {
+        Set<String> keys = new TreeSet<>(before.keySet());
+        keys.addAll(after.keySet());
+        keys.removeAll(NOT_EDITABLE);
+        keys.removeIf(k -> Objects.equals(before.get(k), after.get(k)));
+        return keys;
+    }
 
-            String accessToken = obtainAccessTokenForFirestore();
+    /**
+     * Bring the local indexes in line with one job, edited or newly read (dropping it if it
+     * is no longer open).
+     */
+    private static void index(Job job) {
+        if (job.isOpenAt(System.currentTimeMillis(), jobTtlMillis())) {
+            JobSearchIndex.get().add(job);
+            JobSuggester.get().add(job);
+            JobRecommender.get().add(job);
+            NearDuplicateIndex.get().add(job);
+            JobStore.get().put(job);
+        } else {
+            JobSearchIndex.get().remove(job.getJobId());
+            JobSuggester.get().remove(job.getJobId());
+            JobRecommender.get().remove(job.getJobId());
+            NearDuplicateIndex.get().remove(job.getJobId());
+            JobStore.get().remove(job.getJobId());
+        }
+    }
 
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("Content-Type", "application/json; charset=UTF-8")
-                    .header("Authorization", "Bearer " + accessToken)
-                    .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(doc), StandardCharsets.UTF_8))
-                    .build();
-
-            http.sendAsync(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
-                    .thenApply(resp -> {
-                        int status = resp.statusCode();
-                        if (status >= 200 && status < 300) return resp.body();
-                        else throw new RuntimeException("Failed to add job: HTTP " + status + " - " + resp.body());
-                    })
-                    .thenAccept(body -> {
-                        JsonObject json = gson.fromJson(body, JsonObject.class);
-                        if (json.has("name")) {
-                            String name = json.get("name").getAsString();
-                            String[] parts = name.split("/");
-                            future.complete(parts[parts.length - 1]);
-                        } else {
-                            future.completeExceptionally(new RuntimeException("Firestore response missing 'name' field"));
-                        }
-                    })
-                    .exceptionally(ex -> {
-                        future.completeExceptionally(ex);
-                        return null;
-                    });
+    /**
+     * A Job from a Firestore document, carrying the document's updateTime.
+     */
+    private static Job toJob(JsonObject doc) {
+        String docId = FirestoreCodec.documentId(doc.get("name").getAsString());
+        Job job = Job.fromMap(docId, fieldsToMap(doc.has("fields") ? doc.getAsJsonObject("fields") : null));
+        if (doc.has("updateTime")) job.setUpdateTime(doc.get("updateTime").getAsString());
+        return job;
+    }
 
-        } catch (Exception e) {
-            future.completeExceptionally(e);
+    /**
+     * Jobs posted on this machine that are still waiting in the outbox.
+     */
+    public List<Job> getPendingJobs() {
+        List<Job> out = new ArrayList<>();
+        for (OutboxEntry e : WriteOutbox.get().pendingCreates(JOBS_COLLECTION)) {
+            Job job = e.decodeJob();
+            out.add(job != null ? job : Job.fromMap(e.docId(), fieldsToMap(e.firestoreFields())));
         }
-
-        return future;
+        return out;
     }
 
     /**
      * Obtain access token for Firestore (service account or user idToken).
      */
     private String obtainAccessTokenForFirestore() throws IOException {
-        try {
-            String adminToken = FirebaseInitializer.getAccessToken();
-            if (adminToken != null && !adminToken.isBlank()) return adminToken;
-        } catch (Throwable ignored) {}
-
-        Optional<String> maybeIdToken = SessionManager.get().getIdToken();
-        if (maybeIdToken.isPresent()) return maybeIdToken.get();
-
-        throw new IOException("Could not obtain Firestore access token");
+        return FirestoreDocuments.obtainAccessToken();
     }
 
     /**
      * Fetch all jobs from Firestore. Returns CompletableFuture with List<Job>.
      * Keeps existing functionality (timestamp descending sort).
+     * The shared {@link JobSearchIndex}, {@link JobSuggester}, {@link JobRecommender},
+     * {@link NearDuplicateIndex} and {@link JobStore} are brought in line with the returned
+     * list. Jobs saved before location normalisation get their place and coordinates filled
+     * in locally.
+     *
+     * Only the hot set is read: a query for status == "open" and expiresAt > now, ordered by
+     * expiresAt, LIST_PAGE_SIZE jobs a page with a cursor (needs the composite index in
+     * firestore.indexes.json). Jobs saved before status and expiresAt existed are not
+     * matched until the {@link JobSweeper} has filled those fields in.
+     *
+     * A list fetched from Firestore is also saved as the {@link JobSnapshot} that
+     * {@link #getSnapshotJobs} shows on the next start. If Firestore cannot be reached, the
+     * open jobs of that snapshot are returned instead.
      */
     public CompletableFuture<List<Job>> getAllJobs() {
-        String url = String.format(
-                "https://firestore.googleapis.com/v1/projects/%s/databases/(default)/documents/%s",
-                projectId, JOBS_COLLECTION
-        );
+        long now = System.currentTimeMillis();
+        String accessToken;
+        try {
+            accessToken = obtainAccessTokenForFirestore();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
 
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                String accessToken = obtainAccessTokenForFirestore();
-
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(url))
-                        .header("Authorization", "Bearer " + accessToken)
-                        .GET()
-                        .build();
-
-                HttpResponse<String> resp = http.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
-                int status = resp.statusCode();
-                String body = resp.body();
-
-                if (status >= 200 && status < 300) {
-                    JsonObject json = gson.fromJson(body, JsonObject.class);
-                    List<Job> out = new ArrayList<>();
-                    if (json != null && json.has("documents")) {
-                        for (var el : json.getAsJsonArray("documents")) {
-                            JsonObject doc = el.getAsJsonObject();
-                            String name = doc.has("name") ? doc.get("name").getAsString() : null;
-                            String docId = name != null ? name.substring(name.lastIndexOf("/") + 1) : null;
-                            JsonObject fields = doc.has("fields") ? doc.getAsJsonObject("fields") : null;
-                            Map<String, Object> m = fieldsToMap(fields);
-                            out.add(Job.fromMap(docId, m));
-                        }
+        return openJobPages(accessToken, "expiresAt", Instant.ofEpochMilli(now), null, new ArrayList<>())
+                .thenApply(docs -> {
+                    List<Job> out = new ArrayList<>(docs.size());
+                    for (JsonObject doc : docs) out.add(toJob(doc));
+                    return listed(out, now, true);
+                })
+                .exceptionally(err -> {
+                    List<Job> cached = JobSnapshot.read(JobSnapshot.defaultPath())
+                            .map(snapshot -> {
+                                List<Job> jobs = new ArrayList<>(snapshot.size());
+                                for (int i = 0; i < snapshot.size(); i++) jobs.add(snapshot.job(i));
+                                return jobs;
+                            })
+                            .orElse(null);
+                    if (cached == null) {
+                        throw err instanceof CompletionException ce ? ce : new CompletionException(err);
+                    }
+                    System.err.println("[JobService] Firestore unavailable, showing cached jobs: " + err.getMessage());
+                    return listed(cached, now, false);
+                });
+    }
+
+    /**
+     * Open jobs posted after sinceMillis, oldest first, for a background refresh: a query for
+     * status == "open" and timestamp > sinceMillis, ordered by timestamp, LIST_PAGE_SIZE
+     * jobs a page (needs the status/timestamp composite index in firestore.indexes.json).
+     *
+     * Only these jobs are read, and they are added to the shared indexes one by one instead
+     * of rebuilding them; nothing is removed and the snapshot is not rewritten. Edits and
+     * closures of older jobs are not seen, and neither is a post whose timestamp (the
+     * poster's clock) is not after sinceMillis; {@link #getAllJobs} picks those up.
+     */
+    public CompletableFuture<List<Job>> getJobsPostedSince(long sinceMillis) {
+        String accessToken;
+        try {
+            accessToken = obtainAccessTokenForFirestore();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return openJobPages(accessToken, "timestamp", Instant.ofEpochMilli(sinceMillis), null, new ArrayList<>())
+                .thenApply(docs -> {
+                    long now = System.currentTimeMillis();
+                    long ttl = jobTtlMillis();
+                    List<Job> out = new ArrayList<>(docs.size());
+                    for (JsonObject doc : docs) {
+                        Job job = toJob(doc);
+                        if (!job.isOpenAt(now, ttl)) continue;
+                        if (job.getGeohash() == null && job.getPlaceName() == null) Gazetteer.get().locate(job);
+                        index(job);
+                        out.add(job);
                     }
-                    out.sort(Comparator.comparingLong(Job::getTimestamp).reversed());
                     return out;
-                } else {
-                    throw new RuntimeException("Failed to fetch jobs: HTTP " + status + " - " + body);
+                });
+    }
+
+    /**
+     * The open jobs plus local copies of pending posts, newest first; syncs the shared
+     * indexes and, for a fresh list, saves the snapshot.
+     */
+    private List<Job> listed(List<Job> jobs, long now, boolean fresh) {
+        long ttl = jobTtlMillis();
+        List<Job> out = new ArrayList<>(jobs.size());
+        for (Job job : jobs) {
+            if (!job.isOpenAt(now, ttl)) continue;
+            if (job.getGeohash() == null && job.getPlaceName() == null) Gazetteer.get().locate(job);
+            out.add(job);
+        }
+        // Optimistic local copies of posts not yet uploaded
+        Set<String> fetched = new HashSet<>();
+        for (Job j : out) fetched.add(j.getJobId());
+        for (Job p : getPendingJobs()) {
+            if (!fetched.contains(p.getJobId())) out.add(p);
+        }
+        out.sort(Comparator.comparingLong(Job::getTimestamp).reversed());
+        JobSearchIndex.get().sync(out);
+        JobSuggester.get().sync(out);
+        JobRecommender.get().sync(out);
+        NearDuplicateIndex.get().sync(out);
+        JobStore.get().sync(out);
+        if (fresh) {
+            JobSnapshot.saveAsync(out);
+            releaseStartupSnapshot();
+        }
+        return out;
+    }
+
+    private CompletableFuture<List<JsonObject>> openJobPages(String token, String rangeField, Instant after,
+                                                             JsonObject afterDoc, List<JsonObject> out) {
+        return documents.runQuery(openJobsQuery(rangeField, after, afterDoc), token).thenCompose(docs -> {
+            out.addAll(docs);
+            if (docs.size() < LIST_PAGE_SIZE) return CompletableFuture.completedFuture(out);
+            return openJobPages(token, rangeField, after, docs.get(docs.size() - 1), out);
+        });
+    }
+
+    /**
+     * One page of open jobs whose rangeField (expiresAt or timestamp) is later than after,
+     * in rangeField order, starting after the given document.
+     */
+    private static JsonObject openJobsQuery(String rangeField, Instant after, JsonObject afterDoc) {
+        JsonObject from = new JsonObject();
+        from.addProperty("collectionId", JOBS_COLLECTION);
+        JsonArray fromArr = new JsonArray();
+        fromArr.add(from);
+
+        JsonArray filters = new JsonArray();
+        filters.add(fieldFilter("status", "EQUAL", Job.STATUS_OPEN));
+        filters.add(fieldFilter(rangeField, "GREATER_THAN", after));
+        JsonObject composite = new JsonObject();
+        composite.addProperty("op", "AND");
+        composite.add("filters", filters);
+        JsonObject where = new JsonObject();
+        where.add("compositeFilter", composite);
+
+        JsonArray orderBy = new JsonArray();
+        for (String path : new String[] { rangeField, "__name__" }) {
+            JsonObject field = new JsonObject();
+            field.addProperty("fieldPath", path);
+            JsonObject order = new JsonObject();
+            order.add("field", field);
+            order.addProperty("direction", "ASCENDING");
+            orderBy.add(order);
+        }
+
+        JsonObject q = new JsonObject();
+        q.add("from", fromArr);
+        q.add("where", where);
+        q.add("orderBy", orderBy);
+        q.addProperty("limit", LIST_PAGE_SIZE);
+        if (afterDoc != null) {
+            JsonObject ref = new JsonObject();
+            ref.addProperty("referenceValue", afterDoc.get("name").getAsString());
+            JsonArray values = new JsonArray();
+            values.add(afterDoc.getAsJsonObject("fields").get(rangeField));
+            values.add(ref);
+            JsonObject cursor = new JsonObject();
+            cursor.add("values", values);
+            cursor.addProperty("before", false);
+            q.add("startAt", cursor);
+        }
+        return q;
+    }
+
+    /**
+     * Up to limit jobs from the snapshot saved by the last run, newest first and still open,
+     * to show before getAllJobs completes. No network access: the snapshot file is mapped and
+     * only the jobs returned are decoded. Empty if there is no snapshot, or once jobs have
+     * been loaded from Firestore in this run.
+     */
+    public static synchronized List<Job> getSnapshotJobs(int limit) {
+        if (!startupSnapshotUsed) {
+            startupSnapshotUsed = true;
+            startupSnapshot = JobSnapshot.open(JobSnapshot.defaultPath()).orElse(null);
+        }
+        if (startupSnapshot == null) return List.of();
+        long now = System.currentTimeMillis();
+        long ttl = jobTtlMillis();
+        List<Job> out = new ArrayList<>(Math.min(limit, startupSnapshot.size()));
+        for (int i = 0; i < startupSnapshot.size() && out.size() < limit; i++) {
+            Job job = startupSnapshot.job(i);
+            if (job.isOpenAt(now, ttl)) out.add(job);
+        }
+        return out;
+    }
+
+    private static synchronized void releaseStartupSnapshot() {
+        startupSnapshotUsed = true;
+        startupSnapshot = null;
+    }
+
+    /**
+     * Jobs within radiusKm of centre, nearest first, straight from Firestore.
+     *
+     * Runs one range query per geohash cell of {@link GeoHash#cover} (geohash >= cell and
+     * geohash < cell + "~", at most limit documents each) in parallel, then drops the jobs
+     * outside the circle. Needs only the single-field index Firestore creates by default.
+     */
+    public CompletableFuture<List<Job>> findJobsNear(GeoPoint centre, double radiusKm, int limit) {
+        String token;
+        try {
+            token = obtainAccessTokenForFirestore();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        List<CompletableFuture<List<JsonObject>>> queries = new ArrayList<>();
+        for (String cell : GeoHash.cover(centre, radiusKm)) {
+            queries.add(documents.runQuery(geohashRangeQuery(cell, limit), token));
+        }
+        long now = System.currentTimeMillis();
+        long ttl = jobTtlMillis();
+        return CompletableFuture.allOf(queries.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            Map<String, Job> byId = new LinkedHashMap<>();
+            Map<String, Double> distances = new HashMap<>();
+            for (CompletableFuture<List<JsonObject>> q : queries) {
+                for (JsonObject doc : q.join()) {
+                    Job job = toJob(doc);
+                    String docId = job.getJobId();
+                    if (job.getLatitude() == null || job.getLongitude() == null) continue;
+                    if (!job.isOpenAt(now, ttl)) continue;
+                    double d = centre.distanceKm(new GeoPoint(job.getLatitude(), job.getLongitude()));
+                    if (d > radiusKm) continue;
+                    byId.put(docId, job);
+                    distances.put(docId, d);
                 }
-            } catch (Exception e) {
-                throw new RuntimeException(e);
             }
+            List<Job> out = new ArrayList<>(byId.values());
+            out.sort(Comparator.comparingDouble((Job j) -> distances.get(j.getJobId()))
+                    .thenComparing(Comparator.comparingLong(Job::getTimestamp).reversed()));
+            return out.size() > limit ? new ArrayList<>(out.subList(0, limit)) : out;
         });
     }
 
+    /**
+     * The most recently archived jobs (newest archivedAt first), read from jobs_archive.
+     */
+    public CompletableFuture<List<Job>> getArchivedJobs(int limit) {
+        String token;
+        try {
+            token = obtainAccessTokenForFirestore();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        JsonObject from = new JsonObject();
+        from.addProperty("collectionId", JobSweeper.ARCHIVE_COLLECTION);
+        JsonArray fromArr = new JsonArray();
+        fromArr.add(from);
+
+        JsonObject field = new JsonObject();
+        field.addProperty("fieldPath", "archivedAt");
+        JsonObject order = new JsonObject();
+        order.add("field", field);
+        order.addProperty("direction", "DESCENDING");
+        JsonArray orderBy = new JsonArray();
+        orderBy.add(order);
+
+        JsonObject q = new JsonObject();
+        q.add("from", fromArr);
+        q.add("orderBy", orderBy);
+        q.addProperty("limit", limit);
+        return documents.runQuery(q, token).thenApply(docs -> {
+            List<Job> out = new ArrayList<>(docs.size());
+            for (JsonObject doc : docs) {
+                out.add(toJob(doc));
+            }
+            return out;
+        });
+    }
+
+    private static JsonObject geohashRangeQuery(String cell, int limit) {
+        JsonObject from = new JsonObject();
+        from.addProperty("collectionId", JOBS_COLLECTION);
+        JsonArray fromArr = new JsonArray();
+        fromArr.add(from);
+
+        JsonArray filters = new JsonArray();
+        filters.add(geohashFilter("GREATER_THAN_OR_EQUAL", cell));
+        filters.add(geohashFilter("LESS_THAN", cell + "~"));
+        JsonObject composite = new JsonObject();
+        composite.addProperty("op", "AND");
+        composite.add("filters", filters);
+        JsonObject where = new JsonObject();
+        where.add("compositeFilter", composite);
+
+        JsonObject field = new JsonObject();
+        field.addProperty("fieldPath", "geohash");
+        JsonObject order = new JsonObject();
+        order.add("field", field);
+        order.addProperty("direction", "ASCENDING");
+        JsonArray orderBy = new JsonArray();
+        orderBy.add(order);
+
+        JsonObject q = new JsonObject();
+        q.add("from", fromArr);
+        q.add("where", where);
+        q.add("orderBy", orderBy);
+        q.addProperty("limit", limit);
+        return q;
+    }
+
+    private static JsonObject geohashFilter(String op, String value) {
+        return fieldFilter("geohash", op, value);
+    }
+
+    private static JsonObject fieldFilter(String path, String op, Object value) {
+        JsonObject field = new JsonObject();
+        field.addProperty("fieldPath", path);
+        JsonObject filter = new JsonObject();
+        filter.add("field", field);
+        filter.addProperty("op", op);
+        filter.add("value", FirestoreCodec.encodeValue(value));
+        JsonObject wrapper = new JsonObject();
+        wrapper.add("fieldFilter", filter);
+        return wrapper;
+    }
+
     /**
      * Convert Firestore document fields JSON into a simple Map<String,Object>
      */
     private static Map<String, Object> fieldsToMap(JsonObject fields) {
-        Map<String, Object> m = new HashMap<>();
-        if (fields == null) return m;
-        for (String key : fields.keySet()) {
-            JsonObject v = fields.getAsJsonObject(key);
-            if (v.has("stringValue")) m.put(key, v.get("stringValue").getAsString());
-            else if (v.has("integerValue")) m.put(key, Long.parseLong(v.get("integerValue").getAsString()));
-            else if (v.has("doubleValue")) m.put(key, v.get("doubleValue").getAsDouble());
-            else if (v.has("timestampValue")) m.put(key, v.get("timestampValue").getAsString());
-            else if (v.has("arrayValue")) {
-                List<String> list = new ArrayList<>();
-                JsonArray arr = v.getAsJsonObject("arrayValue").getAsJsonArray("values");
-                if (arr != null) {
-                    for (var el : arr) list.add(el.getAsJsonObject().get("stringValue").getAsString());
-                }
-                m.put(key, list);
-            } else m.put(key, v.toString());
-        }
-        return m;
+        return FirestoreCodec.decodeFields(fields);
     }
 }
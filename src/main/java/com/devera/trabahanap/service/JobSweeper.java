@@ -0,0 +1,279 @@
+package com.devera.trabahanap.service;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.service.http.RequestScheduler;
+import com.devera.trabahanap.system.AppPaths;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Moves jobs that are past their expiry (or no longer open) from jobs into jobs_archive.
+ *
+ * Browse only queries open, unexpired jobs, but keeping only live jobs in the jobs
+ * collection keeps its indexes, exports and sweeps sized by what is open rather than by
+ * everything ever posted. Archived jobs stay readable (applications, history) but are
+ * only read on request.
+ *
+ * A sweep pages through jobs ordered by document name (a cursor, so deletes do not shift
+ * later pages). Expired jobs of a page are archived in commits of up to batchSize jobs;
+ * each job is two writes in the same commit:
+ *  - create jobs_archive/{jobId} (exists=false) with the job's fields, archivedAt and
+ *    status "expired" when the job was still open
+ *  - delete jobs/{jobId} with an updateTime precondition, so a job edited since it was read
+ *    (e.g. extended) is not archived
+ * If a batch is rejected, its jobs are retried one commit each and the ones that still
+ * conflict are left for the next sweep. Subcollections (applications, ratings) stay under
+ * jobs/{jobId}; Firestore does not delete them with the parent document.
+ *
+ * Open jobs saved before status and expiresAt existed get both filled in (status "open",
+ * expiresAt jobs.ttlDays after their timestamp), with the same updateTime guard, so the
+ * job list query of {@link JobService#getAllJobs} finds them.
+ *
+ * After every page the cursor and the sweep's reference time are saved to
+ * sweeper-checkpoint.json in the app data dir. An interrupted sweep resumes from there with
+ * the same reference time; the file is removed when a sweep completes.
+ *
+ * Config keys: jobs.ttlDays (default 30, see {@link JobService#jobTtlMillis}),
+ * jobs.sweepMinutes (default 0 = the app does not sweep; the sweep-jobs tool does).
+ */
+public final class JobSweeper {
+
+    public static final String ARCHIVE_COLLECTION = "jobs_archive";
+    private static final String JOBS_COLLECTION = "jobs";
+    private static final int MAX_BATCH = 250; // two writes per job, 500 writes per commit
+    public static final int DEFAULT_PAGE_SIZE = 300;
+    public static final int DEFAULT_BATCH = 100;
+    private static final Gson gson = new Gson();
+
+    private static JobSweeper instance;
+
+    private final FirestoreDocuments documents;
+    private final Path checkpointPath;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Outcome of one sweep: documents looked at, jobs found expired or closed, jobs archived,
+     * expired jobs left in place because they changed while the sweep ran, and older open
+     * jobs given status and expiresAt.
+     */
+    public record SweepResult(long scanned, long expired, long archived, long skipped, long stamped,
+                              boolean resumed) {}
+
+    public JobSweeper(FirestoreDocuments documents, Path checkpointPath) {
+        this.documents = documents;
+        this.checkpointPath = checkpointPath;
+    }
+
+    public static synchronized JobSweeper get() {
+        if (instance == null) {
+            instance = new JobSweeper(new FirestoreDocuments(), AppPaths.resolve("sweeper-checkpoint.json"));
+        }
+        return instance;
+    }
+
+    /**
+     * Sweep every periodMillis on a daemon thread ("job-sweeper"), first run after one period.
+     */
+    public synchronized void start(long periodMillis) {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(() -> RequestScheduler.runAs(RequestScheduler.Priority.BACKGROUND, r), "job-sweeper");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                SweepResult r = sweep(DEFAULT_PAGE_SIZE, DEFAULT_BATCH, false);
+                if (r.archived() > 0 || r.skipped() > 0 || r.stamped() > 0) {
+                    System.out.println("[JobSweeper] Archived " + r.archived() + " of " + r.scanned()
+                            + " job(s), " + r.skipped() + " skipped, " + r.stamped() + " given an expiry");
+                }
+            } catch (Exception e) {
+                System.err.println("[JobSweeper] Sweep failed, will resume next time: " + e.getMessage());
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run one sweep to the end (or resume an interrupted one). With dryRun nothing is
+     * written, not even the checkpoint.
+     */
+    public synchronized SweepResult sweep(int pageSize, int batchSize, boolean dryRun) throws Exception {
+        int batch = Math.max(1, Math.min(MAX_BATCH, batchSize));
+        long ttl = JobService.jobTtlMillis();
+
+        JsonObject checkpoint = dryRun ? null : loadCheckpoint();
+        boolean resumed = checkpoint != null;
+        long now = resumed ? checkpoint.get("now").getAsLong() : System.currentTimeMillis();
+        String last = resumed && checkpoint.has("cursor") ? checkpoint.get("cursor").getAsString() : null;
+        long scanned = resumed ? checkpoint.get("scanned").getAsLong() : 0;
+        long archived = resumed ? checkpoint.get("archived").getAsLong() : 0;
+        long expired = 0, skipped = 0, stamped = 0;
+        if (resumed) System.out.println("[JobSweeper] Resuming sweep of " + Instant.ofEpochMilli(now) + " after " + scanned + " job(s)");
+
+        while (true) {
+            JsonObject query = pageQuery(pageSize, last);
+            String token = FirestoreDocuments.obtainAccessToken();
+            List<JsonObject> docs = documents.runQuery(query, token).get(60, TimeUnit.SECONDS);
+
+            List<JsonObject> due = new ArrayList<>();
+            List<JsonObject> unstamped = new ArrayList<>();
+            for (JsonObject doc : docs) {
+                JsonObject fields = doc.has("fields") ? doc.getAsJsonObject("fields") : new JsonObject();
+                String docId = FirestoreCodec.documentId(doc.get("name").getAsString());
+                Job job = Job.fromMap(docId, FirestoreCodec.decodeFields(fields));
+                if (!job.isOpenAt(now, ttl)) due.add(doc);
+                else if (!fields.has("status") || !fields.has("expiresAt")) unstamped.add(doc);
+                last = doc.get("name").getAsString();
+            }
+            scanned += docs.size();
+            expired += due.size();
+
+            if (!dryRun) {
+                for (int i = 0; i < due.size(); i += batch) {
+                    List<JsonObject> chunk = due.subList(i, Math.min(due.size(), i + batch));
+                    int moved = archive(chunk, now, token);
+                    archived += moved;
+                    skipped += chunk.size() - moved;
+                }
+                for (int i = 0; i < unstamped.size(); i += batch) {
+                    stamped += stamp(unstamped.subList(i, Math.min(unstamped.size(), i + batch)), ttl, token);
+                }
+            }
+
+            boolean done = docs.size() < pageSize;
+            if (done) break;
+            if (!dryRun) saveCheckpoint(now, last, scanned, archived);
+        }
+        if (!dryRun) Files.deleteIfExists(checkpointPath);
+        return new SweepResult(scanned, expired, dryRun ? 0 : archived, skipped, stamped, resumed);
+    }
+
+    /**
+     * Archive the jobs in one commit; if that is rejected, one commit per job. Returns how
+     * many were archived.
+     */
+    private int archive(List<JsonObject> jobDocs, long now, String token) throws Exception {
+        try {
+            documents.commit(archiveWrites(jobDocs, now), token).get(60, TimeUnit.SECONDS);
+            return jobDocs.size();
+        } catch (ExecutionException e) {
+            if (!FirestoreDocuments.isConflict(e.getCause())) throw e;
+            if (jobDocs.size() == 1) return 0;
+        }
+        int moved = 0;
+        for (JsonObject doc : jobDocs) moved += archive(List.of(doc), now, token);
+        return moved;
+    }
+
+    /**
+     * Give the open jobs status and expiresAt in one commit; if that is rejected, one commit
+     * per job. Returns how many were updated.
+     */
+    private int stamp(List<JsonObject> jobDocs, long ttl, String token) throws Exception {
+        JsonArray writes = new JsonArray();
+        for (JsonObject doc : jobDocs) {
+            String docId = FirestoreCodec.documentId(doc.get("name").getAsString());
+            Job job = Job.fromMap(docId, FirestoreCodec.decodeFields(doc.getAsJsonObject("fields")));
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("status", job.getStatus() != null ? job.getStatus() : Job.STATUS_OPEN);
+            fields.put("expiresAt", Instant.ofEpochMilli(job.getExpiresAt() != null ? job.getExpiresAt() : job.getTimestamp() + ttl));
+            writes.add(documents.updateWrite(JOBS_COLLECTION, docId, FirestoreCodec.encodeFields(fields),
+                    doc.get("updateTime").getAsString()));
+        }
+        try {
+            documents.commit(writes, token).get(60, TimeUnit.SECONDS);
+            return jobDocs.size();
+        } catch (ExecutionException e) {
+            if (!FirestoreDocuments.isConflict(e.getCause())) throw e;
+            if (jobDocs.size() == 1) return 0;
+        }
+        int updated = 0;
+        for (JsonObject doc : jobDocs) updated += stamp(List.of(doc), ttl, token);
+        return updated;
+    }
+
+    private JsonArray archiveWrites(List<JsonObject> jobDocs, long now) {
+        JsonArray writes = new JsonArray();
+        for (JsonObject doc : jobDocs) {
+            String docId = FirestoreCodec.documentId(doc.get("name").getAsString());
+            JsonObject fields = doc.has("fields") ? doc.getAsJsonObject("fields").deepCopy() : new JsonObject();
+            Object status = FirestoreCodec.decodeFields(fields).get("status");
+            if (status == null || Job.STATUS_OPEN.equals(status)) {
+                fields.add("status", FirestoreCodec.encodeValue(Job.STATUS_EXPIRED));
+            }
+            fields.add("archivedAt", FirestoreCodec.encodeValue(Instant.ofEpochMilli(now)));
+            writes.add(documents.createWrite(ARCHIVE_COLLECTION, docId, fields));
+            writes.add(documents.deleteWrite(JOBS_COLLECTION, docId, doc.get("updateTime").getAsString()));
+        }
+        return writes;
+    }
+
+    private static JsonObject pageQuery(int pageSize, String after) {
+        JsonObject from = new JsonObject();
+        from.addProperty("collectionId", JOBS_COLLECTION);
+        JsonArray fromArr = new JsonArray();
+        fromArr.add(from);
+
+        JsonObject field = new JsonObject();
+        field.addProperty("fieldPath", "__name__");
+        JsonObject order = new JsonObject();
+        order.add("field", field);
+        order.addProperty("direction", "ASCENDING");
+        JsonArray orderBy = new JsonArray();
+        orderBy.add(order);
+
+        JsonObject q = new JsonObject();
+        q.add("from", fromArr);
+        q.add("orderBy", orderBy);
+        q.addProperty("limit", pageSize);
+        if (after != null) {
+            JsonObject ref = new JsonObject();
+            ref.addProperty("referenceValue", after);
+            JsonArray values = new JsonArray();
+            values.add(ref);
+            JsonObject cursor = new JsonObject();
+            cursor.add("values", values);
+            cursor.addProperty("before", false);
+            q.add("startAt", cursor);
+        }
+        return q;
+    }
+
+    private JsonObject loadCheckpoint() {
+        if (!Files.exists(checkpointPath)) return null;
+        try {
+            return gson.fromJson(Files.readString(checkpointPath, StandardCharsets.UTF_8), JsonObject.class);
+        } catch (Exception e) {
+            System.err.println("[JobSweeper] Ignoring unreadable checkpoint: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Atomically replace the checkpoint file (temp file + rename).
+     */
+    private void saveCheckpoint(long now, String cursor, long scanned, long archived) throws IOException {
+        JsonObject root = new JsonObject();
+        root.addProperty("now", now);
+        root.addProperty("cursor", cursor);
+        root.addProperty("scanned", scanned);
+        root.addProperty("archived", archived);
+        Path tmp = checkpointPath.resolveSibling(checkpointPath.getFileName() + ".tmp");
+        Files.writeString(tmp, gson.toJson(root), StandardCharsets.UTF_8);
+        Files.move(tmp, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,28 @@
+package com.devera.trabahanap.service;
+
+import com.devera.trabahanap.core.Job;
+
+import java.util.Set;
+
+/**
+ * Outcome of {@link JobService#updateJob}.
+ *
+ * job is the job as now stored (with its new updateTime) after UPDATED, and the other
+ * person's version after CONFLICT; null after NOT_FOUND. changedFields are the fields the
+ * edit sets or removes. conflictingFields, on CONFLICT, are the changed fields that the
+ * other edit also changed, to a different value; the rest of the edit can be re-applied
+ * on top of job with {@link JobService#rebase} without losing anything.
+ */
+public record JobUpdateResult(Status status, Job job, Set<String> changedFields, Set<String> conflictingFields) {
+
+    public enum Status {
+        /** The changed fields were written. */
+        UPDATED,
+        /** The edit changed nothing; no request was sent. */
+        UNCHANGED,
+        /** The job was changed by someone else since it was loaded; nothing was written. */
+        CONFLICT,
+        /** The job no longer exists (deleted or archived); nothing was written. */
+        NOT_FOUND
+    }
+}
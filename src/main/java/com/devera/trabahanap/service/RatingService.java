@@ -0,0 +1,247 @@
+package com.devera.trabahanap.service;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.service.http.RequestScheduler;
+import com.devera.trabahanap.store.JobStore;
+import com.devera.trabahanap.system.Config;
+import com.devera.trabahanap.system.SessionManager;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Job ratings (1 to 5 stars) kept in sharded counters.
+ *
+ * Layout:
+ *  - jobs/{jobId}/ratings/{userId}: the user's rating (stars, updatedAt), one per user
+ *  - jobs/{jobId}/ratingShards/{0..n-1}: count and sum of stars, incremented on the server
+ *  - jobs/{jobId}: ratingCount and ratingAverage, the rolled-up totals of the shards
+ *
+ * Rating is one atomic commit: the user's rating document (exists=false for a first rating,
+ * an updateTime precondition for a change) plus an increment of a randomly picked shard, so
+ * many people rating one job at once spread their writes over n documents instead of all
+ * hitting one. The preconditions also make a replayed commit fail instead of counting twice.
+ *
+ * Nothing on the browse path reads shards. Jobs rated from this app are rolled up every
+ * ratings.rollupMs (one write per job per interval) by a daemon thread ("rating-rollup"),
+ * and the rated job's aggregate in the {@link JobStore} is patched at once, so Highest Rated
+ * sorts on local data. The rollup-ratings tool rolls up every job.
+ *
+ * Config keys: ratings.shards (default 10), ratings.rollupMs (default 60000).
+ */
+public final class RatingService {
+
+    static final String JOBS_COLLECTION = "jobs";
+    static final String RATINGS = "ratings";
+    static final String SHARDS = "ratingShards";
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static RatingService instance;
+
+    private final FirestoreDocuments documents;
+    private final int shards;
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService rollups = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(() -> RequestScheduler.runAs(RequestScheduler.Priority.BACKGROUND, r), "rating-rollup");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private RatingService(FirestoreDocuments documents) {
+        this.documents = documents;
+        this.shards = Math.max(1, Config.getInt("ratings.shards", 10));
+        long every = Math.max(1000, Config.getLong("ratings.rollupMs", 60_000));
+        rollups.scheduleWithFixedDelay(this::rollUpDirty, every, every, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized RatingService get() {
+        if (instance == null) instance = new RatingService(new FirestoreDocuments());
+        return instance;
+    }
+
+    /**
+     * Rate the job as the logged-in user (again rating replaces the earlier stars).
+     * Completes with the job's aggregate as known locally after this rating.
+     */
+    public CompletableFuture<RatingSummary> rate(Job job, int stars) {
+        if (stars < 1 || stars > 5) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Rating must be 1 to 5 stars"));
+        }
+        Optional<String> userId = SessionManager.get().getLocalId();
+        if (userId.isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("You must be logged in to rate a job"));
+        }
+        if (userId.get().equals(job.getPostedByUserId())) {
+            return CompletableFuture.failedFuture(new IllegalStateException("You cannot rate your own job"));
+        }
+        String token;
+        try {
+            token = FirestoreDocuments.obtainAccessToken();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return attempt(job, userId.get(), stars, token, 1);
+    }
+
+    private CompletableFuture<RatingSummary> attempt(Job job, String userId, int stars, String token, int attemptNo) {
+        String jobId = job.getJobId();
+        String ratingsPath = JOBS_COLLECTION + "/" + jobId + "/" + RATINGS;
+        String ratingName = documents.documentName(ratingsPath, userId);
+
+        return documents.batchGet(List.of(ratingName), token).thenCompose(found -> {
+            JsonObject previous = found.get(ratingName);
+            int before = 0;
+            if (previous != null) {
+                Object s = FirestoreCodec.decodeFields(previous.getAsJsonObject("fields")).get("stars");
+                before = s instanceof Number n ? n.intValue() : 0;
+            }
+            if (before == stars) return CompletableFuture.completedFuture(localSummary(job));
+
+            Map<String, Object> rating = new HashMap<>();
+            rating.put("userId", userId);
+            rating.put("stars", stars);
+            rating.put("updatedAt", System.currentTimeMillis());
+            Map<String, Long> deltas = new LinkedHashMap<>();
+            if (previous == null) deltas.put("count", 1L);
+            deltas.put("sum", (long) (stars - before));
+
+            JsonArray writes = new JsonArray();
+            writes.add(previous == null
+                    ? documents.createWrite(ratingsPath, userId, FirestoreCodec.encodeFields(rating))
+                    : documents.updateWrite(ratingsPath, userId, FirestoreCodec.encodeFields(rating),
+                            previous.get("updateTime").getAsString()));
+            String shard = Integer.toString(ThreadLocalRandom.current().nextInt(shards));
+            writes.add(documents.incrementWrite(JOBS_COLLECTION + "/" + jobId + "/" + SHARDS, shard, deltas, false));
+
+            boolean first = previous == null;
+            int delta = stars - before;
+            return documents.commit(writes, token)
+                    .thenApply(r -> {
+                        dirty.add(jobId);
+                        return patchLocal(job, first ? 1 : 0, delta);
+                    })
+                    .exceptionallyCompose(err -> {
+                        // Only this user's own concurrent rating can conflict; read it again
+                        if (!FirestoreDocuments.isConflict(err) || attemptNo >= MAX_ATTEMPTS) {
+                            return CompletableFuture.failedFuture(err);
+                        }
+                        return attempt(job, userId, stars, token, attemptNo + 1);
+                    });
+        });
+    }
+
+    /**
+     * Add one rating's effect to the local aggregate (store row and the Job itself) until
+     * the next roll-up brings the true totals.
+     */
+    private RatingSummary patchLocal(Job job, int countDelta, int sumDelta) {
+        RatingSummary current = localSummary(job);
+        int count = current.count() + countDelta;
+        double sum = (current.count() > 0 ? current.average() * current.count() : 0) + sumDelta;
+        RatingSummary updated = count > 0 ? new RatingSummary(count, sum / count) : RatingSummary.NONE;
+        apply(job.getJobId(), updated);
+        job.setRatingCount(updated.count() > 0 ? updated.count() : null);
+        job.setRatingAverage(updated.count() > 0 ? updated.average() : null);
+        return updated;
+    }
+
+    private static RatingSummary localSummary(Job job) {
+        JobStore store = JobStore.get();
+        RatingSummary stored = store.read(() -> {
+            int row = store.rowOf(job.getJobId());
+            return row >= 0 && store.ratingCount(row) > 0
+                    ? new RatingSummary(store.ratingCount(row), store.ratingAverage(row)) : null;
+        });
+        if (stored != null) return stored;
+        return job.getRatingCount() != null && job.getRatingCount() > 0 && job.getRatingAverage() != null
+                ? new RatingSummary(job.getRatingCount(), job.getRatingAverage()) : RatingSummary.NONE;
+    }
+
+    private static void apply(String jobId, RatingSummary summary) {
+        JobStore.get().setRating(jobId, summary.count(), summary.average());
+    }
+
+    //--------------------------------------------------------------------------
+    // Roll-ups
+    //--------------------------------------------------------------------------
+
+    /**
+     * Sum the job's shards and write the totals onto the job document and the local store.
+     * A job the {@link JobSweeper} has moved gets the totals in jobs_archive instead (its
+     * shards stay under jobs/{jobId}); a job that is gone from both is not written, so
+     * the roll-up still completes and is not retried.
+     */
+    public CompletableFuture<RatingSummary> rollUp(String jobId) {
+        String token;
+        try {
+            token = FirestoreDocuments.obtainAccessToken();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        JsonObject from = new JsonObject();
+        from.addProperty("collectionId", SHARDS);
+        JsonArray fromArr = new JsonArray();
+        fromArr.add(from);
+        JsonObject query = new JsonObject();
+        query.add("from", fromArr);
+
+        return documents.runQuery(JOBS_COLLECTION + "/" + jobId, query, token).thenCompose(docs -> {
+            RatingSummary totals = totals(docs);
+            JsonObject fields = FirestoreCodec.encodeFields(fields(totals));
+            return documents.update(JOBS_COLLECTION, jobId, fields, token)
+                    .thenApply(v -> {
+                        apply(jobId, totals);
+                        return totals;
+                    })
+                    .exceptionallyCompose(err -> {
+                        if (!FirestoreDocuments.isNotFound(err)) return CompletableFuture.failedFuture(err);
+                        return documents.update(JobSweeper.ARCHIVE_COLLECTION, jobId, fields, token)
+                                .thenApply(v -> totals)
+                                .exceptionallyCompose(archiveErr -> {
+                                    if (!FirestoreDocuments.isNotFound(archiveErr)) return CompletableFuture.failedFuture(archiveErr);
+                                    System.err.println("[Ratings] " + jobId + " no longer exists; roll-up dropped");
+                                    return CompletableFuture.completedFuture(totals);
+                                });
+                    });
+        });
+    }
+
+    private void rollUpDirty() {
+        if (dirty.isEmpty()) return;
+        List<String> jobIds = new ArrayList<>(dirty);
+        dirty.removeAll(jobIds);
+        for (String jobId : jobIds) {
+            try {
+                rollUp(jobId).get(30, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                dirty.add(jobId);
+                System.err.println("[Ratings] Roll-up of " + jobId + " failed, will retry: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Totals of a job's shard documents.
+     */
+    public static RatingSummary totals(List<JsonObject> shardDocs) {
+        long count = 0, sum = 0;
+        for (JsonObject doc : shardDocs) {
+            Map<String, Object> f = FirestoreCodec.decodeFields(doc.getAsJsonObject("fields"));
+            if (f.get("count") instanceof Number n) count += n.longValue();
+            if (f.get("sum") instanceof Number n) sum += n.longValue();
+        }
+        return RatingSummary.of(count, sum);
+    }
+
+    /**
+     * Job document fields for an aggregate.
+     */
+    public static Map<String, Object> fields(RatingSummary totals) {
+        Map<String, Object> m = new HashMap<>();
+        m.put("ratingCount", totals.count());
+        m.put("ratingAverage", totals.count() > 0 ? totals.average() : 0.0);
+        return m;
+    }
+}
@@ -0,0 +1,13 @@
+package com.devera.trabahanap.service;
+
+/**
+ * A job's rating aggregate: how many ratings and their mean (NaN when count is 0).
+ */
+public record RatingSummary(int count, double average) {
+
+    public static final RatingSummary NONE = new RatingSummary(0, Double.NaN);
+
+    static RatingSummary of(long count, long sum) {
+        return count > 0 ? new RatingSummary((int) count, (double) sum / count) : NONE;
+    }
+}
@@ -0,0 +1,224 @@
+package com.devera.trabahanap.service;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.search.JobAlert;
+import com.devera.trabahanap.search.SavedSearch;
+import com.devera.trabahanap.search.SavedSearchIndex;
+import com.devera.trabahanap.service.outbox.WriteOutbox;
+import com.devera.trabahanap.system.Config;
+import com.devera.trabahanap.system.SessionManager;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Saved searches ("savedSearches" collection) and the job alerts they produce ("jobAlerts").
+ *
+ * Each user only ever reads their own documents: {@link #loadMine} and {@link #loadAlerts}
+ * query by userId, a page of 100 at a time, and the security rules allow nothing else.
+ * Matching therefore runs on the searcher's client: whenever Home has loaded jobs,
+ * {@link #alertNewMatches} percolates them through the user's searches in the shared
+ * {@link SavedSearchIndex} and queues one alert per new match, with id "{searchId}-{jobId}"
+ * so a job never alerts a search twice. Writes go through the {@link WriteOutbox} like job
+ * posts.
+ */
+public class SavedSearchService {
+
+    private static final String SEARCHES_COLLECTION = "savedSearches";
+    private static final String ALERTS_COLLECTION = "jobAlerts";
+    private static final int PAGE_SIZE = 100;
+
+    // userId -> alert id -> alert; a user is present once their alerts have been loaded
+    private static final Map<String, Map<String, JobAlert>> alerts = new ConcurrentHashMap<>();
+
+    private final FirestoreDocuments documents;
+
+    public SavedSearchService() {
+        String projectId = Config.get("firebase.projectId");
+        if (projectId == null || projectId.isBlank()) {
+            throw new IllegalStateException("Missing firebase.projectId in config.properties");
+        }
+        this.documents = new FirestoreDocuments(projectId);
+    }
+
+    /**
+     * Save a search (a new id is assigned if it has none) and start matching new jobs
+     * against it. Returns the search id once the write is in the local outbox.
+     */
+    public CompletableFuture<String> save(SavedSearch search) {
+        SavedSearch s = search.id() != null ? search
+                : new SavedSearch(DocumentIds.newId(), search.userId(), search.name(), search.category(),
+                        search.location(), search.budgetMin(), search.budgetMax(), search.keywords(),
+                        search.skills(), search.createdAt() > 0 ? search.createdAt() : System.currentTimeMillis());
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                WriteOutbox.get().enqueueCreate(SEARCHES_COLLECTION, s.id(), FirestoreCodec.encodeFields(s.toMap()));
+                SavedSearchIndex.get().add(s);
+                return s.id();
+            } catch (IOException e) {
+                throw new RuntimeException("Could not save search locally: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Fetch the logged-in user's saved searches and make the shared index match them.
+     * Empty when nobody is logged in.
+     */
+    public CompletableFuture<List<SavedSearch>> loadMine() {
+        Optional<String> userId = SessionManager.get().getLocalId();
+        if (userId.isEmpty()) {
+            SavedSearchIndex.get().sync(List.of());
+            return CompletableFuture.completedFuture(List.of());
+        }
+        return queryOwn(SEARCHES_COLLECTION, userId.get()).thenApply(docs -> {
+            List<SavedSearch> out = new ArrayList<>(docs.size());
+            for (JsonObject doc : docs) {
+                String id = FirestoreCodec.documentId(doc.get("name").getAsString());
+                SavedSearch s = SavedSearch.fromMap(id, FirestoreCodec.decodeFields(doc.getAsJsonObject("fields")));
+                if (s != null) out.add(s);
+            }
+            SavedSearchIndex.get().sync(out);
+            System.out.println("[SavedSearches] Loaded " + out.size() + " saved search(es)");
+            return out;
+        });
+    }
+
+    /**
+     * Fetch the logged-in user's job alerts, newest first. Until this has completed once,
+     * {@link #alertNewMatches} does nothing, so alerts already stored are not raised again.
+     */
+    public CompletableFuture<List<JobAlert>> loadAlerts() {
+        Optional<String> userId = SessionManager.get().getLocalId();
+        if (userId.isEmpty()) return CompletableFuture.completedFuture(List.of());
+        return queryOwn(ALERTS_COLLECTION, userId.get()).thenApply(docs -> {
+            Map<String, JobAlert> mine = alerts.computeIfAbsent(userId.get(), k -> new ConcurrentHashMap<>());
+            for (JsonObject doc : docs) {
+                JobAlert a = JobAlert.fromMap(FirestoreCodec.decodeFields(doc.getAsJsonObject("fields")));
+                if (a != null) mine.put(a.id(), a);
+            }
+            System.out.println("[SavedSearches] Loaded " + docs.size() + " job alert(s)");
+            return recentAlerts(Integer.MAX_VALUE);
+        });
+    }
+
+    /**
+     * Check jobs against the logged-in user's saved searches and queue an alert for every
+     * new match: a job not posted by the user, posted after the search was saved, that has
+     * not alerted that search before. Returns the new alerts; failures are logged, never
+     * thrown.
+     */
+    public List<JobAlert> alertNewMatches(Collection<Job> jobs) {
+        Optional<String> userId = SessionManager.get().getLocalId();
+        if (userId.isEmpty() || jobs == null) return List.of();
+        Map<String, JobAlert> mine = alerts.get(userId.get());
+        if (mine == null) return List.of();
+
+        List<JobAlert> raised = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Job job : jobs) {
+            if (job == null || job.getJobId() == null || userId.get().equals(job.getPostedByUserId())) continue;
+            for (SavedSearch s : SavedSearchIndex.get().match(job)) {
+                if (!userId.get().equals(s.userId()) || job.getTimestamp() < s.createdAt()) continue;
+                JobAlert alert = JobAlert.of(s, job.getJobId(), job.getTitle(), now);
+                if (mine.putIfAbsent(alert.id(), alert) != null) continue;
+                try {
+                    WriteOutbox.get().enqueueCreate(ALERTS_COLLECTION, alert.id(), FirestoreCodec.encodeFields(alert.toMap()));
+                    raised.add(alert);
+                } catch (IOException e) {
+                    mine.remove(alert.id());
+                    System.err.println("[SavedSearches] Could not queue alert for " + s.id() + ": " + e.getMessage());
+                }
+            }
+        }
+        if (!raised.isEmpty()) System.out.println("[SavedSearches] " + raised.size() + " new job alert(s)");
+        return raised;
+    }
+
+    /**
+     * The logged-in user's known alerts, newest first, at most limit.
+     */
+    public static List<JobAlert> recentAlerts(int limit) {
+        Optional<String> userId = SessionManager.get().getLocalId();
+        Map<String, JobAlert> mine = userId.map(alerts::get).orElse(null);
+        if (mine == null) return List.of();
+        return mine.values().stream()
+                .sorted(Comparator.comparingLong(JobAlert::createdAt).reversed().thenComparing(JobAlert::id))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Every document of the collection whose userId is the given user, fetched a page at a
+     * time in document-name order.
+     */
+    private CompletableFuture<List<JsonObject>> queryOwn(String collection, String userId) {
+        String token;
+        try {
+            token = FirestoreDocuments.obtainAccessToken();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return nextPage(collection, userId, token, null, new ArrayList<>());
+    }
+
+    private CompletableFuture<List<JsonObject>> nextPage(String collection, String userId, String token,
+                                                         String after, List<JsonObject> out) {
+        return documents.runQuery(ownQuery(collection, userId, after), token).thenCompose(docs -> {
+            out.addAll(docs);
+            if (docs.size() < PAGE_SIZE) return CompletableFuture.completedFuture(out);
+            String last = docs.get(docs.size() - 1).get("name").getAsString();
+            return nextPage(collection, userId, token, last, out);
+        });
+    }
+
+    private static JsonObject ownQuery(String collection, String userId, String after) {
+        JsonObject from = new JsonObject();
+        from.addProperty("collectionId", collection);
+        JsonArray fromArr = new JsonArray();
+        fromArr.add(from);
+
+        JsonObject userField = new JsonObject();
+        userField.addProperty("fieldPath", "userId");
+        JsonObject filter = new JsonObject();
+        filter.add("field", userField);
+        filter.addProperty("op", "EQUAL");
+        filter.add("value", FirestoreCodec.encodeValue(userId));
+        JsonObject where = new JsonObject();
+        where.add("fieldFilter", filter);
+
+        JsonObject nameField = new JsonObject();
+        nameField.addProperty("fieldPath", "__name__");
+        JsonObject order = new JsonObject();
+        order.add("field", nameField);
+        order.addProperty("direction", "ASCENDING");
+        JsonArray orderBy = new JsonArray();
+        orderBy.add(order);
+
+        JsonObject q = new JsonObject();
+        q.add("from", fromArr);
+        q.add("where", where);
+        q.add("orderBy", orderBy);
+        q.addProperty("limit", PAGE_SIZE);
+        if (after != null) {
+            JsonObject ref = new JsonObject();
+            ref.addProperty("referenceValue", after);
+            JsonArray values = new JsonArray();
+            values.add(ref);
+            JsonObject cursor = new JsonObject();
+            cursor.add("values", values);
+            cursor.addProperty("before", false);
+            q.add("startAt", cursor);
+        }
+        return q;
+    }
+}
@@ -0,0 +1,16 @@
+package com.devera.trabahanap.service.http;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a call is rejected because the endpoint's circuit breaker is open
+ * and no cached response is available.
+ */
+public class CircuitOpenException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String endpoint) {
+        super("Service temporarily unavailable (" + endpoint + "), please try again shortly");
+    }
+}
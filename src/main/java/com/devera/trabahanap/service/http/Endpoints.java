@@ -0,0 +1,67 @@
+package com.devera.trabahanap.service.http;
+
+import com.devera.trabahanap.system.Config;
+
+/**
+ * Base URLs for the Google REST APIs used by the services.
+ *
+ * Production hosts are used unless an emulator host is configured, either through
+ * config.properties (firebase.firestoreEmulatorHost / firebase.authEmulatorHost) or the
+ * standard FIRESTORE_EMULATOR_HOST / FIREBASE_AUTH_EMULATOR_HOST environment variables.
+ * Pointing these at a local fake server is how fault injection is exercised.
+ */
+public final class Endpoints {
+
+    private static final String FIRESTORE_HOST = "https://firestore.googleapis.com";
+    private static final String IDENTITY_HOST = "https://identitytoolkit.googleapis.com";
+
+    // Set by command-line tools (e.g. --emulator); wins over config and environment
+    private static volatile String firestoreHostOverride;
+
+    private Endpoints() {}
+
+    /**
+     * Route Firestore calls to host:port (e.g. "localhost:8080") for this process.
+     */
+    public static void useFirestoreEmulator(String hostAndPort) {
+        firestoreHostOverride = hostAndPort;
+    }
+
+    /**
+     * e.g. https://firestore.googleapis.com/v1/projects/{id}/databases/(default)/documents
+     */
+    public static String firestoreDocuments(String projectId) {
+        return firestoreBase() + "/v1/projects/" + projectId + "/databases/(default)/documents";
+    }
+
+    public static String firestoreBase() {
+        String emulator = firestoreEmulatorHost();
+        return emulator != null ? "http://" + emulator : FIRESTORE_HOST;
+    }
+
+    /**
+     * e.g. https://identitytoolkit.googleapis.com/v1
+     */
+    public static String identityToolkit() {
+        String emulator = emulatorHost("firebase.authEmulatorHost", "FIREBASE_AUTH_EMULATOR_HOST");
+        return emulator != null ? "http://" + emulator + "/identitytoolkit.googleapis.com/v1" : IDENTITY_HOST + "/v1";
+    }
+
+    /**
+     * True when Firestore calls go to an emulator, which accepts "Bearer owner" instead of a real token.
+     */
+    public static boolean isFirestoreEmulated() {
+        return firestoreEmulatorHost() != null;
+    }
+
+    private static String firestoreEmulatorHost() {
+        String override = firestoreHostOverride;
+        return override != null ? override : emulatorHost("firebase.firestoreEmulatorHost", "FIRESTORE_EMULATOR_HOST");
+    }
+
+    private static String emulatorHost(String configKey, String envKey) {
+        String v = Config.get(configKey);
+        if (v == null || v.isBlank()) v = System.getenv(envKey);
+        return v == null || v.isBlank() ? null : v.trim();
+    }
+}
@@ -0,0 +1,52 @@
+package com.devera.trabahanap.service.http;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome counters for outbound HTTP calls, keyed "endpoint.outcome".
+ *
+ * Outcomes recorded by {@link ResilientHttpClient}:
+ *  success, client_error, retry, gave_up, hedge_sent, hedge_won, circuit_open, cache_served
+ * and byte counts per response read (hedges and retries included): bytes_wire (as received,
+ * compressed or not), bytes_body (after decompression) and gzipped (responses that were).
+ * {@link RequestScheduler} adds queued (requests that waited for a permit) and queue_ms
+ * (total time they waited).
+ */
+public final class HttpMetrics {
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public void increment(String endpoint, String outcome) {
+        add(endpoint, outcome, 1);
+    }
+
+    public void add(String endpoint, String outcome, long amount) {
+        counters.computeIfAbsent(endpoint + "." + outcome, k -> new LongAdder()).add(amount);
+    }
+
+    public long get(String endpoint, String outcome) {
+        LongAdder a = counters.get(endpoint + "." + outcome);
+        return a != null ? a.sum() : 0L;
+    }
+
+    /**
+     * Sorted point-in-time copy of all counters.
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> out = new TreeMap<>();
+        counters.forEach((k, v) -> out.put(k, v.sum()));
+        return out;
+    }
+
+    public void reset() {
+        counters.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "HttpMetrics" + snapshot();
+    }
+}
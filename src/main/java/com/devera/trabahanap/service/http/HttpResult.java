@@ -0,0 +1,46 @@
+package com.devera.trabahanap.service.http;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+
+/**
+ * Outcome of a call made through {@link ResilientHttpClient}.
+ *
+ * Successful JSON responses are parsed while they download, so they carry {@code json} and
+ * no text; {@link #body()} renders the text on demand. Other responses (errors, non-JSON)
+ * carry the text only.
+ *
+ * @param statusCode HTTP status of the final attempt (200 when served from cache)
+ * @param body       response body as text, or null when it was parsed as it streamed
+ * @param fromCache  true when the body is a cached copy served while the endpoint is unavailable
+ * @param json       parsed body of a successful JSON response, or null; shared with the
+ *                   response cache, so treat it as read-only
+ */
+public record HttpResult(int statusCode, String body, boolean fromCache, JsonElement json) {
+
+    public HttpResult(int statusCode, String body, boolean fromCache) {
+        this(statusCode, body, fromCache, null);
+    }
+
+    public boolean isSuccess() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    @Override
+    public String body() {
+        return body != null || json == null ? body : json.toString();
+    }
+
+    /**
+     * The body as JSON, parsing the text if it was not parsed while streaming.
+     */
+    @Override
+    public JsonElement json() {
+        if (json != null) return json;
+        return body == null || body.isBlank() ? null : JsonParser.parseString(body);
+    }
+
+    HttpResult servedFromCache() {
+        return new HttpResult(200, body, true, json);
+    }
+}
@@ -0,0 +1,260 @@
+package com.devera.trabahanap.service.http;
+
+import com.devera.trabahanap.system.Config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for outbound requests, per host (URI authority), in front of
+ * {@link ResilientHttpClient}: every physical request (including retries and hedges) waits
+ * here for a permit before it is sent and gives it back once its body has been read.
+ *
+ * Each host has
+ *  - a concurrency limit (requests in flight)
+ *  - a token bucket (sustained requests per second plus a burst), so bulk work stays inside
+ *    the Firestore / Identity Toolkit quotas instead of running into 429s
+ *  - one queue ordered by priority, then arrival
+ *
+ * Priorities are INTERACTIVE (the user is waiting), PREFETCH (data the next screen will show)
+ * and BACKGROUND (sync, roll-ups, sweeps, telemetry). Lower classes may not use the last
+ * slots and tokens: PREFETCH leaves a fifth of each, BACKGROUND two fifths, so a click always
+ * finds capacity. A queued request is overtaken by every higher-priority request that arrives
+ * after it; requests already sent are never interrupted.
+ *
+ * The priority of a request is that of the thread that sends it ({@link #withPriority},
+ * {@link #runAs}); threads default to INTERACTIVE. Continuations of a response run with the
+ * priority of the request, so a chain of calls keeps its class.
+ *
+ * Config keys (per host overrides as http.host.{hostname}.maxConcurrent etc.):
+ * http.host.maxConcurrent (default 6), http.host.ratePerSecond (default 20),
+ * http.host.burst (default 40).
+ */
+public final class RequestScheduler {
+
+    public enum Priority {
+        INTERACTIVE(0),
+        PREFETCH(0.2),
+        BACKGROUND(0.4);
+
+        /** Share of slots and tokens this class must leave to higher classes. */
+        final double reserve;
+
+        Priority(double reserve) {
+            this.reserve = reserve;
+        }
+    }
+
+    /**
+     * Limits for one host.
+     */
+    public record Limits(int maxConcurrent, int ratePerSecond, int burst) {}
+
+    private static final ThreadLocal<Priority> current = ThreadLocal.withInitial(() -> Priority.INTERACTIVE);
+
+    private final Function<String, Limits> limitsForHost;
+    private final HttpMetrics metrics;
+    private final Map<String, Lane> lanes = new HashMap<>();
+    private long seq;
+
+    public RequestScheduler(Function<String, Limits> limitsForHost, HttpMetrics metrics) {
+        this.limitsForHost = limitsForHost;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Limits from config.properties.
+     */
+    public static RequestScheduler fromConfig(HttpMetrics metrics) {
+        Limits defaults = new Limits(
+                Config.getInt("http.host.maxConcurrent", 6),
+                Config.getInt("http.host.ratePerSecond", 20),
+                Config.getInt("http.host.burst", 40));
+        return new RequestScheduler(host -> new Limits(
+                Config.getInt("http.host." + host + ".maxConcurrent", defaults.maxConcurrent()),
+                Config.getInt("http.host." + host + ".ratePerSecond", defaults.ratePerSecond()),
+                Config.getInt("http.host." + host + ".burst", defaults.burst())), metrics);
+    }
+
+    public static Priority currentPriority() {
+        return current.get();
+    }
+
+    /**
+     * Run work with requests sent from this thread at the given priority.
+     */
+    public static <T> T withPriority(Priority priority, Supplier<T> work) {
+        Priority previous = current.get();
+        current.set(priority);
+        try {
+            return work.get();
+        } finally {
+            current.set(previous);
+        }
+    }
+
+    public static void runAs(Priority priority, Runnable work) {
+        withPriority(priority, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Wait for a permit to send to host (an authority such as firestore.googleapis.com or
+     * localhost:8080). The permit must be released when the request is done.
+     *
+     * @param endpoint logical endpoint name, for the queued / queue_ms counters
+     */
+    public CompletableFuture<Permit> acquire(String host, String endpoint, Priority priority) {
+        Ticket ticket = new Ticket(priority, endpoint);
+        Lane lane;
+        synchronized (this) {
+            lane = lanes.computeIfAbsent(host, h -> new Lane(limitsForHost.apply(hostName(h))));
+            ticket.seq = seq++;
+        }
+        synchronized (lane) {
+            lane.queue.add(ticket);
+        }
+        pump(lane);
+        return ticket.granted;
+    }
+
+    /**
+     * Requests in flight and queued for host, for diagnostics.
+     */
+    public String describe(String host) {
+        Lane lane;
+        synchronized (this) {
+            lane = lanes.get(host);
+        }
+        if (lane == null) return host + ": idle";
+        synchronized (lane) {
+            return host + ": " + lane.active + " in flight, " + lane.queue.size() + " queued, "
+                    + (int) lane.tokens + " token(s)";
+        }
+    }
+
+    /**
+     * Grant permits to queued tickets, highest priority first, while slots and tokens allow.
+     * If the head of the queue waits for tokens, a wake-up is scheduled for when it will
+     * have them.
+     */
+    private void pump(Lane lane) {
+        List<Ticket> granted = new ArrayList<>();
+        synchronized (lane) {
+            lane.refill(System.nanoTime());
+            while (!lane.queue.isEmpty()) {
+                Ticket head = lane.queue.peek();
+                if (lane.active >= lane.slotsFor(head.priority)) break; // a release will pump
+                double needed = lane.tokensFor(head.priority);
+                if (lane.tokens < needed) {
+                    if (!lane.wakeScheduled) {
+                        lane.wakeScheduled = true;
+                        long waitMillis = (long) Math.ceil((needed - lane.tokens) * 1000.0 / lane.limits.ratePerSecond());
+                        CompletableFuture.delayedExecutor(Math.max(1, waitMillis), TimeUnit.MILLISECONDS).execute(() -> {
+                            synchronized (lane) {
+                                lane.wakeScheduled = false;
+                            }
+                            pump(lane);
+                        });
+                    }
+                    break;
+                }
+                lane.queue.poll();
+                lane.tokens -= 1;
+                lane.active++;
+                granted.add(head);
+            }
+        }
+        // Outside the lock: completing runs the caller's send
+        for (Ticket t : granted) {
+            long waitedMillis = (System.nanoTime() - t.enqueuedAt) / 1_000_000;
+            if (waitedMillis > 0) {
+                metrics.increment(t.endpoint, "queued");
+                metrics.add(t.endpoint, "queue_ms", waitedMillis);
+            }
+            t.granted.complete(new Permit(lane));
+        }
+    }
+
+    private static String hostName(String authority) {
+        int colon = authority.lastIndexOf(':');
+        return colon > 0 && authority.indexOf(']') < colon ? authority.substring(0, colon) : authority;
+    }
+
+    /**
+     * Leave to send one request; release once, when its response has been read or it failed.
+     */
+    public final class Permit {
+        private final Lane lane;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Lane lane) {
+            this.lane = lane;
+        }
+
+        public void release() {
+            if (!released.compareAndSet(false, true)) return;
+            synchronized (lane) {
+                lane.active--;
+            }
+            pump(lane);
+        }
+    }
+
+    private static final class Ticket implements Comparable<Ticket> {
+        final Priority priority;
+        final String endpoint;
+        final long enqueuedAt = System.nanoTime();
+        final CompletableFuture<Permit> granted = new CompletableFuture<>();
+        long seq;
+
+        Ticket(Priority priority, String endpoint) {
+            this.priority = priority;
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public int compareTo(Ticket o) {
+            int c = priority.compareTo(o.priority);
+            return c != 0 ? c : Long.compare(seq, o.seq);
+        }
+    }
+
+    private static final class Lane {
+        final Limits limits;
+        final PriorityQueue<Ticket> queue = new PriorityQueue<>();
+        int active;
+        double tokens;
+        long refilledAt = System.nanoTime();
+        boolean wakeScheduled;
+
+        Lane(Limits limits) {
+            this.limits = new Limits(Math.max(1, limits.maxConcurrent()), Math.max(1, limits.ratePerSecond()),
+                    Math.max(1, limits.burst()));
+            this.tokens = this.limits.burst();
+        }
+
+        void refill(long now) {
+            tokens = Math.min(limits.burst(), tokens + (now - refilledAt) / 1e9 * limits.ratePerSecond());
+            refilledAt = now;
+        }
+
+        int slotsFor(Priority p) {
+            return Math.max(1, limits.maxConcurrent() - (int) Math.floor(limits.maxConcurrent() * p.reserve));
+        }
+
+        double tokensFor(Priority p) {
+            return Math.min(limits.burst(), 1 + limits.burst() * p.reserve);
+        }
+    }
+}
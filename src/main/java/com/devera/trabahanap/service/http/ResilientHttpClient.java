@@ -0,0 +1,401 @@
+package com.devera.trabahanap.service.http;
+
+import com.devera.trabahanap.system.Config;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParser;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Shared HTTP transport for the Firestore and Identity Toolkit services.
+ *
+ * Every call is tagged with a logical endpoint name (e.g. "firestore.read") which selects
+ * its circuit breaker and metrics bucket. On top of the plain JDK client this adds:
+ *  - retries with exponential backoff and jitter (see {@link RetryPolicy}), only where safe
+ *  - optional hedged reads: a second identical idempotent request is sent when the first
+ *    has not answered within http.hedge.delayMs (0 = disabled)
+ *  - per-endpoint circuit breakers; while open, GETs are served from the last good body
+ *  - outcome counters in {@link HttpMetrics}
+ *  - admission by {@link RequestScheduler}: per-host concurrency and rate limits, with
+ *    interactive requests ahead of prefetch and background ones
+ *  - compressed responses: requests ask for gzip (http.gzip, default on) and bodies are read
+ *    as a stream, decompressed on the fly; successful JSON bodies are parsed straight from
+ *    that stream (see {@link HttpResult#json}) instead of being buffered as a String first.
+ *    Bytes on the wire and after decompression are counted per endpoint.
+ *
+ * Non-2xx responses that are not retried are returned as-is so callers keep building
+ * their own error messages; only transport failures complete exceptionally.
+ */
+public final class ResilientHttpClient {
+
+    private static final int CACHE_ENTRIES = 256;
+
+    private static final ResilientHttpClient instance = new ResilientHttpClient();
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final RetryPolicy retryPolicy;
+    private final long hedgeDelayMillis;
+    private final int breakerThreshold;
+    private final long breakerOpenMillis;
+    private final boolean gzip;
+
+    /** Reads response bodies; the stream blocks until the client has delivered the bytes. */
+    private final ExecutorService bodyReader = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "http-body");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final HttpMetrics metrics = new HttpMetrics();
+    private final RequestScheduler scheduler = RequestScheduler.fromConfig(metrics);
+    private final Map<String, HttpResult> lastGoodBodies = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, HttpResult> eldest) {
+            return size() > CACHE_ENTRIES;
+        }
+    };
+
+    private ResilientHttpClient() {
+        this(RetryPolicy.fromConfig(),
+                Config.getLong("http.hedge.delayMs", 0),
+                Config.getInt("http.breaker.failureThreshold", 5),
+                Config.getLong("http.breaker.openMs", 30_000),
+                !"false".equalsIgnoreCase(Config.getOrDefault("http.gzip", "true").trim()));
+    }
+
+    /**
+     * A client with its own breakers, cache and metrics and the given settings instead of
+     * config.properties; the shared one is {@link #get()}.
+     */
+    ResilientHttpClient(RetryPolicy retryPolicy, long hedgeDelayMillis, int breakerThreshold,
+                        long breakerOpenMillis, boolean gzip) {
+        this.retryPolicy = retryPolicy;
+        this.hedgeDelayMillis = hedgeDelayMillis;
+        this.breakerThreshold = breakerThreshold;
+        this.breakerOpenMillis = breakerOpenMillis;
+        this.gzip = gzip;
+    }
+
+    public static ResilientHttpClient get() {
+        return instance;
+    }
+
+    public HttpMetrics getMetrics() {
+        return metrics;
+    }
+
+    public RequestScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public CircuitBreaker breakerFor(String endpoint) {
+        return breakers.computeIfAbsent(endpoint, k -> new CircuitBreaker(breakerThreshold, breakerOpenMillis));
+    }
+
+    /**
+     * Send a request with resilience applied.
+     *
+     * @param endpoint   logical endpoint name used for breaker and metrics
+     * @param request    fully built request (headers, token and body included)
+     * @param idempotent true when repeating the request cannot change the outcome
+     *
+     * The request is scheduled at the calling thread's {@link RequestScheduler#currentPriority}.
+     */
+    public CompletableFuture<HttpResult> send(String endpoint, HttpRequest request, boolean idempotent) {
+        Call call = new Call(endpoint, withEncoding(request), idempotent, breakerFor(endpoint));
+
+        if (!call.breaker.tryAcquire()) {
+            metrics.increment(endpoint, "circuit_open");
+            HttpResult cached = cachedResult(call);
+            return cached != null
+                    ? CompletableFuture.completedFuture(cached)
+                    : CompletableFuture.failedFuture(new CircuitOpenException(endpoint));
+        }
+
+        attempt(call, 1);
+        return call.result;
+    }
+
+    private void attempt(Call call, int attemptNo) {
+        dispatch(call).whenComplete((res, err) -> {
+            Throwable cause = unwrap(err);
+            int status = res != null ? res.statusCode() : -1;
+
+            if (cause == null && !RetryPolicy.isTransientStatus(status)) {
+                call.breaker.onSuccess();
+                if (res.isSuccess()) {
+                    metrics.increment(call.endpoint, "success");
+                    if (call.cacheable) {
+                        synchronized (lastGoodBodies) {
+                            lastGoodBodies.put(call.request.uri().toString(), res.toResult());
+                        }
+                    }
+                } else {
+                    metrics.increment(call.endpoint, "client_error");
+                }
+                finish(call, res.toResult(), null);
+                return;
+            }
+
+            call.breaker.onFailure();
+            boolean canRetry = RetryPolicy.isRetryable(status, cause, call.idempotent)
+                    && attemptNo < retryPolicy.maxAttempts()
+                    && call.breaker.getState() != CircuitBreaker.State.OPEN;
+            if (canRetry) {
+                metrics.increment(call.endpoint, "retry");
+                long delay = retryPolicy.backoffMillis(attemptNo, res != null ? res.retryAfterMillis : 0);
+                CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS)
+                        .execute(() -> attempt(call, attemptNo + 1));
+                return;
+            }
+
+            metrics.increment(call.endpoint, "gave_up");
+            HttpResult cached = cachedResult(call);
+            if (cached != null) {
+                finish(call, cached, null);
+            } else if (cause == null) {
+                finish(call, res.toResult(), null);
+            } else {
+                finish(call, null, cause);
+            }
+        });
+    }
+
+    /**
+     * Complete the call with its priority set on this thread, so requests sent by the
+     * caller's continuations are scheduled in the same class.
+     */
+    private static void finish(Call call, HttpResult result, Throwable error) {
+        RequestScheduler.runAs(call.priority, () -> {
+            if (error == null) call.result.complete(result);
+            else call.result.completeExceptionally(error);
+        });
+    }
+
+    /**
+     * One logical attempt: the primary request plus, for idempotent calls, an optional hedge.
+     * Completes with the first successful response, or the last failure if all fail.
+     */
+    private CompletableFuture<RawResponse> dispatch(Call call) {
+        CompletableFuture<RawResponse> primary = sendOnce(call);
+        if (!call.idempotent || hedgeDelayMillis <= 0) return primary;
+
+        CompletableFuture<RawResponse> winner = new CompletableFuture<>();
+        AtomicInteger outstanding = new AtomicInteger(1);
+
+        primary.whenComplete((r, e) -> settle(winner, outstanding, r, e, false, call.endpoint));
+        CompletableFuture.delayedExecutor(hedgeDelayMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            if (winner.isDone()) return;
+            outstanding.incrementAndGet();
+            metrics.increment(call.endpoint, "hedge_sent");
+            sendOnce(call).whenComplete((r, e) -> settle(winner, outstanding, r, e, true, call.endpoint));
+        });
+        return winner;
+    }
+
+    private void settle(CompletableFuture<RawResponse> winner, AtomicInteger outstanding,
+                        RawResponse r, Throwable e, boolean hedge, String endpoint) {
+        int left = outstanding.decrementAndGet();
+        boolean good = e == null && !RetryPolicy.isTransientStatus(r.statusCode());
+        if (good || left <= 0) {
+            boolean won = e == null ? winner.complete(r) : winner.completeExceptionally(e);
+            if (won && hedge && good) metrics.increment(endpoint, "hedge_won");
+        }
+    }
+
+    private CompletableFuture<RawResponse> sendOnce(Call call) {
+        return scheduler.acquire(call.request.uri().getAuthority(), call.endpoint, call.priority)
+                .thenCompose(permit -> {
+                    CompletableFuture<RawResponse> sent;
+                    try {
+                        sent = http.sendAsync(call.request, HttpResponse.BodyHandlers.ofInputStream())
+                                .thenApplyAsync(resp -> read(call.endpoint, resp), bodyReader);
+                    } catch (RuntimeException e) {
+                        sent = CompletableFuture.failedFuture(e);
+                    }
+                    return sent.whenComplete((r, e) -> permit.release());
+                });
+    }
+
+    /**
+     * Ask for a gzip body unless the caller already chose an encoding. Google front ends only
+     * compress for clients whose User-Agent mentions gzip, so one is set when missing.
+     */
+    private HttpRequest withEncoding(HttpRequest request) {
+        if (!gzip || request.headers().firstValue("Accept-Encoding").isPresent()) return request;
+        HttpRequest.Builder b = HttpRequest.newBuilder(request, (name, value) -> true)
+                .setHeader("Accept-Encoding", "gzip");
+        if (request.headers().firstValue("User-Agent").isEmpty()) b.setHeader("User-Agent", "TrabaHanap (gzip)");
+        return b.build();
+    }
+
+    /**
+     * Drain one response: decompress if needed, parse a successful JSON body as it streams,
+     * keep anything else as text, and count the bytes either side of decompression.
+     */
+    private RawResponse read(String endpoint, HttpResponse<InputStream> resp) {
+        String encoding = resp.headers().firstValue("Content-Encoding").orElse("identity").trim();
+        boolean gzipped = "gzip".equalsIgnoreCase(encoding);
+        boolean success = resp.statusCode() >= 200 && resp.statusCode() < 300;
+        boolean isJson = resp.headers().firstValue("Content-Type").map(t -> t.contains("json")).orElse(false);
+
+        PushbackInputStream raw = new PushbackInputStream(resp.body(), 1);
+        CountingInputStream wire = new CountingInputStream(raw);
+        try {
+            // An empty body (a 204, or nothing at all labelled gzip) has no gzip header to read
+            if (gzipped && isEmpty(raw)) gzipped = false;
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+        try (CountingInputStream decoded = new CountingInputStream(gzipped ? new GZIPInputStream(wire, 8192) : wire)) {
+            String body = null;
+            JsonElement json = null;
+            if (success && isJson) {
+                json = JsonParser.parseReader(new InputStreamReader(decoded, StandardCharsets.UTF_8));
+                decoded.transferTo(OutputStream.nullOutputStream()); // trailing whitespace, gzip trailer
+            } else {
+                body = new String(decoded.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            metrics.add(endpoint, "bytes_wire", wire.count);
+            metrics.add(endpoint, "bytes_body", decoded.count);
+            if (gzipped) metrics.increment(endpoint, "gzipped");
+            return RawResponse.of(resp, body, json);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        } catch (JsonIOException e) {
+            // The connection failed mid-body; report it as the transport failure it is
+            throw new CompletionException(e.getCause() instanceof IOException io ? io : e);
+        }
+    }
+
+    /**
+     * Whether in is at end of stream; a byte read to find out is pushed back.
+     */
+    private static boolean isEmpty(PushbackInputStream in) throws IOException {
+        int first = in.read();
+        if (first < 0) return true;
+        in.unread(first);
+        return false;
+    }
+
+    private HttpResult cachedResult(Call call) {
+        if (!call.cacheable) return null;
+        HttpResult last;
+        synchronized (lastGoodBodies) {
+            last = lastGoodBodies.get(call.request.uri().toString());
+        }
+        if (last == null) return null;
+        metrics.increment(call.endpoint, "cache_served");
+        return last.servedFromCache();
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        while (t instanceof CompletionException && t.getCause() != null) t = t.getCause();
+        return t;
+    }
+
+    private static final class Call {
+        final String endpoint;
+        final HttpRequest request;
+        final boolean idempotent;
+        final boolean cacheable;
+        final CircuitBreaker breaker;
+        final RequestScheduler.Priority priority = RequestScheduler.currentPriority();
+        final CompletableFuture<HttpResult> result = new CompletableFuture<>();
+
+        Call(String endpoint, HttpRequest request, boolean idempotent, CircuitBreaker breaker) {
+            this.endpoint = endpoint;
+            this.request = request;
+            this.idempotent = idempotent;
+            this.cacheable = "GET".equals(request.method());
+            this.breaker = breaker;
+        }
+    }
+
+    /**
+     * Counts the bytes read through it.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = super.read(buf, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    private static final class RawResponse {
+        final int statusCode;
+        final String body;
+        final JsonElement json;
+        final long retryAfterMillis;
+
+        private RawResponse(int statusCode, String body, JsonElement json, long retryAfterMillis) {
+            this.statusCode = statusCode;
+            this.body = body;
+            this.json = json;
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        static RawResponse of(HttpResponse<?> resp, String body, JsonElement json) {
+            long retryAfter = resp.headers().firstValue("Retry-After").map(v -> {
+                try {
+                    return Long.parseLong(v.trim()) * 1000L;
+                } catch (NumberFormatException e) {
+                    return 0L;
+                }
+            }).orElse(0L);
+            return new RawResponse(resp.statusCode(), body, json, retryAfter);
+        }
+
+        int statusCode() { return statusCode; }
+
+        boolean isSuccess() { return statusCode >= 200 && statusCode < 300; }
+
+        HttpResult toResult() { return new HttpResult(statusCode, body, false, json); }
+    }
+}
@@ -0,0 +1,64 @@
+package com.devera.trabahanap.service.http;
+
+import com.devera.trabahanap.system.Config;
+
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry settings and classification rules.
+ *
+ * Backoff is exponential with "full jitter": attempt n waits a random time in
+ * [0, min(maxDelay, baseDelay * 2^(n-1))], so many desktops hitting the same
+ * quota error do not retry in lock-step.
+ *
+ * Config keys (config.properties):
+ *  - http.retry.maxAttempts (default 4, including the first attempt)
+ *  - http.retry.baseDelayMs (default 200)
+ *  - http.retry.maxDelayMs  (default 5000)
+ */
+public record RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+
+    public static RetryPolicy fromConfig() {
+        return new RetryPolicy(
+                Math.max(1, Config.getInt("http.retry.maxAttempts", 4)),
+                Math.max(1, Config.getLong("http.retry.baseDelayMs", 200)),
+                Math.max(1, Config.getLong("http.retry.maxDelayMs", 5000))
+        );
+    }
+
+    /**
+     * Delay before the given retry (1 = first retry). A server supplied Retry-After wins
+     * when present, capped at maxDelay.
+     */
+    public long backoffMillis(int retry, long retryAfterMillis) {
+        if (retryAfterMillis > 0) return Math.min(retryAfterMillis, maxDelayMillis);
+        int shift = Math.min(retry - 1, 20);
+        long cap = Math.min(maxDelayMillis, baseDelayMillis << shift);
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    /**
+     * Statuses that indicate a transient server-side condition.
+     */
+    public static boolean isTransientStatus(int status) {
+        return status == 429 || status == 500 || status == 502 || status == 503 || status == 504;
+    }
+
+    /**
+     * Whether a failed attempt may be repeated.
+     *
+     * Idempotent calls retry on any transient status or I/O error. Non-idempotent calls only
+     * retry when the request provably never took effect: a 429 rejection or a failed connect.
+     */
+    public static boolean isRetryable(int status, Throwable error, boolean idempotent) {
+        if (error == null) {
+            return status == 429 || (idempotent && isTransientStatus(status));
+        }
+        if (error instanceof ConnectException || error instanceof HttpConnectTimeoutException) return true;
+        return idempotent && (error instanceof HttpTimeoutException || error instanceof IOException);
+    }
+}
@@ -0,0 +1,76 @@
+package com.devera.trabahanap.service.outbox;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.JobCodec;
+import com.devera.trabahanap.service.FirestoreCodec;
+import com.google.gson.JsonObject;
+
+import java.util.Base64;
+
+/**
+ * One pending write in the outbox.
+ *
+ * @param seq        position in the log; writes are flushed in seq order
+ * @param op         CREATE (exists=false precondition) or UPDATE (field mask merge)
+ * @param collection Firestore collection, e.g. "jobs"
+ * @param docId      client-generated document id
+ * @param fields     Firestore-encoded fields (see FirestoreCodec); null for a job create
+ * @param job        for a job create, the job as one {@link JobCodec} message, else null
+ */
+public record OutboxEntry(long seq, Op op, String collection, String docId, JsonObject fields, byte[] job) {
+
+    public enum Op { CREATE, UPDATE }
+
+    /**
+     * Key under which writes to the same document are coalesced.
+     */
+    public String documentKey() {
+        return collection + "/" + docId;
+    }
+
+    /**
+     * The fields to send: the stored ones, or those of the job.
+     */
+    public JsonObject firestoreFields() {
+        return job != null ? FirestoreCodec.encodeJob(decodeJob()) : fields;
+    }
+
+    /**
+     * The job of a job create, or null.
+     */
+    public Job decodeJob() {
+        return job != null ? JobCodec.decode(job) : null;
+    }
+
+    /**
+     * The same write with its fields spelled out (for the dead-letter file).
+     */
+    OutboxEntry withFields() {
+        return job != null ? new OutboxEntry(seq, op, collection, docId, firestoreFields(), null) : this;
+    }
+
+    JsonObject toJson() {
+        JsonObject o = new JsonObject();
+        o.addProperty("seq", seq);
+        o.addProperty("op", op.name());
+        o.addProperty("collection", collection);
+        o.addProperty("docId", docId);
+        if (job != null) {
+            o.addProperty("job", Base64.getEncoder().encodeToString(job));
+        } else {
+            o.add("fields", fields);
+        }
+        return o;
+    }
+
+    static OutboxEntry fromJson(JsonObject o) {
+        return new OutboxEntry(
+                o.get("seq").getAsLong(),
+                Op.valueOf(o.get("op").getAsString()),
+                o.get("collection").getAsString(),
+                o.get("docId").getAsString(),
+                o.has("job") ? null : o.getAsJsonObject("fields"),
+                o.has("job") ? Base64.getDecoder().decode(o.get("job").getAsString()) : null
+        );
+    }
+}
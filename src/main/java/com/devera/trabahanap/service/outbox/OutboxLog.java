@@ -0,0 +1,112 @@
+package com.devera.trabahanap.service.outbox;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only JSON-lines file backing the outbox.
+ *
+ * Each append is written and fsynced before returning, so a record that was appended
+ * survives a crash or power loss. A torn last line (crash mid-write) is cut off on
+ * replay; a damaged line elsewhere is reported and does not hide the lines after it.
+ * Compaction rewrites the live records to a temp file, fsyncs it and
+ * atomically renames it over the log.
+ */
+final class OutboxLog implements Closeable {
+
+    private static final Gson gson = new Gson();
+
+    private final Path path;
+    private FileChannel channel;
+
+    OutboxLog(Path path) throws IOException {
+        this.path = path;
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        this.channel = open(path);
+    }
+
+    /**
+     * Records of the log, in file order.
+     *
+     * @param records lines that parsed as JSON objects
+     * @param corrupt lines that did not; the lines after them are still read
+     */
+    record Replay(List<JsonObject> records, List<String> corrupt) {}
+
+    /**
+     * Read every record. A last line without its newline is a torn append and is cut off;
+     * any other unparsable line is returned as corrupt and reading continues after it.
+     */
+    synchronized Replay replay() throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        List<JsonObject> records = new ArrayList<>();
+        List<String> corrupt = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != '\n') continue;
+            String line = new String(bytes, start, i - start, StandardCharsets.UTF_8);
+            start = i + 1;
+            if (line.isBlank()) continue;
+            try {
+                JsonObject record = gson.fromJson(line, JsonObject.class);
+                if (record == null) throw new JsonParseException("Not a record");
+                records.add(record);
+            } catch (JsonParseException | ClassCastException e) {
+                corrupt.add(line);
+            }
+        }
+        if (start < bytes.length) {
+            System.err.println("[Outbox] Cutting off torn record at end of " + path);
+            channel.truncate(start);
+            channel.force(true);
+        }
+        return new Replay(records, corrupt);
+    }
+
+    synchronized void append(JsonObject record) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap((gson.toJson(record) + "\n").getBytes(StandardCharsets.UTF_8));
+        channel.position(channel.size());
+        while (buf.hasRemaining()) channel.write(buf);
+        channel.force(false);
+    }
+
+    /**
+     * Replace the log contents with the given records (compaction).
+     */
+    synchronized void rewrite(List<JsonObject> records) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (JsonObject r : records) {
+                ByteBuffer buf = ByteBuffer.wrap((gson.toJson(r) + "\n").getBytes(StandardCharsets.UTF_8));
+                while (buf.hasRemaining()) out.write(buf);
+            }
+            out.force(true);
+        }
+        channel.close();
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = open(path);
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+}
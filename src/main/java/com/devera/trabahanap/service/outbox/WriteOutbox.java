@@ -0,0 +1,363 @@
+package com.devera.trabahanap.service.outbox;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.JobCodec;
+import com.devera.trabahanap.service.FirestoreDocuments;
+import com.devera.trabahanap.service.FirestoreHttpException;
+import com.devera.trabahanap.service.http.RequestScheduler;
+import com.devera.trabahanap.system.AppPaths;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Write-ahead outbox for Firestore writes.
+ *
+ * enqueue* appends the write to a local fsynced log (outbox.log in the app data dir) and
+ * returns as soon as it is durable; the UI can treat the write as done. Jobs are logged as
+ * {@link JobCodec} messages and only turned into Firestore fields when sent; other writes
+ * are logged as their Firestore fields. A single background flusher drains the log
+ * oldest-first:
+ *  - all pending writes to the same document are coalesced into one request
+ *    (a create plus later updates becomes one create, then the updates as one field-mask patch)
+ *  - transient failures back off exponentially with jitter and retry the same write
+ *  - permanent rejections (4xx) are moved to outbox-dead.jsonl so they cannot block the queue
+ *  - acknowledged writes are recorded in the log and the log is compacted once it has
+ *    collected enough acknowledgements or becomes empty
+ *
+ * Pending writes are replayed from the log on start, so nothing is lost across restarts.
+ * A record that cannot be read back is moved out of the log into outbox-dead.jsonl; the
+ * records after it are replayed as usual.
+ */
+public final class WriteOutbox {
+
+    private static final int COMPACT_AFTER_ACKS = 256;
+    private static final long MAX_BACKOFF_MS = 60_000;
+    private static final long SEND_TIMEOUT_S = 60;
+
+    private static WriteOutbox instance;
+
+    /**
+     * Where drained writes go: Firestore in the app.
+     */
+    interface Sink {
+        /**
+         * Create collection/docId with created (unless null), then update it with updates
+         * (unless null).
+         */
+        void send(String collection, String docId, JsonObject created, JsonObject updates) throws Exception;
+    }
+
+    private final OutboxLog log;
+    private final Path deadLetterPath;
+    private final Sink sink;
+    private final TreeMap<Long, OutboxEntry> pending = new TreeMap<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(() -> RequestScheduler.runAs(RequestScheduler.Priority.BACKGROUND, r), "outbox-flusher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private long nextSeq = 1;
+    private int acksSinceCompaction;
+    private int consecutiveFailures;
+    private boolean flushScheduled;
+
+    WriteOutbox(Path logPath, Sink sink) throws IOException {
+        this.log = new OutboxLog(logPath);
+        this.deadLetterPath = logPath.resolveSibling("outbox-dead.jsonl");
+        this.sink = sink;
+        replay();
+    }
+
+    public static synchronized WriteOutbox get() {
+        if (instance == null) {
+            try {
+                instance = new WriteOutbox(AppPaths.resolve("outbox.log"), firestore(new FirestoreDocuments()));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open outbox log", e);
+            }
+            instance.kick();
+        }
+        return instance;
+    }
+
+    private static Sink firestore(FirestoreDocuments documents) {
+        return (collection, docId, created, updates) -> {
+            String token = FirestoreDocuments.obtainAccessToken();
+            if (created != null) {
+                documents.create(collection, docId, created, token).get(SEND_TIMEOUT_S, TimeUnit.SECONDS);
+            }
+            // Re-applying updates after a create covers the case where the create landed in an
+            // earlier run (precondition then reports it as existing and ignores the merged fields)
+            if (updates != null) {
+                documents.update(collection, docId, updates, token).get(SEND_TIMEOUT_S, TimeUnit.SECONDS);
+            }
+        };
+    }
+
+    /**
+     * Durably queue creation of collection/docId. Returns once the write is in the log.
+     */
+    public void enqueueCreate(String collection, String docId, JsonObject fields) throws IOException {
+        enqueue(OutboxEntry.Op.CREATE, collection, docId, fields);
+    }
+
+    /**
+     * Durably queue creation of collection/{jobId} with the job's fields. Returns once the
+     * write is in the log.
+     */
+    public void enqueueCreate(String collection, Job job) throws IOException {
+        synchronized (this) {
+            OutboxEntry e = new OutboxEntry(nextSeq, OutboxEntry.Op.CREATE, collection, job.getJobId(), null,
+                    JobCodec.encode(job));
+            append(e);
+        }
+        kick();
+    }
+
+    /**
+     * Durably queue a field-mask update of collection/docId. Returns once the write is in the log.
+     */
+    public void enqueueUpdate(String collection, String docId, JsonObject fields) throws IOException {
+        enqueue(OutboxEntry.Op.UPDATE, collection, docId, fields);
+    }
+
+    private void enqueue(OutboxEntry.Op op, String collection, String docId, JsonObject fields) throws IOException {
+        synchronized (this) {
+            append(new OutboxEntry(nextSeq, op, collection, docId, fields.deepCopy(), null));
+        }
+        kick();
+    }
+
+    private void append(OutboxEntry e) throws IOException {
+        log.append(e.toJson());
+        nextSeq++;
+        pending.put(e.seq(), e);
+    }
+
+    /**
+     * Pending creates for a collection, oldest first, with later pending updates merged in.
+     * Used to show optimistic local copies of writes that have not reached Firestore yet.
+     */
+    public synchronized List<OutboxEntry> pendingCreates(String collection) {
+        Map<String, OutboxEntry> byDoc = new LinkedHashMap<>();
+        for (OutboxEntry e : pending.values()) {
+            if (!e.collection().equals(collection)) continue;
+            OutboxEntry prev = byDoc.get(e.docId());
+            if (e.op() == OutboxEntry.Op.CREATE && prev == null) {
+                byDoc.put(e.docId(), e);
+            } else if (prev != null) {
+                byDoc.put(e.docId(), new OutboxEntry(prev.seq(), prev.op(), collection, e.docId(),
+                        merge(prev.firestoreFields(), e.firestoreFields()), null));
+            }
+        }
+        return new ArrayList<>(byDoc.values());
+    }
+
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Stop the flusher and close the log; the outbox cannot be used afterwards.
+     */
+    void close() throws IOException {
+        flusher.shutdownNow();
+        log.close();
+    }
+
+    /**
+     * Ask the flusher to run now (e.g. after connectivity returns).
+     */
+    public void kick() {
+        synchronized (this) {
+            if (flushScheduled) return;
+            flushScheduled = true;
+        }
+        flusher.execute(this::drain);
+    }
+
+    //--------------------------------------------------------------------------
+    // Flusher
+    //--------------------------------------------------------------------------
+
+    private void drain() {
+        synchronized (this) {
+            flushScheduled = false;
+        }
+        while (true) {
+            List<OutboxEntry> batch = nextBatch();
+            if (batch.isEmpty()) {
+                compactIfNeeded(true);
+                return;
+            }
+            try {
+                send(batch);
+                acknowledge(batch);
+                consecutiveFailures = 0;
+            } catch (Exception ex) {
+                Throwable cause = ex instanceof ExecutionException && ex.getCause() != null ? ex.getCause() : ex;
+                if (cause instanceof FirestoreHttpException fe && fe.isPermanent()) {
+                    System.err.println("[Outbox] Dropping rejected write " + batch.get(0).documentKey() + ": " + fe.getMessage());
+                    deadLetter(batch);
+                    acknowledge(batch);
+                    continue;
+                }
+                consecutiveFailures++;
+                long delay = backoffMillis(consecutiveFailures);
+                System.err.println("[Outbox] Flush failed (" + cause.getMessage() + "), retrying in " + delay + " ms");
+                synchronized (this) {
+                    flushScheduled = true;
+                }
+                flusher.schedule(this::drain, delay, TimeUnit.MILLISECONDS);
+                return;
+            }
+        }
+    }
+
+    /**
+     * All pending writes for the document of the oldest pending write, in seq order.
+     */
+    private synchronized List<OutboxEntry> nextBatch() {
+        if (pending.isEmpty()) return List.of();
+        String key = pending.firstEntry().getValue().documentKey();
+        List<OutboxEntry> batch = new ArrayList<>();
+        for (OutboxEntry e : pending.values()) {
+            if (e.documentKey().equals(key)) batch.add(e);
+        }
+        return batch;
+    }
+
+    private void send(List<OutboxEntry> batch) throws Exception {
+        OutboxEntry first = batch.get(0);
+        JsonObject created = null;
+        JsonObject updates = null;
+        for (OutboxEntry e : batch) {
+            if (e.op() == OutboxEntry.Op.CREATE && created == null && updates == null) {
+                created = e.firestoreFields().deepCopy();
+            } else {
+                updates = updates == null ? e.firestoreFields().deepCopy() : merge(updates, e.firestoreFields());
+            }
+        }
+        if (created != null && updates != null) created = merge(created, updates);
+        sink.send(first.collection(), first.docId(), created, updates);
+    }
+
+    private void acknowledge(List<OutboxEntry> batch) {
+        JsonArray seqs = new JsonArray();
+        for (OutboxEntry e : batch) seqs.add(e.seq());
+        JsonObject ack = new JsonObject();
+        ack.add("ack", seqs);
+        synchronized (this) {
+            try {
+                log.append(ack);
+            } catch (IOException e) {
+                // Worst case the write is replayed and re-sent after restart, which is safe
+                System.err.println("[Outbox] Failed to record acknowledgement: " + e.getMessage());
+            }
+            for (OutboxEntry e : batch) pending.remove(e.seq());
+            acksSinceCompaction += batch.size();
+        }
+        compactIfNeeded(false);
+    }
+
+    private synchronized void compactIfNeeded(boolean idle) {
+        if (acksSinceCompaction == 0) return;
+        if (!idle && acksSinceCompaction < COMPACT_AFTER_ACKS) return;
+        compact();
+    }
+
+    /**
+     * Rewrite the log with only the pending writes.
+     */
+    private synchronized void compact() {
+        List<JsonObject> live = new ArrayList<>();
+        for (OutboxEntry e : pending.values()) live.add(e.toJson());
+        try {
+            log.rewrite(live);
+            acksSinceCompaction = 0;
+        } catch (IOException e) {
+            System.err.println("[Outbox] Compaction failed: " + e.getMessage());
+        }
+    }
+
+    private void deadLetter(List<OutboxEntry> batch) {
+        List<JsonObject> records = new ArrayList<>();
+        for (OutboxEntry e : batch) records.add(e.withFields().toJson());
+        deadLetterRecords(records);
+    }
+
+    private boolean deadLetterRecords(List<JsonObject> records) {
+        StringBuilder sb = new StringBuilder();
+        for (JsonObject r : records) sb.append(r).append('\n');
+        try {
+            Files.writeString(deadLetterPath, sb.toString(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            return true;
+        } catch (IOException e) {
+            System.err.println("[Outbox] Failed to write dead letter: " + e.getMessage());
+            return false;
+        }
+    }
+
+    static long backoffMillis(int failures) {
+        long cap = Math.min(MAX_BACKOFF_MS, 1000L << Math.min(failures - 1, 16));
+        return cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1);
+    }
+
+    //--------------------------------------------------------------------------
+    // Replay
+    //--------------------------------------------------------------------------
+
+    private void replay() throws IOException {
+        Set<Long> acked = new HashSet<>();
+        List<OutboxEntry> entries = new ArrayList<>();
+        List<JsonObject> unreadable = new ArrayList<>();
+        OutboxLog.Replay replay = log.replay();
+        for (JsonObject record : replay.records()) {
+            try {
+                if (record.has("ack")) {
+                    for (JsonElement el : record.getAsJsonArray("ack")) acked.add(el.getAsLong());
+                } else {
+                    entries.add(OutboxEntry.fromJson(record));
+                }
+            } catch (RuntimeException e) {
+                unreadable.add(record);
+            }
+        }
+        for (String line : replay.corrupt()) {
+            JsonObject record = new JsonObject();
+            record.addProperty("corrupt", line);
+            unreadable.add(record);
+        }
+        for (OutboxEntry e : entries) {
+            nextSeq = Math.max(nextSeq, e.seq() + 1);
+            if (!acked.contains(e.seq())) pending.put(e.seq(), e);
+        }
+        acksSinceCompaction = acked.size();
+        if (!unreadable.isEmpty()) {
+            // Out of the log, so they are reported once and not again on every start
+            System.err.println("[Outbox] Moved " + unreadable.size() + " unreadable record(s) to " + deadLetterPath);
+            if (deadLetterRecords(unreadable)) compact();
+        }
+        if (!pending.isEmpty()) {
+            System.out.println("[Outbox] " + pending.size() + " pending write(s) restored from log");
+        }
+    }
+
+    private static JsonObject merge(JsonObject base, JsonObject overlay) {
+        JsonObject out = base.deepCopy();
+        for (String k : overlay.keySet()) out.add(k, overlay.get(k).deepCopy());
+        return out;
+    }
+}
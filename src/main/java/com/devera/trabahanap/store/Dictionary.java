@@ -0,0 +1,50 @@
+package com.devera.trabahanap.store;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only string dictionary: each distinct value gets a dense int code (0, 1, 2, ...).
+ * Codes are never reused, so they stay valid for the lifetime of the store.
+ * Not thread-safe; {@link JobStore} locks around it.
+ */
+public final class Dictionary {
+
+    /** Column value for a missing (null) string. */
+    public static final int NULL = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[16];
+    private int size;
+
+    /**
+     * Code for value, adding it if new. null maps to {@link #NULL}.
+     */
+    int encode(String value) {
+        if (value == null) return NULL;
+        Integer code = codes.get(value);
+        if (code != null) return code;
+        if (size == values.length) values = Arrays.copyOf(values, size * 2);
+        values[size] = value;
+        codes.put(value, size);
+        return size++;
+    }
+
+    /**
+     * Code for value, or {@link #NULL} if it has never been seen.
+     */
+    public int lookup(String value) {
+        if (value == null) return NULL;
+        Integer code = codes.get(value);
+        return code != null ? code : NULL;
+    }
+
+    public String decode(int code) {
+        return code == NULL ? null : values[code];
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,10 @@
+package com.devera.trabahanap.store;
+
+/**
+ * Job fields the Browse filters can narrow on; see {@link JobStore#facetCounts}.
+ */
+public enum Facet {
+    CATEGORY,
+    LOCATION,
+    EXPERIENCE
+}
@@ -0,0 +1,22 @@
+package com.devera.trabahanap.store;
+
+import java.util.Map;
+
+/**
+ * Result of {@link JobStore#facetCounts}.
+ *
+ * @param matching jobs matching the whole selection
+ * @param byFacet  per facet, each value with the number of jobs it would match if picked
+ *                 instead of the current value for that facet (other facets kept); ordered
+ *                 by count, highest first
+ */
+public record FacetCounts(int matching, Map<Facet, Map<String, Integer>> byFacet) {
+
+    public Map<String, Integer> of(Facet facet) {
+        return byFacet.getOrDefault(facet, Map.of());
+    }
+
+    public int count(Facet facet, String value) {
+        return of(facet).getOrDefault(value, 0);
+    }
+}
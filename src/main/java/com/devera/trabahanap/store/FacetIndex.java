@@ -0,0 +1,104 @@
+package com.devera.trabahanap.store;
+
+import java.util.Arrays;
+
+/**
+ * One {@link RowBitmap} per dictionary code of each {@link Facet}, plus a bitmap of all
+ * live rows. Kept current by {@link JobStore} on every row write, so a combined filter is a
+ * handful of bitmap intersections and counting a facet value is one intersection count,
+ * never a scan of the rows. Not thread-safe; {@link JobStore} locks.
+ */
+final class FacetIndex {
+
+    /** Selection code for a value the dictionary has never seen. */
+    static final int UNKNOWN = -2;
+
+    private static final Facet[] FACETS = Facet.values();
+
+    private final RowBitmap all = new RowBitmap();
+    private final RowBitmap[][] byCode = new RowBitmap[FACETS.length][];
+
+    FacetIndex() {
+        Arrays.fill(byCode, new RowBitmap[0]);
+    }
+
+    /**
+     * Index row under codes (one per facet in {@link Facet} order, {@link Dictionary#NULL}
+     * for none).
+     */
+    void add(int row, int[] codes) {
+        all.add(row);
+        for (int f = 0; f < codes.length; f++) {
+            int code = codes[f];
+            if (code == Dictionary.NULL) continue;
+            if (code >= byCode[f].length) byCode[f] = Arrays.copyOf(byCode[f], Math.max(code + 1, byCode[f].length * 2));
+            if (byCode[f][code] == null) byCode[f][code] = new RowBitmap();
+            byCode[f][code].add(row);
+        }
+    }
+
+    /**
+     * Undo {@link #add}; codes must be the ones the row was added with.
+     */
+    void remove(int row, int[] codes) {
+        all.remove(row);
+        for (int f = 0; f < codes.length; f++) {
+            int code = codes[f];
+            if (code != Dictionary.NULL && code < byCode[f].length && byCode[f][code] != null) {
+                byCode[f][code].remove(row);
+            }
+        }
+    }
+
+    /**
+     * Rows matching every selected code. selected holds one entry per facet:
+     * {@link Dictionary#NULL} means "any" and {@link #UNKNOWN} matches nothing. The result
+     * may be one of the index's own bitmaps and must not be modified.
+     */
+    RowBitmap select(int[] selected) {
+        return selectExcept(selected, -1);
+    }
+
+    /**
+     * True if the selection does not filter at all.
+     */
+    static boolean selectsAll(int[] selected) {
+        for (int code : selected) {
+            if (code != Dictionary.NULL) return false;
+        }
+        return true;
+    }
+
+    /**
+     * For each facet, the count per code given the selection on the other facets; a facet's
+     * own selection is ignored for its own counts so every alternative stays visible. Only
+     * rows in within are counted, unless it is null.
+     */
+    int[][] counts(int[] selected, RowBitmap within) {
+        int[][] out = new int[FACETS.length][];
+        for (int f = 0; f < FACETS.length; f++) {
+            RowBitmap base = selectExcept(selected, f);
+            if (within != null) base = base == all ? within : base.and(within);
+            RowBitmap[] bitmaps = byCode[f];
+            out[f] = new int[bitmaps.length];
+            for (int code = 0; code < bitmaps.length; code++) {
+                RowBitmap b = bitmaps[code];
+                if (b == null || b.isEmpty()) continue;
+                out[f][code] = base == all ? b.cardinality() : base.andCardinality(b);
+            }
+        }
+        return out;
+    }
+
+    private RowBitmap selectExcept(int[] selected, int skip) {
+        RowBitmap result = all;
+        for (int f = 0; f < selected.length; f++) {
+            int code = selected[f];
+            if (f == skip || code == Dictionary.NULL) continue;
+            RowBitmap b = code >= 0 && code < byCode[f].length ? byCode[f][code] : null;
+            if (b == null) return new RowBitmap();
+            result = result == all ? b : result.and(b);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+package com.devera.trabahanap.store;
+
+import com.devera.trabahanap.core.Job;
+
+import java.util.Comparator;
+
+/**
+ * Browse sort orders, each served by one of the {@link JobStore} sort indexes.
+ */
+public enum JobOrder {
+    MOST_RECENT("Most Recent"),
+    PRICE_LOW_TO_HIGH("Price: Low to High"),
+    PRICE_HIGH_TO_LOW("Price: High to Low"),
+    HIGHEST_RATED("Highest Rated");
+
+    // Every job's ratings are blended with this many ratings of PRIOR_MEAN stars, so one
+    // 5-star rating does not outrank fifty 4.8s
+    private static final double PRIOR_MEAN = 3.0;
+    private static final double PRIOR_WEIGHT = 3.0;
+
+    private final String label;
+
+    JobOrder(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * The same order for a small list of Job objects (e.g. search hits). Price orders use
+     * budgetMin low-to-high and budgetMax high-to-low, falling back to the other bound;
+     * jobs without a budget go last. Highest Rated uses {@link #ratingScore}; unrated jobs
+     * go last.
+     */
+    public Comparator<Job> comparator() {
+        Comparator<Job> newest = Comparator.comparingLong(Job::getTimestamp).reversed();
+        return switch (this) {
+            case MOST_RECENT -> newest;
+            case PRICE_LOW_TO_HIGH -> Comparator.comparing(JobOrder::lowBudget,
+                    Comparator.nullsLast(Comparator.<Double>naturalOrder())).thenComparing(newest);
+            case PRICE_HIGH_TO_LOW -> Comparator.comparing(JobOrder::highBudget,
+                    Comparator.nullsLast(Comparator.<Double>reverseOrder())).thenComparing(newest);
+            case HIGHEST_RATED -> Comparator.comparing(JobOrder::jobRatingScore,
+                    Comparator.nullsLast(Comparator.<Double>reverseOrder())).thenComparing(newest);
+        };
+    }
+
+    /**
+     * Sort score of a rated job: the average pulled towards PRIOR_MEAN, less so the more
+     * ratings there are.
+     */
+    public static double ratingScore(int count, double average) {
+        return (average * count + PRIOR_MEAN * PRIOR_WEIGHT) / (count + PRIOR_WEIGHT);
+    }
+
+    private static Double jobRatingScore(Job j) {
+        Integer count = j.getRatingCount();
+        if (count == null || count <= 0 || j.getRatingAverage() == null) return null;
+        return ratingScore(count, j.getRatingAverage());
+    }
+
+    private static Double lowBudget(Job j) {
+        return j.getBudgetMin() != null ? j.getBudgetMin() : j.getBudgetMax();
+    }
+
+    private static Double highBudget(Job j) {
+        return j.getBudgetMax() != null ? j.getBudgetMax() : j.getBudgetMin();
+    }
+}
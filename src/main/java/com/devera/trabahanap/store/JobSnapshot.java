@@ -0,0 +1,238 @@
+package com.devera.trabahanap.store;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.JobCodec;
+import com.devera.trabahanap.system.AppPaths;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Read-only snapshot of the job list on disk, so the first job cards can be shown at start
+ * without waiting for the network.
+ *
+ * A file is a 20-byte header (magic "TJSN", format, savedAt millis, job count) followed by
+ * a {@link JobCodec} stream of the jobs in list order (newest first). {@link #open} maps the
+ * file, and records are decoded on demand: asking for job i walks the records up to i once
+ * (reading only their lengths and new dictionary strings) and decodes record i alone.
+ * Showing the first screen therefore touches only the first few records, however many jobs
+ * the file holds. {@link #read} copies the file into the heap instead, for callers that
+ * decode every job anyway.
+ *
+ * There are two slot files, jobs.snapshot.0 and jobs.snapshot.1 in the app data dir; the
+ * valid one with the later savedAt is the snapshot. A mapped file cannot be replaced on
+ * Windows, so a slot mapped by this process is never written again, and a write goes to the
+ * other slot. A slot is written through a temp file that is forced to disk before it is
+ * renamed over the slot, so after a crash each slot holds a complete snapshot or none.
+ *
+ * A snapshot is written after every successful job load ({@link #saveAsync}). Writes run on
+ * a daemon thread ("snapshot-writer"); if loads come faster than writes, only the latest
+ * list is written.
+ */
+public final class JobSnapshot {
+
+    private static final byte[] MAGIC = {'T', 'J', 'S', 'N'};
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = 20;
+    private static final int SLOTS = 2;
+
+    /** Slots mapped by this process; a mapping lasts until it is garbage collected. */
+    private static final Set<Path> mapped = ConcurrentHashMap.newKeySet();
+
+    private static final AtomicReference<List<Job>> pendingSave = new AtomicReference<>();
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "snapshot-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final long savedAt;
+    private final int count;
+    private final JobCodec.Decoder decoder;
+    private final int[] positions;
+    private final Job[] decoded;
+    private int walked;
+
+    private JobSnapshot(long savedAt, int count, JobCodec.Decoder decoder) {
+        this.savedAt = savedAt;
+        this.count = count;
+        this.decoder = decoder;
+        this.positions = new int[count];
+        this.decoded = new Job[count];
+    }
+
+    /**
+     * Base path of the snapshot slots in the app data dir.
+     */
+    public static Path defaultPath() {
+        return AppPaths.resolve("jobs.snapshot");
+    }
+
+    /**
+     * Map the newest snapshot saved under base. Empty if there is none or it cannot be read.
+     * The mapped slot is not written again by this process.
+     */
+    public static Optional<JobSnapshot> open(Path base) {
+        for (Path slot : newestFirst(base)) {
+            mapped.add(slot.toAbsolutePath());
+            try (FileChannel channel = FileChannel.open(slot, StandardOpenOption.READ)) {
+                return Optional.of(parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())));
+            } catch (IOException | RuntimeException e) {
+                System.err.println("[JobSnapshot] Ignoring snapshot " + slot + ": " + e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Like {@link #open}, but copies the file into the heap instead of mapping it.
+     */
+    public static Optional<JobSnapshot> read(Path base) {
+        for (Path slot : newestFirst(base)) {
+            try {
+                return Optional.of(parse(ByteBuffer.wrap(Files.readAllBytes(slot))));
+            } catch (IOException | RuntimeException e) {
+                System.err.println("[JobSnapshot] Ignoring snapshot " + slot + ": " + e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Write jobs as the newest snapshot under base, to the older slot that this process has
+     * not mapped.
+     */
+    public static void write(Path base, List<Job> jobs) throws IOException {
+        Path target = null;
+        long targetSavedAt = Long.MAX_VALUE, newest = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            Path slot = slot(base, i);
+            long savedAt = savedAtOf(slot);
+            newest = Math.max(newest, savedAt);
+            if (!mapped.contains(slot.toAbsolutePath()) && savedAt < targetSavedAt) {
+                target = slot;
+                targetSavedAt = savedAt;
+            }
+        }
+        if (target == null) throw new IOException("Every snapshot slot is mapped");
+
+        JobCodec.Encoder encoder = new JobCodec.Encoder();
+        for (Job job : jobs) encoder.write(job);
+
+        // savedAt orders the slots, so it must move forward even if the clock does not
+        long savedAt = Math.max(System.currentTimeMillis(), newest + 1);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.put(MAGIC).putInt(FORMAT).putLong(savedAt).putInt(encoder.count());
+
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            out.write(header.array());
+            encoder.writeTo(out);
+            channel.force(true);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(base); // single file written by earlier versions
+    }
+
+    /**
+     * Write jobs to the default snapshot in the background. A newer list replaces one that
+     * has not been written yet.
+     */
+    public static void saveAsync(List<Job> jobs) {
+        if (pendingSave.getAndSet(new ArrayList<>(jobs)) != null) return; // a write is already queued
+        writer.execute(() -> {
+            List<Job> latest = pendingSave.getAndSet(null);
+            if (latest == null) return;
+            try {
+                write(defaultPath(), latest);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("[JobSnapshot] Could not save snapshot: " + e.getMessage());
+            }
+        });
+    }
+
+    static Path slot(Path base, int i) {
+        return base.resolveSibling(base.getFileName() + "." + i);
+    }
+
+    /** The slots under base with a valid header, newest first. */
+    private static List<Path> newestFirst(Path base) {
+        List<Path> slots = new ArrayList<>(SLOTS);
+        for (int i = 0; i < SLOTS; i++) {
+            if (savedAtOf(slot(base, i)) > 0) slots.add(slot(base, i));
+        }
+        slots.sort(Comparator.comparingLong(JobSnapshot::savedAtOf).reversed());
+        return slots;
+    }
+
+    /** savedAt from the header of file, or 0 if it is missing or not a snapshot. */
+    private static long savedAtOf(Path file) {
+        if (!Files.exists(file)) return 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header);
+            header.flip();
+            return checkHeader(header) ? header.getLong() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Whether buf starts with a header of this format; reads up to savedAt.
+     */
+    private static boolean checkHeader(ByteBuffer buf) {
+        if (buf.remaining() < HEADER_BYTES) return false;
+        byte[] magic = new byte[MAGIC.length];
+        buf.get(magic);
+        return Arrays.equals(magic, MAGIC) && buf.getInt() == FORMAT;
+    }
+
+    private static JobSnapshot parse(ByteBuffer buf) throws IOException {
+        if (!checkHeader(buf)) throw new IOException("Not a job snapshot");
+        long savedAt = buf.getLong();
+        int count = buf.getInt();
+        if (count < 0) throw new IOException("Bad job count " + count);
+        return new JobSnapshot(savedAt, count, new JobCodec.Decoder(buf.slice()));
+    }
+
+    /** When the snapshot was written (epoch millis). */
+    public long savedAt() {
+        return savedAt;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Job i in list order, decoded on first access.
+     */
+    public synchronized Job job(int i) {
+        if (i < 0 || i >= count) throw new IndexOutOfBoundsException(i);
+        if (decoded[i] == null) {
+            while (walked <= i) positions[walked++] = decoder.skip();
+            decoded[i] = decoder.readAt(positions[i]);
+        }
+        return decoded[i];
+    }
+}
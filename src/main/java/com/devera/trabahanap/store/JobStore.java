@@ -0,0 +1,854 @@
+package com.devera.trabahanap.store;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.geo.GeoHash;
+import com.devera.trabahanap.geo.GeoPoint;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Columnar (struct-of-arrays) in-memory job store.
+ *
+ * Each job is a row number; every field lives in its own array:
+ *  - low-cardinality strings (category, categoryDisplay, imageKey, location, experienceLevel,
+ *    salaryRange, postedByUserId) are dictionary-encoded int columns
+ *  - timestamp is a long[] and budgets are double[] with NaN for "not set"
+ *  - skills are dictionary codes packed into one shared int pool, addressed per row by
+ *    start/count (a row that outgrows its slot is re-appended; the pool is compacted when
+ *    half of it is dead)
+ *  - title, companyName and description are mostly unique and live UTF-8 encoded in
+ *    {@link TextColumn} byte arenas; jobId stays a String[] column, which {@link RowIdIndex} hashes
+ *    to find a row by id
+ *
+ * Category, location and experience level are also indexed as compressed row bitmaps
+ * ({@link FacetIndex}), maintained on every write: {@link #select} and {@link #facetCounts}
+ * answer the Browse filters by bitmap intersection instead of scanning. Timestamp and budget
+ * are kept in {@link SortedIndex}es, so {@link #page} returns the first rows of a Browse sort
+ * order, and {@link #budgetBetween} / {@link #postedBetween} a range, without sorting.
+ * Rated jobs are also ordered by {@link JobOrder#ratingScore}; the rating columns are the
+ * local copy of each job's rolled-up aggregate, patched in place by {@link #setRating}
+ * when this user rates, so Highest Rated never reads the rating shards.
+ * Jobs with coordinates are also ordered by geohash, so {@link #near} reads the geohash
+ * cells around a point ({@link GeoHash#coverBox}) as index ranges and only measures
+ * distances for the jobs in them.
+ *
+ * The location facet uses the recognised place name (Job.placeName) when there is one and
+ * the typed location otherwise, so "QC" and "Quezon City" count as one value.
+ *
+ * Removed rows are recycled, so row numbers are stable while a job is present. {@link Job}
+ * objects are only built on demand by {@link #materialize}; scans and filters read the
+ * primitive columns directly.
+ *
+ * All public methods lock internally. Column accessors (timestamp(row), categoryCode(row),
+ * ...) do not; use them inside {@link #read} or a {@link #filter} predicate.
+ */
+public final class JobStore {
+
+    private static final JobStore instance = new JobStore();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary categoryDisplays = new Dictionary();
+    private final Dictionary imageKeys = new Dictionary();
+    private final Dictionary locations = new Dictionary();
+    private final Dictionary experienceLevels = new Dictionary();
+    private final Dictionary salaryRanges = new Dictionary();
+    private final Dictionary posters = new Dictionary();
+    private final Dictionary skills = new Dictionary();
+    private final Dictionary geohashes = new Dictionary();
+
+    private final FacetIndex facets = new FacetIndex();
+    private final SortedIndex byTimestamp = new SortedIndex();
+    // Budget sort keys: the low one is budgetMin (else budgetMax), the high one the reverse
+    private final SortedIndex byLowBudget = new SortedIndex();
+    private final SortedIndex byHighBudget = new SortedIndex();
+    private final SortedIndex byGeohash = new SortedIndex();
+    private final SortedIndex byRating = new SortedIndex();
+
+    private final BitSet live = new BitSet();
+    private int[] freeRows = new int[16];
+    private int freeCount;
+    private int rowLimit;
+    private int liveCount;
+
+    private String[] jobIds = new String[16];
+    private final RowIdIndex rowsById = new RowIdIndex(row -> jobIds[row]);
+    private final TextColumn titles = new TextColumn();
+    private final TextColumn companies = new TextColumn();
+    private final TextColumn descriptions = new TextColumn();
+    private int[] categoryCol = new int[16];
+    private int[] categoryDisplayCol = new int[16];
+    private int[] imageKeyCol = new int[16];
+    private int[] locationCol = new int[16];
+    // Place name code in the locations dictionary, or NULL
+    private int[] placeCol = new int[16];
+    private int[] geohashCol = new int[16];
+    private double[] latitudes = new double[16];
+    private double[] longitudes = new double[16];
+    private int[] experienceCol = new int[16];
+    private int[] salaryRangeCol = new int[16];
+    private int[] posterCol = new int[16];
+    private long[] timestamps = new long[16];
+    private double[] budgetMins = new double[16];
+    private double[] budgetMaxs = new double[16];
+    // ratingCount (0 = unrated) and ratingAverage (NaN = unrated)
+    private int[] ratingCounts = new int[16];
+    private double[] ratingAverages = new double[16];
+    private int[] skillStart = new int[16];
+    private int[] skillCount = new int[16];
+
+    private int[] skillPool = new int[64];
+    private int poolSize;
+    private int poolDead;
+
+    public JobStore() {}
+
+    /**
+     * Shared store kept in sync by JobService.
+     */
+    public static JobStore get() {
+        return instance;
+    }
+
+    //--------------------------------------------------------------------------
+    // Writes
+    //--------------------------------------------------------------------------
+
+    /**
+     * Insert or overwrite the row for job.getJobId(). Returns the row number.
+     */
+    public int put(Job job) {
+        if (job == null || job.getJobId() == null) throw new IllegalArgumentException("Job needs a jobId");
+        lock.writeLock().lock();
+        try {
+            return putLocked(job);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(String jobId) {
+        lock.writeLock().lock();
+        try {
+            int row = rowsById.remove(jobId);
+            if (row < 0) return false;
+            clearRow(row);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the rating aggregate of a job, e.g. right after the user rated it. Returns
+     * false if the job is not in the store.
+     */
+    public boolean setRating(String jobId, int count, double average) {
+        lock.writeLock().lock();
+        try {
+            int row = rowsById.get(jobId);
+            if (row < 0) return false;
+            unindexRating(row);
+            ratingCounts[row] = Math.max(0, count);
+            ratingAverages[row] = count > 0 ? average : Double.NaN;
+            indexRating(row);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Make the store contain exactly these jobs.
+     */
+    public void sync(Collection<Job> current) {
+        lock.writeLock().lock();
+        try {
+            Set<String> keep = new HashSet<>();
+            for (Job j : current) {
+                if (j == null || j.getJobId() == null) continue;
+                keep.add(j.getJobId());
+                putLocked(j);
+            }
+            for (int row = live.nextSetBit(0); row >= 0; row = live.nextSetBit(row + 1)) {
+                if (!keep.contains(jobIds[row])) {
+                    rowsById.remove(jobIds[row]);
+                    clearRow(row);
+                }
+            }
+            // A full reload is the bulk of all writes; drop the growth slack it left behind
+            if (jobIds.length > rowLimit) resize(Math.max(16, rowLimit));
+            if (poolDead > 0) compactPool();
+            if (skillPool.length > poolSize) skillPool = Arrays.copyOf(skillPool, Math.max(64, poolSize));
+            titles.trim();
+            companies.trim();
+            descriptions.trim();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int putLocked(Job job) {
+        int found = rowsById.get(job.getJobId());
+        boolean existing = found >= 0;
+        int row = existing ? found : allocateRow();
+        int[] oldFacets = existing ? facetCodes(row) : null;
+        double budgetMin = job.getBudgetMin() != null ? job.getBudgetMin() : Double.NaN;
+        double budgetMax = job.getBudgetMax() != null ? job.getBudgetMax() : Double.NaN;
+        boolean reorder = !existing
+                || timestamps[row] != job.getTimestamp()
+                || Double.compare(budgetMins[row], budgetMin) != 0
+                || Double.compare(budgetMaxs[row], budgetMax) != 0;
+        if (existing && reorder) unindexOrder(row);
+        int geohash = geohashes.encode(job.getGeohash());
+        boolean relocate = !existing || geohashCol[row] != geohash;
+        if (existing && relocate) unindexGeohash(row);
+        int ratingCount = job.getRatingCount() != null && job.getRatingAverage() != null ? Math.max(0, job.getRatingCount()) : 0;
+        double ratingAverage = ratingCount > 0 ? job.getRatingAverage() : Double.NaN;
+        boolean rerate = !existing
+                || ratingCounts[row] != ratingCount
+                || Double.compare(ratingAverages[row], ratingAverage) != 0;
+        if (existing && rerate) unindexRating(row);
+
+        jobIds[row] = job.getJobId();
+        titles.set(row, job.getTitle());
+        companies.set(row, job.getCompanyName());
+        descriptions.set(row, job.getDescription());
+        categoryCol[row] = categories.encode(job.getCategory());
+        categoryDisplayCol[row] = categoryDisplays.encode(job.getCategoryDisplay());
+        imageKeyCol[row] = imageKeys.encode(job.getImageKey());
+        locationCol[row] = locations.encode(job.getLocation());
+        placeCol[row] = locations.encode(job.getPlaceName());
+        geohashCol[row] = geohash;
+        latitudes[row] = job.getLatitude() != null ? job.getLatitude() : Double.NaN;
+        longitudes[row] = job.getLongitude() != null ? job.getLongitude() : Double.NaN;
+        experienceCol[row] = experienceLevels.encode(job.getExperienceLevel());
+        salaryRangeCol[row] = salaryRanges.encode(job.getSalaryRange());
+        posterCol[row] = posters.encode(job.getPostedByUserId());
+        timestamps[row] = job.getTimestamp();
+        budgetMins[row] = budgetMin;
+        budgetMaxs[row] = budgetMax;
+        ratingCounts[row] = ratingCount;
+        ratingAverages[row] = ratingAverage;
+        writeSkills(row, existing, job.getSkills());
+
+        int[] newFacets = facetCodes(row);
+        if (!Arrays.equals(oldFacets, newFacets)) {
+            if (oldFacets != null) facets.remove(row, oldFacets);
+            facets.add(row, newFacets);
+        }
+        if (reorder) indexOrder(row);
+        if (relocate) indexGeohash(row);
+        if (rerate) indexRating(row);
+
+        if (!existing) {
+            rowsById.add(row);
+            live.set(row);
+            liveCount++;
+        }
+        return row;
+    }
+
+    private void writeSkills(int row, boolean hadSlot, List<String> list) {
+        int n = list != null ? list.size() : 0;
+        if (hadSlot && n <= skillCount[row]) {
+            // Shrinking in place leaves the tail of the old slot dead
+            poolDead += skillCount[row] - n;
+        } else {
+            if (hadSlot) {
+                poolDead += skillCount[row];
+                skillCount[row] = 0;
+            }
+            if (poolSize + n > skillPool.length) {
+                if (poolDead > poolSize / 2) compactPool();
+                if (poolSize + n > skillPool.length) {
+                    skillPool = Arrays.copyOf(skillPool, Math.max(skillPool.length * 2, poolSize + n));
+                }
+            }
+            skillStart[row] = poolSize;
+            poolSize += n;
+        }
+        skillCount[row] = n;
+        for (int i = 0; i < n; i++) skillPool[skillStart[row] + i] = skills.encode(list.get(i));
+    }
+
+    /**
+     * Copy live skill runs to the front of a fresh pool, in row order.
+     */
+    private void compactPool() {
+        int[] fresh = new int[skillPool.length];
+        int size = 0;
+        for (int row = live.nextSetBit(0); row >= 0; row = live.nextSetBit(row + 1)) {
+            int n = skillCount[row];
+            System.arraycopy(skillPool, skillStart[row], fresh, size, n);
+            skillStart[row] = size;
+            size += n;
+        }
+        skillPool = fresh;
+        poolSize = size;
+        poolDead = 0;
+    }
+
+    private void clearRow(int row) {
+        facets.remove(row, facetCodes(row));
+        unindexOrder(row);
+        unindexGeohash(row);
+        unindexRating(row);
+        live.clear(row);
+        liveCount--;
+        poolDead += skillCount[row];
+        skillCount[row] = 0;
+        jobIds[row] = null;
+        titles.clear(row);
+        companies.clear(row);
+        descriptions.clear(row);
+        if (freeCount == freeRows.length) freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        freeRows[freeCount++] = row;
+    }
+
+    /** Facet column codes of a row, in {@link Facet} order. */
+    private int[] facetCodes(int row) {
+        int location = placeCol[row] != Dictionary.NULL ? placeCol[row] : locationCol[row];
+        return new int[] { categoryCol[row], location, experienceCol[row] };
+    }
+
+    private void indexGeohash(int row) {
+        if (geohashCol[row] != Dictionary.NULL) byGeohash.add(GeoHash.toLong(geohashes.decode(geohashCol[row])), row);
+    }
+
+    private void unindexGeohash(int row) {
+        if (geohashCol[row] != Dictionary.NULL) byGeohash.remove(GeoHash.toLong(geohashes.decode(geohashCol[row])), row);
+    }
+
+    private void indexRating(int row) {
+        if (ratingCounts[row] > 0) byRating.add(ratingKey(row), row);
+    }
+
+    private void unindexRating(int row) {
+        if (ratingCounts[row] > 0) byRating.remove(ratingKey(row), row);
+    }
+
+    private long ratingKey(int row) {
+        return SortedIndex.doubleKey(JobOrder.ratingScore(ratingCounts[row], ratingAverages[row]));
+    }
+
+    private void indexOrder(int row) {
+        byTimestamp.add(timestamps[row], row);
+        double low = lowBudget(row), high = highBudget(row);
+        if (!Double.isNaN(low)) byLowBudget.add(SortedIndex.doubleKey(low), row);
+        if (!Double.isNaN(high)) byHighBudget.add(SortedIndex.doubleKey(high), row);
+    }
+
+    private void unindexOrder(int row) {
+        byTimestamp.remove(timestamps[row], row);
+        double low = lowBudget(row), high = highBudget(row);
+        if (!Double.isNaN(low)) byLowBudget.remove(SortedIndex.doubleKey(low), row);
+        if (!Double.isNaN(high)) byHighBudget.remove(SortedIndex.doubleKey(high), row);
+    }
+
+    private double lowBudget(int row) {
+        return !Double.isNaN(budgetMins[row]) ? budgetMins[row] : budgetMaxs[row];
+    }
+
+    private double highBudget(int row) {
+        return !Double.isNaN(budgetMaxs[row]) ? budgetMaxs[row] : budgetMins[row];
+    }
+
+    private Dictionary dictionary(Facet facet) {
+        return switch (facet) {
+            case CATEGORY -> categories;
+            case LOCATION -> locations;
+            case EXPERIENCE -> experienceLevels;
+        };
+    }
+
+    private int allocateRow() {
+        if (freeCount > 0) return freeRows[--freeCount];
+        if (rowLimit == jobIds.length) resize(rowLimit * 2);
+        return rowLimit++;
+    }
+
+    /**
+     * Set the capacity of every column; cap must be at least rowLimit.
+     */
+    private void resize(int cap) {
+        jobIds = Arrays.copyOf(jobIds, cap);
+        titles.ensureRows(cap);
+        companies.ensureRows(cap);
+        descriptions.ensureRows(cap);
+        categoryCol = Arrays.copyOf(categoryCol, cap);
+        categoryDisplayCol = Arrays.copyOf(categoryDisplayCol, cap);
+        imageKeyCol = Arrays.copyOf(imageKeyCol, cap);
+        locationCol = Arrays.copyOf(locationCol, cap);
+        placeCol = Arrays.copyOf(placeCol, cap);
+        geohashCol = Arrays.copyOf(geohashCol, cap);
+        latitudes = Arrays.copyOf(latitudes, cap);
+        longitudes = Arrays.copyOf(longitudes, cap);
+        experienceCol = Arrays.copyOf(experienceCol, cap);
+        salaryRangeCol = Arrays.copyOf(salaryRangeCol, cap);
+        posterCol = Arrays.copyOf(posterCol, cap);
+        timestamps = Arrays.copyOf(timestamps, cap);
+        budgetMins = Arrays.copyOf(budgetMins, cap);
+        budgetMaxs = Arrays.copyOf(budgetMaxs, cap);
+        ratingCounts = Arrays.copyOf(ratingCounts, cap);
+        ratingAverages = Arrays.copyOf(ratingAverages, cap);
+        skillStart = Arrays.copyOf(skillStart, cap);
+        skillCount = Arrays.copyOf(skillCount, cap);
+    }
+
+    //--------------------------------------------------------------------------
+    // Reads
+    //--------------------------------------------------------------------------
+
+    /**
+     * Run action under the read lock (for direct column access).
+     */
+    public <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return read(() -> liveCount);
+    }
+
+    /**
+     * Row of a job, or -1.
+     */
+    public int rowOf(String jobId) {
+        return read(() -> rowsById.get(jobId));
+    }
+
+    public Job get(String jobId) {
+        return read(() -> {
+            int row = rowsById.get(jobId);
+            return row >= 0 ? materialize(row) : null;
+        });
+    }
+
+    /**
+     * Rows (ascending) whose columns satisfy the predicate. The predicate runs under the read
+     * lock and may use the column accessors.
+     */
+    public int[] filter(IntPredicate predicate) {
+        return read(() -> {
+            int[] out = new int[Math.min(liveCount, 1024)];
+            int n = 0;
+            for (int row = live.nextSetBit(0); row >= 0; row = live.nextSetBit(row + 1)) {
+                if (!predicate.test(row)) continue;
+                if (n == out.length) out = Arrays.copyOf(out, n * 2);
+                out[n++] = row;
+            }
+            return Arrays.copyOf(out, n);
+        });
+    }
+
+    /**
+     * Rows (ascending) whose facet fields equal the selected values. Facets missing from the
+     * map, or mapped to null, are not filtered on.
+     */
+    public int[] select(Map<Facet, String> selection) {
+        return read(() -> facets.select(selectionCodes(selection)).toArray());
+    }
+
+    /**
+     * Job ids of the jobs {@link #select} would return.
+     */
+    public Set<String> selectJobIds(Map<Facet, String> selection) {
+        return read(() -> {
+            int[] rows = facets.select(selectionCodes(selection)).toArray();
+            Set<String> ids = new HashSet<>(rows.length * 2);
+            for (int row : rows) ids.add(jobIds[row]);
+            return ids;
+        });
+    }
+
+    /**
+     * Rows offset .. offset+limit of the jobs matching the facet selection, in the given
+     * order. Walks the matching sort index and stops once the page is full. Price and rating
+     * orders break ties newest first and put jobs without any budget / rating last, newest
+     * first, as {@link JobOrder#comparator} does.
+     */
+    public int[] page(JobOrder order, Map<Facet, String> selection, int offset, int limit) {
+        return read(() -> pageLocked(order, selection, offset, limit));
+    }
+
+    /**
+     * Job ids for {@link #page}.
+     */
+    public List<String> pageJobIds(JobOrder order, Map<Facet, String> selection, int offset, int limit) {
+        return read(() -> {
+            int[] rows = pageLocked(order, selection, offset, limit);
+            List<String> ids = new ArrayList<>(rows.length);
+            for (int row : rows) ids.add(jobIds[row]);
+            return ids;
+        });
+    }
+
+    private int[] pageLocked(JobOrder order, Map<Facet, String> selection, int offset, int limit) {
+        int[] selected = selectionCodes(selection);
+        RowBitmap filter = FacetIndex.selectsAll(selected) ? null : facets.select(selected);
+        int[] out = new int[Math.max(0, Math.min(limit, liveCount))];
+        if (out.length == 0) return out;
+        int[] state = { offset, 0 }; // rows still to skip, rows taken
+        IntPredicate take = row -> {
+            if (filter != null && !filter.contains(row)) return true;
+            if (state[0] > 0) {
+                state[0]--;
+                return true;
+            }
+            out[state[1]++] = row;
+            return state[1] < out.length;
+        };
+        switch (order) {
+            case MOST_RECENT -> byTimestamp.scan(Long.MIN_VALUE, Long.MAX_VALUE, true, take);
+            case PRICE_LOW_TO_HIGH -> scanNewestFirstWithinTies(byLowBudget, false,
+                    row -> SortedIndex.doubleKey(lowBudget(row)), filter, take);
+            case PRICE_HIGH_TO_LOW -> scanNewestFirstWithinTies(byHighBudget, true,
+                    row -> SortedIndex.doubleKey(highBudget(row)), filter, take);
+            case HIGHEST_RATED -> scanNewestFirstWithinTies(byRating, true, this::ratingKey, filter, take);
+        }
+        if (order != JobOrder.MOST_RECENT && state[1] < out.length) {
+            IntPredicate indexed = order == JobOrder.HIGHEST_RATED
+                    ? row -> ratingCounts[row] > 0
+                    : row -> !Double.isNaN(lowBudget(row));
+            byTimestamp.scan(Long.MIN_VALUE, Long.MAX_VALUE, true, row -> indexed.test(row) || take.test(row));
+        }
+        return Arrays.copyOf(out, state[1]);
+    }
+
+    /**
+     * Walk a price or rating index, handing take each run of equal keys newest first, the
+     * tie-break of {@link JobOrder#comparator}; the index itself breaks ties by row number.
+     * Rows outside filter (unless null) are dropped before a run is sorted, so a narrow
+     * selection does not pay for sorting the whole run.
+     */
+    private void scanNewestFirstWithinTies(SortedIndex index, boolean descending, IntToLongFunction key,
+                                           RowBitmap filter, IntPredicate take) {
+        IntCollector run = new IntCollector(Integer.MAX_VALUE);
+        long[] runKey = new long[1];
+        boolean[] more = { true };
+        index.scan(Long.MIN_VALUE, Long.MAX_VALUE, descending, row -> {
+            if (filter != null && !filter.contains(row)) return true;
+            long k = key.applyAsLong(row);
+            if (run.size > 0 && k != runKey[0]) {
+                more[0] = takeNewestFirst(run, take);
+                if (!more[0]) return false;
+            }
+            runKey[0] = k;
+            return run.add(row);
+        });
+        if (more[0]) takeNewestFirst(run, take);
+    }
+
+    /** Hand take the collected rows newest first and empty the run; false once take is done. */
+    private boolean takeNewestFirst(IntCollector run, IntPredicate take) {
+        int[] rows = run.toArray();
+        run.size = 0;
+        if (rows.length > 1) {
+            Integer[] sorted = new Integer[rows.length];
+            for (int i = 0; i < rows.length; i++) sorted[i] = rows[i];
+            Arrays.sort(sorted, (a, b) -> timestamps[a] != timestamps[b]
+                    ? Long.compare(timestamps[b], timestamps[a])
+                    : Integer.compare(a, b));
+            for (int i = 0; i < rows.length; i++) rows[i] = sorted[i];
+        }
+        for (int row : rows) if (!take.test(row)) return false;
+        return true;
+    }
+
+    /**
+     * Rows whose whole budget lies within [min, max] (both budgetMin and budgetMax, a missing
+     * bound taking the other's value), cheapest first, at most limit of them.
+     */
+    public int[] budgetBetween(double min, double max, int limit) {
+        return read(() -> {
+            IntCollector out = new IntCollector(limit);
+            byLowBudget.scan(SortedIndex.doubleKey(min), SortedIndex.doubleKey(max), false,
+                    row -> highBudget(row) < min || highBudget(row) > max || out.add(row));
+            return out.toArray();
+        });
+    }
+
+    /**
+     * Rows posted within [fromMillis, toMillis], newest first, at most limit of them.
+     */
+    public int[] postedBetween(long fromMillis, long toMillis, int limit) {
+        return read(() -> {
+            IntCollector out = new IntCollector(limit);
+            byTimestamp.scan(fromMillis, toMillis, true, out::add);
+            return out.toArray();
+        });
+    }
+
+    /**
+     * Counts for the Browse filters: how many jobs match the selection, and for every value
+     * of every facet how many would match with that value picked instead.
+     */
+    public FacetCounts facetCounts(Map<Facet, String> selection) {
+        return facetCounts(selection, null);
+    }
+
+    /**
+     * {@link #facetCounts(Map)} over only the jobs with the given ids, e.g. the matches of a
+     * search (every job when within is null).
+     */
+    public FacetCounts facetCounts(Map<Facet, String> selection, Collection<String> within) {
+        return read(() -> {
+            RowBitmap restrict = null;
+            if (within != null) {
+                int[] rows = new int[within.size()];
+                int n = 0;
+                for (String id : within) {
+                    int row = rowsById.get(id);
+                    if (row >= 0) rows[n++] = row;
+                }
+                // Ascending adds append to the bitmap's chunks instead of shifting them
+                Arrays.sort(rows, 0, n);
+                restrict = new RowBitmap();
+                for (int i = 0; i < n; i++) restrict.add(rows[i]);
+            }
+            int[] selected = selectionCodes(selection);
+            int[][] counts = facets.counts(selected, restrict);
+            Map<Facet, Map<String, Integer>> byFacet = new EnumMap<>(Facet.class);
+            for (Facet facet : Facet.values()) {
+                Dictionary dict = dictionary(facet);
+                int[] perCode = counts[facet.ordinal()];
+                Integer[] codes = new Integer[Math.min(perCode.length, dict.size())];
+                for (int c = 0; c < codes.length; c++) codes[c] = c;
+                Arrays.sort(codes, (a, b) -> perCode[a] != perCode[b]
+                        ? Integer.compare(perCode[b], perCode[a])
+                        : dict.decode(a).compareTo(dict.decode(b)));
+                Map<String, Integer> values = new LinkedHashMap<>();
+                for (int c : codes) {
+                    if (perCode[c] > 0 || isSelected(selected, facet, c)) values.put(dict.decode(c), perCode[c]);
+                }
+                byFacet.put(facet, values);
+            }
+            RowBitmap matching = facets.select(selected);
+            return new FacetCounts(restrict != null ? matching.andCardinality(restrict) : matching.cardinality(), byFacet);
+        });
+    }
+
+    /**
+     * Jobs within radiusKm of centre that match the facet selection, nearest first (newest
+     * first at equal distance), at most limit of them. Jobs without coordinates never match.
+     */
+    public List<NearbyJob> near(GeoPoint centre, double radiusKm, Map<Facet, String> selection, int limit) {
+        return read(() -> {
+            int[] selected = selectionCodes(selection);
+            RowBitmap filter = FacetIndex.selectsAll(selected) ? null : facets.select(selected);
+            // The cells still cover more than the circle; a latitude / longitude box (a
+            // little generous) rejects most of the rest before the haversine
+            double latSpan = radiusKm / 110.0;
+            double edgeLat = Math.abs(centre.lat()) + latSpan;
+            double lonSpan = latSpan > 10 || edgeLat >= 80 ? 360 : latSpan / Math.cos(Math.toRadians(edgeLat));
+            // Compared and sorted on the haversine term; only returned jobs get a distance in km
+            double cosLat = Math.cos(Math.toRadians(centre.lat()));
+            double maxHaversine = GeoPoint.haversineOfKm(radiusKm);
+            Hits hits = new Hits();
+            for (String cell : GeoHash.coverBox(centre, radiusKm)) {
+                byGeohash.scan(GeoHash.rangeStart(cell), GeoHash.rangeEnd(cell), false, row -> {
+                    if (filter != null && !filter.contains(row)) return true;
+                    double dLon = Math.abs(longitudes[row] - centre.lon());
+                    if (Math.abs(latitudes[row] - centre.lat()) > latSpan || Math.min(dLon, 360 - dLon) > lonSpan) return true;
+                    double a = GeoPoint.haversine(centre.lat(), cosLat, centre.lon(), latitudes[row], longitudes[row]);
+                    if (a <= maxHaversine) hits.add(row, a);
+                    return true;
+                });
+            }
+            int[] order = hits.nearestFirst(timestamps);
+            List<NearbyJob> out = new ArrayList<>(Math.min(limit, order.length));
+            for (int i = 0; i < order.length && out.size() < limit; i++) {
+                out.add(new NearbyJob(jobIds[hits.rows[order[i]]], GeoPoint.kmOfHaversine(hits.distances[order[i]])));
+            }
+            return out;
+        });
+    }
+
+    private int[] selectionCodes(Map<Facet, String> selection) {
+        int[] codes = new int[Facet.values().length];
+        Arrays.fill(codes, Dictionary.NULL);
+        if (selection == null) return codes;
+        for (Map.Entry<Facet, String> e : selection.entrySet()) {
+            if (e.getKey() == null || e.getValue() == null) continue;
+            int code = dictionary(e.getKey()).lookup(e.getValue());
+            codes[e.getKey().ordinal()] = code != Dictionary.NULL ? code : FacetIndex.UNKNOWN;
+        }
+        return codes;
+    }
+
+    /** Bounded row list for index scans; add returns false once full. */
+    private static final class IntCollector {
+        private final int limit;
+        private int[] rows = new int[16];
+        private int size;
+
+        IntCollector(int limit) {
+            this.limit = limit;
+        }
+
+        boolean add(int row) {
+            if (size >= limit) return false;
+            if (size == rows.length) rows = Arrays.copyOf(rows, size * 2);
+            rows[size++] = row;
+            return size < limit;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(rows, size);
+        }
+    }
+
+    /** Rows found by a geo scan with their distances (any measure that orders like km). */
+    private static final class Hits {
+        int[] rows = new int[16];
+        double[] distances = new double[16];
+        int size;
+
+        void add(int row, double distance) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+                distances = Arrays.copyOf(distances, size * 2);
+            }
+            rows[size] = row;
+            distances[size++] = distance;
+        }
+
+        /**
+         * Hit indexes by distance, then newest first. Sorts primitive (float distance, index)
+         * keys and only compares exactly within runs whose float distances are equal.
+         */
+        int[] nearestFirst(long[] timestamps) {
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) keys[i] = (long) Float.floatToIntBits((float) distances[i]) << 32 | i;
+            Arrays.sort(keys);
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) order[i] = (int) keys[i];
+            for (int start = 0, end; start < size; start = end) {
+                end = start + 1;
+                while (end < size && keys[end] >>> 32 == keys[start] >>> 32) end++;
+                if (end - start == 1) continue;
+                Integer[] run = new Integer[end - start];
+                for (int i = 0; i < run.length; i++) run[i] = order[start + i];
+                Arrays.sort(run, (a, b) -> distances[a] != distances[b]
+                        ? Double.compare(distances[a], distances[b])
+                        : Long.compare(timestamps[rows[b]], timestamps[rows[a]]));
+                for (int i = 0; i < run.length; i++) order[start + i] = run[i];
+            }
+            return order;
+        }
+    }
+
+    private static boolean isSelected(int[] selected, Facet facet, int code) {
+        return selected[facet.ordinal()] == code;
+    }
+
+    /**
+     * Build Job objects for rows (removed rows are skipped).
+     */
+    public List<Job> materialize(int[] rows) {
+        return read(() -> {
+            List<Job> out = new ArrayList<>(rows.length);
+            for (int row : rows) {
+                if (isLive(row)) out.add(materialize(row));
+            }
+            return out;
+        });
+    }
+
+    /**
+     * Build a fresh Job from one row. Call under {@link #read}.
+     */
+    public Job materialize(int row) {
+        Job j = new Job(jobIds[row], titles.get(row), companies.get(row), locations.decode(locationCol[row]),
+                descriptions.get(row), salaryRanges.decode(salaryRangeCol[row]), posters.decode(posterCol[row]),
+                timestamps[row]);
+        j.setBudgetMin(Double.isNaN(budgetMins[row]) ? null : budgetMins[row]);
+        j.setBudgetMax(Double.isNaN(budgetMaxs[row]) ? null : budgetMaxs[row]);
+        j.setCategory(categories.decode(categoryCol[row]));
+        j.setCategoryDisplay(categoryDisplays.decode(categoryDisplayCol[row]));
+        j.setImageKey(imageKeys.decode(imageKeyCol[row]));
+        j.setExperienceLevel(experienceLevels.decode(experienceCol[row]));
+        j.setPlaceName(locations.decode(placeCol[row]));
+        j.setGeohash(geohashes.decode(geohashCol[row]));
+        j.setLatitude(Double.isNaN(latitudes[row]) ? null : latitudes[row]);
+        j.setLongitude(Double.isNaN(longitudes[row]) ? null : longitudes[row]);
+        if (ratingCounts[row] > 0) {
+            j.setRatingCount(ratingCounts[row]);
+            j.setRatingAverage(ratingAverages[row]);
+        }
+        List<String> list = new ArrayList<>(skillCount[row]);
+        for (int i = 0; i < skillCount[row]; i++) list.add(skills.decode(skillPool[skillStart[row] + i]));
+        j.setSkills(list);
+        return j;
+    }
+
+    //--------------------------------------------------------------------------
+    // Column accessors (call under read lock)
+    //--------------------------------------------------------------------------
+
+    /** One past the highest row number in use. */
+    public int rowLimit() { return rowLimit; }
+
+    public boolean isLive(int row) { return row >= 0 && row < rowLimit && live.get(row); }
+
+    public String jobId(int row) { return jobIds[row]; }
+
+    public String title(int row) { return titles.get(row); }
+
+    public long timestamp(int row) { return timestamps[row]; }
+
+    /** NaN when not set. */
+    public double budgetMin(int row) { return budgetMins[row]; }
+
+    /** NaN when not set. */
+    public double budgetMax(int row) { return budgetMaxs[row]; }
+
+    /** 0 when the job has no ratings. */
+    public int ratingCount(int row) { return ratingCounts[row]; }
+
+    /** NaN when the job has no ratings. */
+    public double ratingAverage(int row) { return ratingAverages[row]; }
+
+    public int categoryCode(int row) { return categoryCol[row]; }
+
+    public int locationCode(int row) { return locationCol[row]; }
+
+    /** NaN when the job has no coordinates. */
+    public double latitude(int row) { return latitudes[row]; }
+
+    /** NaN when the job has no coordinates. */
+    public double longitude(int row) { return longitudes[row]; }
+
+    public int experienceCode(int row) { return experienceCol[row]; }
+
+    public int skillCount(int row) { return skillCount[row]; }
+
+    public int skillCode(int row, int i) { return skillPool[skillStart[row] + i]; }
+
+    public boolean hasSkill(int row, int code) {
+        int start = skillStart[row];
+        for (int i = 0; i < skillCount[row]; i++) {
+            if (skillPool[start + i] == code) return true;
+        }
+        return false;
+    }
+
+    public Dictionary categories() { return categories; }
+
+    public Dictionary locations() { return locations; }
+
+    public Dictionary experienceLevels() { return experienceLevels; }
+
+    public Dictionary skills() { return skills; }
+}
@@ -0,0 +1,6 @@
+package com.devera.trabahanap.store;
+
+/**
+ * A job found by {@link JobStore#near} and its distance from the query point.
+ */
+public record NearbyJob(String jobId, double distanceKm) {}
@@ -0,0 +1,347 @@
+package com.devera.trabahanap.store;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of row numbers, laid out like a (much smaller) Roaring bitmap.
+ *
+ * Rows are split by their high 16 bits into chunks of 65536. A chunk with few rows is a
+ * sorted char[] (2 bytes per row); once it holds more than {@link #ARRAY_MAX} rows it turns
+ * into a plain 8 KB bitset, and back again when it falls to half that. Intersections work
+ * chunk by chunk and only ever touch chunks present in both sides.
+ *
+ * Not thread-safe; {@link JobStore} locks.
+ */
+final class RowBitmap {
+
+    /** Largest array chunk; at this size an array and a bitset chunk take the same space. */
+    static final int ARRAY_MAX = 4096;
+
+    private char[] keys = new char[4];
+    private Chunk[] chunks = new Chunk[4];
+    private int size;
+
+    void add(int row) {
+        char key = (char) (row >>> 16);
+        int i = indexOf(key);
+        if (i < 0) {
+            i = -i - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                chunks = Arrays.copyOf(chunks, size * 2);
+            }
+            System.arraycopy(keys, i, keys, i + 1, size - i);
+            System.arraycopy(chunks, i, chunks, i + 1, size - i);
+            keys[i] = key;
+            chunks[i] = new ArrayChunk();
+            size++;
+        }
+        chunks[i] = chunks[i].add((char) row);
+    }
+
+    void remove(int row) {
+        int i = indexOf((char) (row >>> 16));
+        if (i < 0) return;
+        Chunk c = chunks[i].remove((char) row);
+        if (c.cardinality() > 0) {
+            chunks[i] = c;
+            return;
+        }
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(chunks, i + 1, chunks, i, size - i - 1);
+        chunks[--size] = null;
+    }
+
+    boolean contains(int row) {
+        int i = indexOf((char) (row >>> 16));
+        return i >= 0 && chunks[i].contains((char) row);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int cardinality() {
+        int n = 0;
+        for (int i = 0; i < size; i++) n += chunks[i].cardinality();
+        return n;
+    }
+
+    /**
+     * New bitmap holding the rows in both this and other.
+     */
+    RowBitmap and(RowBitmap other) {
+        RowBitmap out = new RowBitmap();
+        int i = 0, j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Chunk c = chunks[i].and(other.chunks[j]);
+                if (c.cardinality() > 0) out.append(keys[i], c);
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Size of the intersection with other, without building it.
+     */
+    int andCardinality(RowBitmap other) {
+        int n = 0;
+        int i = 0, j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                n += chunks[i].andCardinality(other.chunks[j]);
+                i++;
+                j++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Rows in ascending order.
+     */
+    int[] toArray() {
+        int[] out = new int[cardinality()];
+        int n = 0;
+        for (int i = 0; i < size; i++) n = chunks[i].copyTo(keys[i] << 16, out, n);
+        return out;
+    }
+
+    private void append(char key, Chunk c) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            chunks = Arrays.copyOf(chunks, size * 2);
+        }
+        keys[size] = key;
+        chunks[size++] = c;
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    //--------------------------------------------------------------------------
+    // Chunks
+    //--------------------------------------------------------------------------
+
+    private abstract static sealed class Chunk permits ArrayChunk, BitsChunk {
+        /** Returns the chunk to keep (itself, or a converted copy). */
+        abstract Chunk add(char low);
+
+        abstract Chunk remove(char low);
+
+        abstract boolean contains(char low);
+
+        abstract int cardinality();
+
+        abstract Chunk and(Chunk other);
+
+        abstract int andCardinality(Chunk other);
+
+        /** Write high | low for every member into out from index n; returns the new n. */
+        abstract int copyTo(int high, int[] out, int n);
+    }
+
+    private static final class ArrayChunk extends Chunk {
+        char[] values;
+        int count;
+
+        ArrayChunk() {
+            this(new char[4], 0);
+        }
+
+        ArrayChunk(char[] values, int count) {
+            this.values = values;
+            this.count = count;
+        }
+
+        @Override
+        Chunk add(char low) {
+            int i = Arrays.binarySearch(values, 0, count, low);
+            if (i >= 0) return this;
+            if (count == ARRAY_MAX) {
+                BitsChunk bits = new BitsChunk();
+                for (int k = 0; k < count; k++) bits.set(values[k]);
+                bits.set(low);
+                return bits;
+            }
+            i = -i - 1;
+            if (count == values.length) values = Arrays.copyOf(values, Math.min(Math.max(count * 2, 4), ARRAY_MAX));
+            System.arraycopy(values, i, values, i + 1, count - i);
+            values[i] = low;
+            count++;
+            return this;
+        }
+
+        @Override
+        Chunk remove(char low) {
+            int i = Arrays.binarySearch(values, 0, count, low);
+            if (i < 0) return this;
+            System.arraycopy(values, i + 1, values, i, count - i - 1);
+            count--;
+            return this;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, count, low) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return count;
+        }
+
+        @Override
+        Chunk and(Chunk other) {
+            char[] out = new char[count];
+            int n = 0;
+            if (other instanceof BitsChunk bits) {
+                for (int i = 0; i < count; i++) {
+                    if (bits.contains(values[i])) out[n++] = values[i];
+                }
+            } else {
+                ArrayChunk a = (ArrayChunk) other;
+                int i = 0, j = 0;
+                while (i < count && j < a.count) {
+                    if (values[i] < a.values[j]) {
+                        i++;
+                    } else if (values[i] > a.values[j]) {
+                        j++;
+                    } else {
+                        out[n++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            }
+            return new ArrayChunk(out, n);
+        }
+
+        @Override
+        int andCardinality(Chunk other) {
+            int n = 0;
+            if (other instanceof BitsChunk bits) {
+                for (int i = 0; i < count; i++) {
+                    if (bits.contains(values[i])) n++;
+                }
+                return n;
+            }
+            ArrayChunk a = (ArrayChunk) other;
+            int i = 0, j = 0;
+            while (i < count && j < a.count) {
+                if (values[i] < a.values[j]) {
+                    i++;
+                } else if (values[i] > a.values[j]) {
+                    j++;
+                } else {
+                    n++;
+                    i++;
+                    j++;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        int copyTo(int high, int[] out, int n) {
+            for (int i = 0; i < count; i++) out[n++] = high | values[i];
+            return n;
+        }
+    }
+
+    private static final class BitsChunk extends Chunk {
+        final long[] words = new long[1024];
+        int count;
+
+        void set(char low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                words[low >>> 6] |= bit;
+                count++;
+            }
+        }
+
+        @Override
+        Chunk add(char low) {
+            set(low);
+            return this;
+        }
+
+        @Override
+        Chunk remove(char low) {
+            long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) return this;
+            words[low >>> 6] &= ~bit;
+            count--;
+            return count <= ARRAY_MAX / 2 ? toArrayChunk() : this;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return count;
+        }
+
+        @Override
+        Chunk and(Chunk other) {
+            if (other instanceof ArrayChunk) return other.and(this);
+            BitsChunk b = (BitsChunk) other;
+            BitsChunk out = new BitsChunk();
+            for (int w = 0; w < words.length; w++) {
+                out.words[w] = words[w] & b.words[w];
+                out.count += Long.bitCount(out.words[w]);
+            }
+            return out.count <= ARRAY_MAX ? out.toArrayChunk() : out;
+        }
+
+        @Override
+        int andCardinality(Chunk other) {
+            if (other instanceof ArrayChunk) return other.andCardinality(this);
+            BitsChunk b = (BitsChunk) other;
+            int n = 0;
+            for (int w = 0; w < words.length; w++) n += Long.bitCount(words[w] & b.words[w]);
+            return n;
+        }
+
+        @Override
+        int copyTo(int high, int[] out, int n) {
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    out[n++] = high | (w << 6) | Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                }
+            }
+            return n;
+        }
+
+        private ArrayChunk toArrayChunk() {
+            char[] values = new char[Math.max(count, 4)];
+            int n = 0;
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    values[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayChunk(values, n);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.devera.trabahanap.store;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Job id to row number: an open-addressing table of row numbers whose keys are read from
+ * the store's jobId column instead of being stored again. Costs about 8 bytes per job
+ * against some 100 for a HashMap&lt;String, Integer&gt; (entry, boxed row, table slot).
+ *
+ * Linear probing at most half full; a removal shifts the rest of its cluster back, so there
+ * are no tombstones. A row must carry its id in the column while it is in the table. Not
+ * thread-safe; {@link JobStore} locks.
+ */
+final class RowIdIndex {
+
+    private static final int EMPTY = -1;
+
+    private final IntFunction<String> idOfRow;
+    private int[] slots = emptySlots(16);
+    private int size;
+
+    RowIdIndex(IntFunction<String> idOfRow) {
+        this.idOfRow = idOfRow;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Row of jobId, or -1.
+     */
+    int get(String jobId) {
+        if (jobId == null) return EMPTY;
+        int mask = slots.length - 1;
+        for (int i = hash(jobId) & mask; ; i = (i + 1) & mask) {
+            int row = slots[i];
+            if (row == EMPTY || jobId.equals(idOfRow.apply(row))) return row;
+        }
+    }
+
+    /**
+     * Add a row not yet in the table; its id must already be in the column.
+     */
+    void add(int row) {
+        if ((size + 1) * 2 > slots.length) rehash(slots.length * 2);
+        insert(row);
+        size++;
+    }
+
+    /**
+     * Remove jobId; returns its row, or -1 if absent. The row's id must still be in the column.
+     */
+    int remove(String jobId) {
+        if (jobId == null) return EMPTY;
+        int mask = slots.length - 1;
+        int i = hash(jobId) & mask;
+        while (slots[i] != EMPTY && !jobId.equals(idOfRow.apply(slots[i]))) i = (i + 1) & mask;
+        int removed = slots[i];
+        if (removed == EMPTY) return EMPTY;
+
+        // Move back every later entry of the cluster that may no longer be reachable
+        int hole = i;
+        for (int j = (i + 1) & mask; slots[j] != EMPTY; j = (j + 1) & mask) {
+            int home = hash(idOfRow.apply(slots[j])) & mask;
+            boolean reachable = hole <= j ? hole < home && home <= j : hole < home || home <= j;
+            if (!reachable) {
+                slots[hole] = slots[j];
+                hole = j;
+            }
+        }
+        slots[hole] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    private void insert(int row) {
+        int mask = slots.length - 1;
+        int i = hash(idOfRow.apply(row)) & mask;
+        while (slots[i] != EMPTY) i = (i + 1) & mask;
+        slots[i] = row;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = slots;
+        slots = emptySlots(capacity);
+        for (int row : old) if (row != EMPTY) insert(row);
+    }
+
+    private static int hash(String id) {
+        int h = id.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int[] emptySlots(int n) {
+        int[] s = new int[n];
+        Arrays.fill(s, EMPTY);
+        return s;
+    }
+}
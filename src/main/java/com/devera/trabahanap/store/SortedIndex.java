@@ -0,0 +1,165 @@
+package com.devera.trabahanap.store;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Rows ordered by a long key (ties by row number), kept as a list of sorted blocks of at most
+ * {@link #BLOCK} entries. An update is a binary search plus a shift inside one block, so
+ * adds and removes stay cheap at any size, and a range or top-k read walks the blocks in
+ * order from the first matching entry and stops as soon as the caller has enough.
+ *
+ * Doubles are stored through {@link #doubleKey}, which keeps their order. Not thread-safe;
+ * {@link JobStore} locks.
+ */
+final class SortedIndex {
+
+    static final int BLOCK = 256;
+
+    private long[][] keys = { new long[BLOCK] };
+    private int[][] rows = { new int[BLOCK] };
+    private int[] sizes = new int[1];
+    private int blocks = 1;
+    private int size;
+
+    /**
+     * Long with the same ordering as the double (NaN is not expected).
+     */
+    static long doubleKey(double d) {
+        long bits = Double.doubleToLongBits(d);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(long key, int row) {
+        int b = blockFor(key, row);
+        int i = -search(b, key, row) - 1;
+        if (i < 0) return;
+        if (sizes[b] == BLOCK) {
+            split(b);
+            if (i > BLOCK / 2) {
+                i -= BLOCK / 2;
+                b++;
+            }
+        }
+        System.arraycopy(keys[b], i, keys[b], i + 1, sizes[b] - i);
+        System.arraycopy(rows[b], i, rows[b], i + 1, sizes[b] - i);
+        keys[b][i] = key;
+        rows[b][i] = row;
+        sizes[b]++;
+        size++;
+    }
+
+    void remove(long key, int row) {
+        int b = blockFor(key, row);
+        int i = search(b, key, row);
+        if (i < 0) return;
+        System.arraycopy(keys[b], i + 1, keys[b], i, sizes[b] - i - 1);
+        System.arraycopy(rows[b], i + 1, rows[b], i, sizes[b] - i - 1);
+        sizes[b]--;
+        size--;
+        if (sizes[b] == 0 && blocks > 1) dropBlock(b);
+    }
+
+    /**
+     * Visit rows with from &lt;= key &lt;= to in key order (descending if asked) until the
+     * visitor returns false.
+     */
+    void scan(long from, long to, boolean descending, IntPredicate visitor) {
+        if (from > to || size == 0) return;
+        if (!descending) {
+            // First entry >= (from, MIN_VALUE)
+            int b = blockFor(from, Integer.MIN_VALUE);
+            int i = -search(b, from, Integer.MIN_VALUE) - 1;
+            for (; b < blocks; b++, i = 0) {
+                for (; i < sizes[b]; i++) {
+                    if (keys[b][i] > to || !visitor.test(rows[b][i])) return;
+                }
+            }
+        } else {
+            // Last entry <= (to, MAX_VALUE)
+            int b = blockFor(to, Integer.MAX_VALUE);
+            int i = -search(b, to, Integer.MAX_VALUE) - 2;
+            for (; b >= 0; b--, i = b >= 0 ? sizes[b] - 1 : 0) {
+                for (; i >= 0; i--) {
+                    if (keys[b][i] < from || !visitor.test(rows[b][i])) return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Block that holds (or would hold) the pair: the last block whose first pair is not
+     * greater than it.
+     */
+    private int blockFor(long key, int row) {
+        int lo = 1, hi = blocks - 1, found = 0;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(keys[mid][0], rows[mid][0], key, row) <= 0) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Index of the pair in block b, or -(insertion point) - 1.
+     */
+    private int search(int b, long key, int row) {
+        long[] k = keys[b];
+        int[] r = rows[b];
+        int lo = 0, hi = sizes[b] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int c = compare(k[mid], r[mid], key, row);
+            if (c < 0) {
+                lo = mid + 1;
+            } else if (c > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -lo - 1;
+    }
+
+    private void split(int b) {
+        if (blocks == sizes.length) {
+            int cap = blocks * 2;
+            keys = Arrays.copyOf(keys, cap);
+            rows = Arrays.copyOf(rows, cap);
+            sizes = Arrays.copyOf(sizes, cap);
+        }
+        System.arraycopy(keys, b + 1, keys, b + 2, blocks - b - 1);
+        System.arraycopy(rows, b + 1, rows, b + 2, blocks - b - 1);
+        System.arraycopy(sizes, b + 1, sizes, b + 2, blocks - b - 1);
+        int half = BLOCK / 2;
+        keys[b + 1] = new long[BLOCK];
+        rows[b + 1] = new int[BLOCK];
+        System.arraycopy(keys[b], half, keys[b + 1], 0, BLOCK - half);
+        System.arraycopy(rows[b], half, rows[b + 1], 0, BLOCK - half);
+        sizes[b + 1] = BLOCK - half;
+        sizes[b] = half;
+        blocks++;
+    }
+
+    private void dropBlock(int b) {
+        System.arraycopy(keys, b + 1, keys, b, blocks - b - 1);
+        System.arraycopy(rows, b + 1, rows, b, blocks - b - 1);
+        System.arraycopy(sizes, b + 1, sizes, b, blocks - b - 1);
+        blocks--;
+        keys[blocks] = null;
+        rows[blocks] = null;
+    }
+
+    private static int compare(long k1, int r1, long k2, int r2) {
+        return k1 != k2 ? Long.compare(k1, k2) : Integer.compare(r1, r2);
+    }
+}
@@ -0,0 +1,83 @@
+package com.devera.trabahanap.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Free-text column: all values UTF-8 encoded back to back in one byte arena, addressed per
+ * row by offset and length. Saves the String and array headers of one object pair per value.
+ *
+ * Overwritten and cleared values leave dead bytes behind; the arena is compacted when more
+ * than half of it is dead and it needs to grow. Not thread-safe; {@link JobStore} locks.
+ */
+final class TextColumn {
+
+    private static final int NULL_LENGTH = -1;
+
+    private byte[] arena = new byte[4096];
+    private int used;
+    private int dead;
+    private int[] offsets = new int[16];
+    private int[] lengths = new int[16];
+
+    TextColumn() {
+        Arrays.fill(lengths, NULL_LENGTH);
+    }
+
+    void ensureRows(int rows) {
+        if (rows <= offsets.length) return;
+        int old = offsets.length;
+        offsets = Arrays.copyOf(offsets, rows);
+        lengths = Arrays.copyOf(lengths, rows);
+        Arrays.fill(lengths, old, rows, NULL_LENGTH);
+    }
+
+    void set(int row, String value) {
+        clear(row);
+        if (value == null) return;
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (used + bytes.length > arena.length) {
+            if (dead > used / 2) compact();
+            if (used + bytes.length > arena.length) {
+                arena = Arrays.copyOf(arena, Math.max(arena.length * 2, used + bytes.length));
+            }
+        }
+        System.arraycopy(bytes, 0, arena, used, bytes.length);
+        offsets[row] = used;
+        lengths[row] = bytes.length;
+        used += bytes.length;
+    }
+
+    String get(int row) {
+        int len = lengths[row];
+        return len == NULL_LENGTH ? null : new String(arena, offsets[row], len, StandardCharsets.UTF_8);
+    }
+
+    void clear(int row) {
+        if (lengths[row] != NULL_LENGTH) dead += lengths[row];
+        lengths[row] = NULL_LENGTH;
+    }
+
+    /**
+     * Compact and shrink the arena to what is live, e.g. after a bulk load.
+     */
+    void trim() {
+        if (dead > 0) compact();
+        if (arena.length > used) arena = Arrays.copyOf(arena, Math.max(used, 16));
+    }
+
+    private void compact() {
+        byte[] fresh = new byte[arena.length];
+        int size = 0;
+        for (int row = 0; row < lengths.length; row++) {
+            int len = lengths[row];
+            if (len == NULL_LENGTH) continue;
+            System.arraycopy(arena, offsets[row], fresh, size, len);
+            offsets[row] = size;
+            size += len;
+        }
+        arena = fresh;
+        used = size;
+        dead = 0;
+    }
+}
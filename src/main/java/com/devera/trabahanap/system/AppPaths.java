@@ -0,0 +1,36 @@
+package com.devera.trabahanap.system;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Local data directory for files the app keeps between runs (outbox log, caches, snapshots).
+ *
+ * Defaults to ~/.trabahanap; override with app.dataDir in config.properties.
+ */
+public final class AppPaths {
+
+    private AppPaths() {}
+
+    public static Path dataDir() {
+        String configured = Config.get("app.dataDir");
+        Path dir = configured != null && !configured.isBlank()
+                ? Paths.get(configured)
+                : Paths.get(System.getProperty("user.home"), ".trabahanap");
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            System.err.println("[AppPaths] Could not create data dir " + dir + ": " + e.getMessage());
+        }
+        return dir;
+    }
+
+    /**
+     * A file inside the data directory, e.g. resolve("outbox.log").
+     */
+    public static Path resolve(String name) {
+        return dataDir().resolve(name);
+    }
+}
@@ -32,5 +32,27 @@ public final class Config {
     public static String getOrDefault(String key, String def) {
         return props.getProperty(key, def);
     }
+
+    public static int getInt(String key, int def) {
+        String v = props.getProperty(key);
+        if (v == null || v.isBlank()) return def;
+        try {
+            return Integer.parseInt(v.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: invalid integer for " + key + ": " + v);
+            return def;
+        }
+    }
+
+    public static long getLong(String key, long def) {
+        String v = props.getProperty(key);
+        if (v == null || v.isBlank()) return def;
+        try {
+            return Long.parseLong(v.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Warning: invalid long for " + key + ": " + v);
+            return def;
+        }
+    }
 }
 
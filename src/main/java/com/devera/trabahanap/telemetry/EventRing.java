@@ -0,0 +1,84 @@
+package com.devera.trabahanap.telemetry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free ring of events: any number of producers, one consumer.
+ *
+ * A producer claims a sequence number with a CAS on tail, fills the slot and then publishes
+ * it by storing sequence + 1 in the slot's marker; the consumer only reads slots whose
+ * marker says they are published. When the ring is full, offer returns false straight away
+ * (the event is dropped) so producers never wait.
+ */
+final class EventRing {
+
+    private final int mask;
+    private final String[] jobIds;
+    private final byte[] events;
+    private final long[] times;
+    private final AtomicLongArray published;
+    private final AtomicLong tail = new AtomicLong();
+    // Written only by the consumer, after it has finished reading the slot
+    private volatile long head;
+
+    EventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.mask = size - 1;
+        this.jobIds = new String[size];
+        this.events = new byte[size];
+        this.times = new long[size];
+        this.published = new AtomicLongArray(size);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Number of events waiting (approximate while producers are active).
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    boolean offer(String jobId, TelemetryEvent event, long atMillis) {
+        long seq;
+        do {
+            seq = tail.get();
+            if (seq - head > mask) return false;
+        } while (!tail.compareAndSet(seq, seq + 1));
+
+        int i = (int) seq & mask;
+        jobIds[i] = jobId;
+        events[i] = (byte) event.ordinal();
+        times[i] = atMillis;
+        published.lazySet(i, seq + 1);
+        return true;
+    }
+
+    /**
+     * Hand up to max published events to the visitor, oldest first; returns how many.
+     * Only one thread may drain at a time.
+     */
+    int drain(Visitor visitor, int max) {
+        TelemetryEvent[] all = TelemetryEvent.values();
+        long h = head;
+        int n = 0;
+        while (n < max) {
+            int i = (int) h & mask;
+            if (published.get(i) != h + 1) break;
+            String jobId = jobIds[i];
+            jobIds[i] = null;
+            visitor.accept(jobId, all[events[i]], times[i]);
+            h++;
+            n++;
+            head = h;
+        }
+        return n;
+    }
+
+    interface Visitor {
+        void accept(String jobId, TelemetryEvent event, long atMillis);
+    }
+}
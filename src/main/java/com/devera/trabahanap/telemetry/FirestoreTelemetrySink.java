@@ -0,0 +1,81 @@
+package com.devera.trabahanap.telemetry;
+
+import com.devera.trabahanap.service.FirestoreCodec;
+import com.devera.trabahanap.service.FirestoreDocuments;
+import com.devera.trabahanap.service.FirestoreHttpException;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ships a batch as one documents:batchWrite into the "telemetry" collection, one document
+ * per count: telemetry/{batchId}-{i} with jobId, event, bucketStart, count and clientId.
+ *
+ * Every write carries an exists=false precondition and the document ids are fixed per batch,
+ * so resending a batch (after a timeout or from the spill file) never double-counts: the
+ * documents that already landed report ALREADY_EXISTS and are treated as delivered.
+ */
+final class FirestoreTelemetrySink implements TelemetrySink {
+
+    static final String COLLECTION = "telemetry";
+    private static final long SEND_TIMEOUT_S = 30;
+
+    // Created on first send, on the shipper thread (the constructor reads config and may throw)
+    private FirestoreDocuments documents;
+
+    @Override
+    public void send(String batchId, List<TelemetryCount> counts) throws Exception {
+        if (counts.isEmpty()) return;
+        if (documents == null) documents = new FirestoreDocuments();
+        String clientId = batchId.substring(0, batchId.indexOf('-') > 0 ? batchId.indexOf('-') : batchId.length());
+        JsonArray writes = new JsonArray();
+        for (int i = 0; i < counts.size(); i++) {
+            TelemetryCount c = counts.get(i);
+            Map<String, Object> fields = new LinkedHashMap<>();
+            fields.put("jobId", c.jobId());
+            fields.put("event", c.event().wireName());
+            fields.put("bucketStart", Instant.ofEpochMilli(c.bucketStart()));
+            fields.put("count", c.count());
+            fields.put("clientId", clientId);
+            writes.add(documents.createWrite(COLLECTION, batchId + "-" + i, FirestoreCodec.encodeFields(fields)));
+        }
+
+        JsonObject resp;
+        try {
+            resp = documents.batchWrite(writes, FirestoreDocuments.obtainAccessToken()).get(SEND_TIMEOUT_S, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            // 401/403 usually mean signed out or an expired token: keep the batch for later
+            if (e.getCause() instanceof FirestoreHttpException fe && fe.isPermanent()
+                    && fe.getStatusCode() != 401 && fe.getStatusCode() != 403) {
+                // Rejected as a whole (bad request): keeping it would only retry forever
+                System.err.println("[Telemetry] Dropping batch " + batchId + ": " + fe.getMessage());
+                return;
+            }
+            throw e;
+        }
+
+        JsonArray statuses = resp != null && resp.has("status") ? resp.getAsJsonArray("status") : new JsonArray();
+        int rejected = 0;
+        for (int i = 0; i < counts.size(); i++) {
+            JsonObject st = i < statuses.size() ? statuses.get(i).getAsJsonObject() : new JsonObject();
+            int code = st.has("code") ? st.get("code").getAsInt() : 0;
+            switch (code) {
+                // OK, or ALREADY_EXISTS / FAILED_PRECONDITION from an earlier attempt
+                case 0, 6, 9 -> {}
+                // DEADLINE_EXCEEDED, RESOURCE_EXHAUSTED, ABORTED, INTERNAL, UNAVAILABLE
+                case 4, 8, 10, 13, 14 -> throw new IOException("batchWrite status " + code + " for " + batchId);
+                default -> rejected++;
+            }
+        }
+        if (rejected > 0) {
+            System.err.println("[Telemetry] " + rejected + " count(s) of batch " + batchId + " rejected");
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.devera.trabahanap.telemetry;
+
+import com.devera.trabahanap.service.http.RequestScheduler;
+import com.devera.trabahanap.system.AppPaths;
+import com.devera.trabahanap.system.Config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Client telemetry: which job cards are hovered, clicked and applied to.
+ *
+ * {@link #record} puts the event into a lock-free {@link EventRing} and returns; it never
+ * takes a lock, touches the disk or the network, so the FX thread can call it from any
+ * handler. When the ring is full the event is dropped and counted; that takes a sustained
+ * burst of tens of thousands of events a second, far more than a person generates.
+ *
+ * A single daemon thread ("telemetry-shipper") drains the ring and aggregates the events
+ * into counts per (job, event, minute). The counts are shipped as one batch when
+ * {@code batchSize} of them have piled up or {@code flushInterval} has passed since the
+ * last shipment, whichever comes first. A batch that cannot be sent (offline, signed out,
+ * server trouble) goes to a size-capped spill file and is resent oldest-first once a send
+ * succeeds again; while sends keep failing the shipper backs off and spills directly.
+ *
+ * Memory stays bounded under bursts: the ring has a fixed capacity and the aggregate is
+ * shipped (or spilled) once it holds a few batches' worth of keys.
+ *
+ * Config (all optional): telemetry.enabled, telemetry.batchSize, telemetry.flushMs,
+ * telemetry.ringCapacity, telemetry.spillMaxBytes.
+ */
+public final class Telemetry {
+
+    private static final long BUCKET_MS = 60_000;
+    private static final long IDLE_PARK_NANOS = 100_000_000L;
+    private static final long MAX_BACKOFF_MS = 5 * 60_000;
+    // Firestore batchWrite accepts at most 500 writes
+    private static final int MAX_BATCH = 500;
+    // Aggregate keys held before a burst forces a shipment
+    private static final int PENDING_BATCHES = 32;
+
+    private static Telemetry instance;
+
+    private final EventRing ring;
+    private final int batchSize;
+    private final long flushMillis;
+    private final TelemetrySink sink;
+    private final TelemetrySpill spill;
+    private final String clientId = UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+    private final Thread shipper;
+    private volatile boolean running = true;
+
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Owned by the shipper (guarded by this)
+    private final Map<Key, long[]> pending = new HashMap<>();
+    private long lastShipMillis = System.currentTimeMillis();
+    private long retryAtMillis;
+    private int consecutiveFailures;
+    private long batchSeq;
+    private long shippedCounts;
+    private long spilledCounts;
+
+    /**
+     * @param ringCapacity  events buffered between UI and shipper before new ones are dropped
+     * @param batchSize     aggregated counts per shipped batch (at most 500)
+     * @param flushInterval longest time counts wait before being shipped
+     * @param spillPath     file for batches that could not be sent
+     * @param spillMaxBytes size cap of the spill file; batches beyond it are dropped
+     * @param sink          where batches go
+     */
+    public Telemetry(int ringCapacity, int batchSize, Duration flushInterval, Path spillPath,
+                     long spillMaxBytes, TelemetrySink sink) {
+        this.ring = new EventRing(ringCapacity);
+        this.batchSize = Math.max(1, Math.min(MAX_BATCH, batchSize));
+        this.flushMillis = Math.max(1, flushInterval.toMillis());
+        this.spill = new TelemetrySpill(spillPath, spillMaxBytes);
+        this.sink = sink;
+        this.shipper = new Thread(() -> RequestScheduler.runAs(RequestScheduler.Priority.BACKGROUND, this::runShipper),
+                "telemetry-shipper");
+        this.shipper.setDaemon(true);
+        this.shipper.start();
+    }
+
+    /**
+     * Shared pipeline shipping to the Firestore "telemetry" collection. With
+     * telemetry.enabled=false, record is a no-op.
+     */
+    public static synchronized Telemetry get() {
+        if (instance == null) {
+            boolean enabled = !"false".equalsIgnoreCase(Config.getOrDefault("telemetry.enabled", "true"));
+            TelemetrySink sink = enabled ? new FirestoreTelemetrySink() : (id, counts) -> {};
+            instance = new Telemetry(
+                    Config.getInt("telemetry.ringCapacity", 8192),
+                    Config.getInt("telemetry.batchSize", 200),
+                    Duration.ofMillis(Config.getLong("telemetry.flushMs", 30_000)),
+                    AppPaths.resolve("telemetry-spill.jsonl"),
+                    Config.getLong("telemetry.spillMaxBytes", 5L * 1024 * 1024),
+                    sink);
+            if (!enabled) instance.running = false;
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::spillPending, "telemetry-exit"));
+        }
+        return instance;
+    }
+
+    /**
+     * Record one event now. Never blocks; returns false if the event was dropped.
+     */
+    public boolean record(TelemetryEvent event, String jobId) {
+        if (!running || event == null || jobId == null) return false;
+        if (!ring.offer(jobId, event, System.currentTimeMillis())) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        recorded.incrementAndGet();
+        // Wake the shipper early when a burst is filling the ring
+        if (ring.size() > ring.capacity() / 2) LockSupport.unpark(shipper);
+        return true;
+    }
+
+    public TelemetryStats stats() {
+        synchronized (this) {
+            return new TelemetryStats(recorded.get(), dropped.get(), shippedCounts, spilledCounts,
+                    spill.droppedBatches(), spill.pendingBatches());
+        }
+    }
+
+    /**
+     * Drain the ring and ship everything aggregated so far, including spilled batches.
+     * Blocks the caller while sending; meant for shutdown paths and tools, not the FX thread.
+     */
+    public synchronized void flush() {
+        drainRing();
+        retryAtMillis = 0;
+        shipPending(System.currentTimeMillis());
+    }
+
+    /**
+     * Stop the shipper; whatever is still aggregated is written to the spill file.
+     */
+    public void close() {
+        running = false;
+        LockSupport.unpark(shipper);
+        try {
+            shipper.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        spillPending();
+    }
+
+    //--------------------------------------------------------------------------
+    // Shipper
+    //--------------------------------------------------------------------------
+
+    private void runShipper() {
+        synchronized (this) {
+            spill.load();
+        }
+        while (running) {
+            try {
+                if (pump() == 0) LockSupport.parkNanos(IDLE_PARK_NANOS);
+            } catch (RuntimeException e) {
+                System.err.println("[Telemetry] Shipper error: " + e.getMessage());
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * One round of the shipper: drain, and ship if a batch is full or due. Returns the number
+     * of events drained.
+     */
+    private synchronized int pump() {
+        int drained = drainRing();
+        long now = System.currentTimeMillis();
+        boolean due = now - lastShipMillis >= flushMillis;
+        // While backing off a full batch would only be spilled; wait for the interval instead
+        boolean full = pending.size() >= batchSize && now >= retryAtMillis;
+        if (full || (due && !pending.isEmpty())) {
+            shipPending(now);
+        } else if (due && spill.pendingBatches() > 0 && now >= retryAtMillis) {
+            lastShipMillis = now;
+            resendSpilled();
+        }
+        return drained;
+    }
+
+    private int drainRing() {
+        int total = 0;
+        int n;
+        do {
+            n = ring.drain(this::aggregate, batchSize);
+            total += n;
+            // Keep the aggregate bounded during a burst
+            if (pending.size() >= batchSize * PENDING_BATCHES) shipPending(System.currentTimeMillis());
+        } while (n > 0);
+        return total;
+    }
+
+    private void aggregate(String jobId, TelemetryEvent event, long atMillis) {
+        Key key = new Key(jobId, event, atMillis - Math.floorMod(atMillis, BUCKET_MS));
+        long[] count = pending.get(key);
+        if (count == null) pending.put(key, new long[] { 1 });
+        else count[0]++;
+    }
+
+    private void shipPending(long now) {
+        lastShipMillis = now;
+        Map<String, List<TelemetryCount>> unsent = new LinkedHashMap<>();
+        while (!pending.isEmpty()) {
+            List<TelemetryCount> batch = takeBatch();
+            String id = clientId + "-" + Long.toString(now, 36) + "-" + (batchSeq++);
+            if (now < retryAtMillis || !send(id, batch)) {
+                unsent.put(id, batch);
+            }
+        }
+        if (!unsent.isEmpty()) {
+            spilledCounts += spill.append(unsent);
+        } else if (spill.pendingBatches() > 0) {
+            resendSpilled();
+        }
+    }
+
+    private List<TelemetryCount> takeBatch() {
+        List<TelemetryCount> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        Iterator<Map.Entry<Key, long[]>> it = pending.entrySet().iterator();
+        while (it.hasNext() && batch.size() < batchSize) {
+            Map.Entry<Key, long[]> e = it.next();
+            Key k = e.getKey();
+            batch.add(new TelemetryCount(k.jobId, k.event, k.bucketStart, e.getValue()[0]));
+            it.remove();
+        }
+        return batch;
+    }
+
+    private boolean send(String id, List<TelemetryCount> batch) {
+        try {
+            sink.send(id, batch);
+            consecutiveFailures = 0;
+            retryAtMillis = 0;
+            shippedCounts += batch.size();
+            return true;
+        } catch (Exception e) {
+            consecutiveFailures++;
+            long delay = backoffMillis(consecutiveFailures);
+            retryAtMillis = System.currentTimeMillis() + delay;
+            System.err.println("[Telemetry] Send failed (" + e.getMessage() + "), spilling; next try in " + delay + " ms");
+            return false;
+        }
+    }
+
+    /**
+     * Resend spilled batches oldest-first until one fails; sent ones are removed from the file.
+     */
+    private void resendSpilled() {
+        spill.resend(this::send);
+    }
+
+    /**
+     * Move everything not yet shipped to the spill file (used on exit, no network).
+     */
+    private synchronized void spillPending() {
+        drainRingNoShip();
+        Map<String, List<TelemetryCount>> unsent = new LinkedHashMap<>();
+        while (!pending.isEmpty()) {
+            unsent.put(clientId + "-exit-" + (batchSeq++), takeBatch());
+        }
+        if (!unsent.isEmpty()) spilledCounts += spill.append(unsent);
+    }
+
+    private void drainRingNoShip() {
+        while (ring.drain(this::aggregate, Integer.MAX_VALUE) > 0) {
+            // keep draining
+        }
+    }
+
+    private static long backoffMillis(int failures) {
+        long cap = Math.min(MAX_BACKOFF_MS, 1000L << Math.min(failures - 1, 16));
+        return cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1);
+    }
+
+    private record Key(String jobId, TelemetryEvent event, long bucketStart) {}
+}
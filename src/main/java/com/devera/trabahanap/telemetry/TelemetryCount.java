@@ -0,0 +1,7 @@
+package com.devera.trabahanap.telemetry;
+
+/**
+ * Number of times one event happened for one job within the minute starting at bucketStart
+ * (epoch millis).
+ */
+public record TelemetryCount(String jobId, TelemetryEvent event, long bucketStart, long count) {}
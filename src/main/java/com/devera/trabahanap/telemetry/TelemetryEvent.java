@@ -0,0 +1,28 @@
+package com.devera.trabahanap.telemetry;
+
+/**
+ * UI events the client reports. {@link #wireName()} is what ends up in Firestore.
+ */
+public enum TelemetryEvent {
+    CARD_HOVER("card_hover"),
+    CARD_CLICK("card_click"),
+    DETAILS_VIEW("details_view"),
+    APPLY_CLICK("apply_click");
+
+    private final String wireName;
+
+    TelemetryEvent(String wireName) {
+        this.wireName = wireName;
+    }
+
+    public String wireName() {
+        return wireName;
+    }
+
+    public static TelemetryEvent fromWireName(String name) {
+        for (TelemetryEvent e : values()) {
+            if (e.wireName.equals(name)) return e;
+        }
+        throw new IllegalArgumentException("Unknown telemetry event: " + name);
+    }
+}
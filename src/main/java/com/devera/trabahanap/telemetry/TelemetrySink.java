@@ -0,0 +1,14 @@
+package com.devera.trabahanap.telemetry;
+
+import java.util.List;
+
+/**
+ * Destination of shipped telemetry batches.
+ *
+ * batchId is unique and stays the same when a batch is resent from the spill file, so a sink
+ * can make resends idempotent. Throwing means "try again later": the batch is spilled to disk.
+ */
+public interface TelemetrySink {
+
+    void send(String batchId, List<TelemetryCount> counts) throws Exception;
+}
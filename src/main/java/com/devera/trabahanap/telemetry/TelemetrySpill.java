@@ -0,0 +1,185 @@
+package com.devera.trabahanap.telemetry;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * JSON-lines file of telemetry batches that could not be sent, one batch per line.
+ *
+ * Appends are refused once the file would exceed maxBytes, so a long offline period costs
+ * at most that much disk. Unlike the write outbox nothing is fsynced: losing the last few
+ * batches in a crash is acceptable for telemetry. Not thread-safe; {@link Telemetry} locks.
+ */
+final class TelemetrySpill {
+
+    private static final Gson gson = new Gson();
+
+    private final Path path;
+    private final long maxBytes;
+    private int pendingBatches;
+    private long droppedBatches;
+
+    TelemetrySpill(Path path, long maxBytes) {
+        this.path = path;
+        this.maxBytes = Math.max(0, maxBytes);
+    }
+
+    /**
+     * Count the batches left by earlier runs. Called from the shipper thread so the first
+     * record on the FX thread does not read the file.
+     */
+    void load() {
+        pendingBatches = countLines();
+        if (pendingBatches > 0) {
+            System.out.println("[Telemetry] " + pendingBatches + " spilled batch(es) waiting to be sent");
+        }
+    }
+
+    int pendingBatches() {
+        return pendingBatches;
+    }
+
+    long droppedBatches() {
+        return droppedBatches;
+    }
+
+    /**
+     * Append batches (id -> counts) in one write; batches that would push the file past
+     * maxBytes are dropped. Returns the number of counts written.
+     */
+    long append(Map<String, List<TelemetryCount>> batches) {
+        try {
+            long size = Files.exists(path) ? Files.size(path) : 0;
+            StringBuilder sb = new StringBuilder();
+            long written = 0;
+            int lines = 0;
+            for (Map.Entry<String, List<TelemetryCount>> e : batches.entrySet()) {
+                String line = gson.toJson(toJson(e.getKey(), e.getValue())) + "\n";
+                long bytes = line.getBytes(StandardCharsets.UTF_8).length;
+                if (size + bytes > maxBytes) {
+                    droppedBatches++;
+                    continue;
+                }
+                size += bytes;
+                sb.append(line);
+                written += e.getValue().size();
+                lines++;
+            }
+            if (lines == 0) return 0;
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Files.writeString(path, sb, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            pendingBatches += lines;
+            return written;
+        } catch (IOException e) {
+            System.err.println("[Telemetry] Failed to spill " + batches.size() + " batch(es): " + e.getMessage());
+            droppedBatches += batches.size();
+            return 0;
+        }
+    }
+
+    /**
+     * Hand spilled batches to sender oldest-first until it returns false; the batches it
+     * accepted are removed from the file.
+     */
+    void resend(BiPredicate<String, List<TelemetryCount>> sender) {
+        if (pendingBatches == 0 || !Files.exists(path)) return;
+        int sent = 0;
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                JsonObject batch;
+                try {
+                    batch = gson.fromJson(line, JsonObject.class);
+                } catch (JsonParseException e) {
+                    continue; // torn line from a crash mid-append; drop it
+                }
+                if (!sender.test(batch.get("id").getAsString(), fromJson(batch))) break;
+                sent++;
+            }
+            if (line != null && sent == 0) return;
+            if (line != null) {
+                // Keep the failed batch and everything after it
+                try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                    writer.write(line);
+                    writer.newLine();
+                    reader.transferTo(writer);
+                }
+            }
+        } catch (IOException e) {
+            // The sent batches stay in the file and are resent later; the sink ignores repeats
+            System.err.println("[Telemetry] Failed to rewrite spill file: " + e.getMessage());
+            return;
+        }
+        try {
+            if (Files.exists(tmp)) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                pendingBatches = Math.max(1, pendingBatches - sent);
+            } else {
+                Files.deleteIfExists(path);
+                pendingBatches = 0;
+            }
+        } catch (IOException e) {
+            System.err.println("[Telemetry] Failed to rewrite spill file: " + e.getMessage());
+        }
+    }
+
+    private int countLines() {
+        if (!Files.exists(path)) return 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            int n = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) n++;
+            }
+            return n;
+        } catch (IOException e) {
+            System.err.println("[Telemetry] Failed to read spill file: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private static JsonObject toJson(String batchId, List<TelemetryCount> counts) {
+        JsonArray arr = new JsonArray();
+        for (TelemetryCount c : counts) {
+            JsonObject o = new JsonObject();
+            o.addProperty("jobId", c.jobId());
+            o.addProperty("event", c.event().wireName());
+            o.addProperty("bucketStart", c.bucketStart());
+            o.addProperty("count", c.count());
+            arr.add(o);
+        }
+        JsonObject batch = new JsonObject();
+        batch.addProperty("id", batchId);
+        batch.add("counts", arr);
+        return batch;
+    }
+
+    private static List<TelemetryCount> fromJson(JsonObject batch) {
+        List<TelemetryCount> out = new ArrayList<>();
+        for (JsonElement el : batch.getAsJsonArray("counts")) {
+            JsonObject o = el.getAsJsonObject();
+            out.add(new TelemetryCount(o.get("jobId").getAsString(),
+                    TelemetryEvent.fromWireName(o.get("event").getAsString()),
+                    o.get("bucketStart").getAsLong(), o.get("count").getAsLong()));
+        }
+        return out;
+    }
+}
@@ -0,0 +1,14 @@
+package com.devera.trabahanap.telemetry;
+
+/**
+ * Counters of a {@link Telemetry} pipeline.
+ *
+ * @param recorded       events accepted by record
+ * @param dropped        events dropped because the ring was full
+ * @param shippedCounts  aggregated counts delivered to the sink
+ * @param spilledCounts  aggregated counts written to the spill file
+ * @param spillDropped   batches dropped because the spill file was full
+ * @param spillPending   batches currently waiting in the spill file
+ */
+public record TelemetryStats(long recorded, long dropped, long shippedCounts, long spilledCounts,
+                             long spillDropped, int spillPending) {}
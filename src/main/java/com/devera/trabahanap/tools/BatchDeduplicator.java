@@ -0,0 +1,134 @@
+package com.devera.trabahanap.tools;
+
+import com.devera.trabahanap.search.MinHash;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Groups near-duplicate jobs of a whole collection by {@link MinHash} LSH, without a hash
+ * table per band.
+ *
+ * Signatures are appended into one char pool (128 bytes per job). For each band, every
+ * job's band key is packed with its index into a long[] and sorted; jobs with equal keys
+ * end up next to each other and are compared, and pairs at or above the threshold are
+ * merged with union-find. Each group keeps its oldest job; the others are reported as its
+ * duplicates. Sorting 16 arrays of n longs is what the run costs, so a million jobs take
+ * seconds after the signatures are computed.
+ *
+ * Very common band values (the same boilerplate posted many times) are compared against
+ * the first job of their run only, so a run of size r costs r comparisons instead of r^2.
+ */
+final class BatchDeduplicator {
+
+    record Duplicate(String jobId, String duplicateOf, double similarity, String title) {}
+
+    // Low bits of a packed key hold the job index
+    private static final int INDEX_BITS = 24;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final int MAX_PAIRWISE_RUN = 64;
+
+    private char[] pool = new char[1024 * MinHash.HASHES];
+    private String[] ids = new String[1024];
+    private String[] titles = new String[1024];
+    private long[] timestamps = new long[1024];
+    private int size;
+    private long comparisons;
+
+    /**
+     * Add one job; jobs without any text terms (null signature) are skipped.
+     */
+    void add(String jobId, String title, long timestamp, char[] signature) {
+        if (signature == null) return;
+        if (size > INDEX_MASK) throw new IllegalStateException("More than " + INDEX_MASK + " jobs");
+        if (size == ids.length) {
+            int cap = size * 2;
+            pool = Arrays.copyOf(pool, cap * MinHash.HASHES);
+            ids = Arrays.copyOf(ids, cap);
+            titles = Arrays.copyOf(titles, cap);
+            timestamps = Arrays.copyOf(timestamps, cap);
+        }
+        System.arraycopy(signature, 0, pool, size * MinHash.HASHES, MinHash.HASHES);
+        ids[size] = jobId;
+        titles[size] = title;
+        timestamps[size] = timestamp;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long comparisons() {
+        return comparisons;
+    }
+
+    /**
+     * Every job that has an older near-duplicate, with the job it duplicates.
+     */
+    List<Duplicate> run(double threshold) {
+        int[] parent = new int[size];
+        for (int i = 0; i < size; i++) parent[i] = i;
+
+        long[] keys = new long[size];
+        for (int band = 0; band < MinHash.BANDS; band++) {
+            for (int i = 0; i < size; i++) {
+                keys[i] = (MinHash.bandKey(pool, i * MinHash.HASHES, band) & ~INDEX_MASK) | i;
+            }
+            Arrays.sort(keys);
+            int start = 0;
+            for (int i = 1; i <= size; i++) {
+                if (i < size && (keys[i] & ~INDEX_MASK) == (keys[start] & ~INDEX_MASK)) continue;
+                compareRun(keys, start, i, parent, threshold);
+                start = i;
+            }
+        }
+
+        // Oldest job of each group is the one to keep
+        int[] keep = new int[size];
+        Arrays.fill(keep, -1);
+        for (int i = 0; i < size; i++) {
+            int root = find(parent, i);
+            if (keep[root] < 0 || older(i, keep[root])) keep[root] = i;
+        }
+        List<Duplicate> out = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            int original = keep[find(parent, i)];
+            if (original != i) {
+                out.add(new Duplicate(ids[i], ids[original], MinHash.similarity(pool, i, original), titles[i]));
+            }
+        }
+        return out;
+    }
+
+    private void compareRun(long[] keys, int from, int to, int[] parent, double threshold) {
+        if (to - from > MAX_PAIRWISE_RUN) {
+            for (int b = from + 1; b < to; b++) compare(keys[from], keys[b], parent, threshold);
+            return;
+        }
+        for (int a = from; a < to; a++) {
+            for (int b = a + 1; b < to; b++) compare(keys[a], keys[b], parent, threshold);
+        }
+    }
+
+    private void compare(long keyA, long keyB, int[] parent, double threshold) {
+        int x = (int) (keyA & INDEX_MASK), y = (int) (keyB & INDEX_MASK);
+        int rx = find(parent, x), ry = find(parent, y);
+        if (rx == ry) return;
+        comparisons++;
+        if (MinHash.similarity(pool, x, y) >= threshold) parent[rx] = ry;
+    }
+
+    private boolean older(int a, int b) {
+        return timestamps[a] != timestamps[b] ? timestamps[a] < timestamps[b] : a < b;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+}
@@ -0,0 +1,86 @@
+package com.devera.trabahanap.tools;
+
+import com.devera.trabahanap.service.http.Endpoints;
+import com.devera.trabahanap.system.Config;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Headless entry point for maintenance commands (no JavaFX).
+ *
+ * Usage: java -cp trabahanap.jar com.devera.trabahanap.tools.Cli <command> [--options]
+ *
+ * Common options:
+ *  --project <id>        Firestore project (default: firebase.projectId from config.properties)
+ *  --emulator            use the Firestore emulator port from firebase.json
+ *  --firebase-json <p>   firebase.json location for --emulator (default ./firebase.json)
+ */
+public final class Cli {
+
+    private Cli() {}
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            usage();
+            System.exit(2);
+        }
+        try {
+            CliArgs opts = new CliArgs(args, 1);
+            configureEmulator(opts);
+            String projectId = opts.getOrDefault("project", Config.get("firebase.projectId"));
+
+            switch (args[0]) {
+                case "import" -> new ImportCommand(projectId, opts).run();
+                case "export" -> new ExportCommand(projectId, opts).run();
+                case "dedup" -> new DedupCommand(opts).run();
+                case "rollup-ratings" -> new RollupRatingsCommand(projectId, opts).run();
+                case "sweep-jobs" -> new SweepJobsCommand(projectId, opts).run();
+                default -> {
+                    usage();
+                    System.exit(2);
+                }
+            }
+            System.exit(0);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            usage();
+            System.exit(2);
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: Cli <command> [--options]");
+        System.err.println("  import --file <jobs.csv|jobs.jsonl> [--format csv|jsonl] [--batch-size 500] [--in-flight 8] [--max-retries 5]");
+        System.err.println("  export --out <jobs.csv[.gz]|jobs.jsonl[.gz]> [--format csv|jsonl] [--gzip] [--page-size 1000] [--partitions 1] [--resume]");
+        System.err.println("  dedup --file <jobs.csv|jobs.jsonl> [--format csv|jsonl] [--out duplicates.csv] [--threshold 70]");
+        System.err.println("  rollup-ratings [--dry-run]");
+        System.err.println("  sweep-jobs [--dry-run] [--page-size 300] [--batch 100]");
+        System.err.println("Common: [--project <id>] [--emulator] [--firebase-json <path>]");
+    }
+
+    /**
+     * With --emulator, read emulators.firestore.port from firebase.json and route calls there.
+     */
+    static void configureEmulator(CliArgs opts) throws IOException {
+        if (!opts.has("emulator")) return;
+        Path file = Paths.get(opts.getOrDefault("firebase-json", "firebase.json"));
+        JsonObject root = JsonParser.parseString(Files.readString(file, StandardCharsets.UTF_8)).getAsJsonObject();
+        int port = 8080;
+        if (root.has("emulators") && root.getAsJsonObject("emulators").has("firestore")) {
+            JsonObject fs = root.getAsJsonObject("emulators").getAsJsonObject("firestore");
+            if (fs.has("port")) port = fs.get("port").getAsInt();
+        }
+        String host = "localhost:" + port;
+        Endpoints.useFirestoreEmulator(host);
+        System.out.println("Using Firestore emulator at " + host);
+    }
+}
@@ -0,0 +1,54 @@
+package com.devera.trabahanap.tools;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Minimal "--key value" / "--flag" argument parser for the command-line tools.
+ */
+final class CliArgs {
+
+    private final Map<String, String> values = new HashMap<>();
+    private final Set<String> flags = new HashSet<>();
+
+    CliArgs(String[] args, int from) {
+        for (int i = from; i < args.length; i++) {
+            String a = args[i];
+            if (!a.startsWith("--")) throw new IllegalArgumentException("Unexpected argument: " + a);
+            String key = a.substring(2);
+            int eq = key.indexOf('=');
+            if (eq >= 0) {
+                values.put(key.substring(0, eq), key.substring(eq + 1));
+            } else if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                values.put(key, args[++i]);
+            } else {
+                flags.add(key);
+            }
+        }
+    }
+
+    String get(String key) {
+        return values.get(key);
+    }
+
+    String require(String key) {
+        String v = values.get(key);
+        if (v == null || v.isBlank()) throw new IllegalArgumentException("Missing required --" + key);
+        return v;
+    }
+
+    String getOrDefault(String key, String def) {
+        return values.getOrDefault(key, def);
+    }
+
+    int getInt(String key, int def) {
+        String v = values.get(key);
+        return v != null ? Integer.parseInt(v) : def;
+    }
+
+    boolean has(String flag) {
+        return flags.contains(flag) || values.containsKey(flag);
+    }
+}
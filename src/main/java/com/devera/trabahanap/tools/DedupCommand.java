@@ -0,0 +1,103 @@
+package com.devera.trabahanap.tools;
+
+import com.devera.trabahanap.search.MinHash;
+import com.devera.trabahanap.search.NearDuplicateIndex;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Batch near-duplicate pass over a job export (the output of the export command, or any
+ * file the import command accepts).
+ *
+ * Records are streamed; only each job's id, title, timestamp and 128-byte MinHash signature
+ * are kept. {@link BatchDeduplicator} then groups jobs whose texts are at least --threshold
+ * percent alike, and every job except the oldest of its group is written to --out as
+ * "jobId,duplicateOf,similarity,title". Nothing in Firestore is changed.
+ *
+ * Options:
+ *  --file <path>        input file (required, .gz allowed)
+ *  --format csv|jsonl   default from the file name
+ *  --out <path>         report file (default duplicates.csv)
+ *  --threshold <pct>    minimum similarity in percent (default dedup.warnPercent, 70)
+ */
+final class DedupCommand {
+
+    private final Path file;
+    private final JobRecordReader.Format format;
+    private final Path out;
+    private final double threshold;
+
+    DedupCommand(CliArgs opts) {
+        this.file = Paths.get(opts.require("file"));
+        String fmt = opts.get("format");
+        this.format = fmt != null ? JobRecordReader.Format.valueOf(fmt.toUpperCase(Locale.ROOT)) : JobRecordReader.guessFormat(file);
+        this.out = Paths.get(opts.getOrDefault("out", "duplicates.csv"));
+        this.threshold = opts.has("threshold")
+                ? opts.getInt("threshold", 70) / 100.0
+                : NearDuplicateIndex.warnSimilarity();
+    }
+
+    void run() throws IOException {
+        if (!Files.isRegularFile(file)) throw new IllegalArgumentException("No such file: " + file);
+
+        long start = System.nanoTime();
+        BatchDeduplicator dedup = new BatchDeduplicator();
+        long read = 0;
+        try (JobRecordReader reader = new JobRecordReader(file, format)) {
+            Map<String, Object> record;
+            while ((record = reader.next()) != null) {
+                read++;
+                Object id = record.get("jobId");
+                if (id == null || id.toString().isBlank()) continue;
+                String title = text(record.get("title"));
+                dedup.add(id.toString(), title, timestamp(record.get("timestamp")),
+                        MinHash.signature(title, text(record.get("description"))));
+                if (read % 100_000 == 0) {
+                    System.out.printf("[dedup] read %d records in %.1fs%n", read, (System.nanoTime() - start) / 1e9);
+                }
+            }
+        }
+        double readSecs = (System.nanoTime() - start) / 1e9;
+
+        long t = System.nanoTime();
+        List<BatchDeduplicator.Duplicate> duplicates = dedup.run(threshold);
+        double groupSecs = (System.nanoTime() - t) / 1e9;
+
+        try (BufferedWriter w = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            w.write("jobId,duplicateOf,similarity,title\n");
+            StringBuilder sb = new StringBuilder();
+            for (BatchDeduplicator.Duplicate d : duplicates) {
+                sb.setLength(0);
+                JobRowWriter.appendCsv(sb, d.jobId());
+                sb.append(',');
+                JobRowWriter.appendCsv(sb, d.duplicateOf());
+                sb.append(',').append(String.format(Locale.ROOT, "%.2f", d.similarity())).append(',');
+                JobRowWriter.appendCsv(sb, d.title() != null ? d.title() : "");
+                w.write(sb.append('\n').toString());
+            }
+        }
+        System.out.printf("[dedup] %d records (%d with text) signed in %.1fs, grouped in %.1fs with %d comparisons; %d duplicate(s) at >= %.0f%% written to %s%n",
+                read, dedup.size(), readSecs, groupSecs, dedup.comparisons(), duplicates.size(), threshold * 100, out);
+    }
+
+    private static String text(Object v) {
+        return v != null ? v.toString() : null;
+    }
+
+    private static long timestamp(Object v) {
+        if (v instanceof Number n) return n.longValue();
+        try {
+            return v != null ? Long.parseLong(v.toString()) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
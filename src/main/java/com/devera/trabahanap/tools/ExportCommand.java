@@ -0,0 +1,249 @@
+package com.devera.trabahanap.tools;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.service.FirestoreCodec;
+import com.devera.trabahanap.service.FirestoreDocuments;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streaming export of the jobs collection to CSV or JSON Lines.
+ *
+ * The collection is read page by page with runQuery ordered by document name, so memory use
+ * is bounded by the page size no matter how many documents exist. With --partitions N the
+ * key space is split with partitionQuery and the ranges are exported in parallel, each to its
+ * own part file.
+ *
+ * Progress is checkpointed after every page in "<out>.cursor.json" (last exported document
+ * and durable byte length per partition); --resume continues from there without duplicating
+ * or losing rows.
+ *
+ * Options:
+ *  --out <path>         output file (required); a .gz suffix or --gzip compresses
+ *  --format csv|jsonl   default from the file name
+ *  --page-size <n>      documents per runQuery page (default 1000)
+ *  --partitions <n>     parallel ranges (default 1)
+ *  --resume             continue a previous run using the cursor file
+ */
+final class ExportCommand {
+
+    private static final String JOBS_COLLECTION = "jobs";
+    private static final Gson prettyGson = new GsonBuilder().setPrettyPrinting().create();
+
+    private final FirestoreDocuments documents;
+    private final Path out;
+    private final Path cursorFile;
+    private final JobRecordReader.Format format;
+    private final boolean gzip;
+    private final int pageSize;
+    private final int partitions;
+    private final boolean resume;
+
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private JsonArray cursorState;
+
+    ExportCommand(String projectId, CliArgs opts) {
+        this.documents = new FirestoreDocuments(projectId);
+        this.out = Paths.get(opts.require("out"));
+        this.cursorFile = out.resolveSibling(out.getFileName() + ".cursor.json");
+        String fmt = opts.get("format");
+        this.format = fmt != null ? JobRecordReader.Format.valueOf(fmt.toUpperCase(Locale.ROOT)) : JobRecordReader.guessFormat(out);
+        this.gzip = opts.has("gzip") || out.getFileName().toString().endsWith(".gz");
+        this.pageSize = Math.max(1, opts.getInt("page-size", 1000));
+        this.partitions = Math.max(1, opts.getInt("partitions", 1));
+        this.resume = opts.has("resume");
+    }
+
+    void run() throws Exception {
+        cursorState = resume && Files.exists(cursorFile) ? loadCursor() : planPartitions();
+
+        long start = System.nanoTime();
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "export-progress");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(() -> report("progress", start), 5, 5, TimeUnit.SECONDS);
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(cursorState.size(), 16));
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < cursorState.size(); i++) {
+                JsonObject part = cursorState.get(i).getAsJsonObject();
+                if (part.has("done") && part.get("done").getAsBoolean()) continue;
+                tasks.add(pool.submit(() -> {
+                    exportPartition(part);
+                    return null;
+                }));
+            }
+            for (Future<?> f : tasks) f.get();
+        } finally {
+            pool.shutdownNow();
+            reporter.shutdownNow();
+        }
+        report("done", start);
+    }
+
+    /**
+     * Initial cursor state: one entry per key range.
+     */
+    private JsonArray planPartitions() throws Exception {
+        List<String> bounds = new ArrayList<>();
+        if (partitions > 1) {
+            try {
+                String token = FirestoreDocuments.obtainAccessToken();
+                for (JsonObject cursor : documents.partitionQuery(baseQuery(), partitions - 1, token).get()) {
+                    bounds.add(cursor.getAsJsonArray("values").get(0).getAsJsonObject().get("referenceValue").getAsString());
+                }
+            } catch (Exception e) {
+                System.err.println("[export] partitionQuery unavailable, exporting sequentially: " + e.getMessage());
+                bounds.clear();
+            }
+        }
+
+        JsonArray state = new JsonArray();
+        int n = bounds.size() + 1;
+        for (int i = 0; i < n; i++) {
+            JsonObject part = new JsonObject();
+            part.addProperty("file", n == 1 ? out.toString() : partPath(i).toString());
+            if (i > 0) part.addProperty("start", bounds.get(i - 1));
+            if (i < bounds.size()) part.addProperty("end", bounds.get(i));
+            part.addProperty("bytes", 0L);
+            part.addProperty("rows", 0L);
+            part.addProperty("done", false);
+            state.add(part);
+        }
+        saveCursor(state);
+        return state;
+    }
+
+    private void exportPartition(JsonObject part) throws Exception {
+        Path file = Paths.get(part.get("file").getAsString());
+        long resumeAt;
+        synchronized (this) {
+            resumeAt = part.get("bytes").getAsLong();
+        }
+        JobRowWriter rowWriter = new JobRowWriter(format);
+
+        try (ExportPartWriter writer = new ExportPartWriter(file, gzip, resumeAt)) {
+            if (resumeAt == 0 && rowWriter.header() != null) writer.write(rowWriter.header());
+
+            String last = part.has("last") ? part.get("last").getAsString() : null;
+            while (true) {
+                JsonObject query = baseQuery();
+                query.addProperty("limit", pageSize);
+                if (last != null) {
+                    query.add("startAt", cursor(last, false));
+                } else if (part.has("start")) {
+                    query.add("startAt", cursor(part.get("start").getAsString(), true));
+                }
+                if (part.has("end")) query.add("endAt", cursor(part.get("end").getAsString(), true));
+
+                String token = FirestoreDocuments.obtainAccessToken();
+                List<JsonObject> docs = documents.runQuery(query, token).get();
+                for (JsonObject doc : docs) {
+                    String name = doc.get("name").getAsString();
+                    JsonObject fields = doc.has("fields") ? doc.getAsJsonObject("fields") : null;
+                    Job job = Job.fromMap(FirestoreCodec.documentId(name), FirestoreCodec.decodeFields(fields));
+                    writer.write(rowWriter.row(job));
+                    last = name;
+                }
+                long length = writer.checkpoint();
+                rows.addAndGet(docs.size());
+
+                boolean done = docs.size() < pageSize;
+                synchronized (this) {
+                    bytes.addAndGet(length - part.get("bytes").getAsLong());
+                    part.addProperty("bytes", length);
+                    part.addProperty("rows", part.get("rows").getAsLong() + docs.size());
+                    if (last != null) part.addProperty("last", last);
+                    part.addProperty("done", done);
+                    saveCursor(cursorState);
+                }
+                if (done) return;
+            }
+        }
+    }
+
+    private JsonObject baseQuery() {
+        JsonObject from = new JsonObject();
+        from.addProperty("collectionId", JOBS_COLLECTION);
+        JsonArray fromArr = new JsonArray();
+        fromArr.add(from);
+
+        JsonObject field = new JsonObject();
+        field.addProperty("fieldPath", "__name__");
+        JsonObject order = new JsonObject();
+        order.add("field", field);
+        order.addProperty("direction", "ASCENDING");
+        JsonArray orderBy = new JsonArray();
+        orderBy.add(order);
+
+        JsonObject q = new JsonObject();
+        q.add("from", fromArr);
+        q.add("orderBy", orderBy);
+        return q;
+    }
+
+    private static JsonObject cursor(String documentName, boolean before) {
+        JsonObject ref = new JsonObject();
+        ref.addProperty("referenceValue", documentName);
+        JsonArray values = new JsonArray();
+        values.add(ref);
+        JsonObject c = new JsonObject();
+        c.add("values", values);
+        c.addProperty("before", before);
+        return c;
+    }
+
+    private Path partPath(int index) {
+        String name = out.getFileName().toString();
+        int dot = name.indexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String ext = dot > 0 ? name.substring(dot) : "";
+        return out.resolveSibling(String.format(Locale.ROOT, "%s-part%02d%s", base, index, ext));
+    }
+
+    private JsonArray loadCursor() throws IOException {
+        JsonObject root = prettyGson.fromJson(Files.readString(cursorFile, StandardCharsets.UTF_8), JsonObject.class);
+        JsonArray state = root.getAsJsonArray("partitions");
+        long done = 0;
+        for (var el : state) done += el.getAsJsonObject().get("rows").getAsLong();
+        System.out.println("[export] Resuming: " + done + " row(s) already exported");
+        return state;
+    }
+
+    /**
+     * Atomically replace the cursor file (temp file + rename).
+     */
+    private void saveCursor(JsonArray state) throws IOException {
+        JsonObject root = new JsonObject();
+        root.addProperty("format", format.name());
+        root.addProperty("gzip", gzip);
+        root.add("partitions", state);
+        Path tmp = cursorFile.resolveSibling(cursorFile.getFileName() + ".tmp");
+        Files.writeString(tmp, prettyGson.toJson(root), StandardCharsets.UTF_8);
+        Files.move(tmp, cursorFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void report(String label, long startNanos) {
+        double secs = Math.max(1e-3, (System.nanoTime() - startNanos) / 1e9);
+        System.out.printf("[export] %s: rows=%d written=%.1f MB elapsed=%.1fs rate=%.0f docs/s (%.1f MB/s)%n",
+                label, rows.get(), bytes.get() / 1e6, secs, rows.get() / secs, bytes.get() / 1e6 / secs);
+    }
+}
@@ -0,0 +1,92 @@
+package com.devera.trabahanap.tools;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Output file for one export partition, written so it can be resumed exactly.
+ *
+ * checkpoint() makes everything written so far durable and returns the file length. With
+ * gzip each checkpoint closes the current gzip member (concatenated members are a valid
+ * gzip stream), so on resume the file is truncated to the last checkpoint length and new
+ * members are appended without leaving a torn stream behind.
+ */
+final class ExportPartWriter implements Closeable {
+
+    private final FileOutputStream file;
+    private final boolean gzip;
+    private Writer writer;
+    private GZIPOutputStream member;
+
+    /**
+     * @param resumeAt length recorded at the last checkpoint; the file is cut back to it
+     */
+    ExportPartWriter(Path path, boolean gzip, long resumeAt) throws IOException {
+        if (resumeAt > 0 && Files.exists(path)) {
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                ch.truncate(resumeAt);
+            }
+        } else {
+            Files.deleteIfExists(path);
+        }
+        this.file = new FileOutputStream(path.toFile(), true);
+        this.gzip = gzip;
+    }
+
+    void write(String text) throws IOException {
+        if (writer == null) {
+            OutputStream out = new BufferedOutputStream(new NonClosing(file), 1 << 16);
+            if (gzip) {
+                member = new GZIPOutputStream(out, 1 << 16);
+                out = member;
+            }
+            writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        }
+        writer.write(text);
+    }
+
+    /**
+     * Flush and fsync; returns the durable file length.
+     */
+    long checkpoint() throws IOException {
+        if (writer != null) {
+            writer.flush();
+            if (member != null) member.finish();
+            writer.close(); // closes the buffer only; the file stays open
+            writer = null;
+            member = null;
+        }
+        file.getFD().sync();
+        return file.getChannel().size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        checkpoint();
+        file.close();
+    }
+
+    /**
+     * Lets a gzip member / buffered writer be closed without closing the shared file.
+     */
+    private static final class NonClosing extends FilterOutputStream {
+        NonClosing(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.devera.trabahanap.tools;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.geo.Gazetteer;
+import com.devera.trabahanap.service.DocumentIds;
+import com.devera.trabahanap.service.FirestoreCodec;
+import com.devera.trabahanap.service.FirestoreDocuments;
+import com.devera.trabahanap.service.FirestoreHttpException;
+import com.devera.trabahanap.service.JobService;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk job import: streams CSV/JSONL records into the jobs collection with documents:batchWrite.
+ *
+ * Records are converted with Job.fromMap / FirestoreCodec.encodeJob and get status "open" and
+ * an expiresAt unless they carry them, exactly like jobs posted from the app. Each write creates the document with an exists=false precondition, so an
+ * input that carries jobId values can be re-run safely; rows without jobId get a fresh id.
+ *
+ * At most in-flight batches are outstanding at once (the reader blocks until a slot frees up),
+ * which bounds memory to roughly in-flight x batch-size records. Writes that fail with a
+ * retryable per-document status are resent alone with backoff, up to max-retries times.
+ *
+ * Options:
+ *  --file <path>        input file (required, .gz allowed)
+ *  --format csv|jsonl   default from the file name
+ *  --batch-size <n>     writes per batchWrite, max 500 (default 500)
+ *  --in-flight <n>      concurrent batchWrite requests (default 8)
+ *  --max-retries <n>    resend attempts for retryable per-document failures (default 5)
+ */
+final class ImportCommand {
+
+    private static final String JOBS_COLLECTION = "jobs";
+    private static final int MAX_BATCH = 500;
+    private static final int MAX_LOGGED_ERRORS = 20;
+
+    private final FirestoreDocuments documents;
+    private final Path file;
+    private final JobRecordReader.Format format;
+    private final int batchSize;
+    private final int inFlight;
+    private final int maxRetries;
+
+    private final Semaphore slots;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong existing = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicInteger loggedErrors = new AtomicInteger();
+
+    ImportCommand(String projectId, CliArgs opts) {
+        this.documents = new FirestoreDocuments(projectId);
+        this.file = Paths.get(opts.require("file"));
+        String fmt = opts.get("format");
+        this.format = fmt != null ? JobRecordReader.Format.valueOf(fmt.toUpperCase()) : JobRecordReader.guessFormat(file);
+        this.batchSize = Math.max(1, Math.min(MAX_BATCH, opts.getInt("batch-size", MAX_BATCH)));
+        this.inFlight = Math.max(1, opts.getInt("in-flight", 8));
+        this.maxRetries = Math.max(0, opts.getInt("max-retries", 5));
+        this.slots = new Semaphore(inFlight);
+    }
+
+    void run() throws Exception {
+        if (!Files.isRegularFile(file)) throw new IllegalArgumentException("No such file: " + file);
+
+        long start = System.nanoTime();
+        AtomicLong read = new AtomicLong();
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "import-progress");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(() -> report("progress", read.get(), start), 5, 5, TimeUnit.SECONDS);
+
+        try (JobRecordReader reader = new JobRecordReader(file, format)) {
+            List<JsonObject> batch = new ArrayList<>(batchSize);
+            Map<String, Object> record;
+            while ((record = reader.next()) != null) {
+                read.incrementAndGet();
+                Object id = record.get("jobId");
+                Job job = Job.fromMap(id != null && !id.toString().isBlank() ? id.toString() : DocumentIds.newId(), record);
+                if (job.getTimestamp() <= 0) job.setTimestamp(Instant.now().toEpochMilli());
+                if (job.getImageKey() == null) job.setImageKey(job.getCategory());
+                JobService.stampLifecycle(job);
+
+                Gazetteer.get().locate(job);
+                batch.add(documents.createWrite(JOBS_COLLECTION, job.getJobId(), FirestoreCodec.encodeJob(job)));
+                if (batch.size() == batchSize) {
+                    submit(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) submit(batch);
+        }
+
+        // Wait for every outstanding batch (each holds one slot until fully resolved)
+        slots.acquire(inFlight);
+        reporter.shutdownNow();
+        report("done", read.get(), start);
+        if (failed.get() > 0) {
+            throw new IllegalStateException(failed.get() + " document(s) could not be imported");
+        }
+    }
+
+    private void submit(List<JsonObject> writes) throws InterruptedException {
+        slots.acquire();
+        send(writes, 0);
+    }
+
+    private void send(List<JsonObject> writes, int attempt) {
+        String token;
+        try {
+            token = FirestoreDocuments.obtainAccessToken();
+        } catch (Exception e) {
+            recordFailure(writes, e.getMessage());
+            slots.release();
+            return;
+        }
+
+        JsonArray arr = new JsonArray();
+        writes.forEach(arr::add);
+
+        documents.batchWrite(arr, token).whenComplete((resp, err) -> {
+            List<JsonObject> retry = new ArrayList<>();
+            if (err != null) {
+                Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+                if (cause instanceof FirestoreHttpException fe && fe.isPermanent()) {
+                    recordFailure(writes, cause.getMessage());
+                    slots.release();
+                    return;
+                }
+                retry.addAll(writes);
+            } else {
+                JsonArray statuses = resp.has("status") ? resp.getAsJsonArray("status") : new JsonArray();
+                for (int i = 0; i < writes.size(); i++) {
+                    JsonObject st = i < statuses.size() ? statuses.get(i).getAsJsonObject() : new JsonObject();
+                    int code = st.has("code") ? st.get("code").getAsInt() : 0;
+                    switch (code) {
+                        case 0 -> written.incrementAndGet();
+                        // ALREADY_EXISTS / FAILED_PRECONDITION: an earlier run already created it
+                        case 6, 9 -> existing.incrementAndGet();
+                        // DEADLINE_EXCEEDED, RESOURCE_EXHAUSTED, ABORTED, INTERNAL, UNAVAILABLE
+                        case 4, 8, 10, 13, 14 -> retry.add(writes.get(i));
+                        default -> recordFailure(List.of(writes.get(i)), message(st));
+                    }
+                }
+            }
+
+            if (retry.isEmpty()) {
+                slots.release();
+            } else if (attempt < maxRetries) {
+                retried.addAndGet(retry.size());
+                long delay = Math.min(30_000L, 500L << Math.min(attempt, 10));
+                delay = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+                CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(() -> send(retry, attempt + 1));
+            } else {
+                recordFailure(retry, err != null ? err.getMessage() : "retries exhausted");
+                slots.release();
+            }
+        });
+    }
+
+    private void recordFailure(List<JsonObject> writes, String reason) {
+        failed.addAndGet(writes.size());
+        if (loggedErrors.getAndIncrement() < MAX_LOGGED_ERRORS) {
+            String name = writes.get(0).getAsJsonObject("update").get("name").getAsString();
+            System.err.println("[import] " + writes.size() + " write(s) failed starting at "
+                    + FirestoreCodec.documentId(name) + ": " + reason);
+        }
+    }
+
+    private static String message(JsonObject status) {
+        JsonElement m = status.get("message");
+        return "code " + (status.has("code") ? status.get("code").getAsInt() : -1) + (m != null ? " " + m.getAsString() : "");
+    }
+
+    private void report(String label, long read, long startNanos) {
+        double secs = Math.max(1e-3, (System.nanoTime() - startNanos) / 1e9);
+        long done = written.get() + existing.get();
+        System.out.printf("[import] %s: read=%d written=%d existing=%d failed=%d retried=%d elapsed=%.1fs rate=%.0f docs/s%n",
+                label, read, written.get(), existing.get(), failed.get(), retried.get(), secs, done / secs);
+    }
+}
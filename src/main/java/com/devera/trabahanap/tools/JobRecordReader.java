@@ -0,0 +1,171 @@
+package com.devera.trabahanap.tools;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Streaming reader for job records in CSV (with header row) or JSON Lines.
+ *
+ * Records are returned one at a time as Maps shaped like Job.toMap(), so only the current
+ * record is held in memory regardless of file size. A ".gz" suffix is decompressed on the fly.
+ *
+ * CSV specifics: RFC 4180 quoting (embedded commas, quotes and newlines), numeric
+ * budgetMin/budgetMax/timestamp columns, and skills separated by ';' or '|'.
+ */
+final class JobRecordReader implements Closeable {
+
+    enum Format { CSV, JSONL }
+
+    private static final Gson gson = new Gson();
+    private static final Type MAP_TYPE = new TypeToken<Map<String, Object>>() {}.getType();
+
+    private final BufferedReader reader;
+    private final Format format;
+    private List<String> header;
+    private long lineNo;
+
+    JobRecordReader(Path file, Format format) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        if (file.getFileName().toString().endsWith(".gz")) in = new GZIPInputStream(in, 1 << 16);
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+        this.format = format;
+    }
+
+    /**
+     * CSV unless the name contains ".jsonl" or ".ndjson".
+     */
+    static Format guessFormat(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.contains(".jsonl") || name.contains(".ndjson") ? Format.JSONL : Format.CSV;
+    }
+
+    /**
+     * Next record, or null at end of input.
+     */
+    Map<String, Object> next() throws IOException {
+        return format == Format.JSONL ? nextJson() : nextCsv();
+    }
+
+    long getLineNumber() {
+        return lineNo;
+    }
+
+    private Map<String, Object> nextJson() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) continue;
+            Map<String, Object> m = gson.fromJson(line, MAP_TYPE);
+            if (m != null) return m;
+        }
+        return null;
+    }
+
+    private Map<String, Object> nextCsv() throws IOException {
+        if (header == null) {
+            header = readCsvRow();
+            if (header == null) return null;
+            if (!header.isEmpty()) header.set(0, header.get(0).replace("﻿", "").trim());
+        }
+        List<String> row;
+        do {
+            row = readCsvRow();
+            if (row == null) return null;
+        } while (row.size() == 1 && row.get(0).isBlank());
+
+        Map<String, Object> m = new HashMap<>();
+        for (int i = 0; i < header.size() && i < row.size(); i++) {
+            String key = header.get(i).trim();
+            String value = row.get(i);
+            if (key.isEmpty() || value == null || value.isEmpty()) continue;
+            switch (key) {
+                case "budgetMin", "budgetMax" -> m.put(key, parseDouble(value));
+                case "timestamp", "maxApplicants" -> m.put(key, parseLong(value));
+                case "skills" -> {
+                    List<String> skills = new ArrayList<>();
+                    for (String s : value.split("[;|]")) {
+                        if (!s.isBlank()) skills.add(s.trim());
+                    }
+                    m.put(key, skills);
+                }
+                default -> m.put(key, value);
+            }
+        }
+        return m;
+    }
+
+    /**
+     * One CSV record; quoted fields may span lines. Null at end of input.
+     */
+    private List<String> readCsvRow() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int n = reader.read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (n != -1) reader.reset();
+                    }
+                } else {
+                    if (c == '\n') lineNo++;
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                lineNo++;
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!any) return null;
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private Object parseDouble(String v) {
+        try {
+            return Double.parseDouble(v.replace(",", "").replace("₱", "").trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Object parseLong(String v) {
+        try {
+            return Long.parseLong(v.trim());
+        } catch (NumberFormatException e) {
+            try {
+                return java.time.Instant.parse(v.trim()).toEpochMilli();
+            } catch (java.time.format.DateTimeParseException ignored) {
+                return v;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,79 @@
+package com.devera.trabahanap.tools;
+
+import com.devera.trabahanap.core.Job;
+import com.google.gson.Gson;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formats jobs as CSV or JSON Lines rows for export.
+ *
+ * CSV columns mirror the import format (header row, skills joined with ';'), so an export
+ * can be fed straight back into the import command.
+ */
+final class JobRowWriter {
+
+    static final String[] CSV_COLUMNS = {
+            "jobId", "title", "companyName", "location", "description", "salaryRange", "postedByUserId",
+            "timestamp", "budgetMin", "budgetMax", "categoryDisplay", "category", "imageKey", "skills",
+            "experienceLevel", "maxApplicants"
+    };
+
+    private static final Gson gson = new Gson();
+
+    private final JobRecordReader.Format format;
+
+    JobRowWriter(JobRecordReader.Format format) {
+        this.format = format;
+    }
+
+    /**
+     * Header line (with trailing newline), or null when the format has none.
+     */
+    String header() {
+        return format == JobRecordReader.Format.CSV ? String.join(",", CSV_COLUMNS) + "\n" : null;
+    }
+
+    /**
+     * One row including the trailing newline.
+     */
+    String row(Job job) {
+        Map<String, Object> m = job.toMap();
+        m.put("jobId", job.getJobId());
+        if (format == JobRecordReader.Format.JSONL) {
+            return gson.toJson(m) + "\n";
+        }
+        StringBuilder sb = new StringBuilder(256);
+        for (int i = 0; i < CSV_COLUMNS.length; i++) {
+            if (i > 0) sb.append(',');
+            Object v = m.get(CSV_COLUMNS[i]);
+            if (v instanceof List<?> list) {
+                StringBuilder joined = new StringBuilder();
+                for (Object o : list) {
+                    if (joined.length() > 0) joined.append(';');
+                    joined.append(o);
+                }
+                v = joined.toString();
+            }
+            appendCsv(sb, v != null ? v.toString() : "");
+        }
+        return sb.append('\n').toString();
+    }
+
+    static void appendCsv(StringBuilder sb, String value) {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            sb.append(value);
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') sb.append('"');
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+}
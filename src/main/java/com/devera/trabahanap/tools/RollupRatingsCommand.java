@@ -0,0 +1,93 @@
+package com.devera.trabahanap.tools;
+
+import com.devera.trabahanap.service.FirestoreCodec;
+import com.devera.trabahanap.service.FirestoreDocuments;
+import com.devera.trabahanap.service.RatingService;
+import com.devera.trabahanap.service.RatingSummary;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.*;
+
+/**
+ * Rolls up every job's rating shards into its ratingCount / ratingAverage fields.
+ *
+ * The app only rolls up jobs rated from that desktop; this catches up everything else (e.g.
+ * after ratings.rollupMs was raised, or ratings written by other clients). One
+ * collection-group query reads all jobs/{jobId}/ratingShards documents; the totals are
+ * written with documents:batchWrite, 500 jobs per request. Jobs that no longer exist are
+ * reported and skipped (the update needs the job to exist).
+ *
+ * Options:
+ *  --dry-run   print the totals without writing
+ */
+final class RollupRatingsCommand {
+
+    private static final int MAX_BATCH = 500;
+
+    private final FirestoreDocuments documents;
+    private final boolean dryRun;
+
+    RollupRatingsCommand(String projectId, CliArgs opts) {
+        this.documents = new FirestoreDocuments(projectId);
+        this.dryRun = opts.has("dry-run");
+    }
+
+    void run() throws Exception {
+        String token = FirestoreDocuments.obtainAccessToken();
+        long start = System.nanoTime();
+
+        JsonObject from = new JsonObject();
+        from.addProperty("collectionId", "ratingShards");
+        from.addProperty("allDescendants", true);
+        JsonArray fromArr = new JsonArray();
+        fromArr.add(from);
+        JsonObject query = new JsonObject();
+        query.add("from", fromArr);
+        List<JsonObject> shardDocs = documents.runQuery(query, token).join();
+
+        // .../documents/jobs/{jobId}/ratingShards/{n} -> jobId
+        Map<String, List<JsonObject>> byJob = new LinkedHashMap<>();
+        String prefix = documents.documentName("jobs", "");
+        for (JsonObject doc : shardDocs) {
+            String name = doc.get("name").getAsString();
+            if (!name.startsWith(prefix)) continue;
+            String rest = name.substring(prefix.length());
+            int slash = rest.indexOf('/');
+            if (slash <= 0) continue;
+            byJob.computeIfAbsent(rest.substring(0, slash), k -> new ArrayList<>()).add(doc);
+        }
+
+        long written = 0, missing = 0;
+        List<String> jobIds = new ArrayList<>(byJob.keySet());
+        for (int i = 0; i < jobIds.size(); i += MAX_BATCH) {
+            List<String> chunk = jobIds.subList(i, Math.min(jobIds.size(), i + MAX_BATCH));
+            JsonArray writes = new JsonArray();
+            for (String jobId : chunk) {
+                RatingSummary totals = RatingService.totals(byJob.get(jobId));
+                if (dryRun) {
+                    System.out.printf(Locale.ROOT, "%s: %d rating(s), average %.2f%n", jobId, totals.count(), totals.average());
+                    continue;
+                }
+                writes.add(documents.updateWrite("jobs", jobId,
+                        FirestoreCodec.encodeFields(RatingService.fields(totals)), null));
+            }
+            if (dryRun) continue;
+            JsonObject resp = documents.batchWrite(writes, token).join();
+            JsonArray statuses = resp.has("status") ? resp.getAsJsonArray("status") : new JsonArray();
+            for (int w = 0; w < chunk.size(); w++) {
+                JsonElement st = w < statuses.size() ? statuses.get(w) : null;
+                int code = st != null && st.getAsJsonObject().has("code") ? st.getAsJsonObject().get("code").getAsInt() : 0;
+                if (code == 0) {
+                    written++;
+                } else {
+                    missing++;
+                    System.err.println("[rollup-ratings] " + chunk.get(w) + " not updated (code " + code + ")");
+                }
+            }
+        }
+        System.out.printf("[rollup-ratings] %d shard document(s) of %d job(s) read; %d job(s) updated, %d skipped%s in %.1fs%n",
+                shardDocs.size(), byJob.size(), written, missing, dryRun ? " (dry run)" : "", (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,40 @@
+package com.devera.trabahanap.tools;
+
+import com.devera.trabahanap.service.FirestoreDocuments;
+import com.devera.trabahanap.service.JobSweeper;
+import com.devera.trabahanap.system.AppPaths;
+
+/**
+ * Runs one {@link JobSweeper} sweep: moves expired and closed jobs from jobs to jobs_archive,
+ * and gives older open jobs the status and expiresAt the app's job list query needs.
+ *
+ * Shares the app's checkpoint (sweeper-checkpoint.json in the data dir), so a sweep that was
+ * interrupted, here or in the app, resumes where it stopped.
+ *
+ * Options:
+ *  --dry-run          count the jobs that would be archived without writing
+ *  --page-size <n>    jobs read per query (default 300)
+ *  --batch <n>        jobs archived per commit, at most 250 (default 100)
+ */
+final class SweepJobsCommand {
+
+    private final JobSweeper sweeper;
+    private final boolean dryRun;
+    private final int pageSize;
+    private final int batch;
+
+    SweepJobsCommand(String projectId, CliArgs opts) {
+        this.sweeper = new JobSweeper(new FirestoreDocuments(projectId), AppPaths.resolve("sweeper-checkpoint.json"));
+        this.dryRun = opts.has("dry-run");
+        this.pageSize = Math.max(1, opts.getInt("page-size", JobSweeper.DEFAULT_PAGE_SIZE));
+        this.batch = Math.max(1, opts.getInt("batch", JobSweeper.DEFAULT_BATCH));
+    }
+
+    void run() throws Exception {
+        long start = System.nanoTime();
+        JobSweeper.SweepResult r = sweeper.sweep(pageSize, batch, dryRun);
+        System.out.printf("[sweep-jobs] %d job(s) scanned, %d expired or closed; %d archived, %d skipped, %d given an expiry%s%s in %.1fs%n",
+                r.scanned(), r.expired(), r.archived(), r.skipped(), r.stamped(), r.resumed() ? " (resumed)" : "",
+                dryRun ? " (dry run)" : "", (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,43 @@
+package com.devera.trabahanap.trending;
+
+/**
+ * Count-min sketch over 64-bit keys with double counters: a fixed-size table that never
+ * underestimates a key's total and overestimates by at most a small share of the overall
+ * mass. Counters can be scaled all at once, which is how decay is applied. Not thread-safe.
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final double[] counters;
+
+    /**
+     * @param depth rows (independent hashes)
+     * @param width counters per row, rounded up to a power of two
+     */
+    CountMinSketch(int depth, int width) {
+        this.depth = depth;
+        int w = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.mask = w - 1;
+        this.counters = new double[depth * w];
+    }
+
+    void add(long key, double amount) {
+        for (int row = 0; row < depth; row++) counters[index(row, key)] += amount;
+    }
+
+    double estimate(long key) {
+        double min = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) min = Math.min(min, counters[index(row, key)]);
+        return min;
+    }
+
+    void scale(double factor) {
+        for (int i = 0; i < counters.length; i++) counters[i] *= factor;
+    }
+
+    private int index(int row, long key) {
+        long h = TrendingEngine.mix(key + 0x9E3779B97F4A7C15L * (row + 1));
+        return row * (mask + 1) + (int) (h & mask);
+    }
+}
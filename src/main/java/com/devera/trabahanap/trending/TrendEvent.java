@@ -0,0 +1,23 @@
+package com.devera.trabahanap.trending;
+
+/**
+ * User interactions that make a job trend, with how much each one counts.
+ */
+public enum TrendEvent {
+    /** A job card was clicked. */
+    CLICK(1.0),
+    /** The job details page was shown. */
+    VIEW(1.0),
+    /** "Apply for Job" was pressed. */
+    APPLY(5.0);
+
+    private final double weight;
+
+    TrendEvent(double weight) {
+        this.weight = weight;
+    }
+
+    public double weight() {
+        return weight;
+    }
+}
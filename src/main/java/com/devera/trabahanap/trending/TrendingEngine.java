@@ -0,0 +1,335 @@
+package com.devera.trabahanap.trending;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Trending jobs from click / view / apply events, with exponentially time-decayed scores
+ * (a job's score halves every {@code halfLife} without new events).
+ *
+ * Scores use forward decay: an event at time t adds weight * e^(lambda * (t - epoch)), so a
+ * stored score never has to be touched just because time passed, and the order between
+ * jobs only changes when one of them gets an event. Reading divides by e^(lambda * (now -
+ * epoch)); when the exponent grows large everything is rescaled once and epoch moves up.
+ *
+ * Storage:
+ *  - the tracked jobs live in an open-addressing table of 64-bit job-id hashes to doubles
+ *  - when the table fills up, its weaker half is evicted into a {@link CountMinSketch}, so
+ *    a long-tail job that comes back keeps (an estimate of) its earlier score
+ *  - a min-heap of the best {@code k} jobs is updated on every event (scores only grow, so
+ *    an event either moves a member down the heap or may replace the root); {@link #top}
+ *    copies it in O(k log k) without looking at the table
+ *
+ * Thread-safe.
+ */
+public final class TrendingEngine {
+
+    /** Default half-life: a day-old view counts half as much as one just now. */
+    public static final Duration DEFAULT_HALF_LIFE = Duration.ofHours(24);
+
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+    private static final int DEFAULT_K = 64;
+    // Rescale before e^x gets anywhere near overflow
+    private static final double MAX_EXPONENT = 40;
+
+    private static final TrendingEngine instance =
+            new TrendingEngine(DEFAULT_HALF_LIFE, DEFAULT_CAPACITY, DEFAULT_K);
+
+    private final double lambda;
+    private final int capacity;
+    private final CountMinSketch tail;
+    private long epochMillis = Long.MIN_VALUE;
+
+    // Tracked jobs: hash (0 = empty slot) -> forward-decayed score
+    private long[] keys;
+    private double[] scores;
+    private int size;
+
+    // Min-heap of the best jobs, weakest at index 0
+    private final long[] heapKeys;
+    private final String[] heapIds;
+    private final double[] heapScores;
+    private int heapSize;
+
+    /**
+     * @param halfLife time for a score to halve
+     * @param capacity jobs tracked exactly before the weaker half moves to the sketch
+     * @param k        size of the maintained top list
+     */
+    public TrendingEngine(Duration halfLife, int capacity, int k) {
+        this.lambda = Math.log(2) / Math.max(1, halfLife.toMillis());
+        this.capacity = Math.max(16, capacity);
+        int slots = Integer.highestOneBit(this.capacity * 2 - 1) << 1;
+        this.keys = new long[slots];
+        this.scores = new double[slots];
+        this.tail = new CountMinSketch(4, this.capacity);
+        this.heapKeys = new long[k];
+        this.heapIds = new String[k];
+        this.heapScores = new double[k];
+    }
+
+    /**
+     * Shared engine fed by the job screens.
+     */
+    public static TrendingEngine get() {
+        return instance;
+    }
+
+    public void record(String jobId, TrendEvent event) {
+        record(jobId, event, System.currentTimeMillis());
+    }
+
+    public synchronized void record(String jobId, TrendEvent event, long atMillis) {
+        if (jobId == null || event == null) return;
+        if (epochMillis == Long.MIN_VALUE) epochMillis = atMillis;
+        if (lambda * (atMillis - epochMillis) > MAX_EXPONENT) rebase(atMillis);
+
+        long key = hash(jobId);
+        double amount = event.weight() * Math.exp(lambda * (atMillis - epochMillis));
+        int slot = find(key);
+        if (slot < 0) {
+            if (size >= capacity) {
+                evictWeakerHalf();
+            }
+            slot = insert(key);
+        }
+        scores[slot] += amount;
+        offer(key, jobId, scores[slot] + tail.estimate(key));
+    }
+
+    /**
+     * Up to limit trending jobs, highest score first.
+     */
+    public List<TrendingJob> top(int limit) {
+        return top(limit, System.currentTimeMillis());
+    }
+
+    public synchronized List<TrendingJob> top(int limit, long nowMillis) {
+        Integer[] order = new Integer[heapSize];
+        for (int i = 0; i < heapSize; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(heapScores[b], heapScores[a]));
+        double scale = epochMillis == Long.MIN_VALUE ? 1 : Math.exp(-lambda * (nowMillis - epochMillis));
+        List<TrendingJob> out = new ArrayList<>(Math.min(limit, heapSize));
+        for (int i = 0; i < order.length && out.size() < limit; i++) {
+            out.add(new TrendingJob(heapIds[order[i]], heapScores[order[i]] * scale));
+        }
+        return out;
+    }
+
+    /**
+     * Current decayed score of one job (estimated for long-tail jobs).
+     */
+    public synchronized double score(String jobId, long nowMillis) {
+        if (jobId == null || epochMillis == Long.MIN_VALUE) return 0;
+        long key = hash(jobId);
+        int slot = find(key);
+        double raw = (slot >= 0 ? scores[slot] : 0) + tail.estimate(key);
+        return raw * Math.exp(-lambda * (nowMillis - epochMillis));
+    }
+
+    /**
+     * Drop a job (e.g. deleted) from the table and the top list.
+     */
+    public synchronized void forget(String jobId) {
+        if (jobId == null) return;
+        long key = hash(jobId);
+        int slot = find(key);
+        if (slot >= 0) deleteSlot(slot);
+        for (int i = 0; i < heapSize; i++) {
+            if (heapKeys[i] == key) {
+                removeHeapAt(i);
+                break;
+            }
+        }
+    }
+
+    public synchronized int tracked() {
+        return size;
+    }
+
+    //--------------------------------------------------------------------------
+    // Top-k heap
+    //--------------------------------------------------------------------------
+
+    private void offer(long key, String jobId, double score) {
+        for (int i = 0; i < heapSize; i++) {
+            if (heapKeys[i] == key) {
+                heapScores[i] = score;
+                siftDown(i);
+                return;
+            }
+        }
+        if (heapSize < heapKeys.length) {
+            setHeap(heapSize, key, jobId, score);
+            siftUp(heapSize++);
+        } else if (heapKeys.length > 0 && score > heapScores[0]) {
+            setHeap(0, key, jobId, score);
+            siftDown(0);
+        }
+    }
+
+    private void removeHeapAt(int i) {
+        heapSize--;
+        if (i != heapSize) {
+            setHeap(i, heapKeys[heapSize], heapIds[heapSize], heapScores[heapSize]);
+            siftDown(i);
+            siftUp(i);
+        }
+        heapIds[heapSize] = null;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heapScores[parent] <= heapScores[i]) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapScores[child + 1] < heapScores[child]) child++;
+            if (heapScores[i] <= heapScores[child]) break;
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private void setHeap(int i, long key, String jobId, double score) {
+        heapKeys[i] = key;
+        heapIds[i] = jobId;
+        heapScores[i] = score;
+    }
+
+    private void swap(int a, int b) {
+        long k = heapKeys[a];
+        String id = heapIds[a];
+        double s = heapScores[a];
+        setHeap(a, heapKeys[b], heapIds[b], heapScores[b]);
+        setHeap(b, k, id, s);
+    }
+
+    private boolean inHeap(long key) {
+        for (int i = 0; i < heapSize; i++) {
+            if (heapKeys[i] == key) return true;
+        }
+        return false;
+    }
+
+    //--------------------------------------------------------------------------
+    // Score table (linear probing, backward-shift deletion)
+    //--------------------------------------------------------------------------
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        for (int i = (int) key & mask; ; i = (i + 1) & mask) {
+            if (keys[i] == key) return i;
+            if (keys[i] == 0) return -1;
+        }
+    }
+
+    private int insert(long key) {
+        int mask = keys.length - 1;
+        int i = (int) key & mask;
+        while (keys[i] != 0) i = (i + 1) & mask;
+        keys[i] = key;
+        scores[i] = 0;
+        size++;
+        return i;
+    }
+
+    private void deleteSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int i = (hole + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            int home = (int) keys[i] & mask;
+            // Move the entry back if the hole lies on its probe path
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                scores[hole] = scores[i];
+                hole = i;
+            }
+        }
+        keys[hole] = 0;
+        scores[hole] = 0;
+        size--;
+    }
+
+    /**
+     * Move every job scoring below the median (and not on the top list) into the sketch.
+     */
+    private void evictWeakerHalf() {
+        double[] live = new double[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) live[n++] = scores[i];
+        }
+        Arrays.sort(live, 0, n);
+        double median = live[n / 2];
+
+        long[] oldKeys = keys;
+        double[] oldScores = scores;
+        keys = new long[oldKeys.length];
+        scores = new double[oldScores.length];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key == 0) continue;
+            if (oldScores[i] < median && !inHeap(key)) {
+                tail.add(key, oldScores[i]);
+            } else {
+                scores[insert(key)] = oldScores[i];
+            }
+        }
+        // Ties at the median can keep the table full; then evict arbitrarily down to half
+        if (size >= capacity) {
+            for (int i = 0; i < keys.length && size > capacity / 2; i++) {
+                if (keys[i] != 0 && !inHeap(keys[i])) {
+                    tail.add(keys[i], scores[i]);
+                    deleteSlot(i);
+                    i--;
+                }
+            }
+        }
+    }
+
+    private void rebase(long nowMillis) {
+        double factor = Math.exp(-lambda * (nowMillis - epochMillis));
+        for (int i = 0; i < scores.length; i++) scores[i] *= factor;
+        for (int i = 0; i < heapSize; i++) heapScores[i] *= factor;
+        tail.scale(factor);
+        epochMillis = nowMillis;
+    }
+
+    //--------------------------------------------------------------------------
+    // Hashing
+    //--------------------------------------------------------------------------
+
+    /**
+     * 64-bit hash of a job id (FNV-1a, then mixed); never 0, which marks empty slots.
+     */
+    static long hash(String jobId) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : jobId.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h = mix(h);
+        return h != 0 ? h : 1;
+    }
+
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93e2ec1fe53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,6 @@
+package com.devera.trabahanap.trending;
+
+/**
+ * A job on the trending list with its decayed score at the time of the read.
+ */
+public record TrendingJob(String jobId, double score) {}
@@ -0,0 +1,68 @@
+package com.devera.trabahanap.util;
+
+import javafx.geometry.Side;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.CustomMenuItem;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Drop-down of suggestions under a TextField, refreshed on every keystroke.
+ *
+ * The source is called on the FX thread with the current text and must answer from memory
+ * (e.g. JobSuggester); choosing a suggestion replaces the field text.
+ */
+public final class SuggestionPopup {
+
+    private final TextField field;
+    private final Function<String, List<String>> source;
+    private final ContextMenu menu = new ContextMenu();
+    private boolean applying;
+
+    private SuggestionPopup(TextField field, Function<String, List<String>> source) {
+        this.field = field;
+        this.source = source;
+    }
+
+    public static SuggestionPopup attach(TextField field, Function<String, List<String>> source) {
+        SuggestionPopup popup = new SuggestionPopup(field, source);
+        field.textProperty().addListener((obs, oldText, newText) -> popup.update(newText));
+        field.focusedProperty().addListener((obs, was, focused) -> {
+            if (!focused) popup.menu.hide();
+        });
+        return popup;
+    }
+
+    private void update(String text) {
+        if (applying) return;
+        List<String> suggestions = text == null || text.isBlank() ? List.of() : source.apply(text);
+        if (suggestions.isEmpty()) {
+            menu.hide();
+            return;
+        }
+
+        menu.getItems().clear();
+        for (String s : suggestions) {
+            CustomMenuItem item = new CustomMenuItem(new Label(s), true);
+            item.setOnAction(e -> choose(s));
+            menu.getItems().add(item);
+        }
+        if (!menu.isShowing() && field.getScene() != null) {
+            menu.show(field, Side.BOTTOM, 0, 0);
+        }
+    }
+
+    private void choose(String s) {
+        applying = true;
+        try {
+            field.setText(s);
+            field.positionCaret(s.length());
+        } finally {
+            applying = false;
+        }
+        menu.hide();
+    }
+}
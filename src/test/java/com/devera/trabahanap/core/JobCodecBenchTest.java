@@ -0,0 +1,87 @@
+package com.devera.trabahanap.core;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Encode and decode time of {@link JobCodec} against Java serialization and Gson on the
+ * 5000-job fixture of {@link JobCodecTest}, after warm-up rounds so JIT compilation is not
+ * counted. The codec must be faster than both, each way, at the median. Run with
+ * mvn test -Pbench.
+ */
+@Tag("bench")
+class JobCodecBenchTest {
+
+    private static final int WARMUP = 15;
+    private static final int ROUNDS = 40;
+    private static final Type JOB_LIST = new TypeToken<List<Job>>() {}.getType();
+
+    @Test
+    void codecEncodesAndDecodesFasterThanSerializationAndGson() throws Exception {
+        List<Job> jobs = JobCodecTest.jobs(5000, 42);
+        Gson gson = new Gson();
+        byte[] codecBytes = JobCodec.encodeAll(jobs);
+        byte[] serializedBytes = serialize(jobs);
+        byte[] gsonBytes = gson.toJson(jobs).getBytes(StandardCharsets.UTF_8);
+
+        Map<String, Runnable> ops = new LinkedHashMap<>();
+        ops.put("codec encode", () -> JobCodec.encodeAll(jobs));
+        ops.put("serial encode", () -> serialize(jobs));
+        ops.put("gson encode", () -> gson.toJson(jobs).getBytes(StandardCharsets.UTF_8));
+        ops.put("codec decode", () -> JobCodec.decodeAll(ByteBuffer.wrap(codecBytes)));
+        ops.put("serial decode", () -> deserialize(serializedBytes));
+        ops.put("gson decode", () -> gson.fromJson(new String(gsonBytes, StandardCharsets.UTF_8), JOB_LIST));
+        for (int i = 0; i < WARMUP; i++) ops.values().forEach(Runnable::run);
+
+        Map<String, Timings> timings = new LinkedHashMap<>();
+        for (String name : ops.keySet()) timings.put(name, new Timings(name, ROUNDS));
+        // Interleaved, so a slow patch of the machine hits every format alike
+        for (int i = 0; i < ROUNDS; i++) {
+            for (Map.Entry<String, Runnable> op : ops.entrySet()) timings.get(op.getKey()).time(op.getValue());
+        }
+        timings.values().forEach(t -> t.report("[bench-codec]"));
+
+        for (String way : List.of("encode", "decode")) {
+            double codec = timings.get("codec " + way).millis(0.5);
+            double serial = timings.get("serial " + way).millis(0.5);
+            double json = timings.get("gson " + way).millis(0.5);
+            assertTrue(codec < serial, () -> way + " " + codec + " ms vs Java serialization " + serial + " ms");
+            assertTrue(codec < json, () -> way + " " + codec + " ms vs Gson " + json + " ms");
+        }
+    }
+
+    private static byte[] serialize(List<Job> jobs) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new ArrayList<>(jobs));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.devera.trabahanap.core;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobCodecTest {
+
+    @Test
+    void streamReproducesEveryField() {
+        List<Job> jobs = jobs(5000, 42);
+
+        byte[] stream = JobCodec.encodeAll(jobs);
+
+        assertSameJobs(jobs, JobCodec.decodeAll(ByteBuffer.wrap(stream)));
+        ByteBuffer direct = ByteBuffer.allocateDirect(stream.length);
+        direct.put(stream).flip();
+        assertSameJobs(jobs, JobCodec.decodeAll(direct));
+    }
+
+    @Test
+    void singleMessagesReproduceEveryField() {
+        List<Job> jobs = jobs(2000, 7);
+        List<Job> decoded = new ArrayList<>();
+        for (Job j : jobs) decoded.add(JobCodec.decode(JobCodec.encode(j)));
+
+        assertSameJobs(jobs, decoded);
+    }
+
+    @Test
+    void skippedRecordsCanBeReadInAnyOrder() {
+        List<Job> jobs = jobs(1000, 3);
+        JobCodec.Decoder decoder = new JobCodec.Decoder(ByteBuffer.wrap(JobCodec.encodeAll(jobs)));
+        int[] positions = new int[jobs.size()];
+        for (int i = 0; i < positions.length; i++) positions[i] = decoder.skip();
+        assertFalse(decoder.hasNext());
+
+        Random random = new Random(1);
+        for (int n = 0; n < 200; n++) {
+            int i = random.nextInt(jobs.size());
+            assertSameJobs(List.of(jobs.get(i)), List.of(decoder.readAt(positions[i])));
+        }
+    }
+
+    @Test
+    void emptyAndNullFieldsStayThatWay() {
+        Job bare = new Job();
+        bare.setJobId("bare");
+        bare.setTimestamp(-5);
+        Job blank = new Job();
+        blank.setJobId("blank");
+        blank.setTitle("");
+        blank.setSkills(new ArrayList<>());
+
+        assertSameJobs(List.of(bare, blank), JobCodec.decodeAll(ByteBuffer.wrap(JobCodec.encodeAll(List.of(bare, blank)))));
+    }
+
+    @Test
+    void damagedInputIsRejected() {
+        byte[] stream = JobCodec.encodeAll(jobs(10, 5));
+
+        assertThrows(IllegalArgumentException.class, () -> JobCodec.decode("not a job".getBytes(StandardCharsets.UTF_8)));
+        assertThrows(IllegalArgumentException.class,
+                () -> JobCodec.decodeAll(ByteBuffer.wrap(Arrays.copyOf(stream, stream.length - 3))));
+    }
+
+    @Test
+    void streamIsSmallerThanSerializationAndGson() throws Exception {
+        List<Job> jobs = jobs(5000, 42);
+
+        int codec = JobCodec.encodeAll(jobs).length;
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+            out.writeObject(new ArrayList<>(jobs));
+        }
+        int gson = new Gson().toJson(jobs).getBytes(StandardCharsets.UTF_8).length;
+
+        assertTrue(codec * 5 < serialized.size() * 4, () -> codec + " B vs Java serialization " + serialized.size() + " B");
+        assertTrue(codec * 5 < gson * 4, () -> codec + " B vs Gson " + gson + " B");
+    }
+
+    /**
+     * Synthetic jobs with the fields SyntheticJobs leaves empty filled in on a random share,
+     * so every field is exercised.
+     */
+    static List<Job> jobs(int count, long seed) {
+        Random random = new Random(seed);
+        SyntheticJobs synthetic = new SyntheticJobs(new Random(seed));
+        List<Job> jobs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Job j = synthetic.job("job" + i);
+            if (random.nextInt(4) > 0) {
+                j.setStatus(random.nextInt(10) == 0 ? Job.STATUS_FILLED : Job.STATUS_OPEN);
+                j.setExpiresAt(j.getTimestamp() + 30L * 86_400_000);
+            }
+            if (random.nextInt(3) > 0) {
+                j.setPlaceName(j.getLocation());
+                j.setLatitude(14 + random.nextDouble());
+                j.setLongitude(121 + random.nextDouble());
+                j.setGeohash(Long.toString(random.nextLong() & Long.MAX_VALUE, 32).substring(0, 9));
+            }
+            if (random.nextInt(5) == 0) {
+                j.setMaxApplicants(10 + random.nextInt(90));
+                j.setApplicationCount(random.nextInt(10));
+            }
+            if (random.nextInt(3) == 0) {
+                j.setRatingCount(1 + random.nextInt(50));
+                j.setRatingAverage(1 + random.nextInt(400) / 100.0);
+            }
+            if (random.nextInt(4) == 0) j.setBudgetMin(1000.5 + random.nextInt(1000));
+            j.setUpdateTime("2024-05-0" + (1 + random.nextInt(9)) + "T10:15:30." + (100000 + random.nextInt(900000)) + "Z");
+            jobs.add(j);
+        }
+        return jobs;
+    }
+
+    private static void assertSameJobs(List<Job> expected, List<Job> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Job a = expected.get(i), b = actual.get(i);
+            assertEquals(a.getJobId(), b.getJobId());
+            assertEquals(a.toMap(), b.toMap(), a.getJobId());
+            assertEquals(a.getUpdateTime(), b.getUpdateTime(), a.getJobId());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.devera.trabahanap.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Random but plausible jobs for tests.
+ *
+ * Low-cardinality values are copied into fresh String instances, as they would be after
+ * decoding Firestore JSON, so heap measurements are not flattered by shared literals.
+ */
+public final class SyntheticJobs {
+
+    public static final String[] TITLE_WORDS = {
+            "logo", "designer", "developer", "writer", "editor", "video", "social", "media", "manager",
+            "virtual", "assistant", "data", "entry", "translator", "mobile", "android", "ios", "web",
+            "wordpress", "shopify", "seo", "copywriter", "illustrator", "animator", "tutor", "english",
+            "filipino", "bookkeeper", "accountant", "photographer", "backend", "frontend", "fullstack"
+    };
+    public static final String[] SKILLS = {
+            "Java", "Python", "JavaScript", "React", "Photoshop", "Illustrator", "Figma", "Canva",
+            "Excel", "SQL", "Kotlin", "Swift", "Premiere", "After Effects", "SEO", "Copywriting",
+            "Tagalog", "Cebuano", "QuickBooks", "Laravel", "Node.js", "Flutter", "Blender",
+            "ReactJS", "JS", "MS Excel", "TypeScript", "C#", "C++", "PHP", "WordPress", "Shopify",
+            "Lightroom", "InDesign", "CapCut", "Bookkeeping", "Customer Service", "Lead Generation",
+            "Google Ads", "Facebook Ads", "Email Marketing", "Transcription", "Proofreading",
+            "Ilocano", "Android", "iOS", "Docker", "AWS", "Firebase", "Vue.js", "Django",
+            "Data Analysis", "Power BI", "Tableau", "3D Modeling", "Animation", "Voice Over"
+    };
+    public static final String[] CATEGORIES = {
+            "Graphic Design", "Writing & Content", "Programming", "Video Editing", "Marketing",
+            "Data Entry", "Translation", "Web Design", "Mobile Development", "Consulting", "Other"
+    };
+    public static final String[] FILLER = {
+            "kailangan", "namin", "ng", "mabilis", "at", "maayos", "na", "trabaho", "looking", "for",
+            "someone", "with", "experience", "in", "deadline", "budget", "negotiable", "long", "term",
+            "project", "part", "time", "remote", "urgent", "bayad", "agad", "quality", "output",
+            "communication", "skills", "portfolio", "required", "Makati", "Cebu", "Davao", "Quezon"
+    };
+    public static final String[] LOCATIONS = {
+            "Makati City", "Quezon City", "Pasig", "Taguig", "Manila", "Cebu City", "Davao City",
+            "Parañaque", "Las Piñas", "Iloilo City", "Baguio", "Remote"
+    };
+    public static final String[] CATEGORY_KEYS = {
+            "GRAPHIC_DESIGN", "WRITING", "PROGRAMMING", "VIDEO_EDITING", "MARKETING",
+            "DATA_ENTRY", "TRANSLATION", "WEB_DESIGN", "MOBILE_DEV", "CONSULTING", "OTHER"
+    };
+    public static final String[] EXPERIENCE = {"Entry", "Intermediate", "Expert"};
+
+    private final Random random;
+
+    public SyntheticJobs(Random random) {
+        this.random = random;
+    }
+
+    public Job job(String id) {
+        Job j = new Job();
+        j.setJobId(id);
+        j.setTitle(pick(TITLE_WORDS) + " " + pick(TITLE_WORDS) + " " + pick(TITLE_WORDS));
+        j.setCompanyName("Company " + random.nextInt(5000));
+        j.setLocation(new String(pick(LOCATIONS)));
+        StringBuilder desc = new StringBuilder();
+        int words = 20 + random.nextInt(60);
+        for (int w = 0; w < words; w++) {
+            desc.append(random.nextInt(4) == 0 ? pick(TITLE_WORDS) : pick(FILLER)).append(' ');
+        }
+        j.setDescription(desc.toString());
+        int c = random.nextInt(CATEGORIES.length);
+        j.setCategoryDisplay(new String(CATEGORIES[c]));
+        j.setCategory(new String(CATEGORY_KEYS[c]));
+        j.setImageKey(new String(CATEGORY_KEYS[c]));
+        j.setExperienceLevel(new String(pick(EXPERIENCE)));
+        j.setPostedByUserId("user" + random.nextInt(2000));
+        List<String> skills = new ArrayList<>(3);
+        for (int i = 0; i < 1 + random.nextInt(4); i++) skills.add(new String(pick(SKILLS)));
+        j.setSkills(skills);
+        if (random.nextInt(5) > 0) {
+            double min = 500 * (1 + random.nextInt(40));
+            j.setBudgetMin(min);
+            j.setBudgetMax(min * 2);
+            j.setSalaryRange(String.format(Locale.US, "₱%.2f - ₱%.2f", min, min * 2));
+        } else {
+            j.setSalaryRange(new String("Negotiable"));
+        }
+        j.setTimestamp(1_700_000_000_000L + random.nextInt(1_000_000_000));
+        return j;
+    }
+
+    public <T> T pick(T[] arr) {
+        return arr[random.nextInt(arr.length)];
+    }
+}
@@ -0,0 +1,48 @@
+package com.devera.trabahanap.core;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Latencies of repeated operations for the benchmark tests (@Tag("bench")), in nanoseconds.
+ */
+public final class Timings {
+
+    private final String label;
+    private final long[] nanos;
+    private int count;
+
+    public Timings(String label, int capacity) {
+        this.label = label;
+        this.nanos = new long[capacity];
+    }
+
+    /** Run op once and record how long it took. */
+    public void time(Runnable op) {
+        long start = System.nanoTime();
+        op.run();
+        nanos[count++] = System.nanoTime() - start;
+    }
+
+    /** Percentile p (0..1) in milliseconds. */
+    public double millis(double p) {
+        long[] sorted = Arrays.copyOf(nanos, count);
+        Arrays.sort(sorted);
+        int i = (int) Math.min(count - 1, Math.round(p * (count - 1)));
+        return sorted[i] / 1e6;
+    }
+
+    /** Print p50, p95, p99 and max under tag, e.g. "[bench-search]". */
+    public Timings report(String tag) {
+        System.out.printf(Locale.ROOT, "%s %-14s n=%d p50=%.3f ms p95=%.3f ms p99=%.3f ms max=%.3f ms%n",
+                tag, label, count, millis(0.50), millis(0.95), millis(0.99), millis(1));
+        return this;
+    }
+
+    /** Time op once, in milliseconds. */
+    public static double millisOf(Runnable op) {
+        long start = System.nanoTime();
+        op.run();
+        return (System.nanoTime() - start) / 1e6;
+    }
+}
@@ -0,0 +1,79 @@
+package com.devera.trabahanap.geo;
+
+import com.devera.trabahanap.core.Job;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GazetteerTest {
+
+    private static final String[][] TYPED = {
+            { "QC", "Quezon City" },
+            { "Quezon City, Metro Manila", "Quezon City" },
+            { "quezn city", "Quezon City" },
+            { "Makati City, Philippines", "Makati" },
+            { "BGC Taguig", "BGC, Taguig" },
+            { "Unit 12, Ortigas Center, Pasig City", "Ortigas Center, Pasig" },
+            { "Paranaque", "Parañaque" },
+            { "Las Pinas City", "Las Piñas" },
+            { "cebu", "Cebu City" },
+            { "Lahug, Cebu", "IT Park, Cebu City" },
+            { "Davao", "Davao City" },
+            { "Baguoi City", "Baguio" },
+            { "Work from home", "Remote" },
+            { "WFH / anywhere", "Remote" },
+    };
+
+    @Test
+    void typedLocationsResolveToTheirPlace() {
+        Gazetteer gazetteer = Gazetteer.get();
+        for (String[] row : TYPED) {
+            assertEquals(row[1], gazetteer.resolve(row[0]).map(Place::name).orElse(null), row[0]);
+        }
+    }
+
+    @Test
+    void unknownOrBlankTextResolvesToNothing() {
+        Gazetteer gazetteer = Gazetteer.get();
+        assertEquals(Optional.empty(), gazetteer.resolve("Atlantis"));
+        assertEquals(Optional.empty(), gazetteer.resolve("  "));
+        assertEquals(Optional.empty(), gazetteer.resolve(null));
+    }
+
+    @Test
+    void locateFillsPlaceAndCoordinates() {
+        Job job = new Job();
+        job.setLocation("Quezon City, Metro Manila");
+
+        assertTrue(Gazetteer.get().locate(job));
+
+        Place qc = Gazetteer.get().byName("Quezon City").orElseThrow();
+        assertEquals("Quezon City", job.getPlaceName());
+        assertEquals(qc.point().lat(), job.getLatitude());
+        assertEquals(qc.point().lon(), job.getLongitude());
+        assertEquals(qc.geohash(), job.getGeohash());
+        assertEquals("Quezon City, Metro Manila", job.getLocation(), "the typed text is kept");
+    }
+
+    @Test
+    void unrecognisedLocationLeavesTheJobAlone() {
+        Job job = new Job();
+        job.setLocation("Atlantis");
+
+        assertFalse(Gazetteer.get().locate(job));
+        assertNull(job.getPlaceName());
+        assertNull(job.getGeohash());
+    }
+
+    @Test
+    void suggestionsStartWithTheTypedText() {
+        List<String> suggestions = Gazetteer.get().suggest("que", 6);
+
+        assertTrue(suggestions.contains("Quezon City"), suggestions::toString);
+        assertTrue(suggestions.size() <= 6);
+        assertTrue(Gazetteer.get().suggest("", 6).isEmpty());
+    }
+}
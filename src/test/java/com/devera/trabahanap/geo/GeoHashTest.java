@@ -0,0 +1,61 @@
+package com.devera.trabahanap.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeoHashTest {
+
+    @Test
+    void coverBoxHoldsEveryPointOfTheCircleInLessArea() {
+        Random random = new Random(42);
+        for (int q = 0; q < 200; q++) {
+            GeoPoint centre = new GeoPoint(-60 + random.nextDouble() * 120, -180 + random.nextDouble() * 360);
+            double radius = 1 + random.nextDouble() * 99;
+            List<String> box = GeoHash.coverBox(centre, radius);
+            List<String> coarse = GeoHash.cover(centre, radius);
+            int precision = box.get(0).length();
+            assertEquals(coarse.get(0).length() + 1, precision);
+            // a cell one precision finer is 1/32 of the area
+            assertTrue(box.size() < coarse.size() * 32, () -> box.size() + " cells vs " + coarse.size());
+
+            for (int i = 0; i < 200; i++) {
+                GeoPoint p = towards(centre, radius * Math.sqrt(random.nextDouble()), random.nextDouble() * 360);
+                if (p.distanceKm(centre) > radius) continue;
+                String cell = GeoHash.encode(p.lat(), p.lon(), precision);
+                assertTrue(box.contains(cell), () -> p + " within " + radius + " km of " + centre);
+            }
+        }
+    }
+
+    @Test
+    void haversineOrdersLikeTheDistance() {
+        GeoPoint centre = new GeoPoint(14.5995, 120.9842);
+        double cosLat = Math.cos(Math.toRadians(centre.lat()));
+        double previous = -1;
+        for (double km = 0; km <= 500; km += 7.5) {
+            GeoPoint p = towards(centre, km, 30);
+            double a = GeoPoint.haversine(centre.lat(), cosLat, centre.lon(), p.lat(), p.lon());
+            assertTrue(a > previous);
+            assertEquals(centre.distanceKm(p), GeoPoint.kmOfHaversine(a), 1e-9);
+            assertEquals(a, GeoPoint.haversineOfKm(GeoPoint.kmOfHaversine(a)), 1e-12);
+            previous = a;
+        }
+    }
+
+    /**
+     * Point km away from p on the given bearing (great circle).
+     */
+    private static GeoPoint towards(GeoPoint p, double km, double bearingDegrees) {
+        double d = km / 6371.0088, b = Math.toRadians(bearingDegrees);
+        double lat1 = Math.toRadians(p.lat()), lon1 = Math.toRadians(p.lon());
+        double lat2 = Math.asin(Math.sin(lat1) * Math.cos(d) + Math.cos(lat1) * Math.sin(d) * Math.cos(b));
+        double lon2 = lon1 + Math.atan2(Math.sin(b) * Math.sin(d) * Math.cos(lat1), Math.cos(d) - Math.sin(lat1) * Math.sin(lat2));
+        double lon = Math.toDegrees(lon2);
+        if (lon > 180) lon -= 360;
+        if (lon < -180) lon += 360;
+        return new GeoPoint(Math.toDegrees(lat2), lon);
+    }
+}
@@ -0,0 +1,58 @@
+package com.devera.trabahanap.search;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import com.devera.trabahanap.core.Timings;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.devera.trabahanap.core.SyntheticJobs.SKILLS;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recommendation latency of {@link JobRecommender} over 100k synthetic jobs. Home recomputes
+ * the list on every visit, so a profile of 2 to 10 skills must be answered within 10 ms at
+ * p95, after a warm-up pass. Run with mvn test -Pbench.
+ */
+@Tag("bench")
+class JobRecommenderBenchTest {
+
+    private static final int DOCS = 100_000;
+    private static final int QUERIES = 2000;
+    private static final int K = 20;
+    private static final double BUDGET_MS = 10;
+
+    @Test
+    void recommendOver100kJobsStaysWithinBudget() {
+        Random random = new Random(42);
+        SyntheticJobs synthetic = new SyntheticJobs(random);
+        JobRecommender recommender = new JobRecommender();
+        double buildMillis = Timings.millisOf(() -> {
+            for (int i = 0; i < DOCS; i++) recommender.add(synthetic.job("bench" + i));
+        });
+        System.out.printf(Locale.ROOT, "[bench-recommend] indexed %d jobs in %.0f ms%n", DOCS, buildMillis);
+
+        List<SkillProfile> profiles = new ArrayList<>(QUERIES);
+        List<String> excluded = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            SkillProfile p = new SkillProfile();
+            int n = 2 + random.nextInt(9);
+            for (int s = 0; s < n; s++) p.add(synthetic.pick(SKILLS), 1 + random.nextInt(3));
+            profiles.add(p);
+            excluded.add(random.nextBoolean() ? "user" + random.nextInt(2000) : null);
+        }
+        for (int i = 0; i < QUERIES; i++) recommender.recommend(profiles.get(i), excluded.get(i), K);
+
+        Timings timings = new Timings("recommend", QUERIES);
+        long[] hits = new long[1];
+        for (int i = 0; i < QUERIES; i++) {
+            int q = i;
+            timings.time(() -> hits[0] += recommender.recommend(profiles.get(q), excluded.get(q), K).size());
+        }
+        timings.report("[bench-recommend]");
+        assertEquals((long) QUERIES * K, hits[0], "every profile fills its list");
+        assertTrue(timings.millis(0.95) < BUDGET_MS, () -> "recommend p95 " + timings.millis(0.95) + " ms");
+    }
+}
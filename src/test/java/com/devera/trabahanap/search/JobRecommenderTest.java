@@ -0,0 +1,108 @@
+package com.devera.trabahanap.search;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobRecommenderTest {
+
+    private static JobRecommender fixture() {
+        JobRecommender r = new JobRecommender();
+        r.add(job("a", "u1", 3, "React", "Node.js"));
+        r.add(job("b", "u2", 2, "react.js"));
+        r.add(job("c", "u3", 1, "Photoshop"));
+        r.add(job("d", "u4", 4, "C++", "C#"));
+        r.add(job("e", "u1", 5, "JS", "TypeScript"));
+        r.add(job("f", "u5", 6, "C"));
+        return r;
+    }
+
+    @Test
+    void aliasesMatchAndFewerSkillsRankHigher() {
+        assertEquals(List.of("b", "a"), ids(fixture().recommend(new SkillProfile().add("ReactJS", 1), null, 10)));
+        assertEquals(List.of("e"), ids(fixture().recommend(new SkillProfile().add("JavaScript", 1), null, 10)));
+    }
+
+    @Test
+    void cPlusPlusIsNotC() {
+        assertEquals(List.of("d"), ids(fixture().recommend(new SkillProfile().add("c++", 1), null, 10)));
+    }
+
+    @Test
+    void ownPostsAreExcluded() {
+        SkillProfile p = new SkillProfile().add("react", 1).add("js", 1);
+        assertEquals(List.of("b"), ids(fixture().recommend(p, "u1", 10)));
+    }
+
+    @Test
+    void profileWeightsDecideTheOrder() {
+        SkillProfile p = new SkillProfile().add("photoshop", 5).add("c#", 1);
+        assertEquals(List.of("c", "d"), ids(fixture().recommend(p, null, 10)));
+    }
+
+    @Test
+    void unknownSkillRecommendsNothing() {
+        assertTrue(fixture().recommend(new SkillProfile().add("Cobol", 1), null, 10).isEmpty());
+    }
+
+    @Test
+    void removedAndReplacedJobsAreNotRecommended() {
+        JobRecommender r = fixture();
+        r.remove("c");
+        assertTrue(r.recommend(new SkillProfile().add("photoshop", 1), null, 10).isEmpty());
+
+        r.sync(List.of(job("a", "u1", 3, "Photoshop"), job("g", "u6", 7, "React")));
+        assertEquals(2, r.size());
+        assertEquals(List.of("g"), ids(r.recommend(new SkillProfile().add("react", 1), null, 10)));
+        assertEquals(List.of("a"), ids(r.recommend(new SkillProfile().add("photoshop", 1), null, 10)));
+    }
+
+    @Test
+    void topScoresMatchScoringEveryJob() {
+        Random random = new Random(42);
+        SyntheticJobs synthetic = new SyntheticJobs(random);
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) jobs.add(synthetic.job("job" + i));
+        JobRecommender r = new JobRecommender();
+        for (Job j : jobs) r.add(j);
+        int k = 20;
+
+        for (int q = 0; q < 30; q++) {
+            SkillProfile p = new SkillProfile();
+            int n = 2 + random.nextInt(8);
+            for (int i = 0; i < n; i++) p.add(synthetic.pick(SyntheticJobs.SKILLS), 1 + random.nextInt(3));
+            String exclude = random.nextBoolean() ? "user" + random.nextInt(2000) : null;
+
+            double[] expected = jobs.stream()
+                    .filter(j -> exclude == null || !exclude.equals(j.getPostedByUserId()))
+                    .mapToDouble(j -> r.score(p, j))
+                    .filter(s -> s > 0)
+                    .map(s -> -s).sorted().limit(k).map(s -> -s)
+                    .toArray();
+            List<SearchHit> hits = r.recommend(p, exclude, k);
+
+            assertEquals(expected.length, hits.size(), p.weights()::toString);
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], hits.get(i).score(), 1e-4, "rank " + i);
+                assertNotEquals(exclude, hits.get(i).job().getPostedByUserId());
+            }
+        }
+    }
+
+    private static Job job(String id, String user, long ts, String... skills) {
+        Job j = new Job();
+        j.setJobId(id);
+        j.setPostedByUserId(user);
+        j.setTimestamp(ts);
+        j.setSkills(List.of(skills));
+        return j;
+    }
+
+    private static List<String> ids(List<SearchHit> hits) {
+        return hits.stream().map(h -> h.job().getJobId()).toList();
+    }
+}
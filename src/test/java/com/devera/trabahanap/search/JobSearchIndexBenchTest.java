@@ -0,0 +1,96 @@
+package com.devera.trabahanap.search;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import com.devera.trabahanap.core.Timings;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+import static com.devera.trabahanap.core.SyntheticJobs.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Query latency of {@link JobSearchIndex} and {@link JobSuggester} over 100k synthetic jobs,
+ * after a warm-up pass so JIT compilation is not counted. Search queries must answer within
+ * 10 ms at p95, a keystroke suggestion within 2 ms. Run with mvn test -Pbench.
+ */
+@Tag("bench")
+class JobSearchIndexBenchTest {
+
+    private static final int DOCS = 100_000;
+    private static final int QUERIES = 500;
+    private static final int LIMIT = 20;
+    private static final double SEARCH_BUDGET_MS = 10;
+    private static final double SUGGEST_BUDGET_MS = 2;
+    private static final String[] TYPOS = {"devloper", "desinger", "phtoshop", "wordpres", "transltor", "illustartor"};
+
+    @Test
+    void searchOver100kJobsStaysWithinBudget() {
+        Random random = new Random(42);
+        SyntheticJobs synthetic = new SyntheticJobs(random);
+        List<Job> jobs = jobs(synthetic);
+        JobSearchIndex index = new JobSearchIndex();
+        double buildMillis = Timings.millisOf(() -> jobs.forEach(index::add));
+        System.out.printf(Locale.ROOT, "[bench-search] indexed %d jobs in %.0f ms%n", DOCS, buildMillis);
+
+        Map<String, List<String>> shapes = new LinkedHashMap<>();
+        shapes.put("single word", queries(() -> synthetic.pick(TITLE_WORDS)));
+        shapes.put("three words", queries(() -> synthetic.pick(TITLE_WORDS) + " " + synthetic.pick(SKILLS) + " " + synthetic.pick(FILLER)));
+        shapes.put("prefix", queries(() -> {
+            String w = synthetic.pick(TITLE_WORDS);
+            return synthetic.pick(SKILLS) + " " + w.substring(0, Math.min(w.length(), 2 + random.nextInt(4)));
+        }));
+        shapes.put("typo", queries(() -> synthetic.pick(TYPOS)));
+        shapes.put("taglish", queries(() -> "kailangan ng " + synthetic.pick(TITLE_WORDS) + " sa " + synthetic.pick(FILLER)));
+        for (List<String> qs : shapes.values()) for (String q : qs) index.search(q, LIMIT);
+
+        for (Map.Entry<String, List<String>> shape : shapes.entrySet()) {
+            Timings timings = new Timings(shape.getKey(), QUERIES);
+            for (String q : shape.getValue()) timings.time(() -> index.search(q, LIMIT));
+            timings.report("[bench-search]");
+            assertTrue(timings.millis(0.95) < SEARCH_BUDGET_MS, () -> shape.getKey() + " p95 " + timings.millis(0.95) + " ms");
+        }
+
+        Timings updates = new Timings("update", 2000);
+        for (int i = 0; i < 2000; i++) {
+            Job replacement = synthetic.job(jobs.get(random.nextInt(DOCS)).getJobId());
+            updates.time(() -> index.add(replacement));
+        }
+        updates.report("[bench-search]");
+    }
+
+    @Test
+    void suggestionPerKeystrokeStaysWithinBudget() {
+        Random random = new Random(43);
+        SyntheticJobs synthetic = new SyntheticJobs(random);
+        JobSuggester suggester = new JobSuggester();
+        jobs(synthetic).forEach(suggester::add);
+
+        List<String> keystrokes = new ArrayList<>();
+        while (keystrokes.size() < QUERIES) {
+            String word = random.nextBoolean() ? synthetic.pick(TITLE_WORDS) : synthetic.pick(LOCATIONS);
+            for (int i = 1; i <= word.length(); i++) keystrokes.add(word.substring(0, i));
+        }
+        for (String q : keystrokes) suggester.suggest(q, 8);
+
+        Timings timings = new Timings("suggest", keystrokes.size());
+        for (String q : keystrokes) timings.time(() -> suggester.suggest(q, 8));
+        timings.report("[bench-search]");
+        assertTrue(timings.millis(0.95) < SUGGEST_BUDGET_MS, () -> "suggest p95 " + timings.millis(0.95) + " ms");
+    }
+
+    private static List<Job> jobs(SyntheticJobs synthetic) {
+        List<Job> jobs = new ArrayList<>(DOCS);
+        for (int i = 0; i < DOCS; i++) jobs.add(synthetic.job("bench" + i));
+        return jobs;
+    }
+
+    private static List<String> queries(Supplier<String> next) {
+        List<String> out = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) out.add(next.get());
+        return out;
+    }
+}
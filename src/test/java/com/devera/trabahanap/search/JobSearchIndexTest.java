@@ -0,0 +1,176 @@
+package com.devera.trabahanap.search;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobSearchIndexTest {
+
+    @Test
+    void titleMatchOutranksDescriptionMatch() {
+        JobSearchIndex index = new JobSearchIndex();
+        index.add(job("inDesc", "Virtual assistant", "Help with a logo now and then", 1));
+        index.add(job("inTitle", "Logo designer", "Brand work for a bakery", 1));
+
+        assertEquals(List.of("inTitle", "inDesc"), ids(index.search("logo", 10)));
+    }
+
+    @Test
+    void rareTermWeighsMoreThanCommonOne() {
+        JobSearchIndex index = new JobSearchIndex();
+        for (int i = 0; i < 20; i++) index.add(job("common" + i, "Java developer", "Backend services", i));
+        index.add(job("rare", "Kotlin developer", "Backend services", 0));
+
+        List<SearchHit> hits = index.search("java kotlin", 30);
+
+        assertEquals("rare", hits.get(0).job().getJobId());
+        assertEquals(21, hits.size(), "every term is optional");
+    }
+
+    @Test
+    void moreMatchedTermsRankHigher() {
+        JobSearchIndex index = new JobSearchIndex();
+        index.add(job("one", "Video editor", "Short clips", 1));
+        index.add(job("two", "Video editor for TikTok", "Short clips with captions", 1));
+
+        assertEquals("two", index.search("video tiktok captions", 10).get(0).job().getJobId());
+    }
+
+    @Test
+    void tiesGoToTheNewestJob() {
+        JobSearchIndex index = new JobSearchIndex();
+        index.add(job("old", "Bookkeeper", "Monthly books", 100));
+        index.add(job("new", "Bookkeeper", "Monthly books", 200));
+
+        List<SearchHit> hits = index.search("bookkeeper", 10);
+        assertEquals(hits.get(0).score(), hits.get(1).score(), 1e-9);
+        assertEquals(List.of("new", "old"), ids(hits));
+    }
+
+    @Test
+    void wordBeingTypedMatchesAsPrefix() {
+        JobSearchIndex index = new JobSearchIndex();
+        index.add(job("prog", "Programmer", "Python scripts", 1));
+        index.add(job("other", "Photographer", "Weddings", 1));
+
+        assertEquals(List.of("prog"), ids(index.search("progr", 10)));
+    }
+
+    @Test
+    void misspelledWordsFindTheIntendedOne() {
+        List<Job> jobs = synthetic(5000);
+        JobSearchIndex index = new JobSearchIndex();
+        for (Job j : jobs) index.add(j);
+
+        String[][] typos = {
+                {"devloper", "developer"}, {"desinger", "designer"}, {"phtoshop", "photoshop"},
+                {"wordpres", "wordpress"}, {"transltor", "translator"}, {"illustartor", "illustrator"}
+        };
+        for (String[] typo : typos) {
+            List<SearchHit> hits = index.search(typo[0], 1);
+            assertFalse(hits.isEmpty(), typo[0]);
+            assertTrue(text(hits.get(0).job()).contains(typo[1]), typo[0] + " -> " + typo[1]);
+        }
+    }
+
+    @Test
+    void hitsAreBestFirstAndWithinLimit() {
+        JobSearchIndex index = new JobSearchIndex();
+        for (Job j : synthetic(5000)) index.add(j);
+
+        List<SearchHit> hits = index.search("kailangan ng web developer react", 20);
+
+        assertEquals(20, hits.size());
+        for (int i = 1; i < hits.size(); i++) {
+            assertTrue(hits.get(i - 1).score() >= hits.get(i).score(), "sorted by score at " + i);
+        }
+    }
+
+    @Test
+    void updatesReplaceAndRemoveDocuments() {
+        JobSearchIndex index = new JobSearchIndex();
+        index.add(job("a", "Translator", "Tagalog to English", 1));
+        index.add(job("a", "Animator", "2D explainer videos", 1));
+
+        assertTrue(index.search("translator", 10).isEmpty());
+        assertEquals(List.of("a"), ids(index.search("animator", 10)));
+        assertEquals(1, index.size());
+
+        index.remove("a");
+        assertTrue(index.search("animator", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void syncKeepsOnlyTheCurrentJobs() {
+        JobSearchIndex index = new JobSearchIndex();
+        index.add(job("gone", "Accountant", "Taxes", 1));
+        index.add(job("kept", "Copywriter", "Ads", 1));
+
+        index.sync(List.of(job("kept", "Copywriter", "Ads", 1), job("added", "Accountant", "Payroll", 2)));
+
+        assertEquals(2, index.size());
+        assertEquals(List.of("added"), ids(index.search("accountant", 10)));
+    }
+
+    @Test
+    void filterIsAppliedBeforeTheLimit() {
+        JobSearchIndex index = new JobSearchIndex();
+        for (int i = 0; i < 30; i++) index.add(job("title" + i, "Logo designer", "Logo and brand kit", i));
+        Job onlyWriting = job("desc", "Copywriter", "Product copy, maybe a logo brief", 0);
+        onlyWriting.setCategory("WRITING");
+        index.add(onlyWriting);
+        assertFalse(ids(index.search("logo", 10)).contains("desc"), "ranks below the first 10");
+
+        Set<String> writing = Set.of("desc");
+        assertEquals(List.of("desc"), ids(index.search("logo", 10, writing::contains)));
+        assertTrue(index.search("logo", 10, id -> false).isEmpty());
+    }
+
+    @Test
+    void matchingIdsIsTheWholeResultSet() {
+        JobSearchIndex index = new JobSearchIndex();
+        for (int i = 0; i < 30; i++) index.add(job("logo" + i, "Logo designer", "Brand kit", i));
+        index.add(job("typo", "Lgoo designer", "Brand kit", 0));
+        index.add(job("other", "Accountant", "Payroll", 0));
+
+        List<String> all = index.matchingIds("logo brand");
+        assertEquals(31, all.size());
+        assertEquals(31, new HashSet<>(all).size(), "each once");
+        assertFalse(all.contains("other"));
+        assertEquals(List.of(), index.matchingIds("  "));
+    }
+
+    private static List<Job> synthetic(int n) {
+        SyntheticJobs synthetic = new SyntheticJobs(new Random(42));
+        List<Job> jobs = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) jobs.add(synthetic.job("job" + i));
+        return jobs;
+    }
+
+    private static Job job(String id, String title, String description, long timestamp) {
+        Job j = new Job();
+        j.setJobId(id);
+        j.setTitle(title);
+        j.setDescription(description);
+        j.setTimestamp(timestamp);
+        return j;
+    }
+
+    private static List<String> ids(List<SearchHit> hits) {
+        return hits.stream().map(h -> h.job().getJobId()).toList();
+    }
+
+    private static String text(Job j) {
+        return (j.getTitle() + " " + j.getSkills() + " " + j.getDescription()).toLowerCase(Locale.ROOT);
+    }
+}
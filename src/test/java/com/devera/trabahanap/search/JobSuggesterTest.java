@@ -0,0 +1,112 @@
+package com.devera.trabahanap.search;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobSuggesterTest {
+
+    @Test
+    void phrasesAreWeightedByJobsUsingThem() {
+        JobSuggester suggester = new JobSuggester();
+        suggester.add(job("1", "Web Developer", "Cebu City", "Java"));
+        suggester.add(job("2", "Web Developer", "Cebu City", "Java"));
+        suggester.add(job("3", "Web Designer", "Makati City", "Figma"));
+
+        List<Suggestion> titles = suggester.suggest("web", Suggestion.Kind.TITLE, 10);
+
+        assertEquals(List.of(new Suggestion("Web Developer", Suggestion.Kind.TITLE, 2),
+                new Suggestion("Web Designer", Suggestion.Kind.TITLE, 1)), titles);
+    }
+
+    @Test
+    void everyWordStartOfAPhraseMatches() {
+        JobSuggester suggester = new JobSuggester();
+        suggester.add(job("1", "Java Developer", "Remote", "Java"));
+
+        assertEquals("Java Developer", suggester.suggest("dev", Suggestion.Kind.TITLE, 5).get(0).text());
+        assertEquals("Java Developer", suggester.suggest("java d", Suggestion.Kind.TITLE, 5).get(0).text());
+    }
+
+    @Test
+    void matchingIgnoresCaseAndAccents() {
+        JobSuggester suggester = new JobSuggester();
+        suggester.add(job("1", "Tutor", "Parañaque", "English"));
+
+        List<Suggestion> hits = suggester.suggest("PARAN", 5);
+
+        assertEquals(1, hits.size());
+        assertEquals(new Suggestion("Parañaque", Suggestion.Kind.LOCATION, 1), hits.get(0));
+    }
+
+    @Test
+    void sameTextUnderSeveralKindsIsListedOnce() {
+        JobSuggester suggester = new JobSuggester();
+        suggester.add(job("1", "SEO", "Remote", "SEO"));
+        suggester.add(job("2", "Writer", "Remote", "SEO"));
+
+        List<Suggestion> hits = suggester.suggest("seo", 10);
+
+        assertEquals(List.of(new Suggestion("SEO", Suggestion.Kind.SKILL, 2)), hits);
+    }
+
+    @Test
+    void removedAndChangedJobsNoLongerCount() {
+        JobSuggester suggester = new JobSuggester();
+        suggester.add(job("1", "Animator", "Baguio", "Blender"));
+        suggester.add(job("2", "Animator", "Baguio", "Blender"));
+
+        suggester.remove("1");
+        assertEquals(1, suggester.suggest("anim", 5).get(0).weight());
+
+        suggester.add(job("2", "Illustrator", "Baguio", "Blender"));
+        assertTrue(suggester.suggest("anim", 5).isEmpty());
+
+        suggester.sync(List.of(job("3", "Illustrator", "Iloilo City", "Canva")));
+        assertTrue(suggester.suggest("baguio", 5).isEmpty());
+        assertTrue(suggester.suggest("blender", 5).isEmpty());
+        assertEquals(1, suggester.suggest("illus", 5).get(0).weight());
+    }
+
+    @Test
+    void topLocationsMatchACountOfAllJobs() {
+        SyntheticJobs synthetic = new SyntheticJobs(new Random(42));
+        JobSuggester suggester = new JobSuggester();
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            Job j = synthetic.job("job" + i);
+            suggester.add(j);
+            counts.merge(j.getLocation(), 1, Integer::sum);
+        }
+
+        for (String typed : List.of("c", "ci", "ma", "da", "la", "re", "pa")) {
+            List<Integer> expected = counts.entrySet().stream()
+                    .filter(e -> startsAnyWord(Tokenizer.foldPhrase(e.getKey()), typed))
+                    .map(Map.Entry::getValue)
+                    .sorted(Comparator.reverseOrder())
+                    .limit(JobSuggester.MAX_SUGGESTIONS)
+                    .toList();
+            List<Integer> actual = suggester.suggest(typed, Suggestion.Kind.LOCATION, JobSuggester.MAX_SUGGESTIONS)
+                    .stream().map(Suggestion::weight).toList();
+            assertEquals(expected, actual, "\"" + typed + "\"");
+        }
+    }
+
+    private static boolean startsAnyWord(String phrase, String prefix) {
+        for (String word : phrase.split(" ")) if (word.startsWith(prefix)) return true;
+        return phrase.startsWith(prefix);
+    }
+
+    private static Job job(String id, String title, String location, String skill) {
+        Job j = new Job();
+        j.setJobId(id);
+        j.setTitle(title);
+        j.setLocation(location);
+        j.setSkills(List.of(skill));
+        return j;
+    }
+}
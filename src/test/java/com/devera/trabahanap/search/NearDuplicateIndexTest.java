@@ -0,0 +1,100 @@
+package com.devera.trabahanap.search;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearDuplicateIndexTest {
+
+    /**
+     * Reposts with two description words swapped and one appended, as people bump a
+     * commission, against fresh jobs from the same generator. Band lookups must find nearly
+     * every repost whose signature reaches the threshold.
+     */
+    @Test
+    void repostsAreCaughtAndFreshJobsAreNot() {
+        Random random = new Random(42);
+        SyntheticJobs synthetic = new SyntheticJobs(new Random(42));
+        List<Job> originals = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) originals.add(synthetic.job("orig" + i));
+        NearDuplicateIndex index = new NearDuplicateIndex();
+        index.sync(originals);
+        double threshold = 0.70;
+
+        int reposts = 0, alike = 0, caught = 0, fresh = 0, flagged = 0;
+        for (int i = 0; i < originals.size(); i += 10) {
+            Job original = originals.get(i);
+            Job repost = repost(original, "dup" + i, random);
+            reposts++;
+            if (MinHash.similarity(MinHash.signature(repost), MinHash.signature(original)) >= threshold) alike++;
+            List<DuplicateMatch> matches = index.findSimilar(repost, threshold, 1);
+            if (!matches.isEmpty()) {
+                caught++;
+                assertEquals(original.getJobId(), matches.get(0).job().getJobId(), "best match of dup" + i);
+                assertTrue(matches.get(0).similarity() >= threshold);
+            }
+            fresh++;
+            if (!index.findSimilar(synthetic.job("fresh" + i), threshold, 1).isEmpty()) flagged++;
+        }
+
+        assertTrue(caught >= alike * 0.97, caught + " caught of " + alike + " reposts at the threshold");
+        assertTrue(alike >= reposts * 0.85, alike + " of " + reposts + " reposts at the threshold");
+        assertTrue(flagged <= fresh * 0.01, flagged + " of " + fresh + " fresh jobs flagged");
+    }
+
+    @Test
+    void onlyTheSamePostersRepostIsRefused() {
+        NearDuplicateIndex index = new NearDuplicateIndex();
+        Job original = job("a", "u1", "Logo for a milk tea shop", "Need a cute logo for our milk tea shop in Cebu, pastel colours");
+        index.add(original);
+
+        Job sameText = job("b", "u1", original.getTitle(), original.getDescription());
+        assertEquals("a", index.findRepost(sameText).map(m -> m.job().getJobId()).orElse(null));
+
+        Job otherPoster = job("c", "u2", original.getTitle(), original.getDescription());
+        assertTrue(index.findRepost(otherPoster).isEmpty());
+        assertFalse(index.findSimilar(otherPoster, 0.7, 5).isEmpty());
+    }
+
+    @Test
+    void removedAndReplacedJobsAreNotMatched() {
+        NearDuplicateIndex index = new NearDuplicateIndex();
+        Job a = job("a", "u1", "Bookkeeping for a small bakery", "Monthly bookkeeping in Xero for a bakery in Davao");
+        index.add(a);
+        index.remove("a");
+        assertTrue(index.findSimilar(a, 0.5, 5).isEmpty());
+        assertEquals(0, index.size());
+
+        Job b = job("b", "u1", "Video editor for TikTok", "Short clips with captions, three a week");
+        index.sync(List.of(a, b));
+        index.sync(List.of(b));
+        assertTrue(index.findSimilar(a, 0.5, 5).isEmpty());
+        Job copyOfB = job("b2", "u2", b.getTitle(), b.getDescription());
+        assertEquals(List.of("b"), index.findSimilar(copyOfB, 0.9, 5).stream().map(m -> m.job().getJobId()).toList());
+    }
+
+    private static Job repost(Job original, String id, Random random) {
+        Job repost = Job.fromMap(id, original.toMap());
+        String[] words = original.getDescription().trim().split(" ");
+        for (int e = 0; e < 2; e++) {
+            words[random.nextInt(words.length)] = SyntheticJobs.FILLER[random.nextInt(SyntheticJobs.FILLER.length)];
+        }
+        repost.setDescription(String.join(" ", words) + " "
+                + SyntheticJobs.TITLE_WORDS[random.nextInt(SyntheticJobs.TITLE_WORDS.length)]);
+        repost.setTimestamp(original.getTimestamp() + 1 + random.nextInt(86_400_000));
+        return repost;
+    }
+
+    private static Job job(String id, String user, String title, String description) {
+        Job j = new Job();
+        j.setJobId(id);
+        j.setPostedByUserId(user);
+        j.setTitle(title);
+        j.setDescription(description);
+        return j;
+    }
+}
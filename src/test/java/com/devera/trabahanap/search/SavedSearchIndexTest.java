@@ -0,0 +1,140 @@
+package com.devera.trabahanap.search;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import com.devera.trabahanap.geo.Gazetteer;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SavedSearchIndexTest {
+
+    @Test
+    void eachCriterionMustHold() {
+        SavedSearchIndex index = new SavedSearchIndex();
+        index.add(search("category", "PROGRAMMING", null, null, null, null));
+        index.add(search("place", null, "QC", null, null, null));
+        index.add(search("keywords", null, null, "react developer", null, null));
+        index.add(search("skills", null, null, null, List.of("Figma", "Java"), null));
+        index.add(search("budget", null, null, null, null, 40_000.0));
+        index.add(search("all", "programming", "Quezon City", "developer", List.of("java"), 10_000.0));
+
+        Job job = job("1", "PROGRAMMING", "Quezon City", "Senior React Developer", List.of("Java"), 20_000.0, 30_000.0);
+        Gazetteer.get().locate(job);
+
+        assertEquals(Set.of("category", "place", "keywords", "skills", "all"), ids(index.match(job)));
+
+        Job cheap = job("2", "WRITING", "Cebu", "Blog writer", List.of("SEO"), null, null);
+        assertEquals(Set.of(), ids(index.match(cheap)));
+    }
+
+    @Test
+    void removedAndReplacedSearchesNoLongerMatch() {
+        SavedSearchIndex index = new SavedSearchIndex();
+        index.add(search("a", "PROGRAMMING", null, null, null, null));
+        index.add(search("b", "PROGRAMMING", null, "java", null, null));
+        Job job = job("1", "PROGRAMMING", "Remote", "Java developer", List.of(), null, null);
+
+        index.remove("a");
+        assertEquals(Set.of("b"), ids(index.match(job)));
+
+        index.add(search("b", "WRITING", null, "java", null, null));
+        assertTrue(index.match(job).isEmpty());
+
+        index.sync(List.of(search("c", null, null, "developer", null, null)));
+        assertEquals(1, index.size());
+        assertEquals(Set.of("c"), ids(index.match(job)));
+    }
+
+    @Test
+    void matchesAreTheSameAsAFullScan() {
+        Random random = new Random(42);
+        SyntheticJobs synthetic = new SyntheticJobs(new Random(43));
+        List<SavedSearch> saved = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) saved.add(randomSearch("s" + i, random));
+        SavedSearchIndex index = new SavedSearchIndex();
+        index.sync(saved);
+
+        long matched = 0;
+        for (int i = 0; i < 300; i++) {
+            Job job = synthetic.job("job" + i);
+            if (i % 2 == 0) Gazetteer.get().locate(job);
+            Set<String> got = ids(index.match(job));
+            assertEquals(ids(index.matchByScan(job)), got, job.getJobId());
+            matched += got.size();
+        }
+        assertTrue(matched > 0);
+    }
+
+    @Test
+    void searchAndAlertRoundTripThroughTheirMaps() {
+        SavedSearch s = search("s1", "PROGRAMMING", "Cebu City", "java", List.of("Java", "Spring"), 5000.0);
+        assertEquals(s, SavedSearch.fromMap(s.id(), s.toMap()));
+
+        JobAlert alert = JobAlert.of(s, "job1", "Java Developer", 1_700_000_000_000L);
+        assertEquals("s1-job1", alert.id());
+        assertEquals(alert, JobAlert.fromMap(alert.toMap()));
+        assertNull(JobAlert.fromMap(Map.of("userId", "u")));
+    }
+
+    private static SavedSearch randomSearch(String id, Random random) {
+        String category = null, location = null, keywords = null;
+        Double budgetMin = null, budgetMax = null;
+        List<String> skills = new ArrayList<>();
+        int kind = random.nextInt(100);
+        if (kind < 40) {
+            keywords = pick(SyntheticJobs.TITLE_WORDS, random) + " " + pick(SyntheticJobs.TITLE_WORDS, random);
+            if (random.nextBoolean()) category = pick(SyntheticJobs.CATEGORY_KEYS, random);
+            else location = pick(SyntheticJobs.LOCATIONS, random);
+        } else if (kind < 60) {
+            category = pick(SyntheticJobs.CATEGORY_KEYS, random);
+            location = pick(SyntheticJobs.LOCATIONS, random);
+        } else if (kind < 80) {
+            for (int i = 0; i < 1 + random.nextInt(3); i++) skills.add(pick(SyntheticJobs.SKILLS, random));
+            if (random.nextBoolean()) budgetMin = (double) (1000 * (1 + random.nextInt(20)));
+        } else if (kind < 90) {
+            category = pick(SyntheticJobs.CATEGORY_KEYS, random);
+            keywords = pick(SyntheticJobs.TITLE_WORDS, random);
+            budgetMin = (double) (1000 * random.nextInt(10));
+            budgetMax = budgetMin + 1000 * (1 + random.nextInt(30));
+        } else if (kind < 99) {
+            location = pick(SyntheticJobs.LOCATIONS, random);
+            keywords = pick(SyntheticJobs.TITLE_WORDS, random);
+        } else {
+            budgetMin = (double) (1000 * (10 + random.nextInt(40)));
+        }
+        return new SavedSearch(id, "user" + random.nextInt(2000), null, category, location,
+                budgetMin, budgetMax, keywords, skills, 0);
+    }
+
+    private static String pick(String[] values, Random random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static Set<String> ids(List<SavedSearch> searches) {
+        Set<String> out = new HashSet<>();
+        for (SavedSearch s : searches) out.add(s.id());
+        return out;
+    }
+
+    private static SavedSearch search(String id, String category, String location, String keywords,
+                                      List<String> skills, Double budgetMin) {
+        return new SavedSearch(id, "u1", "Search " + id, category, location, budgetMin, null, keywords, skills, 1L);
+    }
+
+    private static Job job(String id, String category, String location, String title, List<String> skills,
+                           Double budgetMin, Double budgetMax) {
+        Job j = new Job();
+        j.setJobId(id);
+        j.setTitle(title);
+        j.setCategory(category);
+        j.setLocation(location);
+        j.setSkills(skills);
+        j.setBudgetMin(budgetMin);
+        j.setBudgetMax(budgetMax);
+        j.setTimestamp(1_700_000_000_000L);
+        return j;
+    }
+}
@@ -0,0 +1,158 @@
+package com.devera.trabahanap.service;
+
+import com.devera.trabahanap.core.Application;
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import com.devera.trabahanap.service.http.Endpoints;
+import com.devera.trabahanap.system.Config;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Many users applying to the same jobs at once, against the Firestore emulator: counters,
+ * limits and "my applications" must agree with what was stored. Skipped unless
+ * FIRESTORE_EMULATOR_HOST (or firebase.firestoreEmulatorHost) is set, since it writes data.
+ */
+class ApplicationServiceEmulatorTest {
+
+    private static final int APPLICANTS = 120;
+    private static final int CONCURRENCY = 32;
+    private static final int DUP_EVERY = 10;
+
+    @Test
+    void limitedJobsTakeExactlyTheLimit() throws Exception {
+        assumeTrue(Endpoints.isFirestoreEmulated(), "needs the Firestore emulator");
+        int limit = 40;
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<String> jobIds = createJobs(run, 3, limit);
+
+        Map<String, Map<ApplyResult.Status, Integer>> byJob = applyAll(run, jobIds);
+
+        for (String jobId : jobIds) {
+            Map<ApplyResult.Status, Integer> statuses = byJob.get(jobId);
+            int applied = count(statuses, ApplyResult.Status.APPLIED);
+            assertStored(jobId, applied);
+            if (count(statuses, ApplyResult.Status.CONTENDED) == 0) {
+                assertEquals(limit, applied, () -> jobId + ": " + statuses);
+                assertTrue(count(statuses, ApplyResult.Status.FULL) > 0, () -> jobId + ": " + statuses);
+            } else {
+                assertTrue(applied <= limit, () -> jobId + ": " + statuses);
+            }
+        }
+    }
+
+    @Test
+    void everyApplicantGetsIntoAnUnlimitedJobOnce() throws Exception {
+        assumeTrue(Endpoints.isFirestoreEmulated(), "needs the Firestore emulator");
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<String> jobIds = createJobs(run, 2, 0);
+
+        Map<String, Map<ApplyResult.Status, Integer>> byJob = applyAll(run, jobIds);
+
+        for (String jobId : jobIds) {
+            Map<ApplyResult.Status, Integer> statuses = byJob.get(jobId);
+            assertEquals(0, count(statuses, ApplyResult.Status.FULL), jobId);
+            int applied = count(statuses, ApplyResult.Status.APPLIED);
+            assertStored(jobId, applied);
+            if (count(statuses, ApplyResult.Status.CONTENDED) == 0) assertEquals(APPLICANTS, applied, jobId);
+        }
+
+        // user0 applied twice to each job; "my applications" lists each job once, with the job
+        Set<String> expected = new HashSet<>();
+        for (String jobId : jobIds) {
+            if (count(byJob.get(jobId), ApplyResult.Status.CONTENDED) == 0) expected.add(jobId);
+        }
+        List<Application> mine = applications().applicationsOf(user(run, 0)).join();
+        Set<String> listed = new HashSet<>();
+        for (Application a : mine) {
+            assertNotNull(a.job(), a.jobId());
+            listed.add(a.jobId());
+        }
+        assertEquals(mine.size(), listed.size());
+        assertTrue(listed.containsAll(expected), () -> listed + " vs " + expected);
+    }
+
+    private List<String> createJobs(String run, int count, int limit) throws Exception {
+        String token = FirestoreDocuments.obtainAccessToken();
+        SyntheticJobs synthetic = new SyntheticJobs(new Random(42));
+        List<String> ids = new ArrayList<>();
+        for (int j = 0; j < count; j++) {
+            Job job = synthetic.job("load-" + run + "-" + j);
+            job.setTimestamp(System.currentTimeMillis());
+            job.setMaxApplicants(limit > 0 ? limit : null);
+            job.setApplicationCount(0);
+            documents().create("jobs", job.getJobId(), FirestoreCodec.encodeJob(job), token).join();
+            ids.add(job.getJobId());
+        }
+        return ids;
+    }
+
+    /**
+     * Every applicant applies to every job at once (every DUP_EVERY'th twice), at most
+     * CONCURRENCY in flight. Returns the result counts per job; any failed apply fails the test.
+     */
+    private Map<String, Map<ApplyResult.Status, Integer>> applyAll(String run, List<String> jobIds) throws Exception {
+        ApplicationService service = applications();
+        Semaphore slots = new Semaphore(CONCURRENCY);
+        Map<String, Map<ApplyResult.Status, Integer>> byJob = new ConcurrentHashMap<>();
+        List<CompletableFuture<ApplyResult>> all = new ArrayList<>();
+        for (int u = 0; u < APPLICANTS; u++) {
+            int times = u % DUP_EVERY == 0 ? 2 : 1;
+            for (String jobId : jobIds) {
+                byJob.putIfAbsent(jobId, new ConcurrentHashMap<>());
+                for (int t = 0; t < times; t++) {
+                    slots.acquire();
+                    all.add(service.apply(jobId, "Load test job", user(run, u), "User " + u).whenComplete((r, err) -> {
+                        slots.release();
+                        if (r != null) byJob.get(jobId).merge(r.status(), 1, Integer::sum);
+                    }));
+                }
+            }
+        }
+        CompletableFuture.allOf(all.toArray(new CompletableFuture[0])).join();
+        return byJob;
+    }
+
+    /** The job's applicationCount and its applications subcollection both hold applied. */
+    private void assertStored(String jobId, int applied) throws Exception {
+        String token = FirestoreDocuments.obtainAccessToken();
+        FirestoreDocuments documents = documents();
+        String name = documents.documentName("jobs", jobId);
+        JsonObject doc = documents.batchGet(List.of(name), token).join().get(name);
+        Object counter = FirestoreCodec.decodeFields(doc.getAsJsonObject("fields")).get("applicationCount");
+        assertEquals(applied, counter instanceof Number n ? n.intValue() : -1, jobId + " applicationCount");
+
+        JsonObject from = new JsonObject();
+        from.addProperty("collectionId", "applications");
+        JsonArray fromArr = new JsonArray();
+        fromArr.add(from);
+        JsonObject query = new JsonObject();
+        query.add("from", fromArr);
+        assertEquals(applied, documents.runQuery("jobs/" + jobId, query, token).join().size(), jobId + " applications");
+    }
+
+    private static int count(Map<ApplyResult.Status, Integer> statuses, ApplyResult.Status status) {
+        return statuses.getOrDefault(status, 0);
+    }
+
+    private static String user(String run, int u) {
+        return "load-" + run + "-user" + u;
+    }
+
+    private static FirestoreDocuments documents() {
+        return new FirestoreDocuments(Config.get("firebase.projectId"));
+    }
+
+    private static ApplicationService applications() {
+        return new ApplicationService(Config.get("firebase.projectId"));
+    }
+}
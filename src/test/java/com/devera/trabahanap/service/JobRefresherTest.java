@@ -0,0 +1,196 @@
+package com.devera.trabahanap.service;
+
+import com.devera.trabahanap.core.Job;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobRefresherTest {
+
+    private static final long MIN = 30_000;
+    private static final long MAX = 600_000;
+    private static final long DAY = 24 * 3_600_000L;
+    private static final long FULL = 1_800_000;
+
+    @Test
+    void removedListenersAreDropped() {
+        JobRefresher refresher = new JobRefresher(null, MIN, MAX, 0.2, FULL);
+        Consumer<List<Job>> home = jobs -> { };
+        Consumer<List<Job>> browse = jobs -> { };
+        refresher.addListener(home);
+        refresher.addListener(browse);
+
+        refresher.removeListener(home);
+        refresher.removeListener(home);
+
+        assertEquals(1, refresher.listenerCount());
+        refresher.removeListener(browse);
+        assertEquals(0, refresher.listenerCount());
+    }
+
+    @Test
+    void syncsReadOnlyNewPostsBetweenFullSyncs() {
+        long now = System.currentTimeMillis();
+        FakeJobs jobs = new FakeJobs();
+        jobs.open.add(job("a", now - 60_000));
+        jobs.open.add(job("b", now - 30_000));
+        JobRefresher refresher = new JobRefresher(jobs, MIN, MAX, 0.2, FULL);
+        List<List<Job>> heard = new ArrayList<>();
+        refresher.addListener(heard::add);
+
+        assertEquals(0, refresher.sync(now));
+        assertEquals(1, jobs.fullReads);
+
+        jobs.open.add(job("c", now + 10_000));
+        assertEquals(1, refresher.sync(now + 30_000));
+        assertEquals(1, jobs.fullReads);
+        assertEquals(List.of(now - 30_000 - 300_000), jobs.since); // newest listed, less the overlap
+        assertEquals(List.of("c", "b", "a"), ids(heard.get(1)));
+
+        assertEquals(0, refresher.sync(now + 60_000));
+        assertEquals(2, heard.size()); // nothing new, listeners not called
+
+        refresher.sync(now + FULL);
+        assertEquals(2, jobs.fullReads);
+        assertEquals(3, heard.size());
+    }
+
+    @Test
+    void mergedTakesPostsOverListedAndDropsExpiredJobs() {
+        long now = 10 * DAY;
+        Job old = job("old", now - 31 * DAY);
+        Job kept = job("kept", now - DAY);
+        Job edited = job("kept", now - DAY);
+        edited.setTitle("Edited");
+        Job posted = job("new", now);
+
+        List<Job> merged = JobRefresher.merged(List.of(kept, old), List.of(edited, posted), now, 30 * DAY);
+
+        assertEquals(List.of("new", "kept"), ids(merged));
+        assertSame(edited, merged.get(1));
+    }
+
+    @Test
+    void intervalHalvesOnNewPostsAndGrowsWithoutThem() {
+        assertEquals(60_000, JobRefresher.nextInterval(120_000, 3, MIN, MAX));
+        assertEquals(180_000, JobRefresher.nextInterval(120_000, 0, MIN, MAX));
+        assertEquals(180_000, JobRefresher.nextInterval(120_000, -1, MIN, MAX)); // failed sync
+        assertEquals(MIN, JobRefresher.nextInterval(MIN, 5, MIN, MAX));
+        assertEquals(MAX, JobRefresher.nextInterval(MAX, 0, MIN, MAX));
+    }
+
+    @Test
+    void jitterStaysWithinItsShare() {
+        Random random = new Random(42);
+        long low = Long.MAX_VALUE, high = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long d = JobRefresher.jittered(100_000, 0.2, random);
+            low = Math.min(low, d);
+            high = Math.max(high, d);
+        }
+        assertTrue(low >= 80_000 && low < 81_000, "lowest " + low);
+        assertTrue(high <= 120_000 && high > 119_000, "highest " + high);
+        assertEquals(100_000, JobRefresher.jittered(100_000, 0, random));
+    }
+
+    /**
+     * A day of posts (busy from 08:00 to 18:00) against 200 desktops started together: the
+     * adaptive interval syncs far less than the fixed minimum while posts still show within
+     * the longest interval, and jitter keeps the desktops from syncing in the same second.
+     */
+    @Test
+    void adaptiveJitteredScheduleSyncsLessAndSpreadsOut() {
+        long[] posts = posts(new Random(42));
+
+        Day fixed = simulate(false, 0, posts);
+        Day adaptive = simulate(true, 0, posts);
+        Day adaptiveJittered = simulate(true, 0.2, posts);
+
+        assertTrue(adaptive.syncs * 3 < fixed.syncs, adaptive.syncs + " adaptive vs " + fixed.syncs + " fixed syncs");
+        assertTrue(adaptive.p95DelayMillis <= MAX, "p95 delay " + adaptive.p95DelayMillis + " ms");
+        assertEquals(200, fixed.peakPerSecond);
+        assertTrue(adaptiveJittered.peakPerSecond * 4 < fixed.peakPerSecond,
+                "peak " + adaptiveJittered.peakPerSecond + " syncs/s with jitter");
+    }
+
+    /**
+     * The open jobs in memory: a full read returns them all, a read of new posts those with
+     * a later timestamp. Counts full reads and records each since.
+     */
+    private static final class FakeJobs extends JobService {
+        final List<Job> open = new ArrayList<>();
+        final List<Long> since = new ArrayList<>();
+        int fullReads;
+
+        FakeJobs() {
+            super("refresh-test");
+        }
+
+        @Override
+        public CompletableFuture<List<Job>> getAllJobs() {
+            fullReads++;
+            return CompletableFuture.completedFuture(JobRefresher.merged(List.of(), open, 0, DAY));
+        }
+
+        @Override
+        public CompletableFuture<List<Job>> getJobsPostedSince(long sinceMillis) {
+            since.add(sinceMillis);
+            return CompletableFuture.completedFuture(open.stream().filter(j -> j.getTimestamp() > sinceMillis).toList());
+        }
+    }
+
+    private static Job job(String id, long timestamp) {
+        Job job = new Job();
+        job.setJobId(id);
+        job.setTitle(id);
+        job.setTimestamp(timestamp);
+        return job;
+    }
+
+    private static List<String> ids(List<Job> jobs) {
+        return jobs.stream().map(Job::getJobId).toList();
+    }
+
+    private record Day(long syncs, long p95DelayMillis, int peakPerSecond) {}
+
+    private static Day simulate(boolean adaptive, double jitter, long[] posts) {
+        Random random = new Random(43);
+        int[] perSecond = new int[(int) (DAY / 1000) + 1];
+        List<Long> delays = new ArrayList<>();
+        long syncs = 0;
+        for (int d = 0; d < 200; d++) {
+            long interval = MIN;
+            int next = 0; // first post not yet seen
+            for (long t = JobRefresher.jittered(interval, jitter, random); t < DAY; t += JobRefresher.jittered(interval, jitter, random)) {
+                syncs++;
+                perSecond[(int) (t / 1000)]++;
+                int fresh = 0;
+                while (next < posts.length && posts[next] <= t) {
+                    delays.add(t - posts[next++]);
+                    fresh++;
+                }
+                if (adaptive) interval = JobRefresher.nextInterval(interval, fresh, MIN, MAX);
+            }
+        }
+        Collections.sort(delays);
+        return new Day(syncs / 200, delays.get((int) Math.ceil(0.95 * delays.size()) - 1),
+                Arrays.stream(perSecond).max().orElse(0));
+    }
+
+    /**
+     * Post times in millis over a day, sorted: 30 an hour from 08:00 to 18:00, 1 otherwise.
+     */
+    private static long[] posts(Random random) {
+        List<Long> out = new ArrayList<>();
+        for (int hour = 0; hour < 24; hour++) {
+            int n = hour >= 8 && hour < 18 ? 30 : 1;
+            for (int i = 0; i < n; i++) out.add(hour * 3_600_000L + (long) (random.nextDouble() * 3_600_000));
+        }
+        Collections.sort(out);
+        return out.stream().mapToLong(Long::longValue).toArray();
+    }
+}
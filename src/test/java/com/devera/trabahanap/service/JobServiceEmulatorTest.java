@@ -0,0 +1,131 @@
+package com.devera.trabahanap.service;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import com.devera.trabahanap.service.http.Endpoints;
+import com.devera.trabahanap.system.Config;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Several people editing the same job at once, against the Firestore emulator: exactly one
+ * edit of a version lands, the others are told which fields clash, and after rebasing no
+ * edit is lost. Skipped unless FIRESTORE_EMULATOR_HOST (or firebase.firestoreEmulatorHost)
+ * is set, since it writes data.
+ */
+class JobServiceEmulatorTest {
+
+    private static final int MAX_ATTEMPTS = 20;
+
+    @Test
+    void editsOfOneVersionLandOnceAndRebasedEditsAllLand() throws Exception {
+        assumeTrue(Endpoints.isFirestoreEmulated(), "needs the Firestore emulator");
+        Job loaded = createJob("edit-" + Long.toString(System.currentTimeMillis(), 36));
+        List<Consumer<Job>> edits = List.of(
+                j -> j.setTitle("Edited title"),
+                j -> j.setDescription("Edited description"),
+                j -> j.setCompanyName("Edited company"),
+                j -> j.setExperienceLevel("Expert"),
+                j -> j.setSkills(List.of("edited")),
+                j -> j.setSalaryRange("Edited range"));
+        JobService service = jobs();
+
+        List<Job> edited = new ArrayList<>();
+        List<CompletableFuture<JobUpdateResult>> first = new ArrayList<>();
+        for (Consumer<Job> edit : edits) {
+            Job e = loaded.copy();
+            edit.accept(e);
+            edited.add(e);
+            first.add(service.updateJob(loaded, e));
+        }
+
+        int updated = 0;
+        for (CompletableFuture<JobUpdateResult> f : first) {
+            JobUpdateResult r = f.join();
+            if (r.status() == JobUpdateResult.Status.UPDATED) {
+                updated++;
+            } else {
+                assertEquals(JobUpdateResult.Status.CONFLICT, r.status());
+                assertEquals(Set.of(), r.conflictingFields(), "edits touch different fields");
+            }
+        }
+        assertEquals(1, updated);
+
+        // Everyone whose edit did not land rebases until it does
+        for (int i = 0; i < edits.size(); i++) {
+            JobUpdateResult r = first.get(i).join();
+            Job base = loaded;
+            Job mine = edited.get(i);
+            for (int attempt = 0; r.status() == JobUpdateResult.Status.CONFLICT; attempt++) {
+                assertTrue(attempt < MAX_ATTEMPTS, "edit " + i + " never landed");
+                mine = JobService.rebase(base, mine, r.job());
+                base = r.job();
+                r = service.updateJob(base, mine).join();
+            }
+            assertEquals(JobUpdateResult.Status.UPDATED, r.status());
+        }
+
+        Job stored = read(loaded.getJobId());
+        for (Job e : edited) {
+            for (String f : JobService.changedFields(FirestoreCodec.encodeJob(loaded), FirestoreCodec.encodeJob(e))) {
+                assertEquals(FirestoreCodec.encodeJob(e).get(f), FirestoreCodec.encodeJob(stored).get(f), f);
+            }
+        }
+    }
+
+    @Test
+    void sameFieldEditedTwiceIsAConflictOnThatField() throws Exception {
+        assumeTrue(Endpoints.isFirestoreEmulated(), "needs the Firestore emulator");
+        Job loaded = createJob("clash-" + Long.toString(System.currentTimeMillis(), 36));
+        JobService service = jobs();
+        Job a = loaded.copy();
+        a.setTitle("Title A");
+        Job b = loaded.copy();
+        b.setTitle("Title B");
+
+        CompletableFuture<JobUpdateResult> fa = service.updateJob(loaded, a);
+        CompletableFuture<JobUpdateResult> fb = service.updateJob(loaded, b);
+        JobUpdateResult ra = fa.join();
+        JobUpdateResult rb = fb.join();
+
+        JobUpdateResult won = ra.status() == JobUpdateResult.Status.UPDATED ? ra : rb;
+        JobUpdateResult lost = won == ra ? rb : ra;
+        assertEquals(JobUpdateResult.Status.UPDATED, won.status());
+        assertEquals(JobUpdateResult.Status.CONFLICT, lost.status());
+        assertEquals(Set.of("title"), lost.conflictingFields());
+        assertEquals(won.job().getTitle(), read(loaded.getJobId()).getTitle());
+    }
+
+    private Job createJob(String id) throws Exception {
+        Job job = new SyntheticJobs(new Random(42)).job(id);
+        job.setTimestamp(System.currentTimeMillis());
+        job.setStatus("open");
+        documents().create("jobs", id, FirestoreCodec.encodeJob(job), FirestoreDocuments.obtainAccessToken()).join();
+        return read(id);
+    }
+
+    /** The job as stored, with its updateTime. */
+    private Job read(String id) throws Exception {
+        FirestoreDocuments documents = documents();
+        String name = documents.documentName("jobs", id);
+        JsonObject doc = documents.batchGet(List.of(name), FirestoreDocuments.obtainAccessToken()).join().get(name);
+        Job job = Job.fromMap(id, FirestoreCodec.decodeFields(doc.getAsJsonObject("fields")));
+        job.setUpdateTime(doc.get("updateTime").getAsString());
+        return job;
+    }
+
+    private static FirestoreDocuments documents() {
+        return new FirestoreDocuments(Config.get("firebase.projectId"));
+    }
+
+    private static JobService jobs() {
+        return new JobService(Config.get("firebase.projectId"));
+    }
+}
@@ -0,0 +1,289 @@
+package com.devera.trabahanap.service;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import com.devera.trabahanap.geo.Gazetteer;
+import com.devera.trabahanap.service.http.Endpoints;
+import com.devera.trabahanap.service.http.FakeHttpServer;
+import com.devera.trabahanap.service.http.FakeHttpServer.Reply;
+import com.devera.trabahanap.service.http.FakeHttpServer.Request;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link JobService#updateJob} against a fake Firestore holding the jobs collection: the
+ * PATCH checks the updateTime precondition and applies the update mask, batchGet answers
+ * found or missing.
+ */
+class JobServiceUpdateTest {
+
+    private static final String PROJECT = "update-test";
+    private static final String DOCUMENTS = "/v1/projects/" + PROJECT + "/databases/(default)/documents";
+
+    private final Map<String, JsonObject> stored = new HashMap<>(); // docId -> fields
+    private final Map<String, String> updateTimes = new HashMap<>();
+    private int version;
+    private boolean rejectWrites;
+    private FakeHttpServer server;
+    private JobService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FakeHttpServer(this::firestore);
+        Endpoints.useFirestoreEmulator(server.uri("").getAuthority());
+        service = new JobService(PROJECT);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Endpoints.useFirestoreEmulator(null);
+        server.close();
+    }
+
+    @Test
+    void changedFieldsAreTheEditableOnesThatDiffer() {
+        Job before = job("cf");
+        Job after = before.copy();
+        after.setTitle("Night shift cook");
+        after.setDescription(null);
+        after.setApplicationCount(99);
+        after.setTimestamp(before.getTimestamp() + 1);
+
+        Set<String> changed = JobService.changedFields(FirestoreCodec.encodeJob(before), FirestoreCodec.encodeJob(after));
+
+        assertEquals(Set.of("title", "description"), changed);
+        assertTrue(JobService.changedFields(FirestoreCodec.encodeJob(before), FirestoreCodec.encodeJob(before.copy())).isEmpty());
+    }
+
+    @Test
+    void editIsOnePatchOfTheChangedFieldsAgainstTheLoadedVersion() {
+        Job loaded = store(job("edit"));
+        Job edited = loaded.copy();
+        edited.setTitle("Night shift cook");
+
+        JobUpdateResult result = service.updateJob(loaded, edited).join();
+
+        assertEquals(JobUpdateResult.Status.UPDATED, result.status());
+        assertEquals(Set.of("title"), result.changedFields());
+        assertEquals("Night shift cook", result.job().getTitle());
+        assertEquals(updateTimes.get("edit"), result.job().getUpdateTime());
+        Request patch = server.requests().get(0);
+        assertEquals("PATCH", patch.method());
+        assertEquals(List.of(loaded.getUpdateTime()), query(patch).get("currentDocument.updateTime"));
+        assertEquals(List.of("title"), query(patch).get("updateMask.fieldPaths"));
+        assertEquals(loaded.getDescription(), stored("edit").getDescription());
+    }
+
+    @Test
+    void editWithoutChangesSendsNothing() {
+        Job loaded = store(job("same"));
+
+        JobUpdateResult result = service.updateJob(loaded, loaded.copy()).join();
+
+        assertEquals(JobUpdateResult.Status.UNCHANGED, result.status());
+        assertEquals(0, server.requestCount());
+    }
+
+    @Test
+    void concurrentEditIsAConflictUntilRebased() {
+        Job loaded = store(job("both"));
+        Job theirs = loaded.copy();
+        theirs.setTitle("Their title");
+        theirs.setBudgetMin(12_345.0);
+        storeEdit(theirs);
+        Job mine = loaded.copy();
+        mine.setTitle("My title");
+        mine.setDescription("My description");
+
+        JobUpdateResult conflict = service.updateJob(loaded, mine).join();
+
+        assertEquals(JobUpdateResult.Status.CONFLICT, conflict.status());
+        assertEquals(Set.of("title"), conflict.conflictingFields());
+        assertEquals("Their title", conflict.job().getTitle());
+        assertEquals(loaded.getDescription(), stored("both").getDescription());
+
+        Job rebased = JobService.rebase(loaded, mine, conflict.job());
+        assertEquals(conflict.job().getUpdateTime(), rebased.getUpdateTime());
+        JobUpdateResult retried = service.updateJob(conflict.job(), rebased).join();
+
+        assertEquals(JobUpdateResult.Status.UPDATED, retried.status());
+        assertEquals(Set.of("title", "description"), retried.changedFields());
+        Job now = stored("both");
+        assertEquals("My title", now.getTitle());
+        assertEquals("My description", now.getDescription());
+        assertEquals(12_345.0, now.getBudgetMin());
+    }
+
+    @Test
+    void rebaseTakesTheEditOverTheStoredVersion() {
+        Job loaded = job("rb");
+        loaded.setUpdateTime("2024-01-01T00:00:00.000001Z");
+        Job edited = loaded.copy();
+        edited.setTitle("Mine");
+        edited.setDescription(null);
+        Job current = loaded.copy();
+        current.setTitle("Theirs");
+        current.setCompanyName("Their company");
+        current.setUpdateTime("2024-01-01T00:00:00.000002Z");
+
+        Job rebased = JobService.rebase(loaded, edited, current);
+
+        assertEquals("Mine", rebased.getTitle());
+        assertNull(rebased.getDescription());
+        assertEquals("Their company", rebased.getCompanyName());
+        assertEquals(current.getUpdateTime(), rebased.getUpdateTime());
+    }
+
+    @Test
+    void retryOfAnEditThatLandedIsUpdated() {
+        Job loaded = store(job("landed"));
+        Job edited = loaded.copy();
+        edited.setTitle("Night shift cook");
+        storeEdit(edited); // first attempt landed, its reply was lost
+
+        JobUpdateResult result = service.updateJob(loaded, edited).join();
+
+        assertEquals(JobUpdateResult.Status.UPDATED, result.status());
+        assertEquals(updateTimes.get("landed"), result.job().getUpdateTime());
+    }
+
+    @Test
+    void deletedJobIsNotFound() {
+        Job loaded = store(job("gone"));
+        synchronized (this) {
+            stored.remove("gone");
+        }
+        Job edited = loaded.copy();
+        edited.setTitle("Night shift cook");
+
+        JobUpdateResult result = service.updateJob(loaded, edited).join();
+
+        assertEquals(JobUpdateResult.Status.NOT_FOUND, result.status());
+        assertNull(result.job());
+    }
+
+    @Test
+    void editedJobIsLeftAsTheCallerMadeIt() {
+        Job source = job("moved");
+        source.setLocation("Makati City");
+        Gazetteer.get().locate(source);
+        Job loaded = store(source);
+        Job edited = loaded.copy();
+        edited.setLocation("Cebu City");
+        Job asMade = edited.copy();
+
+        synchronized (this) {
+            rejectWrites = true;
+        }
+        CompletionException failed = assertThrows(CompletionException.class, () -> service.updateJob(loaded, edited).join());
+        assertTrue(failed.getCause() instanceof FirestoreHttpException, failed.getCause().toString());
+        assertEquals(asMade.toMap(), edited.toMap());
+
+        synchronized (this) {
+            rejectWrites = false;
+        }
+        JobUpdateResult result = service.updateJob(loaded, edited).join();
+
+        assertEquals(JobUpdateResult.Status.UPDATED, result.status());
+        assertEquals("Cebu City", result.job().getPlaceName());
+        assertEquals(asMade.toMap(), edited.toMap());
+    }
+
+    // --- fake Firestore ---
+
+    private synchronized Reply firestore(Request request) {
+        String path = request.path();
+        if (request.method().equals("POST") && path.equals(DOCUMENTS + ":batchGet")) {
+            JsonArray out = new JsonArray();
+            for (var name : JsonParser.parseString(request.body()).getAsJsonObject().getAsJsonArray("documents")) {
+                String docId = FirestoreCodec.documentId(name.getAsString());
+                JsonObject entry = new JsonObject();
+                if (stored.containsKey(docId)) entry.add("found", document(docId));
+                else entry.addProperty("missing", name.getAsString());
+                out.add(entry);
+            }
+            return Reply.json(200, out.toString());
+        }
+        if (request.method().equals("PATCH") && path.startsWith(DOCUMENTS + "/jobs/")) {
+            if (rejectWrites) return Reply.json(403, "{\"error\":{\"code\":403,\"status\":\"PERMISSION_DENIED\"}}");
+            int q = path.indexOf('?');
+            String docId = path.substring((DOCUMENTS + "/jobs/").length(), q < 0 ? path.length() : q);
+            JsonObject fields = stored.get(docId);
+            if (fields == null) return Reply.json(404, "{\"error\":{\"code\":404,\"status\":\"NOT_FOUND\"}}");
+            Map<String, List<String>> params = query(request);
+            List<String> precondition = params.get("currentDocument.updateTime");
+            if (precondition != null && !precondition.get(0).equals(updateTimes.get(docId))) {
+                return Reply.json(400, "{\"error\":{\"code\":400,\"status\":\"FAILED_PRECONDITION\"}}");
+            }
+            JsonObject sent = JsonParser.parseString(request.body()).getAsJsonObject().getAsJsonObject("fields");
+            for (String f : params.getOrDefault("updateMask.fieldPaths", List.of())) {
+                if (sent.has(f)) fields.add(f, sent.get(f));
+                else fields.remove(f);
+            }
+            updateTimes.put(docId, nextUpdateTime());
+            return Reply.json(200, document(docId).toString());
+        }
+        return Reply.json(404, "{}");
+    }
+
+    private JsonObject document(String docId) {
+        JsonObject doc = new JsonObject();
+        doc.addProperty("name", "projects/" + PROJECT + "/databases/(default)/documents/jobs/" + docId);
+        doc.add("fields", stored.get(docId).deepCopy());
+        doc.addProperty("updateTime", updateTimes.get(docId));
+        return doc;
+    }
+
+    /** Put job in the fake store; returns it as loaded, with its updateTime. */
+    private synchronized Job store(Job job) {
+        stored.put(job.getJobId(), FirestoreCodec.encodeJob(job));
+        updateTimes.put(job.getJobId(), nextUpdateTime());
+        return stored(job.getJobId());
+    }
+
+    /** Someone else's save of job: every field replaced, updateTime moved on. */
+    private synchronized void storeEdit(Job job) {
+        stored.put(job.getJobId(), FirestoreCodec.encodeJob(job));
+        updateTimes.put(job.getJobId(), nextUpdateTime());
+    }
+
+    private synchronized Job stored(String docId) {
+        Job job = Job.fromMap(docId, FirestoreCodec.decodeFields(stored.get(docId)));
+        job.setUpdateTime(updateTimes.get(docId));
+        return job;
+    }
+
+    private String nextUpdateTime() {
+        return String.format(Locale.ROOT, "2024-05-01T10:00:00.%06dZ", ++version);
+    }
+
+    private static Map<String, List<String>> query(Request request) {
+        Map<String, List<String>> params = new HashMap<>();
+        int q = request.path().indexOf('?');
+        if (q < 0) return params;
+        for (String pair : request.path().substring(q + 1).split("&")) {
+            int eq = pair.indexOf('=');
+            params.computeIfAbsent(pair.substring(0, eq), k -> new ArrayList<>())
+                    .add(URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static Job job(String id) {
+        Job job = new SyntheticJobs(new Random(id.hashCode())).job(id);
+        job.setTimestamp(System.currentTimeMillis());
+        job.setStatus("open");
+        return job;
+    }
+}
@@ -0,0 +1,189 @@
+package com.devera.trabahanap.service.http;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A minimal HTTP/1.1 server on a loopback port for transport tests, on plain sockets so the
+ * app module needs nothing beyond java.base and java.net.http.
+ *
+ * Every request is passed to the handler, whose {@link Reply} is written back; a reply can
+ * be delayed, gzip-encoded when the request accepts it, or replaced by dropping the
+ * connection. Requests are recorded in arrival order.
+ */
+public final class FakeHttpServer implements AutoCloseable {
+
+    /** One request as received. */
+    public record Request(String method, String path, Map<String, String> headers, String body) {
+        public String header(String name) {
+            return headers.get(name.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public interface Handler {
+        Reply handle(Request request) throws Exception;
+    }
+
+    /** What to answer; build with the static factories. */
+    public record Reply(int status, String contentType, byte[] body, Map<String, String> headers,
+                 long delayMillis, boolean drop) {
+
+        public static Reply json(int status, String json) {
+            return new Reply(status, "application/json; charset=UTF-8", json.getBytes(StandardCharsets.UTF_8),
+                    Map.of(), 0, false);
+        }
+
+        public static Reply text(int status, String text) {
+            return new Reply(status, "text/plain; charset=UTF-8", text.getBytes(StandardCharsets.UTF_8),
+                    Map.of(), 0, false);
+        }
+
+        /** Close the connection without answering. */
+        public static Reply dropConnection() {
+            return new Reply(0, null, new byte[0], Map.of(), 0, true);
+        }
+
+        public Reply withHeader(String name, String value) {
+            Map<String, String> h = new LinkedHashMap<>(headers);
+            h.put(name, value);
+            return new Reply(status, contentType, body, h, delayMillis, drop);
+        }
+
+        public Reply delayed(long millis) {
+            return new Reply(status, contentType, body, headers, millis, drop);
+        }
+    }
+
+    private final Handler handler;
+    private final ServerSocket socket;
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private final List<Socket> connections = new CopyOnWriteArrayList<>();
+    private volatile boolean gzip = true;
+
+    public FakeHttpServer(Handler handler) throws IOException {
+        this.handler = handler;
+        this.socket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "fake-http");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /** Whether JSON replies are gzip-encoded for requests that accept it (default true). */
+    public FakeHttpServer gzip(boolean gzip) {
+        this.gzip = gzip;
+        return this;
+    }
+
+    public URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + socket.getLocalPort() + path);
+    }
+
+    public List<Request> requests() {
+        return List.copyOf(requests);
+    }
+
+    public int requestCount() {
+        return requests.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+        for (Socket c : connections) c.close();
+    }
+
+    private void acceptLoop() {
+        while (!socket.isClosed()) {
+            try {
+                Socket c = socket.accept();
+                connections.add(c);
+                Thread t = new Thread(() -> serve(c), "fake-http-conn");
+                t.setDaemon(true);
+                t.start();
+            } catch (IOException e) {
+                return; // closed
+            }
+        }
+    }
+
+    /** Answer requests on one keep-alive connection until either side closes it. */
+    private void serve(Socket c) {
+        try (c; InputStream in = new BufferedInputStream(c.getInputStream()); OutputStream out = c.getOutputStream()) {
+            while (true) {
+                Request request = readRequest(in);
+                if (request == null) return;
+                requests.add(request);
+                Reply reply = handler.handle(request);
+                if (reply.delayMillis() > 0) Thread.sleep(reply.delayMillis());
+                if (reply.drop()) return;
+                write(out, request, reply);
+            }
+        } catch (Exception e) {
+            // connection reset by the client, or the server was closed
+        } finally {
+            connections.remove(c);
+        }
+    }
+
+    private void write(OutputStream out, Request request, Reply reply) throws IOException {
+        byte[] body = reply.body();
+        String accept = request.header("Accept-Encoding");
+        boolean gzipped = gzip && reply.contentType() != null && reply.contentType().contains("json")
+                && accept != null && accept.contains("gzip");
+        if (gzipped) body = gzip(body);
+
+        StringBuilder head = new StringBuilder("HTTP/1.1 ").append(reply.status()).append(" X\r\n");
+        if (reply.contentType() != null) head.append("Content-Type: ").append(reply.contentType()).append("\r\n");
+        if (gzipped) head.append("Content-Encoding: gzip\r\n");
+        reply.headers().forEach((k, v) -> head.append(k).append(": ").append(v).append("\r\n"));
+        head.append("Content-Length: ").append(body.length).append("\r\n\r\n");
+        out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+        out.write(body);
+        out.flush();
+    }
+
+    static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    /** The next request on the connection, or null at end of stream. */
+    private static Request readRequest(InputStream in) throws IOException {
+        String line = readLine(in);
+        if (line == null || line.isEmpty()) return null;
+        String[] start = line.split(" ");
+        Map<String, String> headers = new HashMap<>();
+        while (!(line = readLine(in)).isEmpty()) {
+            int colon = line.indexOf(':');
+            headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+        }
+        int length = Integer.parseInt(headers.getOrDefault("content-length", "0"));
+        String body = new String(in.readNBytes(length), StandardCharsets.UTF_8);
+        return new Request(start[0], start[1], headers, body);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) >= 0) {
+            if (b == '\n') break;
+            if (b != '\r') line.write(b);
+        }
+        if (b < 0 && line.size() == 0) return null;
+        return line.toString(StandardCharsets.ISO_8859_1);
+    }
+}
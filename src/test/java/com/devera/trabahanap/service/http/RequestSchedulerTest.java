@@ -0,0 +1,150 @@
+package com.devera.trabahanap.service.http;
+
+import com.devera.trabahanap.service.http.RequestScheduler.Permit;
+import com.devera.trabahanap.service.http.RequestScheduler.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestSchedulerTest {
+
+    private static final String HOST = "firestore.googleapis.com";
+
+    @Test
+    void clickOvertakesQueuedBackgroundWork() {
+        RequestScheduler scheduler = scheduler(new RequestScheduler.Limits(2, 1000, 1000));
+        List<CompletableFuture<Permit>> bulk = new ArrayList<>();
+        for (int i = 0; i < 10; i++) bulk.add(scheduler.acquire(HOST, "sync", Priority.BACKGROUND));
+        CompletableFuture<Permit> click = scheduler.acquire(HOST, "click", Priority.INTERACTIVE);
+        assertEquals(2, granted(bulk));
+        assertFalse(click.isDone());
+
+        bulk.get(0).join().release();
+
+        assertTrue(click.isDone());
+        assertEquals(2, granted(bulk));
+    }
+
+    @Test
+    void lowerClassesLeaveSlotsForClicks() {
+        RequestScheduler scheduler = scheduler(new RequestScheduler.Limits(5, 1000, 1000));
+        List<CompletableFuture<Permit>> bulk = new ArrayList<>();
+        for (int i = 0; i < 5; i++) bulk.add(scheduler.acquire(HOST, "sync", Priority.BACKGROUND));
+        List<CompletableFuture<Permit>> prefetch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) prefetch.add(scheduler.acquire(HOST, "screen", Priority.PREFETCH));
+
+        assertEquals(3, granted(bulk)); // two fifths of 5 slots held back
+        assertEquals(1, granted(prefetch)); // one fifth
+        assertTrue(scheduler.acquire(HOST, "click", Priority.INTERACTIVE).isDone());
+        assertFalse(scheduler.acquire(HOST, "click", Priority.INTERACTIVE).isDone());
+    }
+
+    @Test
+    void lowerClassesLeaveTokensForClicks() {
+        RequestScheduler scheduler = scheduler(new RequestScheduler.Limits(100, 1, 10));
+        List<CompletableFuture<Permit>> bulk = new ArrayList<>();
+        for (int i = 0; i < 10; i++) bulk.add(scheduler.acquire(HOST, "sync", Priority.BACKGROUND));
+        List<CompletableFuture<Permit>> clicks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) clicks.add(scheduler.acquire(HOST, "click", Priority.INTERACTIVE));
+
+        assertEquals(6, granted(bulk)); // stops once fewer than 1 + 4 tokens are left
+        assertEquals(4, granted(clicks));
+    }
+
+    @Test
+    void hostsHaveTheirOwnLimits() {
+        RequestScheduler scheduler = scheduler(new RequestScheduler.Limits(1, 1000, 1000));
+        scheduler.acquire(HOST, "read", Priority.INTERACTIVE);
+
+        assertFalse(scheduler.acquire(HOST, "read", Priority.INTERACTIVE).isDone());
+        assertTrue(scheduler.acquire("identitytoolkit.googleapis.com", "signIn", Priority.INTERACTIVE).isDone());
+    }
+
+    /**
+     * A bulk sync with clicks in between, against a simulated server: neither the in-flight
+     * limit nor the rate (burst plus a second's refill in any one second) is ever exceeded,
+     * and the clicks are served well before the bulk work is done.
+     */
+    @Test
+    void busyLoadStaysWithinTheLimits() throws Exception {
+        RequestScheduler.Limits limits = new RequestScheduler.Limits(4, 100, 20);
+        RequestScheduler scheduler = scheduler(limits);
+        ScheduledExecutorService server = Executors.newScheduledThreadPool(4);
+        Random random = new Random(42);
+        AtomicInteger inFlight = new AtomicInteger();
+        Sends sends = new Sends();
+        long start = System.nanoTime();
+        try {
+            List<CompletableFuture<Long>> bulk = new ArrayList<>();
+            for (int i = 0; i < 150; i++) {
+                bulk.add(request(scheduler, server, Priority.BACKGROUND, random, inFlight, sends, start));
+            }
+            long lastClick = 0;
+            for (int i = 0; i < 5; i++) {
+                lastClick = request(scheduler, server, Priority.INTERACTIVE, random, inFlight, sends, start)
+                        .get(1, TimeUnit.MINUTES);
+                Thread.sleep(50);
+            }
+            long bulkDone = 0;
+            for (CompletableFuture<Long> f : bulk) bulkDone = Math.max(bulkDone, f.get(1, TimeUnit.MINUTES));
+
+            assertTrue(lastClick < bulkDone, "clicks waited for the bulk work");
+            assertTrue(sends.maxInFlight <= limits.maxConcurrent(), () -> sends.maxInFlight + " in flight");
+            assertTrue(sends.maxPerSecond <= limits.burst() + limits.ratePerSecond(), () -> sends.maxPerSecond + " sent in 1 s");
+        } finally {
+            server.shutdownNow();
+        }
+    }
+
+    /**
+     * One request: wait for a permit, hold it for 2-6 ms of simulated server time. Completes
+     * with the nanoTime it finished.
+     */
+    private static CompletableFuture<Long> request(RequestScheduler scheduler, ScheduledExecutorService server,
+                                                  Priority priority, Random random, AtomicInteger inFlight,
+                                                  Sends sends, long start) {
+        long serviceMicros;
+        synchronized (random) {
+            serviceMicros = 2000 + random.nextInt(4000);
+        }
+        return scheduler.acquire(HOST, "load", priority).thenCompose(permit -> {
+            sends.sent((System.nanoTime() - start) / 1_000_000, inFlight.incrementAndGet());
+            CompletableFuture<Long> done = new CompletableFuture<>();
+            server.schedule(() -> {
+                inFlight.decrementAndGet();
+                permit.release();
+                done.complete(System.nanoTime());
+            }, serviceMicros, TimeUnit.MICROSECONDS);
+            return done;
+        });
+    }
+
+    private static RequestScheduler scheduler(RequestScheduler.Limits limits) {
+        return new RequestScheduler(h -> limits, new HttpMetrics());
+    }
+
+    private static int granted(List<CompletableFuture<Permit>> tickets) {
+        int n = 0;
+        for (CompletableFuture<Permit> t : tickets) if (t.isDone()) n++;
+        return n;
+    }
+
+    private static final class Sends {
+        final List<Long> sentAt = new ArrayList<>();
+        int maxInFlight;
+        int maxPerSecond;
+
+        /** Record a send at t millis and keep the largest count in any 1000 ms window. */
+        synchronized void sent(long t, int inFlight) {
+            maxInFlight = Math.max(maxInFlight, inFlight);
+            sentAt.add(t);
+            int first = 0;
+            while (sentAt.get(first) <= t - 1000) first++;
+            maxPerSecond = Math.max(maxPerSecond, sentAt.size() - first);
+        }
+    }
+}
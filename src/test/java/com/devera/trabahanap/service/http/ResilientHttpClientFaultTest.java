@@ -0,0 +1,173 @@
+package com.devera.trabahanap.service.http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Retries, circuit breaking and the last-good-response fallback of
+ * {@link ResilientHttpClient}, against a local server that fails on cue.
+ */
+class ResilientHttpClientFaultTest {
+
+    private static final String ENDPOINT = "firestore.read";
+    private static final String OK = "{\"fields\":{\"title\":{\"stringValue\":\"Tutor\"}}}";
+
+    private FakeHttpServer server;
+
+    @AfterEach
+    void stop() throws Exception {
+        Endpoints.useFirestoreEmulator(null);
+        if (server != null) server.close();
+    }
+
+    @Test
+    void transientErrorsAreRetriedUntilAttemptsRunOut() throws Exception {
+        server = new FakeHttpServer(r -> FakeHttpServer.Reply.json(503, "{}"));
+        ResilientHttpClient client = client(3, 100, 10_000);
+
+        HttpResult result = get(client, "/jobs/a");
+
+        assertEquals(503, result.statusCode());
+        assertFalse(result.fromCache());
+        assertEquals(3, server.requestCount());
+        assertEquals(2, client.getMetrics().get(ENDPOINT, "retry"));
+        assertEquals(1, client.getMetrics().get(ENDPOINT, "gave_up"));
+    }
+
+    @Test
+    void retryRecoversFromTransientErrorsAndDroppedConnections() throws Exception {
+        AtomicInteger n = new AtomicInteger();
+        server = new FakeHttpServer(r -> switch (n.getAndIncrement()) {
+            case 0 -> FakeHttpServer.Reply.dropConnection();
+            case 1 -> FakeHttpServer.Reply.json(429, "{}").withHeader("Retry-After", "0");
+            default -> FakeHttpServer.Reply.json(200, OK);
+        });
+        ResilientHttpClient client = client(4, 100, 10_000);
+
+        HttpResult result = get(client, "/jobs/a");
+
+        assertEquals(200, result.statusCode());
+        assertEquals(3, server.requestCount());
+        assertEquals(1, client.getMetrics().get(ENDPOINT, "success"));
+        assertEquals(0, client.getMetrics().get(ENDPOINT, "gave_up"));
+    }
+
+    @Test
+    void nonIdempotentWriteIsNotRepeatedAfterServerError() throws Exception {
+        server = new FakeHttpServer(r -> FakeHttpServer.Reply.json(503, "{}"));
+        ResilientHttpClient client = client(4, 100, 10_000);
+
+        HttpRequest post = HttpRequest.newBuilder(server.uri("/jobs"))
+                .POST(HttpRequest.BodyPublishers.ofString("{}")).build();
+        HttpResult result = client.send("firestore.write", post, false).get(10, TimeUnit.SECONDS);
+
+        assertEquals(503, result.statusCode());
+        assertEquals(1, server.requestCount(), "the write may have been applied; it must not be sent twice");
+    }
+
+    @Test
+    void breakerOpensThenHalfOpenProbeClosesIt() throws Exception {
+        AtomicInteger status = new AtomicInteger(500);
+        server = new FakeHttpServer(r -> FakeHttpServer.Reply.json(status.get(), status.get() == 200 ? OK : "{}"));
+        ResilientHttpClient client = client(1, 2, 300);
+        CircuitBreaker breaker = client.breakerFor(ENDPOINT);
+
+        get(client, "/jobs/a");
+        get(client, "/jobs/a");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // Open: rejected without touching the server, nothing cached to fall back on
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> get(client, "/jobs/a"));
+        assertTrue(rejected.getCause() instanceof CircuitOpenException);
+        assertEquals(2, server.requestCount());
+        assertEquals(1, client.getMetrics().get(ENDPOINT, "circuit_open"));
+
+        Thread.sleep(350);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        status.set(200);
+        HttpResult probe = get(client, "/jobs/a");
+
+        assertEquals(200, probe.statusCode());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(3, server.requestCount());
+    }
+
+    @Test
+    void failedHalfOpenProbeReopensBreaker() throws Exception {
+        server = new FakeHttpServer(r -> FakeHttpServer.Reply.json(503, "{}"));
+        ResilientHttpClient client = client(1, 1, 200);
+        CircuitBreaker breaker = client.breakerFor(ENDPOINT);
+
+        get(client, "/jobs/a");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        Thread.sleep(250);
+
+        get(client, "/jobs/a"); // the probe
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, server.requestCount());
+        assertThrows(ExecutionException.class, () -> get(client, "/jobs/a"));
+        assertEquals(2, server.requestCount());
+    }
+
+    @Test
+    void lastGoodResponseIsServedWhenCallsFail() throws Exception {
+        AtomicInteger status = new AtomicInteger(200);
+        server = new FakeHttpServer(r -> status.get() == 200
+                ? FakeHttpServer.Reply.json(200, OK)
+                : FakeHttpServer.Reply.json(status.get(), "{}"));
+        ResilientHttpClient client = client(2, 2, 10_000);
+
+        HttpResult fresh = get(client, "/jobs/a");
+        assertFalse(fresh.fromCache());
+
+        // Retries exhausted: the cached copy instead of the error
+        status.set(503);
+        HttpResult fallback = get(client, "/jobs/a");
+        assertTrue(fallback.fromCache());
+        assertEquals(200, fallback.statusCode());
+        assertEquals(fresh.json(), fallback.json());
+        assertEquals(3, server.requestCount());
+
+        // Breaker open: served from cache without a request; other URIs have no copy
+        assertEquals(CircuitBreaker.State.OPEN, client.breakerFor(ENDPOINT).getState());
+        assertTrue(get(client, "/jobs/a").fromCache());
+        assertEquals(3, server.requestCount());
+        assertThrows(ExecutionException.class, () -> get(client, "/jobs/b"));
+        assertEquals(2, client.getMetrics().get(ENDPOINT, "cache_served"));
+    }
+
+    @Test
+    void firestoreCallsGoToTheConfiguredEmulatorHost() throws Exception {
+        server = new FakeHttpServer(r -> FakeHttpServer.Reply.json(200, OK));
+        URI base = server.uri("/");
+        Endpoints.useFirestoreEmulator(base.getHost() + ":" + base.getPort());
+
+        assertTrue(Endpoints.isFirestoreEmulated());
+        URI doc = URI.create(Endpoints.firestoreDocuments("demo-trabahanap") + "/jobs/a");
+        HttpResult result = client(1, 5, 10_000).send(ENDPOINT, HttpRequest.newBuilder(doc).GET().build(), true)
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(200, result.statusCode());
+        assertEquals("/v1/projects/demo-trabahanap/databases/(default)/documents/jobs/a", server.requests().get(0).path());
+    }
+
+    /**
+     * A client with millisecond backoff and the given attempts and breaker settings.
+     */
+    private static ResilientHttpClient client(int maxAttempts, int breakerThreshold, long breakerOpenMillis) {
+        return new ResilientHttpClient(new RetryPolicy(maxAttempts, 1, 5), 0, breakerThreshold, breakerOpenMillis, true);
+    }
+
+    private HttpResult get(ResilientHttpClient client, String path) throws Exception {
+        return client.send(ENDPOINT, HttpRequest.newBuilder(server.uri(path)).GET().build(), true)
+                .get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,136 @@
+package com.devera.trabahanap.service.http;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compressed, streamed reads through {@link ResilientHttpClient} against a local server that
+ * answers like Firestore: gzip when the request accepts it.
+ */
+class ResilientHttpClientTransferTest {
+
+    private FakeHttpServer server;
+
+    @AfterEach
+    void stop() throws Exception {
+        if (server != null) server.close();
+    }
+
+    @Test
+    void gzipListIsParsedWhileStreamingAndCounted() throws Exception {
+        String list = listBody(2000);
+        server = new FakeHttpServer(r -> FakeHttpServer.Reply.json(200, list));
+        ResilientHttpClient client = ResilientHttpClient.get();
+        String endpoint = "test.transfer.gzip";
+
+        HttpResult result = client.send(endpoint, HttpRequest.newBuilder(server.uri("/documents/jobs")).GET().build(), true)
+                .get(30, TimeUnit.SECONDS);
+
+        assertTrue(result.isSuccess());
+        assertSame(result.json(), result.json()); // parsed while streaming, not re-parsed from text
+        assertEquals(JsonParser.parseString(list), result.json());
+
+        FakeHttpServer.Request sent = server.requests().get(0);
+        assertEquals("gzip", sent.header("Accept-Encoding"));
+        assertTrue(sent.header("User-Agent").contains("gzip"), "Google front ends only compress for a gzip User-Agent");
+
+        HttpMetrics metrics = client.getMetrics();
+        byte[] plain = list.getBytes(StandardCharsets.UTF_8);
+        assertEquals(FakeHttpServer.gzip(plain).length, metrics.get(endpoint, "bytes_wire"));
+        assertEquals(plain.length, metrics.get(endpoint, "bytes_body"));
+        assertEquals(1, metrics.get(endpoint, "gzipped"));
+        assertTrue(metrics.get(endpoint, "bytes_wire") < plain.length / 3);
+    }
+
+    @Test
+    void plainBodyIsReadWhenServerDoesNotCompress() throws Exception {
+        String list = listBody(50);
+        server = new FakeHttpServer(r -> FakeHttpServer.Reply.json(200, list)).gzip(false);
+        ResilientHttpClient client = ResilientHttpClient.get();
+        String endpoint = "test.transfer.plain";
+
+        HttpResult result = client.send(endpoint, HttpRequest.newBuilder(server.uri("/documents/jobs")).GET().build(), true)
+                .get(30, TimeUnit.SECONDS);
+
+        assertEquals(JsonParser.parseString(list), result.json());
+        long bytes = list.getBytes(StandardCharsets.UTF_8).length;
+        assertEquals(bytes, client.getMetrics().get(endpoint, "bytes_wire"));
+        assertEquals(bytes, client.getMetrics().get(endpoint, "bytes_body"));
+        assertEquals(0, client.getMetrics().get(endpoint, "gzipped"));
+    }
+
+    @Test
+    void emptyBodyLabelledGzipIsReadOnce() throws Exception {
+        ResilientHttpClient client = ResilientHttpClient.get();
+        String endpoint = "test.transfer.empty";
+        for (int status : new int[] {200, 204}) {
+            server = new FakeHttpServer(r -> FakeHttpServer.Reply.json(status, "").withHeader("Content-Encoding", "gzip"))
+                    .gzip(false);
+
+            HttpResult result = client.send(endpoint, HttpRequest.newBuilder(server.uri("/documents/jobs/a"))
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("{}")).build(), true).get(30, TimeUnit.SECONDS);
+
+            assertEquals(status, result.statusCode());
+            assertTrue(result.isSuccess());
+            assertEquals(1, server.requestCount(), "an empty body is not a transport error to retry");
+            server.close();
+        }
+        assertEquals(0, client.getMetrics().get(endpoint, "bytes_body"));
+        assertEquals(0, client.getMetrics().get(endpoint, "gzipped"));
+    }
+
+    @Test
+    void errorBodyIsKeptAsText() throws Exception {
+        String error = "{\"error\":{\"code\":400,\"message\":\"bad field\"}}";
+        server = new FakeHttpServer(r -> FakeHttpServer.Reply.json(400, error));
+
+        HttpResult result = ResilientHttpClient.get()
+                .send("test.transfer.error", HttpRequest.newBuilder(server.uri("/documents/jobs")).GET().build(), true)
+                .get(30, TimeUnit.SECONDS);
+
+        assertEquals(400, result.statusCode());
+        assertEquals(error, result.body());
+    }
+
+    /**
+     * A list response shaped like Firestore's, with repetitive field names as in real job
+     * documents.
+     */
+    private static String listBody(int docs) {
+        Random random = new Random(42);
+        String[] words = {"plumbing", "tutor", "delivery", "cleaning", "repair", "Cebu", "Davao", "Manila", "urgent", "weekend"};
+        JsonArray documents = new JsonArray();
+        for (int i = 0; i < docs; i++) {
+            JsonObject fields = new JsonObject();
+            fields.add("title", stringValue(words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]));
+            fields.add("location", stringValue(words[5 + random.nextInt(3)]));
+            JsonObject salary = new JsonObject();
+            salary.addProperty("integerValue", String.valueOf(500 + random.nextInt(5000)));
+            fields.add("salary", salary);
+            JsonObject doc = new JsonObject();
+            doc.addProperty("name", "projects/test/databases/(default)/documents/jobs/job" + i);
+            doc.add("fields", fields);
+            doc.addProperty("updateTime", "2024-05-01T10:00:00.000000Z");
+            documents.add(doc);
+        }
+        JsonObject root = new JsonObject();
+        root.add("documents", documents);
+        return root.toString();
+    }
+
+    private static JsonObject stringValue(String s) {
+        JsonObject v = new JsonObject();
+        v.addProperty("stringValue", s);
+        return v;
+    }
+}
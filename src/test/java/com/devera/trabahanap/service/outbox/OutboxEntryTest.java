@@ -0,0 +1,65 @@
+package com.devera.trabahanap.service.outbox;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.JobCodec;
+import com.devera.trabahanap.core.SyntheticJobs;
+import com.devera.trabahanap.service.FirestoreCodec;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxEntryTest {
+
+    @Test
+    void jobCreateSurvivesTheLogAndSendsTheJobsFields() {
+        SyntheticJobs synthetic = new SyntheticJobs(new Random(42));
+        for (int i = 0; i < 500; i++) {
+            Job job = synthetic.job("job" + i);
+            job.setStatus(Job.STATUS_OPEN);
+            job.setExpiresAt(job.getTimestamp() + 86_400_000L);
+            OutboxEntry entry = new OutboxEntry(i + 1, OutboxEntry.Op.CREATE, "jobs", job.getJobId(), null,
+                    JobCodec.encode(job));
+
+            OutboxEntry replayed = OutboxEntry.fromJson(entry.toJson());
+
+            assertEquals(job.toMap(), replayed.decodeJob().toMap(), job.getJobId());
+            assertEquals(FirestoreCodec.encodeJob(job), replayed.firestoreFields(), job.getJobId());
+            assertEquals(FirestoreCodec.encodeJob(job), replayed.withFields().fields(), job.getJobId());
+            assertNull(replayed.withFields().job());
+        }
+    }
+
+    @Test
+    void fieldWritesAreLoggedAsFields() {
+        JsonObject fields = FirestoreCodec.encodeFields(Map.of("userId", "u1", "createdAt", 17L));
+        OutboxEntry entry = new OutboxEntry(3, OutboxEntry.Op.UPDATE, "savedSearches", "s1", fields, null);
+
+        OutboxEntry replayed = OutboxEntry.fromJson(entry.toJson());
+
+        assertEquals(fields, replayed.firestoreFields());
+        assertNull(replayed.decodeJob());
+        assertEquals(OutboxEntry.Op.UPDATE, replayed.op());
+        assertEquals("savedSearches/s1", replayed.documentKey());
+    }
+
+    @Test
+    void jobRecordsAreSmallerThanFieldRecords() {
+        SyntheticJobs synthetic = new SyntheticJobs(new Random(7));
+        long codec = 0, fields = 0;
+        for (int i = 0; i < 500; i++) {
+            Job job = synthetic.job("job" + i);
+            codec += size(new OutboxEntry(i, OutboxEntry.Op.CREATE, "jobs", job.getJobId(), null, JobCodec.encode(job)));
+            fields += size(new OutboxEntry(i, OutboxEntry.Op.CREATE, "jobs", job.getJobId(), FirestoreCodec.encodeJob(job), null));
+        }
+        long c = codec, f = fields;
+        assertTrue(c * 5 < f * 4, () -> "job records " + c + " B vs field records " + f + " B");
+    }
+
+    private static int size(OutboxEntry entry) {
+        return entry.toJson().toString().getBytes(StandardCharsets.UTF_8).length;
+    }
+}
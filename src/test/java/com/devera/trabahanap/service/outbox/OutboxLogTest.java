@@ -0,0 +1,91 @@
+package com.devera.trabahanap.service.outbox;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxLogTest {
+
+    private Path dir;
+    private Path path;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("outbox-log-test");
+        path = dir.resolve("outbox.log");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path f : files.toList()) Files.delete(f);
+        }
+        Files.delete(dir);
+    }
+
+    @Test
+    void tornLastLineIsCutOff() throws IOException {
+        try (OutboxLog log = new OutboxLog(path)) {
+            log.append(record(1));
+            log.append(record(2));
+        }
+        long intact = Files.size(path);
+        Files.writeString(path, "{\"seq\":3,\"op\":\"UPD", StandardOpenOption.APPEND);
+
+        try (OutboxLog log = new OutboxLog(path)) {
+            OutboxLog.Replay replay = log.replay();
+            assertEquals(List.of(record(1), record(2)), replay.records());
+            assertTrue(replay.corrupt().isEmpty());
+            assertEquals(intact, Files.size(path));
+
+            log.append(record(3));
+            assertEquals(List.of(record(1), record(2), record(3)), log.replay().records());
+        }
+    }
+
+    @Test
+    void damagedLineInTheMiddleDoesNotHideTheRest() throws IOException {
+        try (OutboxLog log = new OutboxLog(path)) {
+            log.append(record(1));
+        }
+        Files.writeString(path, "{\"seq\":2,\"op\n", StandardOpenOption.APPEND);
+        try (OutboxLog log = new OutboxLog(path)) {
+            log.append(record(3));
+        }
+
+        try (OutboxLog log = new OutboxLog(path)) {
+            OutboxLog.Replay replay = log.replay();
+            assertEquals(List.of(record(1), record(3)), replay.records());
+            assertEquals(List.of("{\"seq\":2,\"op"), replay.corrupt());
+        }
+    }
+
+    @Test
+    void rewriteReplacesTheRecords() throws IOException {
+        try (OutboxLog log = new OutboxLog(path)) {
+            for (int i = 1; i <= 10; i++) log.append(record(i));
+            log.rewrite(List.of(record(7)));
+            log.append(record(11));
+
+            assertEquals(List.of(record(7), record(11)), log.replay().records());
+        }
+        assertEquals(2, Files.readAllLines(path, StandardCharsets.UTF_8).size());
+    }
+
+    private static JsonObject record(long seq) {
+        JsonObject o = new JsonObject();
+        o.addProperty("seq", seq);
+        o.addProperty("op", "UPDATE");
+        return o;
+    }
+}
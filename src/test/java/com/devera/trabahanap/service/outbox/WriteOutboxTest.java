@@ -0,0 +1,219 @@
+package com.devera.trabahanap.service.outbox;
+
+import com.devera.trabahanap.service.FirestoreCodec;
+import com.devera.trabahanap.service.FirestoreHttpException;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteOutboxTest {
+
+    private Path dir;
+    private Path logPath;
+    private final List<WriteOutbox> opened = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("outbox-test");
+        logPath = dir.resolve("outbox.log");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (WriteOutbox outbox : opened) outbox.close();
+        try (var files = Files.list(dir)) {
+            for (Path f : files.toList()) Files.delete(f);
+        }
+        Files.delete(dir);
+    }
+
+    @Test
+    void writesToOneDocumentAreSentAsOne() throws Exception {
+        try (OutboxLog log = new OutboxLog(logPath)) {
+            log.append(entry(1, OutboxEntry.Op.CREATE, "a", Map.of("title", "Tutor", "budget", 100L)).toJson());
+            log.append(entry(2, OutboxEntry.Op.UPDATE, "b", Map.of("title", "Cook")).toJson());
+            log.append(entry(3, OutboxEntry.Op.UPDATE, "a", Map.of("budget", 200L)).toJson());
+            log.append(entry(4, OutboxEntry.Op.UPDATE, "a", Map.of("status", "closed")).toJson());
+        }
+        Recorder sent = new Recorder();
+
+        WriteOutbox outbox = open(sent);
+        assertEquals(4, outbox.pendingCount());
+        outbox.kick();
+        await(() -> outbox.pendingCount() == 0);
+
+        assertEquals(List.of(
+                new Sent("a", fields(Map.of("title", "Tutor", "budget", 200L, "status", "closed")),
+                        fields(Map.of("budget", 200L, "status", "closed"))),
+                new Sent("b", null, fields(Map.of("title", "Cook")))), sent.calls);
+    }
+
+    @Test
+    void writeWithoutAckIsSentAgainAfterRestart() throws Exception {
+        try (OutboxLog log = new OutboxLog(logPath)) {
+            log.append(entry(1, OutboxEntry.Op.UPDATE, "a", Map.of("n", 1L)).toJson());
+            log.append(entry(2, OutboxEntry.Op.UPDATE, "b", Map.of("n", 2L)).toJson());
+            log.append(ack(1));
+            // crashed after sending 2, before recording its ack
+        }
+        Recorder sent = new Recorder();
+
+        WriteOutbox outbox = open(sent);
+        outbox.kick();
+        await(() -> outbox.pendingCount() == 0);
+
+        assertEquals(List.of("b"), sent.docIds());
+    }
+
+    @Test
+    void damagedRecordIsDeadLetteredAndTheRestReplayed() throws Exception {
+        try (OutboxLog log = new OutboxLog(logPath)) {
+            log.append(entry(1, OutboxEntry.Op.UPDATE, "a", Map.of("n", 1L)).toJson());
+        }
+        Files.writeString(logPath, "{\"seq\":2,\"op\":\"UP\n", StandardOpenOption.APPEND);
+        try (OutboxLog log = new OutboxLog(logPath)) {
+            log.append(entry(3, OutboxEntry.Op.UPDATE, "c", Map.of("n", 3L)).toJson());
+        }
+        Recorder sent = new Recorder();
+
+        WriteOutbox outbox = open(sent);
+        outbox.kick();
+        await(() -> outbox.pendingCount() == 0);
+
+        assertEquals(List.of("a", "c"), sent.docIds());
+        String dead = Files.readString(dir.resolve("outbox-dead.jsonl"), StandardCharsets.UTF_8);
+        assertTrue(dead.contains("corrupt"), dead);
+        assertFalse(Files.readString(logPath, StandardCharsets.UTF_8).contains("\"UP\n"));
+    }
+
+    @Test
+    void compactionKeepsWritesNotYetAcknowledged() throws Exception {
+        Recorder sent = new Recorder();
+        sent.failing.add("stuck");
+        WriteOutbox outbox = open(sent);
+        for (int i = 0; i < 300; i++) outbox.enqueueUpdate("jobs", "doc" + i, fields(Map.of("n", (long) i)));
+        outbox.enqueueUpdate("jobs", "stuck", fields(Map.of("n", -1L)));
+        await(() -> outbox.pendingCount() == 1 && sent.attempts.contains("stuck"));
+        outbox.close();
+        opened.remove(outbox);
+
+        // Compacted once 256 acks had piled up: far fewer lines than writes plus acks
+        assertTrue(Files.readAllLines(logPath, StandardCharsets.UTF_8).size() < 100);
+
+        Recorder afterRestart = new Recorder();
+        WriteOutbox restarted = open(afterRestart);
+        assertEquals(1, restarted.pendingCount());
+        restarted.kick();
+        await(() -> restarted.pendingCount() == 0);
+        assertEquals(List.of("stuck"), afterRestart.docIds());
+    }
+
+    @Test
+    void rejectedWriteIsDeadLetteredWithoutBlockingTheQueue() throws Exception {
+        Recorder sent = new Recorder();
+        sent.rejected.add("bad");
+        WriteOutbox outbox = open(sent);
+
+        outbox.enqueueUpdate("jobs", "bad", fields(Map.of("n", 1L)));
+        outbox.enqueueUpdate("jobs", "good", fields(Map.of("n", 2L)));
+        await(() -> outbox.pendingCount() == 0);
+
+        assertEquals(List.of("good"), sent.docIds());
+        String dead = Files.readString(dir.resolve("outbox-dead.jsonl"), StandardCharsets.UTF_8);
+        assertTrue(dead.contains("\"docId\":\"bad\""), dead);
+    }
+
+    @Test
+    void transientFailureIsRetried() throws Exception {
+        Recorder sent = new Recorder();
+        sent.failOnce.add("flaky");
+        WriteOutbox outbox = open(sent);
+
+        outbox.enqueueUpdate("jobs", "flaky", fields(Map.of("n", 1L)));
+        await(() -> outbox.pendingCount() == 0);
+
+        assertEquals(List.of("flaky", "flaky"), sent.attempts);
+        assertEquals(List.of("flaky"), sent.docIds());
+    }
+
+    @Test
+    void backoffGrowsWithJitterUpToAMinute() {
+        for (int i = 0; i < 1000; i++) {
+            long first = WriteOutbox.backoffMillis(1);
+            long third = WriteOutbox.backoffMillis(3);
+            long late = WriteOutbox.backoffMillis(40);
+            assertTrue(first >= 500 && first <= 1000, "first " + first);
+            assertTrue(third >= 2000 && third <= 4000, "third " + third);
+            assertTrue(late >= 30_000 && late <= 60_000, "late " + late);
+        }
+    }
+
+    private WriteOutbox open(WriteOutbox.Sink sink) throws IOException {
+        WriteOutbox outbox = new WriteOutbox(logPath, sink);
+        opened.add(outbox);
+        return outbox;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) fail("timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    private record Sent(String docId, JsonObject created, JsonObject updates) {}
+
+    /**
+     * Records successful sends; fails transiently for docs in failing (always) or failOnce
+     * (the first time) and rejects docs in rejected.
+     */
+    private static final class Recorder implements WriteOutbox.Sink {
+        final List<Sent> calls = new CopyOnWriteArrayList<>();
+        final List<String> attempts = new CopyOnWriteArrayList<>();
+        final Set<String> failing = new HashSet<>();
+        final Set<String> failOnce = new HashSet<>();
+        final Set<String> rejected = new HashSet<>();
+
+        @Override
+        public void send(String collection, String docId, JsonObject created, JsonObject updates) throws Exception {
+            attempts.add(docId);
+            if (failing.contains(docId) || failOnce.remove(docId)) throw new IOException("connection reset");
+            if (rejected.contains(docId)) throw new FirestoreHttpException("HTTP 400 - INVALID_ARGUMENT", 400);
+            calls.add(new Sent(docId, created, updates));
+        }
+
+        List<String> docIds() {
+            return calls.stream().map(Sent::docId).toList();
+        }
+    }
+
+    private static OutboxEntry entry(long seq, OutboxEntry.Op op, String docId, Map<String, Object> fields) {
+        return new OutboxEntry(seq, op, "jobs", docId, fields(fields), null);
+    }
+
+    private static JsonObject fields(Map<String, Object> values) {
+        return FirestoreCodec.encodeFields(new TreeMap<>(values));
+    }
+
+    private static JsonObject ack(long... seqs) {
+        JsonArray array = new JsonArray();
+        for (long s : seqs) array.add(s);
+        JsonObject o = new JsonObject();
+        o.add("ack", array);
+        return o;
+    }
+}
@@ -0,0 +1,107 @@
+package com.devera.trabahanap.store;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobSnapshotTest {
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("snapshot-test");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path f : files.toList()) Files.delete(f);
+        }
+        Files.delete(dir);
+    }
+
+    @Test
+    void everyJobReadsBackInAnyOrder() throws Exception {
+        List<Job> jobs = jobs(5000, 42);
+        Path base = dir.resolve("jobs.snapshot");
+        JobSnapshot.write(base, jobs);
+
+        JobSnapshot snapshot = JobSnapshot.open(base).orElseThrow();
+        assertEquals(jobs.size(), snapshot.size());
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < jobs.size(); i++) order.add(i);
+        Collections.shuffle(order, new Random(42));
+        for (int i : order) assertEquals(jobs.get(i).toMap(), snapshot.job(i).toMap(), "job " + i);
+    }
+
+    @Test
+    void missingSnapshotIsEmpty() {
+        assertTrue(JobSnapshot.open(dir.resolve("jobs.snapshot")).isEmpty());
+        assertTrue(JobSnapshot.read(dir.resolve("jobs.snapshot")).isEmpty());
+    }
+
+    @Test
+    void latestWriteIsTheSnapshot() throws Exception {
+        Path base = dir.resolve("jobs.snapshot");
+        for (int round = 1; round <= 3; round++) {
+            JobSnapshot.write(base, jobs(round * 10, round));
+            assertEquals(round * 10, JobSnapshot.read(base).orElseThrow().size());
+        }
+    }
+
+    @Test
+    void mappedSlotIsNeverWrittenAgain() throws Exception {
+        Path base = dir.resolve("jobs.snapshot");
+        List<Job> first = jobs(50, 1);
+        JobSnapshot.write(base, first);
+        JobSnapshot mappedSnapshot = JobSnapshot.open(base).orElseThrow();
+        Map<Path, byte[]> before = slots(base);
+
+        for (int round = 2; round <= 4; round++) JobSnapshot.write(base, jobs(round * 10, round));
+
+        for (Map.Entry<Path, byte[]> slot : before.entrySet()) {
+            assertTrue(Arrays.equals(slot.getValue(), Files.readAllBytes(slot.getKey())), slot.getKey() + " was rewritten");
+        }
+        for (int i = 0; i < first.size(); i++) assertEquals(first.get(i).toMap(), mappedSnapshot.job(i).toMap());
+        assertEquals(40, JobSnapshot.read(base).orElseThrow().size());
+    }
+
+    @Test
+    void damagedSlotFallsBackToTheOther() throws Exception {
+        Path base = dir.resolve("jobs.snapshot");
+        JobSnapshot.write(base, jobs(10, 1));
+        JobSnapshot.write(base, jobs(20, 2));
+        Path newest = Files.size(JobSnapshot.slot(base, 0)) > Files.size(JobSnapshot.slot(base, 1))
+                ? JobSnapshot.slot(base, 0) : JobSnapshot.slot(base, 1);
+        Files.write(newest, new byte[]{1, 2, 3});
+
+        assertEquals(10, JobSnapshot.read(base).orElseThrow().size());
+        assertEquals(10, JobSnapshot.open(base).orElseThrow().size());
+    }
+
+    private static Map<Path, byte[]> slots(Path base) throws Exception {
+        Map<Path, byte[]> slots = new HashMap<>();
+        for (int i = 0; i < 2; i++) {
+            Path slot = JobSnapshot.slot(base, i);
+            if (Files.exists(slot)) slots.put(slot, Files.readAllBytes(slot));
+        }
+        return slots;
+    }
+
+    private static List<Job> jobs(int count, long seed) {
+        SyntheticJobs synthetic = new SyntheticJobs(new Random(seed));
+        List<Job> jobs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) jobs.add(synthetic.job("job" + i));
+        return jobs;
+    }
+}
@@ -0,0 +1,121 @@
+package com.devera.trabahanap.store;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import com.devera.trabahanap.core.Timings;
+import com.devera.trabahanap.geo.Gazetteer;
+import com.devera.trabahanap.geo.GeoHash;
+import com.devera.trabahanap.geo.GeoPoint;
+import com.devera.trabahanap.geo.Place;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+import static com.devera.trabahanap.core.SyntheticJobs.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Browse latency of {@link JobStore} over 100k synthetic jobs: a page in every sort order,
+ * the facet combo counts (over all jobs and over a 20k-job search result) and a radius
+ * search, each within 10 ms at p95, after a warm-up pass. Run with mvn test -Pbench.
+ */
+@Tag("bench")
+class JobStoreBenchTest {
+
+    private static final int DOCS = 100_000;
+    private static final int QUERIES = 500;
+    private static final int PAGE = 50;
+    private static final double BUDGET_MS = 10;
+
+    @Test
+    void browseOver100kJobsStaysWithinBudget() {
+        Random random = new Random(42);
+        SyntheticJobs synthetic = new SyntheticJobs(random);
+        List<Place> located = Gazetteer.get().places().stream().filter(Place::hasPoint).toList();
+        List<Job> jobs = new ArrayList<>(DOCS);
+        for (int i = 0; i < DOCS; i++) {
+            Job job = synthetic.job("bench" + i);
+            if (random.nextInt(3) > 0) {
+                Place place = located.get(random.nextInt(located.size()));
+                GeoPoint p = jitter(place.point(), 15, random);
+                job.setPlaceName(place.name());
+                job.setLatitude(p.lat());
+                job.setLongitude(p.lon());
+                job.setGeohash(GeoHash.encode(p.lat(), p.lon(), GeoHash.STORED_PRECISION));
+            }
+            if (random.nextInt(4) == 0) {
+                job.setRatingCount(1 + random.nextInt(20));
+                job.setRatingAverage(1 + random.nextDouble() * 4);
+            }
+            jobs.add(job);
+        }
+        JobStore store = new JobStore();
+        double buildMillis = Timings.millisOf(() -> store.sync(jobs));
+        System.out.printf(Locale.ROOT, "[bench-store] loaded %d jobs in %.0f ms%n", DOCS, buildMillis);
+
+        List<Map<Facet, String>> selections = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) selections.add(selection(synthetic, random));
+        List<GeoPoint> centres = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) centres.add(located.get(random.nextInt(located.size())).point());
+
+        Map<String, Runnable[]> ops = new LinkedHashMap<>();
+        for (JobOrder order : JobOrder.values()) {
+            ops.put("page " + order.name().toLowerCase(Locale.ROOT), queries(i -> store.page(order, selections.get(i), 0, PAGE)));
+        }
+        ops.put("page 3", queries(i -> store.page(JobOrder.MOST_RECENT, selections.get(i), 2 * PAGE, PAGE)));
+        ops.put("facetCounts", queries(i -> store.facetCounts(selections.get(i))));
+        // A search's matches, ids taken from the same Job objects the store was loaded from
+        List<String> searchMatches = new ArrayList<>(DOCS / 5);
+        for (int i = random.nextInt(5); i < DOCS; i += 1 + random.nextInt(9)) searchMatches.add(jobs.get(i).getJobId());
+        Collections.shuffle(searchMatches, random);
+        ops.put("counts in 20k", queries(i -> store.facetCounts(selections.get(i), searchMatches)));
+        ops.put("near 10 km", queries(i -> store.near(centres.get(i), 10, selections.get(i), PAGE)));
+        ops.put("near 50 km", queries(i -> store.near(centres.get(i), 50, Map.of(), PAGE)));
+        for (Runnable[] qs : ops.values()) for (Runnable q : qs) q.run();
+
+        for (Map.Entry<String, Runnable[]> op : ops.entrySet()) {
+            Timings timings = new Timings(op.getKey(), QUERIES);
+            for (Runnable q : op.getValue()) timings.time(q);
+            timings.report("[bench-store]");
+            assertTrue(timings.millis(0.95) < BUDGET_MS, () -> op.getKey() + " p95 " + timings.millis(0.95) + " ms");
+        }
+
+        Timings updates = new Timings("put", 2000);
+        for (int i = 0; i < 2000; i++) {
+            Job replacement = synthetic.job(jobs.get(random.nextInt(DOCS)).getJobId());
+            updates.time(() -> store.put(replacement));
+        }
+        updates.report("[bench-store]");
+    }
+
+    /** No filter, a category, a location, or both; like the Browse combos. */
+    private static Map<Facet, String> selection(SyntheticJobs synthetic, Random random) {
+        Map<Facet, String> selection = new EnumMap<>(Facet.class);
+        int kind = random.nextInt(4);
+        if (kind == 1 || kind == 3) selection.put(Facet.CATEGORY, synthetic.pick(CATEGORY_KEYS));
+        if (kind == 2 || kind == 3) selection.put(Facet.LOCATION, synthetic.pick(LOCATIONS));
+        return selection;
+    }
+
+    private static Runnable[] queries(IntConsumer query) {
+        Runnable[] out = new Runnable[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            int q = i;
+            out[i] = () -> query.accept(q);
+        }
+        return out;
+    }
+
+    /**
+     * Uniform random point within maxKm of p (flat approximation, fine at this scale).
+     */
+    private static GeoPoint jitter(GeoPoint p, double maxKm, Random random) {
+        double r = maxKm * Math.sqrt(random.nextDouble());
+        double angle = random.nextDouble() * 2 * Math.PI;
+        double lat = p.lat() + r * Math.cos(angle) / 111.32;
+        double lon = p.lon() + r * Math.sin(angle) / (111.32 * Math.cos(Math.toRadians(p.lat())));
+        return new GeoPoint(lat, lon);
+    }
+}
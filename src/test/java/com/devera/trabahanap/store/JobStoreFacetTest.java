@@ -0,0 +1,156 @@
+package com.devera.trabahanap.store;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobStoreFacetTest {
+
+    @Test
+    void selectionsAndCountsMatchAScan() {
+        Random random = new Random(3);
+        SyntheticJobs synthetic = new SyntheticJobs(random);
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 30_000; i++) {
+            Job j = synthetic.job("job" + i);
+            if (random.nextInt(10) == 0) j.setExperienceLevel(null);
+            jobs.add(j);
+        }
+        JobStore store = new JobStore();
+        store.sync(jobs);
+
+        List<Map<Facet, String>> selections = List.of(
+                Map.of(),
+                Map.of(Facet.CATEGORY, "PROGRAMMING"),
+                Map.of(Facet.LOCATION, "Cebu City"),
+                Map.of(Facet.CATEGORY, "MARKETING", Facet.EXPERIENCE, "Expert"),
+                Map.of(Facet.CATEGORY, "DATA_ENTRY", Facet.LOCATION, "Remote", Facet.EXPERIENCE, "Entry"),
+                Map.of(Facet.LOCATION, "Nowhere"));
+        for (Map<Facet, String> selection : selections) {
+            assertMatchesScan(store, jobs, selection);
+        }
+    }
+
+    @Test
+    void countsFollowUpdatesAndRemovals() {
+        SyntheticJobs synthetic = new SyntheticJobs(new Random(5));
+        Map<String, Job> current = new LinkedHashMap<>();
+        JobStore store = new JobStore();
+        Random random = new Random(6);
+        for (int op = 0; op < 20_000; op++) {
+            String id = "job" + random.nextInt(4000);
+            if (random.nextInt(4) == 0) {
+                store.remove(id);
+                current.remove(id);
+            } else {
+                Job j = synthetic.job(id);
+                store.put(j);
+                current.put(id, j);
+            }
+        }
+
+        List<Job> jobs = new ArrayList<>(current.values());
+        assertMatchesScan(store, jobs, Map.of());
+        assertMatchesScan(store, jobs, Map.of(Facet.CATEGORY, "WRITING", Facet.LOCATION, "Makati City"));
+    }
+
+    @Test
+    void recognisedPlaceNameIsTheLocationValue() {
+        JobStore store = new JobStore();
+        store.put(job("a", "PROGRAMMING", "QC", "Quezon City"));
+        store.put(job("b", "PROGRAMMING", "Quezon City", null));
+        store.put(job("c", "WRITING", "Cebu", "Cebu City"));
+
+        FacetCounts counts = store.facetCounts(Map.of(Facet.LOCATION, "Quezon City"));
+
+        assertEquals(2, counts.matching());
+        assertEquals(Map.of("Quezon City", 2, "Cebu City", 1), counts.of(Facet.LOCATION));
+        assertEquals(0, counts.count(Facet.LOCATION, "QC"));
+        assertEquals(Set.of("a", "b"), store.selectJobIds(Map.of(Facet.LOCATION, "Quezon City")));
+    }
+
+    @Test
+    void selectedValueIsListedEvenWithNoMatches() {
+        JobStore store = new JobStore();
+        store.put(job("a", "PROGRAMMING", "Manila", null));
+        store.put(job("b", "WRITING", "Davao City", null));
+
+        FacetCounts counts = store.facetCounts(Map.of(Facet.CATEGORY, "WRITING", Facet.LOCATION, "Manila"));
+
+        assertEquals(0, counts.matching());
+        assertTrue(counts.of(Facet.LOCATION).containsKey("Manila"));
+        assertEquals(1, counts.count(Facet.CATEGORY, "PROGRAMMING"));
+        assertEquals(1, counts.count(Facet.LOCATION, "Davao City"));
+    }
+
+    @Test
+    void countsCanBeLimitedToASearchResult() {
+        JobStore store = new JobStore();
+        store.put(job("a", "PROGRAMMING", "Manila", null));
+        store.put(job("b", "PROGRAMMING", "Cebu City", null));
+        store.put(job("c", "WRITING", "Manila", null));
+        store.put(job("d", "WRITING", "Manila", null));
+
+        FacetCounts counts = store.facetCounts(Map.of(Facet.LOCATION, "Manila"), Set.of("a", "b", "c", "gone"));
+
+        assertEquals(2, counts.matching());
+        assertEquals(Map.of("PROGRAMMING", 1, "WRITING", 1), counts.of(Facet.CATEGORY));
+        assertEquals(Map.of("Manila", 2, "Cebu City", 1), counts.of(Facet.LOCATION));
+        assertEquals(0, store.facetCounts(Map.of(), Set.of()).matching());
+    }
+
+    /**
+     * matching, select() and every per-value count of facetCounts() against the jobs.
+     */
+    private static void assertMatchesScan(JobStore store, List<Job> jobs, Map<Facet, String> selection) {
+        FacetCounts counts = store.facetCounts(selection);
+        Set<String> expectedIds = new HashSet<>();
+        for (Job j : jobs) if (matches(j, selection, null)) expectedIds.add(j.getJobId());
+
+        assertEquals(expectedIds.size(), counts.matching(), selection::toString);
+        assertEquals(expectedIds, store.selectJobIds(selection), selection::toString);
+
+        for (Facet facet : Facet.values()) {
+            Map<String, Integer> expected = new HashMap<>();
+            for (Job j : jobs) {
+                String value = value(j, facet);
+                if (value != null && matches(j, selection, facet)) expected.merge(value, 1, Integer::sum);
+            }
+            Map<String, Integer> actual = new HashMap<>(counts.of(facet));
+            actual.values().removeIf(n -> n == 0);
+            assertEquals(expected, actual, () -> selection + " / " + facet);
+
+            List<Integer> order = new ArrayList<>(counts.of(facet).values());
+            for (int i = 1; i < order.size(); i++) {
+                assertTrue(order.get(i - 1) >= order.get(i), () -> facet + " values are not by count, highest first");
+            }
+        }
+    }
+
+    /** Whether j matches selection, ignoring the facet being counted. */
+    private static boolean matches(Job j, Map<Facet, String> selection, Facet except) {
+        for (Map.Entry<Facet, String> e : selection.entrySet()) {
+            if (e.getKey() != except && !e.getValue().equals(value(j, e.getKey()))) return false;
+        }
+        return true;
+    }
+
+    private static String value(Job j, Facet facet) {
+        return switch (facet) {
+            case CATEGORY -> j.getCategory();
+            case LOCATION -> j.getPlaceName() != null ? j.getPlaceName() : j.getLocation();
+            case EXPERIENCE -> j.getExperienceLevel();
+        };
+    }
+
+    private static Job job(String id, String category, String location, String placeName) {
+        Job j = JobStoreTest.job(id, category, null);
+        j.setLocation(location);
+        j.setPlaceName(placeName);
+        return j;
+    }
+}
@@ -0,0 +1,95 @@
+package com.devera.trabahanap.store;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import com.devera.trabahanap.geo.Gazetteer;
+import com.devera.trabahanap.geo.GeoHash;
+import com.devera.trabahanap.geo.GeoPoint;
+import com.devera.trabahanap.geo.Place;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobStoreNearTest {
+
+    /**
+     * Jobs scattered up to 15 km around gazetteer places; radius queries of 1 to 50 km must
+     * return the jobs a haversine scan finds, nearest first.
+     */
+    @Test
+    void nearMatchesAScanOfAllJobs() {
+        Random random = new Random(42);
+        SyntheticJobs synthetic = new SyntheticJobs(new Random(42));
+        List<Place> located = Gazetteer.get().places().stream().filter(Place::hasPoint).toList();
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            Job job = synthetic.job("geo" + i);
+            Place place = located.get(random.nextInt(located.size()));
+            GeoPoint p = jitter(place.point(), 15, random);
+            job.setLocation(place.name());
+            job.setPlaceName(place.name());
+            job.setLatitude(p.lat());
+            job.setLongitude(p.lon());
+            job.setGeohash(GeoHash.encode(p.lat(), p.lon(), GeoHash.STORED_PRECISION));
+            jobs.add(job);
+        }
+        JobStore store = new JobStore();
+        store.sync(jobs);
+
+        for (int q = 0; q < 100; q++) {
+            GeoPoint centre = located.get(random.nextInt(located.size())).point();
+            double radius = 1 + random.nextDouble() * 49;
+            List<String> expected = jobs.stream()
+                    .filter(j -> distance(centre, j) <= radius)
+                    .sorted(Comparator.comparingDouble((Job j) -> distance(centre, j))
+                            .thenComparing(Comparator.comparingLong(Job::getTimestamp).reversed()))
+                    .map(Job::getJobId).toList();
+
+            List<NearbyJob> near = store.near(centre, radius, Map.of(), Integer.MAX_VALUE);
+
+            assertEquals(expected, near.stream().map(NearbyJob::jobId).toList(), () -> centre + " " + radius + " km");
+        }
+    }
+
+    @Test
+    void nearHonoursSelectionAndLimitAndSkipsJobsWithoutCoordinates() {
+        GeoPoint centre = new GeoPoint(14.6760, 121.0437);
+        JobStore store = new JobStore();
+        store.put(located("close", "WRITING", 14.6770, 121.0440));
+        store.put(located("farther", "WRITING", 14.7000, 121.0500));
+        store.put(located("otherCategory", "PROGRAMMING", 14.6761, 121.0437));
+        store.put(located("tooFar", "WRITING", 10.3157, 123.8854));
+        store.put(JobStoreTest.job("nowhere", "WRITING", null));
+
+        List<NearbyJob> near = store.near(centre, 10, Map.of(Facet.CATEGORY, "WRITING"), 10);
+
+        assertEquals(List.of("close", "farther"), near.stream().map(NearbyJob::jobId).toList());
+        assertTrue(near.get(0).distanceKm() < near.get(1).distanceKm());
+        assertEquals(1, store.near(centre, 10, Map.of(), 1).size());
+    }
+
+    private static Job located(String id, String category, double lat, double lon) {
+        Job j = JobStoreTest.job(id, category, null);
+        j.setLatitude(lat);
+        j.setLongitude(lon);
+        j.setGeohash(GeoHash.encode(lat, lon, GeoHash.STORED_PRECISION));
+        return j;
+    }
+
+    private static double distance(GeoPoint centre, Job j) {
+        return GeoPoint.distanceKm(centre.lat(), centre.lon(), j.getLatitude(), j.getLongitude());
+    }
+
+    /**
+     * Uniform random point within maxKm of p (flat approximation, fine at this scale).
+     */
+    private static GeoPoint jitter(GeoPoint p, double maxKm, Random random) {
+        double r = maxKm * Math.sqrt(random.nextDouble());
+        double angle = random.nextDouble() * 2 * Math.PI;
+        double lat = p.lat() + r * Math.cos(angle) / 111.32;
+        double lon = p.lon() + r * Math.sin(angle) / (111.32 * Math.cos(Math.toRadians(p.lat())));
+        return new GeoPoint(lat, lon);
+    }
+}
@@ -0,0 +1,164 @@
+package com.devera.trabahanap.store;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobStoreOrderTest {
+
+    @Test
+    void pagesFollowTheComparatorOrder() {
+        List<Job> jobs = jobs(20_000, new Random(8));
+        JobStore store = new JobStore();
+        store.sync(jobs);
+
+        List<Map<Facet, String>> selections = List.of(
+                Map.of(),
+                Map.of(Facet.CATEGORY, "PROGRAMMING"),
+                Map.of(Facet.CATEGORY, "WRITING", Facet.LOCATION, "Remote"));
+        for (JobOrder order : JobOrder.values()) {
+            for (Map<Facet, String> selection : selections) {
+                List<String> expected = sorted(jobs, order, selection);
+                for (int offset : new int[] { 0, 37, expected.size() - 10, expected.size() + 5 }) {
+                    int from = Math.min(Math.max(offset, 0), expected.size());
+                    assertEquals(expected.subList(from, Math.min(from + 25, expected.size())),
+                            store.pageJobIds(order, selection, offset, 25), () -> order + " " + selection + " @" + offset);
+                }
+            }
+        }
+    }
+
+    @Test
+    void jobsWithoutBudgetOrRatingComeLastNewestFirst() {
+        JobStore store = new JobStore();
+        store.put(job("cheap", 100, 500.0, null));
+        store.put(job("dear", 200, 9000.0, null));
+        store.put(job("noBudgetOld", 300, null, null));
+        store.put(job("noBudgetNew", 400, null, null));
+        store.setRating("cheap", 10, 4.8);
+
+        assertEquals(List.of("cheap", "dear", "noBudgetNew", "noBudgetOld"),
+                store.pageJobIds(JobOrder.PRICE_LOW_TO_HIGH, Map.of(), 0, 10));
+        assertEquals(List.of("dear", "cheap", "noBudgetNew", "noBudgetOld"),
+                store.pageJobIds(JobOrder.PRICE_HIGH_TO_LOW, Map.of(), 0, 10));
+        assertEquals(List.of("cheap", "noBudgetNew", "noBudgetOld", "dear"),
+                store.pageJobIds(JobOrder.HIGHEST_RATED, Map.of(), 0, 10));
+        assertEquals(List.of("noBudgetOld", "dear"), store.pageJobIds(JobOrder.HIGHEST_RATED, Map.of(), 2, 10));
+    }
+
+    @Test
+    void ordersFollowUpdatesAndRatings() {
+        Random random = new Random(9);
+        JobStore store = new JobStore();
+        Map<String, Job> current = new HashMap<>();
+        List<Job> pool = jobs(3000, random);
+        for (int op = 0; op < 10_000; op++) {
+            Job j = pool.get(random.nextInt(pool.size()));
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    store.remove(j.getJobId());
+                    current.remove(j.getJobId());
+                }
+                case 1 -> {
+                    int count = random.nextInt(20);
+                    double average = 1 + random.nextInt(41) / 10.0;
+                    j.setRatingCount(count);
+                    j.setRatingAverage(count > 0 ? average : null);
+                    store.setRating(j.getJobId(), count, average);
+                }
+                default -> {
+                    store.put(j);
+                    current.put(j.getJobId(), j);
+                }
+            }
+        }
+
+        List<Job> jobs = new ArrayList<>(current.values());
+        for (JobOrder order : JobOrder.values()) {
+            assertEquals(sorted(jobs, order, Map.of()), store.pageJobIds(order, Map.of(), 0, jobs.size()), order::toString);
+        }
+    }
+
+    @Test
+    void rangesMatchAScan() {
+        List<Job> jobs = jobs(10_000, new Random(10));
+        JobStore store = new JobStore();
+        store.sync(jobs);
+
+        List<String> budget = jobs.stream()
+                .filter(j -> lowBudget(j) != null && lowBudget(j) >= 5000 && highBudget(j) <= 20_000)
+                .sorted(JobOrder.PRICE_LOW_TO_HIGH.comparator())
+                .map(Job::getJobId).toList();
+        assertEquals(new HashSet<>(budget), new HashSet<>(ids(store, store.budgetBetween(5000, 20_000, jobs.size()))));
+        assertEquals(50, store.budgetBetween(5000, 20_000, 50).length);
+
+        long from = 1_700_000_000_000L + 2_000_000, to = from + 3_000_000;
+        List<String> posted = jobs.stream()
+                .filter(j -> j.getTimestamp() >= from && j.getTimestamp() <= to)
+                .sorted(JobOrder.MOST_RECENT.comparator())
+                .map(Job::getJobId).toList();
+        assertEquals(posted, ids(store, store.postedBetween(from, to, jobs.size())));
+    }
+
+    /**
+     * Synthetic jobs with distinct timestamps, so every order is total; some without a budget
+     * or with one bound only, a third rated.
+     */
+    private static List<Job> jobs(int n, Random random) {
+        SyntheticJobs synthetic = new SyntheticJobs(random);
+        List<Job> jobs = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Job j = synthetic.job("job" + i);
+            j.setTimestamp(1_700_000_000_000L + i * 1000L);
+            switch (random.nextInt(6)) {
+                case 0 -> { j.setBudgetMin(null); j.setBudgetMax(null); }
+                case 1 -> j.setBudgetMax(null);
+                case 2 -> j.setBudgetMin(null);
+                default -> { }
+            }
+            if (random.nextInt(3) == 0) {
+                j.setRatingCount(1 + random.nextInt(30));
+                j.setRatingAverage(1 + random.nextInt(41) / 10.0);
+            } else {
+                j.setRatingCount(0);
+                j.setRatingAverage(null);
+            }
+            jobs.add(j);
+        }
+        return jobs;
+    }
+
+    private static List<String> sorted(List<Job> jobs, JobOrder order, Map<Facet, String> selection) {
+        return jobs.stream()
+                .filter(j -> selection.entrySet().stream().allMatch(e -> e.getValue().equals(switch (e.getKey()) {
+                    case CATEGORY -> j.getCategory();
+                    case LOCATION -> j.getPlaceName() != null ? j.getPlaceName() : j.getLocation();
+                    case EXPERIENCE -> j.getExperienceLevel();
+                })))
+                .sorted(order.comparator())
+                .map(Job::getJobId).toList();
+    }
+
+    private static List<String> ids(JobStore store, int[] rows) {
+        return JobStoreTest.ids(store.materialize(rows));
+    }
+
+    private static Double lowBudget(Job j) {
+        return j.getBudgetMin() != null ? j.getBudgetMin() : j.getBudgetMax();
+    }
+
+    private static Double highBudget(Job j) {
+        return j.getBudgetMax() != null ? j.getBudgetMax() : j.getBudgetMin();
+    }
+
+    private static Job job(String id, long timestamp, Double budgetMin, Double budgetMax) {
+        Job j = JobStoreTest.job(id, "WRITING", budgetMin);
+        j.setBudgetMax(budgetMax);
+        j.setTimestamp(timestamp);
+        return j;
+    }
+}
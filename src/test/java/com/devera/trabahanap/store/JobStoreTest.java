@@ -0,0 +1,166 @@
+package com.devera.trabahanap.store;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobStoreTest {
+
+    @Test
+    void storedJobsReadBackWithTheSameFields() {
+        SyntheticJobs synthetic = new SyntheticJobs(new Random(7));
+        JobStore store = new JobStore();
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            Job j = synthetic.job("job" + i);
+            if (i % 3 == 0) {
+                j.setPlaceName("Cebu City");
+                j.setLatitude(10.3157);
+                j.setLongitude(123.8854);
+                j.setGeohash("wc2e8");
+            }
+            if (i % 5 == 0) {
+                j.setRatingCount(4);
+                j.setRatingAverage(4.25);
+            }
+            jobs.add(j);
+            store.put(j);
+        }
+
+        for (Job j : jobs) assertEquals(j.toMap(), store.get(j.getJobId()).toMap(), j.getJobId());
+        assertNull(store.get("missing"));
+        assertEquals(-1, store.rowOf("missing"));
+    }
+
+    @Test
+    void overwriteKeepsTheRowAndRemovedRowsAreReused() {
+        JobStore store = new JobStore();
+        int a = store.put(job("a", "PROGRAMMING", 1000.0));
+        int b = store.put(job("b", "WRITING", 2000.0));
+
+        assertEquals(a, store.put(job("a", "MARKETING", 3000.0)));
+        assertEquals("MARKETING", store.get("a").getCategory());
+        assertEquals(2, store.size());
+
+        assertTrue(store.remove("b"));
+        assertFalse(store.remove("b"));
+        assertNull(store.get("b"));
+        assertEquals(b, store.put(job("c", "WRITING", null)));
+        assertEquals(List.of("a", "c"), ids(store.materialize(store.filter(row -> true))));
+    }
+
+    @Test
+    void idLookupsFollowRandomWrites() {
+        Random random = new Random(11);
+        JobStore store = new JobStore();
+        Map<String, String> model = new HashMap<>();
+        for (int op = 0; op < 50_000; op++) {
+            String id = "j" + random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(model.remove(id) != null, store.remove(id), id);
+            } else {
+                String category = "C" + random.nextInt(20);
+                store.put(job(id, category, null));
+                model.put(id, category);
+            }
+        }
+
+        assertEquals(model.size(), store.size());
+        for (int i = 0; i < 3000; i++) {
+            String id = "j" + i;
+            Job j = store.get(id);
+            assertEquals(model.get(id), j != null ? j.getCategory() : null, id);
+            assertEquals(j != null, store.rowOf(id) >= 0);
+        }
+    }
+
+    @Test
+    void filterOnColumnsMatchesAScanOfTheJobs() {
+        SyntheticJobs synthetic = new SyntheticJobs(new Random(42));
+        JobStore store = new JobStore();
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) jobs.add(synthetic.job("job" + i));
+        store.sync(jobs);
+
+        Set<String> expected = new HashSet<>();
+        for (Job j : jobs) {
+            if ("PROGRAMMING".equals(j.getCategory()) && j.getBudgetMin() != null && j.getBudgetMin() >= 10_000) {
+                expected.add(j.getJobId());
+            }
+        }
+        int category = store.read(() -> store.categories().lookup("PROGRAMMING"));
+        int[] rows = store.filter(row -> store.categoryCode(row) == category && store.budgetMin(row) >= 10_000);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, new HashSet<>(ids(store.materialize(rows))));
+    }
+
+    @Test
+    void syncKeepsExactlyTheGivenJobs() {
+        JobStore store = new JobStore();
+        for (int i = 0; i < 100; i++) store.put(job("old" + i, "WRITING", null));
+
+        store.sync(List.of(job("old5", "MARKETING", null), job("new", "WRITING", null)));
+
+        assertEquals(2, store.size());
+        assertEquals(Set.of("old5", "new"), new HashSet<>(ids(store.materialize(store.filter(row -> true)))));
+        assertEquals("MARKETING", store.get("old5").getCategory());
+        assertEquals(1, store.facetCounts(Map.of()).count(Facet.CATEGORY, "WRITING"));
+
+        store.put(job("after", "WRITING", null)); // columns grow again after the sync trimmed them
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    void storeTakesMuchLessHeapThanJobObjects() {
+        int docs = 50_000;
+        SyntheticJobs synthetic = new SyntheticJobs(new Random(42));
+        long base = usedHeap();
+        List<Job> jobs = new ArrayList<>(docs);
+        for (int i = 0; i < docs; i++) jobs.add(synthetic.job("job" + i));
+        long listBytes = usedHeap() - base;
+
+        JobStore store = new JobStore();
+        store.sync(jobs);
+        jobs = null;
+        long storeBytes = usedHeap() - base;
+
+        assertEquals(docs, store.size());
+        double saved = 1 - (double) storeBytes / listBytes;
+        assertTrue(saved >= 0.36, () -> String.format(Locale.ROOT,
+                "JobStore %d B/job vs List<Job> %d B/job: %.0f%% saved", storeBytes / docs, listBytes / docs, saved * 100));
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            used = Math.min(used, rt.totalMemory() - rt.freeMemory());
+        }
+        return used;
+    }
+
+    static Job job(String id, String category, Double budgetMin) {
+        Job j = new Job();
+        j.setJobId(id);
+        j.setTitle("Job " + id);
+        j.setCategory(category);
+        j.setBudgetMin(budgetMin);
+        j.setTimestamp(1_700_000_000_000L);
+        return j;
+    }
+
+    static List<String> ids(List<Job> jobs) {
+        return jobs.stream().map(Job::getJobId).toList();
+    }
+}
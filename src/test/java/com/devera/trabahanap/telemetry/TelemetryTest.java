@@ -0,0 +1,186 @@
+package com.devera.trabahanap.telemetry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TelemetryTest {
+
+    private static final int JOBS = 2000;
+    private static final TelemetryEvent[] KINDS = TelemetryEvent.values();
+
+    private Path dir;
+    private Path spillPath;
+    private final List<Telemetry> opened = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("telemetry-test");
+        spillPath = dir.resolve("telemetry-spill.jsonl");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (Telemetry t : opened) t.close();
+        Files.deleteIfExists(spillPath);
+        Files.deleteIfExists(spillPath.resolveSibling(spillPath.getFileName() + ".tmp"));
+        Files.deleteIfExists(dir);
+    }
+
+    /**
+     * Producers far faster than the shipper overflow the ring; whatever record() accepted
+     * while the sink was offline is spilled and delivered exactly once when it is back.
+     */
+    @Test
+    void acceptedEventsAreDeliveredOnceAfterAnOfflineBurst() throws Exception {
+        CountingSink sink = new CountingSink();
+        Telemetry telemetry = open(8192, sink);
+
+        long[] accepted = produce(telemetry, 4, 100_000, 0);
+        TelemetryStats offline = telemetry.stats();
+        assertEquals(400_000, offline.recorded() + offline.dropped());
+        assertEquals(Arrays.stream(accepted).sum(), offline.recorded());
+        assertTrue(offline.recorded() > 0);
+
+        sink.online = true;
+        telemetry.flush();
+
+        TelemetryStats end = telemetry.stats();
+        assertEquals(0, end.spillPending());
+        assertEquals(0, end.spillDropped());
+        assertDelivered(accepted, sink);
+    }
+
+    /**
+     * Far above what a person can click, hover and open, nothing is dropped.
+     */
+    @Test
+    void pacedEventsAreNeverDropped() throws Exception {
+        CountingSink sink = new CountingSink();
+        sink.online = true;
+        Telemetry telemetry = open(8192, sink);
+
+        long[] accepted = produce(telemetry, 4, 4000, 4000);
+        telemetry.flush();
+
+        TelemetryStats stats = telemetry.stats();
+        assertEquals(0, stats.dropped());
+        assertEquals(16_000, stats.recorded());
+        assertDelivered(accepted, sink);
+    }
+
+    @Test
+    void spilledBatchesAreSentByTheNextRun() throws Exception {
+        CountingSink sink = new CountingSink();
+        Telemetry first = open(1024, sink);
+        long[] accepted = produce(first, 1, 500, 0);
+        first.close();
+        assertTrue(Files.size(spillPath) > 0);
+
+        sink.online = true;
+        Telemetry second = open(1024, sink);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (second.stats().spillPending() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        second.flush();
+
+        assertEquals(0, second.stats().spillPending());
+        assertFalse(Files.exists(spillPath));
+        assertDelivered(accepted, sink);
+    }
+
+    @Test
+    void fullSpillFileDropsBatchesAndCountsThem() throws Exception {
+        CountingSink sink = new CountingSink();
+        Telemetry telemetry = new Telemetry(1024, 10, Duration.ofMillis(50), spillPath, 2000, sink);
+        opened.add(telemetry);
+        for (int j = 0; j < 500; j++) assertTrue(telemetry.record(TelemetryEvent.CARD_CLICK, "job" + j));
+        telemetry.flush();
+
+        TelemetryStats stats = telemetry.stats();
+        assertTrue(stats.spillDropped() > 0);
+        assertTrue(Files.size(spillPath) <= 2000);
+        assertTrue(stats.spillPending() > 0);
+        assertTrue(stats.spilledCounts() < 500);
+    }
+
+    @Test
+    void nullsAreIgnored() {
+        Telemetry telemetry = open(16, new CountingSink());
+        assertFalse(telemetry.record(null, "job1"));
+        assertFalse(telemetry.record(TelemetryEvent.CARD_HOVER, null));
+        assertEquals(0, telemetry.stats().recorded() + telemetry.stats().dropped());
+    }
+
+    private Telemetry open(int ringCapacity, TelemetrySink sink) {
+        Telemetry t = new Telemetry(ringCapacity, 200, Duration.ofMillis(200), spillPath, Long.MAX_VALUE, sink);
+        opened.add(t);
+        return t;
+    }
+
+    /**
+     * Run producers emitting events each (ratePerSecond each, 0 = flat out) and return how many
+     * of every (job, event) record() accepted.
+     */
+    private static long[] produce(Telemetry telemetry, int producers, int events, int ratePerSecond)
+            throws InterruptedException {
+        long[][] accepted = new long[producers][JOBS * KINDS.length];
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int id = p;
+            threads[p] = new Thread(() -> {
+                Random random = new Random(42 + id);
+                long begin = System.nanoTime();
+                for (int i = 0; i < events; i++) {
+                    if (ratePerSecond > 0 && (i & 63) == 0) {
+                        long ahead = begin + i * 1_000_000_000L / ratePerSecond - System.nanoTime();
+                        if (ahead > 0) LockSupport.parkNanos(ahead);
+                    }
+                    int job = (int) (JOBS * Math.pow(random.nextDouble(), 3));
+                    TelemetryEvent kind = KINDS[random.nextInt(KINDS.length)];
+                    if (telemetry.record(kind, "job" + job)) accepted[id][job * KINDS.length + kind.ordinal()]++;
+                }
+            });
+            threads[p].start();
+        }
+        for (Thread t : threads) t.join();
+        long[] total = new long[JOBS * KINDS.length];
+        for (long[] a : accepted) for (int k = 0; k < total.length; k++) total[k] += a[k];
+        return total;
+    }
+
+    private static void assertDelivered(long[] accepted, CountingSink sink) {
+        for (int k = 0; k < accepted.length; k++) {
+            int key = k;
+            assertEquals(accepted[k], sink.delivered.get(k),
+                    () -> "job" + key / KINDS.length + " " + KINDS[key % KINDS.length]);
+        }
+    }
+
+    /** Fails while offline; ignores repeated batch ids like the Firestore sink's precondition. */
+    private static final class CountingSink implements TelemetrySink {
+        final AtomicLongArray delivered = new AtomicLongArray(JOBS * KINDS.length);
+        final Set<String> seen = ConcurrentHashMap.newKeySet();
+        volatile boolean online;
+
+        @Override
+        public void send(String batchId, List<TelemetryCount> counts) throws IOException {
+            if (!online) throw new IOException("offline");
+            if (!seen.add(batchId)) return;
+            for (TelemetryCount c : counts) {
+                int job = Integer.parseInt(c.jobId().substring(3));
+                delivered.addAndGet(job * KINDS.length + c.event().ordinal(), c.count());
+            }
+        }
+    }
+}
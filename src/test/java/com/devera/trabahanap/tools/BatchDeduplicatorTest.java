@@ -0,0 +1,73 @@
+package com.devera.trabahanap.tools;
+
+import com.devera.trabahanap.core.Job;
+import com.devera.trabahanap.core.SyntheticJobs;
+import com.devera.trabahanap.search.MinHash;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchDeduplicatorTest {
+
+    @Test
+    void plantedRepostsAreReportedAgainstTheirOriginal() {
+        Random random = new Random(42);
+        SyntheticJobs synthetic = new SyntheticJobs(new Random(42));
+        BatchDeduplicator dedup = new BatchDeduplicator();
+        Map<String, String> plantedOf = new HashMap<>();
+        int alike = 0;
+        for (int i = 0; i < 20_000; i++) {
+            Job original = synthetic.job("orig" + i);
+            dedup.add(original.getJobId(), original.getTitle(), original.getTimestamp(), MinHash.signature(original));
+            if (i % 10 != 0) continue;
+            Job repost = Job.fromMap("dup" + i, original.toMap());
+            String[] words = original.getDescription().trim().split(" ");
+            for (int e = 0; e < 2; e++) {
+                words[random.nextInt(words.length)] = SyntheticJobs.FILLER[random.nextInt(SyntheticJobs.FILLER.length)];
+            }
+            repost.setDescription(String.join(" ", words) + " "
+                    + SyntheticJobs.TITLE_WORDS[random.nextInt(SyntheticJobs.TITLE_WORDS.length)]);
+            repost.setTimestamp(original.getTimestamp() + 1 + random.nextInt(86_400_000));
+            dedup.add(repost.getJobId(), repost.getTitle(), repost.getTimestamp(), MinHash.signature(repost));
+            plantedOf.put(repost.getJobId(), original.getJobId());
+            if (MinHash.similarity(MinHash.signature(repost), MinHash.signature(original)) >= 0.70) alike++;
+        }
+
+        List<BatchDeduplicator.Duplicate> found = dedup.run(0.70);
+
+        int planted = 0;
+        for (BatchDeduplicator.Duplicate d : found) {
+            assertTrue(d.similarity() >= 0.70, d::toString);
+            if (d.duplicateOf().equals(plantedOf.get(d.jobId()))) planted++;
+        }
+        assertTrue(planted >= alike * 0.97, planted + " reported of " + alike + " planted reposts at the threshold");
+        assertTrue(found.size() - planted <= plantedOf.size() * 0.01, (found.size() - planted) + " other duplicates reported");
+        assertTrue(dedup.comparisons() < (long) dedup.size() * 50, dedup.comparisons() + " comparisons");
+    }
+
+    @Test
+    void eachGroupKeepsItsOldestJob() {
+        char[] sig = MinHash.signature(job("x", "Logo for a milk tea shop", "Need a cute logo for our milk tea shop"));
+        BatchDeduplicator dedup = new BatchDeduplicator();
+        dedup.add("middle", "Logo", 200, sig);
+        dedup.add("newest", "Logo", 300, sig);
+        dedup.add("oldest", "Logo", 100, sig);
+        dedup.add("empty", "", 50, null);
+
+        List<BatchDeduplicator.Duplicate> found = dedup.run(0.9);
+
+        assertEquals(3, dedup.size());
+        assertEquals(Set.of("middle", "newest"), new HashSet<>(found.stream().map(BatchDeduplicator.Duplicate::jobId).toList()));
+        for (BatchDeduplicator.Duplicate d : found) assertEquals("oldest", d.duplicateOf());
+    }
+
+    private static Job job(String id, String title, String description) {
+        Job j = new Job();
+        j.setJobId(id);
+        j.setTitle(title);
+        j.setDescription(description);
+        return j;
+    }
+}
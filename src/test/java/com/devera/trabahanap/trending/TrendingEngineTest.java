@@ -0,0 +1,115 @@
+package com.devera.trabahanap.trending;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingEngineTest {
+
+    private static final long START = 1_700_000_000_000L;
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @Test
+    void scoreHalvesEveryHalfLife() {
+        TrendingEngine engine = new TrendingEngine(Duration.ofHours(24), 1024, 10);
+        engine.record("a", TrendEvent.VIEW, START);
+        engine.record("b", TrendEvent.APPLY, START);
+
+        assertEquals(1.0, engine.score("a", START), 1e-9);
+        assertEquals(0.5, engine.score("a", START + 24 * HOUR), 1e-9);
+        assertEquals(5.0 / 4, engine.score("b", START + 48 * HOUR), 1e-9);
+        assertEquals(0, engine.score("never", START), 1e-9);
+    }
+
+    @Test
+    void recentActivityOutranksOlderActivity() {
+        TrendingEngine engine = new TrendingEngine(Duration.ofHours(24), 1024, 10);
+        for (int i = 0; i < 3; i++) engine.record("old", TrendEvent.CLICK, START);
+        for (int i = 0; i < 2; i++) engine.record("new", TrendEvent.CLICK, START + 48 * HOUR);
+        engine.record("applied", TrendEvent.APPLY, START + 47 * HOUR);
+
+        List<TrendingJob> top = engine.top(10, START + 48 * HOUR);
+
+        assertEquals(List.of("applied", "new", "old"), top.stream().map(TrendingJob::jobId).toList());
+        assertEquals(0.75, top.get(2).score(), 1e-9);
+        assertEquals(2, engine.top(2, START + 48 * HOUR).size());
+    }
+
+    @Test
+    void forgottenJobLeavesTheTopList() {
+        TrendingEngine engine = new TrendingEngine(Duration.ofHours(24), 1024, 10);
+        engine.record("a", TrendEvent.APPLY, START);
+        engine.record("b", TrendEvent.VIEW, START);
+
+        engine.forget("a");
+
+        assertEquals(List.of("b"), engine.top(10, START).stream().map(TrendingJob::jobId).toList());
+        assertEquals(0, engine.score("a", START), 1e-9);
+        assertEquals(1, engine.tracked());
+    }
+
+    @Test
+    void scoresSurviveRebasingOverLongRuns() {
+        TrendingEngine engine = new TrendingEngine(Duration.ofHours(1), 1024, 10);
+        long t = START;
+        for (int day = 0; day < 60; day++, t += 24 * HOUR) engine.record("a", TrendEvent.VIEW, t);
+        engine.record("b", TrendEvent.VIEW, t - 24 * HOUR);
+
+        assertEquals(engine.score("a", t), engine.score("b", t), 1e-12);
+        assertTrue(Double.isFinite(engine.top(1, t).get(0).score()));
+    }
+
+    /**
+     * A week of Zipf-distributed events over more jobs than the engine tracks exactly, with
+     * jobs launching throughout; the top list must match exactly decayed scores.
+     */
+    @Test
+    void topListMatchesExactDecayedScores() {
+        int jobs = 30_000, events = 400_000, k = 10;
+        Random random = new Random(42);
+        long span = Duration.ofDays(7).toMillis();
+        long[] launch = new long[jobs];
+        for (int j = 0; j < jobs; j++) launch[j] = START + (long) (random.nextDouble() * span);
+        double[] cdf = new double[jobs];
+        double sum = 0;
+        for (int r = 0; r < jobs; r++) {
+            sum += 1.0 / Math.pow(r + 1, 1.1);
+            cdf[r] = sum;
+        }
+
+        TrendingEngine engine = new TrendingEngine(TrendingEngine.DEFAULT_HALF_LIFE, 4096, 64);
+        double lambda = Math.log(2) / TrendingEngine.DEFAULT_HALF_LIFE.toMillis();
+        long now = START + span;
+        double[] exact = new double[jobs];
+        for (int i = 0; i < events; i++) {
+            long t = START + span * i / events;
+            int job;
+            do {
+                int r = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+                job = r >= 0 ? r : Math.min(jobs - 1, -r - 1);
+            } while (launch[job] > t && random.nextInt(8) != 0);
+            double u = random.nextDouble();
+            TrendEvent kind = u < 0.6 ? TrendEvent.CLICK : u < 0.97 ? TrendEvent.VIEW : TrendEvent.APPLY;
+            engine.record("job" + job, kind, t);
+            exact[job] += kind.weight() * Math.exp(-lambda * (now - t));
+        }
+
+        Integer[] order = new Integer[jobs];
+        for (int j = 0; j < jobs; j++) order[j] = j;
+        Arrays.sort(order, (a, b) -> Double.compare(exact[b], exact[a]));
+        Set<String> exactTop = new HashSet<>();
+        for (int i = 0; i < k; i++) exactTop.add("job" + order[i]);
+
+        List<TrendingJob> top = engine.top(k, now);
+        assertEquals(k, top.size());
+        for (TrendingJob t : top) {
+            assertTrue(exactTop.contains(t.jobId()), t.jobId() + " is not in the exact top " + k);
+            double truth = exact[Integer.parseInt(t.jobId().substring(3))];
+            assertEquals(truth, t.score(), truth * 0.01, t.jobId());
+        }
+        assertTrue(engine.tracked() <= 4096);
+    }
+}